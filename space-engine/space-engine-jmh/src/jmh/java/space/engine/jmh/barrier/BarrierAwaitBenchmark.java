@@ -0,0 +1,79 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Compares {@link Barrier#await()} of the park based {@link BarrierImpl} against the wait/notify based {@link LegacyBarrierImpl}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BarrierAwaitBenchmark {
+	
+	@Param({"lockFree", "legacy"})
+	public String impl;
+	
+	private Supplier<Triggerable> factory;
+	private final AtomicReference<Runnable> handoff = new AtomicReference<>();
+	private volatile boolean running;
+	private Thread triggerThread;
+	
+	@Setup
+	public void setup() {
+		factory = Triggerable.factory(impl);
+		running = true;
+		triggerThread = new Thread(() -> {
+			while (running) {
+				Runnable trigger = handoff.getAndSet(null);
+				if (trigger != null)
+					trigger.run();
+				else
+					Thread.onSpinWait();
+			}
+		}, "barrier-benchmark-trigger");
+		triggerThread.setDaemon(true);
+		triggerThread.start();
+	}
+	
+	@TearDown
+	public void tearDown() throws InterruptedException {
+		running = false;
+		triggerThread.join();
+	}
+	
+	/**
+	 * await on an already triggered Barrier
+	 */
+	@Benchmark
+	public Barrier awaitTriggered() throws InterruptedException {
+		Triggerable t = factory.get();
+		t.trigger.run();
+		t.barrier.await();
+		return t.barrier;
+	}
+	
+	/**
+	 * wakeup latency with the Barrier being triggered by another Thread
+	 */
+	@Benchmark
+	public Barrier awaitCrossThread() throws InterruptedException {
+		Triggerable t = factory.get();
+		handoff.set(t.trigger);
+		t.barrier.await();
+		return t.barrier;
+	}
+}
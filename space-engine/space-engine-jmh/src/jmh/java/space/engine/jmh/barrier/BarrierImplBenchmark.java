@@ -0,0 +1,48 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Compares hook registration and triggering of the lock-free {@link BarrierImpl} against the monitor based {@link LegacyBarrierImpl}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BarrierImplBenchmark {
+	
+	@Param({"lockFree", "legacy"})
+	public String impl;
+	
+	@Param({"0", "1", "4", "16"})
+	public int hooks;
+	
+	private Supplier<Triggerable> factory;
+	
+	@Setup
+	public void setup() {
+		factory = Triggerable.factory(impl);
+	}
+	
+	@Benchmark
+	public Barrier addHooksAndTrigger(Blackhole bh) {
+		Triggerable t = factory.get();
+		Runnable hook = () -> bh.consume(t);
+		for (int i = 0; i < hooks; i++)
+			t.barrier.addHook(hook);
+		t.trigger.run();
+		return t.barrier;
+	}
+}
@@ -0,0 +1,39 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.DelayTask;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tasks which {@link DelayTask delay} their completion by re-submitting a new task to the pool, depth times.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DelayTaskBenchmark {
+	
+	@Param({"1", "16", "256"})
+	public int depth;
+	
+	@Benchmark
+	public Barrier delayResubmit(PoolState pool) {
+		Barrier barrier = resubmit(depth);
+		barrier.awaitUninterrupted();
+		return barrier;
+	}
+	
+	private static Barrier resubmit(int remaining) {
+		return Barrier.nowRun(() -> {
+			if (remaining > 1)
+				throw new DelayTask(resubmit(remaining - 1));
+		});
+	}
+}
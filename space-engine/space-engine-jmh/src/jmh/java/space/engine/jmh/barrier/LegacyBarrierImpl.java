@@ -0,0 +1,131 @@
+package space.engine.jmh.barrier;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Stream;
+
+/**
+ * The monitor based {@link space.engine.barrier.BarrierImpl} as it was before the lock-free rewrite, kept as a baseline for {@link BarrierImplBenchmark}.
+ */
+public class LegacyBarrierImpl implements Barrier {
+	
+	private static final VarHandle TRIGGERED;
+	
+	static {
+		try {
+			Lookup lookup = MethodHandles.lookup();
+			TRIGGERED = lookup.findVarHandle(LegacyBarrierImpl.class, "finished", boolean.class);
+		} catch (IllegalAccessException | NoSuchFieldException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private volatile boolean finished;
+	private @Nullable Runnable hookFirst;
+	private @Nullable Stream.Builder<Runnable> hookList;
+	
+	public LegacyBarrierImpl() {
+	}
+	
+	public LegacyBarrierImpl(boolean initialTriggerState) {
+		this.finished = initialTriggerState;
+	}
+	
+	//trigger
+	public void triggerNow() {
+		synchronized (this) {
+			if (!TRIGGERED.compareAndSet(this, false, true))
+				throw exceptionBarrierAlreadyTriggered();
+		}
+		
+		//run all hooks
+		if (hookFirst != null) {
+			hookFirst.run();
+			hookFirst = null;
+		}
+		if (hookList != null) {
+			this.hookList.build().forEach(Runnable::run);
+			this.hookList = null;
+		}
+	}
+	
+	protected static IllegalStateException exceptionBarrierAlreadyTriggered() {
+		return new IllegalStateException("Barrier already triggered!");
+	}
+	
+	//impl
+	@Override
+	public boolean isDone() {
+		return finished;
+	}
+	
+	@Override
+	public void addHook(@NotNull Runnable run) {
+		if (!finished) {
+			synchronized (this) {
+				if (!finished) {
+					if (hookFirst == null) {
+						hookFirst = run;
+					} else {
+						if (hookList == null)
+							hookList = Stream.builder();
+						hookList.add(run);
+					}
+					return;
+				}
+			}
+		}
+		
+		run.run();
+	}
+	
+	protected Runnable createAwaitNotifyRunnable() {
+		Runnable runnable = new Runnable() {
+			@Override
+			public synchronized void run() {
+				this.notify();
+			}
+		};
+		addHook(runnable);
+		return runnable;
+	}
+	
+	@Override
+	public void await() throws InterruptedException {
+		Runnable runnable = createAwaitNotifyRunnable();
+		//noinspection SynchronizationOnLocalVariableOrMethodParameter
+		synchronized (runnable) {
+			while (!finished)
+				runnable.wait();
+		}
+	}
+	
+	@Override
+	public void await(long time, TimeUnit unit) throws InterruptedException, TimeoutException {
+		Runnable runnable = createAwaitNotifyRunnable();
+		long sleepTime = unit.toNanos(time);
+		long deadline = System.nanoTime() + sleepTime;
+		
+		//noinspection SynchronizationOnLocalVariableOrMethodParameter
+		synchronized (runnable) {
+			while (!finished) {
+				runnable.wait(sleepTime / 1000000, (int) (sleepTime % 1000000));
+				sleepTime = deadline - System.nanoTime();
+				if (sleepTime <= 0)
+					throw new TimeoutException();
+			}
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return finished ? "finished" : "waiting";
+	}
+}
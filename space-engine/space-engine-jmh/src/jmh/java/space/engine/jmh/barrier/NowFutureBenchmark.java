@@ -0,0 +1,50 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.future.Future;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trips through {@link Barrier#nowFuture(space.engine.barrier.functions.SupplierWithDelay)} and {@link Future#awaitGetUninterrupted()}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NowFutureBenchmark {
+	
+	@Param({"1", "64"})
+	public int inFlight;
+	
+	private final Integer value = 42;
+	
+	@Benchmark
+	public int nowFuture(PoolState pool) {
+		//noinspection unchecked
+		Future<Integer>[] futures = new Future[inFlight];
+		for (int i = 0; i < inFlight; i++)
+			futures[i] = Barrier.nowFuture(() -> value);
+		
+		int sum = 0;
+		for (Future<Integer> future : futures)
+			sum += future.awaitGetUninterrupted();
+		return sum;
+	}
+	
+	@Benchmark
+	public int thenFutureChain(PoolState pool) {
+		Future<Integer> future = Barrier.nowFuture(() -> value);
+		for (int i = 1; i < inFlight; i++) {
+			Future<Integer> prev = future;
+			future = prev.thenFuture(() -> prev.assertGet() + 1);
+		}
+		return future.awaitGetUninterrupted();
+	}
+}
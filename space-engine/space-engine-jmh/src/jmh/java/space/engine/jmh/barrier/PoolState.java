@@ -0,0 +1,18 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import space.engine.Side;
+
+/**
+ * Shuts down {@link Side#pool()} after a trial so the forked VM can exit. Benchmarks using this State require fork &gt; 0.
+ */
+@State(Scope.Benchmark)
+public class PoolState {
+	
+	@TearDown
+	public void tearDown() {
+		Side.exit().awaitUninterrupted();
+	}
+}
@@ -0,0 +1,84 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.lock.SyncLock;
+import space.engine.barrier.lock.SyncLockImpl;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Many {@link Barrier#nowLock(SyncLock[], space.engine.barrier.functions.Starter)} transactions on a small set of contended {@link SyncLockImpl SyncLockImpls},
+ * similar to the {@link space.engine.barrier.test.LotsOfObjectsTest}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ThenLockBenchmark {
+	
+	@Param({"4", "64"})
+	public int lockCount;
+	
+	@Param({"1", "2", "4"})
+	public int locksPerTransaction;
+	
+	@Param({"1024"})
+	public int transactions;
+	
+	private SyncLock[] locks;
+	private SyncLock[][] transactionLocks;
+	private int[] counters;
+	
+	@Setup
+	public void setup() {
+		if (locksPerTransaction > lockCount)
+			throw new IllegalArgumentException("locksPerTransaction > lockCount");
+		
+		locks = new SyncLock[lockCount];
+		for (int i = 0; i < lockCount; i++)
+			locks[i] = new SyncLockImpl();
+		counters = new int[lockCount];
+		
+		//fixed seed for reproducible lock sets
+		SplittableRandom random = new SplittableRandom(0x5EED);
+		transactionLocks = new SyncLock[transactions][];
+		for (int t = 0; t < transactions; t++) {
+			int first = random.nextInt(lockCount);
+			SyncLock[] set = new SyncLock[locksPerTransaction];
+			for (int i = 0; i < locksPerTransaction; i++)
+				set[i] = locks[(first + i) % lockCount];
+			transactionLocks[t] = set;
+		}
+	}
+	
+	@Benchmark
+	public Barrier contendedTransactions(PoolState pool) {
+		Barrier[] barriers = new Barrier[transactions];
+		for (int t = 0; t < transactions; t++) {
+			SyncLock[] set = transactionLocks[t];
+			barriers[t] = Barrier.nowLock(set, () -> {
+				for (SyncLock lock : set)
+					counters[indexOf(lock)]++;
+				return Barrier.done();
+			});
+		}
+		Barrier all = Barrier.when(barriers);
+		all.awaitUninterrupted();
+		return all;
+	}
+	
+	private int indexOf(SyncLock lock) {
+		for (int i = 0; i < locks.length; i++)
+			if (locks[i] == lock)
+				return i;
+		throw new IllegalArgumentException();
+	}
+}
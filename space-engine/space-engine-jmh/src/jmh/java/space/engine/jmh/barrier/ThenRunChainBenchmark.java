@@ -0,0 +1,53 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A chain of {@link Barrier#thenRun(space.engine.barrier.functions.RunnableWithDelay)} of a certain depth executed on the pool.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ThenRunChainBenchmark {
+	
+	@Param({"1", "16", "256"})
+	public int depth;
+	
+	private int counter;
+	
+	/**
+	 * the chain is built before being started
+	 */
+	@Benchmark
+	public Barrier chainBuiltThenStarted(PoolState pool) {
+		BarrierImpl start = new BarrierImpl();
+		Barrier barrier = start;
+		for (int i = 0; i < depth; i++)
+			barrier = barrier.thenRun(() -> counter++);
+		start.triggerNow();
+		barrier.awaitUninterrupted();
+		return barrier;
+	}
+	
+	/**
+	 * the chain is built while it is already executing
+	 */
+	@Benchmark
+	public Barrier chainRunning(PoolState pool) {
+		Barrier barrier = Barrier.done();
+		for (int i = 0; i < depth; i++)
+			barrier = barrier.thenRun(() -> counter++);
+		barrier.awaitUninterrupted();
+		return barrier;
+	}
+}
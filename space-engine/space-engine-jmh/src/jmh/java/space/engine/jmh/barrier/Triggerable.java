@@ -0,0 +1,37 @@
+package space.engine.jmh.barrier;
+
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link Barrier} together with the action triggering it, to benchmark {@link BarrierImpl} and {@link LegacyBarrierImpl} with the same code.
+ */
+class Triggerable {
+	
+	static Supplier<Triggerable> factory(String impl) {
+		switch (impl) {
+			case "lockFree":
+				return () -> {
+					BarrierImpl barrier = new BarrierImpl();
+					return new Triggerable(barrier, barrier::triggerNow);
+				};
+			case "legacy":
+				return () -> {
+					LegacyBarrierImpl barrier = new LegacyBarrierImpl();
+					return new Triggerable(barrier, barrier::triggerNow);
+				};
+			default:
+				throw new IllegalArgumentException(impl);
+		}
+	}
+	
+	final Barrier barrier;
+	final Runnable trigger;
+	
+	Triggerable(Barrier barrier, Runnable trigger) {
+		this.barrier = barrier;
+		this.trigger = trigger;
+	}
+}
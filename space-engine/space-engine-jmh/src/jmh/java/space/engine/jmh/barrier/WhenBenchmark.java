@@ -0,0 +1,69 @@
+package space.engine.jmh.barrier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-in of {@link Barrier#when(Barrier...)} and {@link Barrier#whenAll(Iterable)} over pending and already triggered {@link Barrier Barriers}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class WhenBenchmark {
+	
+	@Param({"2", "16", "1024"})
+	public int count;
+	
+	private Barrier[] done;
+	private List<Barrier> doneList;
+	
+	@Setup
+	public void setup() {
+		done = new Barrier[count];
+		for (int i = 0; i < count; i++)
+			done[i] = Barrier.done();
+		doneList = Arrays.asList(done);
+	}
+	
+	/**
+	 * creates count pending Barriers, combines them with when() and triggers all of them
+	 */
+	@Benchmark
+	public Barrier whenPending() {
+		BarrierImpl[] barriers = new BarrierImpl[count];
+		for (int i = 0; i < count; i++)
+			barriers[i] = new BarrierImpl();
+		Barrier when = Barrier.when(barriers);
+		for (BarrierImpl barrier : barriers)
+			barrier.triggerNow();
+		return when;
+	}
+	
+	/**
+	 * when() over Barriers which are all triggered already
+	 */
+	@Benchmark
+	public Barrier whenDone() {
+		return Barrier.when(done);
+	}
+	
+	/**
+	 * whenAll() over a List of Barriers which are all triggered already
+	 */
+	@Benchmark
+	public Barrier whenAllDone() {
+		return Barrier.whenAll(doneList);
+	}
+}
@@ -0,0 +1,132 @@
+package space.engine.jmh.buffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.array.ArrayBufferFloat;
+import space.engine.vector.Matrix4;
+import space.engine.vector.Vector3;
+
+import java.util.concurrent.TimeUnit;
+
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+/**
+ * Bulk operations of {@link ArrayBufferFloat} against the equivalent element by element loops over {@link ArrayBufferFloat#getFloat(long)} and {@link ArrayBufferFloat#putFloat(long, float)}.
+ * The vertices have 9 floats (position, normal, color) like the asteroid models.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ArrayBufferBulkBenchmark {
+	
+	private static final int VERTEX_SIZE = 9;
+	
+	@Param({"1024", "65536"})
+	public int vertices;
+	
+	private ArrayBufferFloat buffer;
+	private ArrayBufferFloat positions;
+	private Matrix4 mat;
+	
+	@Setup
+	public void setup() {
+		float[] data = new float[vertices * VERTEX_SIZE];
+		for (int i = 0; i < data.length; i++)
+			data[i] = (i * 7919 % 1000) / 100f;
+		buffer = ArrayBufferFloat.alloc(Allocator.heap(), data, EMPTY_OBJECT_ARRAY);
+		positions = ArrayBufferFloat.calloc(Allocator.heap(), vertices * 3L, EMPTY_OBJECT_ARRAY);
+		mat = new Matrix4(
+				1, 0, 0, 0.001f,
+				0, 1, 0, 0.002f,
+				0, 0, 1, 0.003f,
+				0, 0, 0, 1
+		);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		buffer.free();
+		positions.free();
+	}
+	
+	//fill
+	@Benchmark
+	public void fillBulk() {
+		buffer.fill(1);
+	}
+	
+	@Benchmark
+	public void fillScalar() {
+		for (long i = 0, length = buffer.length(); i < length; i++)
+			buffer.putFloat(i, 1);
+	}
+	
+	//transform
+	@Benchmark
+	public void transformBulk() {
+		buffer.transformPoints(mat, 0, VERTEX_SIZE, vertices);
+	}
+	
+	@Benchmark
+	public void transformScalar() {
+		for (long i = 0, p = 0; i < vertices; i++, p += VERTEX_SIZE) {
+			Vector3 v = new Vector3(buffer.getFloat(p), buffer.getFloat(p + 1), buffer.getFloat(p + 2)).rotate(mat);
+			buffer.putFloat(p, v.x);
+			buffer.putFloat(p + 1, v.y);
+			buffer.putFloat(p + 2, v.z);
+		}
+	}
+	
+	//reduce
+	@Benchmark
+	public float boundsBulk() {
+		return buffer.max(0, VERTEX_SIZE, vertices) - buffer.min(0, VERTEX_SIZE, vertices);
+	}
+	
+	@Benchmark
+	public float boundsScalar() {
+		float min = Float.POSITIVE_INFINITY, max = Float.NEGATIVE_INFINITY;
+		for (long i = 0, p = 0; i < vertices; i++, p += VERTEX_SIZE) {
+			float x = buffer.getFloat(p);
+			min = Math.min(min, x);
+			max = Math.max(max, x);
+		}
+		return max - min;
+	}
+	
+	@Benchmark
+	public double sumBulk() {
+		return buffer.sum();
+	}
+	
+	@Benchmark
+	public double sumScalar() {
+		double sum = 0;
+		for (long i = 0, length = buffer.length(); i < length; i++)
+			sum += buffer.getFloat(i);
+		return sum;
+	}
+	
+	//deinterleave
+	@Benchmark
+	public void extractPositionsBulk() {
+		buffer.copyStrided(0, VERTEX_SIZE, positions, 0, 3, 3, vertices);
+	}
+	
+	@Benchmark
+	public void extractPositionsScalar() {
+		for (long i = 0, p = 0; i < vertices; i++, p += VERTEX_SIZE) {
+			positions.putFloat(i * 3, buffer.getFloat(p));
+			positions.putFloat(i * 3 + 1, buffer.getFloat(p + 1));
+			positions.putFloat(i * 3 + 2, buffer.getFloat(p + 2));
+		}
+	}
+}
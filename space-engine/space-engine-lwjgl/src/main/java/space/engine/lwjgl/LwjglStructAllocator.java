@@ -23,7 +23,7 @@ public class LwjglStructAllocator {
 	public static <T extends Struct> T mallocStruct(Allocator allocator, StructCreator<T> create, long sizeOf, Object[] parents) {
 		long address = allocator.malloc(sizeOf);
 		T t = create.create(address);
-		Attachment.setAttachment(t, new Storage(t, allocator, address, parents));
+		Attachment.setAttachment(t, new Storage(t, allocator, address, parents, allocator.isScoped()));
 		return t;
 	}
 	
@@ -34,13 +34,13 @@ public class LwjglStructAllocator {
 	public static <T extends Struct> T callocStruct(Allocator allocator, StructCreator<T> create, long sizeOf, Object[] parents) {
 		long address = allocator.calloc(sizeOf);
 		T t = create.create(address);
-		Attachment.setAttachment(t, new Storage(t, allocator, address, parents));
+		Attachment.setAttachment(t, new Storage(t, allocator, address, parents, allocator.isScoped()));
 		return t;
 	}
 	
 	public static <T extends Struct> T createStruct(Allocator allocator, StructCreator<T> create, long address, Object[] parents) {
 		T t = create.create(address);
-		Attachment.setAttachment(t, new Storage(t, allocator, address, parents));
+		Attachment.setAttachment(t, new Storage(t, allocator, address, parents, allocator.isScoped()));
 		return t;
 	}
 	
@@ -110,7 +110,7 @@ public class LwjglStructAllocator {
 	public static <B extends CustomBuffer<B>> B mallocBuffer(Allocator allocator, BufferCreator<B> create, long sizeOf, int length, Object[] parents) {
 		long address = allocator.malloc(sizeOf * length);
 		B b = create.create(address, length);
-		Attachment.setAttachment(b, new Storage(b, allocator, address, parents));
+		Attachment.setAttachment(b, new Storage(b, allocator, address, parents, allocator.isScoped()));
 		return b;
 	}
 	
@@ -121,13 +121,13 @@ public class LwjglStructAllocator {
 	public static <B extends CustomBuffer<B>> B callocBuffer(Allocator allocator, BufferCreator<B> create, long sizeOf, int length, Object[] parents) {
 		long address = allocator.calloc(sizeOf * length);
 		B b = create.create(address, length);
-		Attachment.setAttachment(b, new Storage(b, allocator, address, parents));
+		Attachment.setAttachment(b, new Storage(b, allocator, address, parents, allocator.isScoped()));
 		return b;
 	}
 	
 	public static <B extends CustomBuffer<B>> B createBuffer(Allocator allocator, BufferCreator<B> create, long address, int length, Object[] parents) {
 		B b = create.create(address, length);
-		Attachment.setAttachment(b, new Storage(b, allocator, address, parents));
+		Attachment.setAttachment(b, new Storage(b, allocator, address, parents, allocator.isScoped()));
 		return b;
 	}
 	
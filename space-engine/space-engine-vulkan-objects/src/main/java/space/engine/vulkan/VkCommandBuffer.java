@@ -4,6 +4,7 @@ import org.jetbrains.annotations.NotNull;
 import org.lwjgl.vulkan.VkDevice;
 import space.engine.barrier.Barrier;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable;
 
 import java.util.function.BiFunction;
@@ -73,13 +74,21 @@ public abstract class VkCommandBuffer extends org.lwjgl.vulkan.VkCommandBuffer i
 		}
 	}
 	
-	public static class DestroyStorage extends Cleaner {
+	public static class DestroyStorage extends Cleaner implements CleanerThread.Grouped {
 		
 		private final @NotNull VkCommandPool commandPool;
 		private final long address;
 		
+		public static @NotNull DestroyStorage createExplicit(@NotNull VkCommandBuffer event, @NotNull Object[] parents) {
+			return new DestroyStorage(event, parents, true);
+		}
+		
 		public DestroyStorage(@NotNull VkCommandBuffer event, @NotNull Object[] parents) {
-			super(event, parents);
+			this(event, parents, false);
+		}
+		
+		public DestroyStorage(@NotNull VkCommandBuffer event, @NotNull Object[] parents, boolean explicit) {
+			super(event, parents, explicit);
 			this.commandPool = event.commandPool();
 			this.address = event.address();
 		}
@@ -88,5 +97,10 @@ public abstract class VkCommandBuffer extends org.lwjgl.vulkan.VkCommandBuffer i
 		protected @NotNull Barrier handleFree() {
 			return commandPool.releaseCommandBuffer(address);
 		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return commandPool.getStorage();
+		}
 	}
 }
@@ -13,6 +13,7 @@ import space.engine.buffer.array.ArrayBufferPointer;
 import space.engine.buffer.pointer.PointerBufferLong;
 import space.engine.buffer.pointer.PointerBufferPointer;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.simpleQueue.pool.ThreadBound;
@@ -47,7 +48,7 @@ public class VkCommandPool implements CleanerWrapper {
 		try (AllocatorFrame frame = Allocator.frame()) {
 			PointerBufferPointer ptr = PointerBufferPointer.malloc(frame);
 			assertVk(nvkCreateCommandPool(device, info.address(), 0, ptr.address()));
-			return create(ptr.getPointer(), device, (info.flags() & VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT) != 0, parents);
+			return create(ptr.getPointer(), device, (info.flags() & VK_COMMAND_POOL_CREATE_RESET_COMMAND_BUFFER_BIT) != 0, (info.flags() & VK_COMMAND_POOL_CREATE_TRANSIENT_BIT) != 0, parents);
 		}
 	}
 	
@@ -56,16 +57,28 @@ public class VkCommandPool implements CleanerWrapper {
 		return new VkCommandPool(address, device, allowReset, Storage::new, parents);
 	}
 	
+	/**
+	 * @param explicitCommandBuffers see {@link #explicitCommandBuffers()}
+	 */
+	public static @NotNull VkCommandPool create(long address, @NotNull VkDevice device, boolean allowReset, boolean explicitCommandBuffers, @NotNull Object[] parents) {
+		return new VkCommandPool(address, device, allowReset, explicitCommandBuffers, Storage::new, parents);
+	}
+	
 	public static @NotNull VkCommandPool wrap(long address, @NotNull VkDevice device, boolean allowReset, @NotNull Object[] parents) {
 		return new VkCommandPool(address, device, allowReset, Freeable::createDummy, parents);
 	}
 	
 	//const
 	public VkCommandPool(long address, @NotNull VkDevice device, boolean allowReset, @NotNull BiFunction<VkCommandPool, Object[], Freeable> storageCreator, @NotNull Object[] parents) {
+		this(address, device, allowReset, false, storageCreator, parents);
+	}
+	
+	public VkCommandPool(long address, @NotNull VkDevice device, boolean allowReset, boolean explicitCommandBuffers, @NotNull BiFunction<VkCommandPool, Object[], Freeable> storageCreator, @NotNull Object[] parents) {
 		this.address = address;
 		this.device = device;
 		this.owner = Thread.currentThread();
 		this.allowReset = allowReset;
+		this.explicitCommandBuffers = explicitCommandBuffers;
 		this.storage = storageCreator.apply(this, addIfNotContained(parents, device));
 	}
 	
@@ -107,7 +120,7 @@ public class VkCommandPool implements CleanerWrapper {
 		return storage;
 	}
 	
-	public static class Storage extends Cleaner {
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
 		
 		private final @NotNull VkDevice device;
 		private final long address;
@@ -123,6 +136,14 @@ public class VkCommandPool implements CleanerWrapper {
 			vkDestroyCommandPool(device, address, null);
 			return Barrier.DONE_BARRIER;
 		}
+		
+		/**
+		 * grouped with the Storages of it's children, which need this pool to be externally synchronized
+		 */
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return this;
+		}
 	}
 	
 	//allocCommandBuffer
@@ -132,6 +153,22 @@ public class VkCommandPool implements CleanerWrapper {
 		return allowReset;
 	}
 	
+	private final boolean explicitCommandBuffers;
+	
+	/**
+	 * @return true if {@link VkCommandBuffer VkCommandBuffers} of this pool are short-lived and always freed explicitly, so they are not tracked by the GC.
+	 * Set for pools created with {@link org.lwjgl.vulkan.VK10#VK_COMMAND_POOL_CREATE_TRANSIENT_BIT}.
+	 */
+	public boolean explicitCommandBuffers() {
+		return explicitCommandBuffers;
+	}
+	
+	private @NotNull BiFunction<? super Default, Object[], Freeable> commandBufferStorageCreator() {
+		if (allowReset)
+			return explicitCommandBuffers ? DestroyStorage::createExplicit : DestroyStorage::new;
+		return explicitCommandBuffers ? (cmd, parents) -> Freeable.createDummy(cmd, parents, true) : Freeable::createDummy;
+	}
+	
 	//alloc
 	public @NotNull VkCommandBufferOwned allocCommandBuffer(int level, @NotNull Object[] parents) {
 		validateThread();
@@ -147,7 +184,7 @@ public class VkCommandPool implements CleanerWrapper {
 			synchronized (this) {
 				assertVk(nvkAllocateCommandBuffers(device(), info.address(), ptr.address()));
 			}
-			return new Default(ptr.getPointer(), this, allowReset ? DestroyStorage::new : Freeable::createDummy, parents);
+			return new Default(ptr.getPointer(), this, commandBufferStorageCreator(), parents);
 		}
 	}
 	
@@ -168,7 +205,7 @@ public class VkCommandPool implements CleanerWrapper {
 				assertVk(nvkAllocateCommandBuffers(device(), info.address(), ptr.address()));
 			}
 			for (int i = 0; i < count; i++)
-				ret[i] = new Default(ptr.getPointer(i), this, allowReset ? DestroyStorage::new : Freeable::createDummy, parents);
+				ret[i] = new Default(ptr.getPointer(i), this, commandBufferStorageCreator(), parents);
 			return ret;
 		}
 	}
@@ -11,6 +11,7 @@ import space.engine.buffer.array.ArrayBufferPointer;
 import space.engine.buffer.pointer.PointerBufferLong;
 import space.engine.buffer.pointer.PointerBufferPointer;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.vulkan.VkDevice;
@@ -77,7 +78,7 @@ public class VkDescriptorPool implements CleanerWrapper {
 		return storage;
 	}
 	
-	public static class Storage extends Cleaner {
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
 		
 		private final @NotNull VkDevice device;
 		private final long address;
@@ -93,6 +94,14 @@ public class VkDescriptorPool implements CleanerWrapper {
 			vkDestroyDescriptorPool(device, address, null);
 			return Barrier.DONE_BARRIER;
 		}
+		
+		/**
+		 * grouped with the Storages of it's children, which need this pool to be externally synchronized
+		 */
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return this;
+		}
 	}
 	
 	//allocateDescriptorSet
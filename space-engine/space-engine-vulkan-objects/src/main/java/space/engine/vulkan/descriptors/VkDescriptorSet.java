@@ -3,6 +3,7 @@ package space.engine.vulkan.descriptors;
 import org.jetbrains.annotations.NotNull;
 import space.engine.barrier.Barrier;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.vulkan.VkDevice;
@@ -61,7 +62,7 @@ public class VkDescriptorSet implements CleanerWrapper {
 		return storage;
 	}
 	
-	public static class Storage extends Cleaner {
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
 		
 		private final @NotNull VkDescriptorPool pool;
 		private final long address;
@@ -77,5 +78,10 @@ public class VkDescriptorSet implements CleanerWrapper {
 			vkFreeDescriptorSets(pool.device(), pool.address(), address);
 			return Barrier.DONE_BARRIER;
 		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return pool.getStorage();
+		}
 	}
 }
@@ -38,6 +38,10 @@ public class EventAwaiter implements CleanerWrapper {
 		this(device, DEFAULT_THREAD_FACTORY, parents);
 	}
 	
+	/**
+	 * Uses an unbounded queue: fence hooks run on the awaiting Thread and may submit to a {@link ManagedQueue}, which adds to this queue from it's submit Thread.
+	 * A bounded queue parking the submit Thread could therefore stall the only Thread able to drain it.
+	 */
 	public EventAwaiter(@NotNull ManagedDevice device, @NotNull ThreadFactory threadFactory, Object[] parents) {
 		this(device, threadFactory, new ConcurrentLinkedSimpleQueue<>(), SimpleMessagePool.DEFAULT_PAUSE_COUNTDOWN, parents);
 	}
@@ -3,6 +3,7 @@ package space.engine.vulkan.managed.device;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.lwjgl.vulkan.VkSubmitInfo;
+import space.engine.Side;
 import space.engine.barrier.Barrier;
 import space.engine.barrier.future.Future;
 import space.engine.buffer.Allocator;
@@ -12,7 +13,10 @@ import space.engine.buffer.array.ArrayBufferLong;
 import space.engine.buffer.array.ArrayBufferPointer;
 import space.engine.buffer.pointer.PointerBufferPointer;
 import space.engine.freeable.Freeable;
+import space.engine.simpleQueue.MpscRingSimpleQueue;
+import space.engine.simpleQueue.pool.SimpleMessagePool;
 import space.engine.simpleQueue.pool.SimpleThreadPool;
+import space.engine.simpleQueue.pool.VirtualThreadExecutor;
 import space.engine.vulkan.VkCommandBuffer;
 import space.engine.vulkan.VkCommandPool;
 import space.engine.vulkan.VkFence;
@@ -34,6 +38,7 @@ import static space.engine.lwjgl.PointerBufferWrapper.wrapPointer;
 public class ManagedQueue extends VkQueue {
 	
 	private static final AtomicInteger MANAGED_QUEUE_THREAD_COUNTER = new AtomicInteger();
+	public static final int SUBMIT_QUEUE_CAPACITY = 1024;
 	
 	//alloc
 	public static @NotNull ManagedQueue alloc(@NotNull ManagedDevice device, @NotNull VkQueueFamilyProperties family, int queueIndex, @NotNull Object[] parents) {
@@ -55,9 +60,12 @@ public class ManagedQueue extends VkQueue {
 		));
 		
 		//submit
+		//producers may park when full, the submit Thread never does as it only adds to the unbounded queue of the EventAwaiter
 		this.pool = new SimpleThreadPool(
 				1,
-				r -> new Thread(r, "ManagedQueue-" + MANAGED_QUEUE_THREAD_COUNTER.getAndIncrement())
+				r -> new Thread(r, "ManagedQueue-" + MANAGED_QUEUE_THREAD_COUNTER.getAndIncrement()),
+				new MpscRingSimpleQueue<>(SUBMIT_QUEUE_CAPACITY),
+				SimpleMessagePool.DEFAULT_PAUSE_COUNTDOWN
 		);
 		this.pool.createStopFreeable(new Object[] {this});
 	}
@@ -144,16 +152,23 @@ public class ManagedQueue extends VkQueue {
 	//commandPool
 	private final ThreadLocal<SharedCmdPool> commandPools;
 	
+	/**
+	 * The {@link VkCommandPool}s are owned by the calling Thread and release their buffers on its {@link space.engine.simpleQueue.pool.ThreadBound} queue,
+	 * so they can not be used from short-lived virtual Threads. Use {@link Side#poolThreadBound()} instead.
+	 */
 	public SharedCmdPool poolShared() {
+		Thread thread = Thread.currentThread();
+		if (VirtualThreadExecutor.isVirtual(thread))
+			throw new IllegalCallerException("VkCommandPools can not be owned by virtual Thread " + thread + ", use Side.poolThreadBound()");
 		return commandPools.get();
 	}
 	
 	public VkCommandPool poolShortLived() {
-		return commandPools.get().shortLived;
+		return poolShared().shortLived;
 	}
 	
 	public VkCommandPool poolLongTerm() {
-		return commandPools.get().shortLived;
+		return poolShared().shortLived;
 	}
 	
 	public Barrier recordAndSubmit(Consumer<VkCommandBuffer> function) {
@@ -164,6 +179,10 @@ public class ManagedQueue extends VkQueue {
 	}
 	
 	public Barrier recordAndSubmit(Function<VkCommandBuffer, Object> function) {
+		//virtual Threads can't own a VkCommandPool, record on a ThreadBound Thread instead
+		if (VirtualThreadExecutor.isVirtual(Thread.currentThread()))
+			return inner(nowFuture(Side.poolThreadBound(), () -> recordAndSubmit(function)));
+		
 		VkCommandBuffer cmd = poolShortLived().allocAndRecordCommandBuffer(VK_COMMAND_BUFFER_LEVEL_PRIMARY, EMPTY_OBJECT_ARRAY, VK_COMMAND_BUFFER_USAGE_ONE_TIME_SUBMIT_BIT, function);
 		Barrier ret = inner(submit(cmd));
 		ret.addHook(cmd::free);
@@ -2,6 +2,8 @@ package space.engine.vulkan.managed.renderPass;
 
 import org.jetbrains.annotations.NotNull;
 import space.engine.barrier.BarrierImpl;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.alloc.AllocatorArena;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 
@@ -9,6 +11,8 @@ import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
 
 public abstract class Infos implements CleanerWrapper {
 	
+	public static final long ARENA_CHUNK_SIZE = 16L * 1024;
+	
 	public final int frameBufferIndex;
 	public final BarrierImpl frameDone = new BarrierImpl();
 	
@@ -20,6 +24,11 @@ public abstract class Infos implements CleanerWrapper {
 	//storage
 	public final Freeable storage = Freeable.createDummy(EMPTY_OBJECT_ARRAY);
 	
+	/**
+	 * an {@link AllocatorArena} for temporary native memory of this frame, released when the frame is done
+	 */
+	public final AllocatorArena arena = new AllocatorArena(Allocator.heap(), ARENA_CHUNK_SIZE, new Object[] {storage});
+	
 	@Override
 	public @NotNull Freeable getStorage() {
 		return storage;
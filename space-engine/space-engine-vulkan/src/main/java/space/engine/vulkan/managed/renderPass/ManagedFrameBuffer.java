@@ -7,6 +7,7 @@ import org.lwjgl.vulkan.VkFramebufferCreateInfo;
 import org.lwjgl.vulkan.VkOffset2D;
 import org.lwjgl.vulkan.VkRect2D;
 import org.lwjgl.vulkan.VkRenderPassBeginInfo;
+import space.engine.Side;
 import space.engine.barrier.Barrier;
 import space.engine.barrier.future.Future;
 import space.engine.buffer.Allocator;
@@ -202,7 +203,8 @@ public class ManagedFrameBuffer<INFOS extends Infos> implements CleanerWrapper {
 			List<Future<IndexMap<VkCommandBuffer[]>>> cmdBuffersInput = new ArrayList<>();
 			renderPass.callbacks.runImmediatelyThrowIfWait(callback -> cmdBuffersInput.add(callback.getCmdBuffers(this, infos)));
 			
-			return when(cmdBuffersInput).thenStart(() -> {
+			//VkCommandPools can not be owned by virtual Threads
+			return when(cmdBuffersInput).thenStart(Side.poolThreadBound(), () -> {
 				IndexMap<VkCommandBuffer[]> cmdBuffersSorted = Arrays
 						.stream(renderPass.subpasses())
 						.collect(IndexMap.collector(
@@ -6,6 +6,7 @@ import space.engine.barrier.BarrierImpl;
 import space.engine.barrier.DelayTask;
 import space.engine.barrier.future.Future;
 import space.engine.barrier.timer.BarrierTimerWithTimeControl;
+import space.engine.barrier.trace.BarrierTrace;
 import space.engine.freeable.Cleaner;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
@@ -115,6 +116,8 @@ public class FpsRenderer<INFOS extends Infos> implements CleanerWrapper {
 		}
 		
 		Barrier barrierTime = timer.create(eventTime);
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.mark("frame start", barrierTime);
 		orderingGuarantee.next(prev -> {
 			Barrier frameDone = when(prev, barrierTime).thenRun(() -> {
 				int imageIndex = swapchain.acquire(Long.MAX_VALUE, semaphoreImageReady, null);
@@ -130,11 +133,15 @@ public class FpsRenderer<INFOS extends Infos> implements CleanerWrapper {
 					Barrier barrierRenderDone = inner(barrierRenderSubmitted);
 					
 					Barrier barrierPresented = barrierRenderSubmitted.thenStart(() -> swapchain.present(new VkSemaphore[] {semaphoreRenderDone}, imageIndex));
+					if (BarrierTrace.ENABLED)
+						BarrierTrace.mark("frame presented", barrierPresented);
 					
 					throw new DelayTask(Barrier.when(barrierPresented, barrierRenderDone));
 				}));
 			});
 			frameDone.thenStart(() -> {
+				if (BarrierTrace.ENABLED)
+					BarrierTrace.endFrame();
 				run(Long.max(eventTime + 1, timer.currTime()));
 				return done();
 			});
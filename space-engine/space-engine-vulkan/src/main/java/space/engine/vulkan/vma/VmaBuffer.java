@@ -10,13 +10,16 @@ import space.engine.buffer.AllocatorStack.AllocatorFrame;
 import space.engine.buffer.Buffer;
 import space.engine.buffer.pointer.PointerBufferPointer;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.vulkan.VkBuffer;
 import space.engine.vulkan.managed.device.ManagedDevice;
 import space.engine.vulkan.managed.device.ManagedQueue;
+import space.engine.vulkan.vma.VmaMappedBuffer.MappedBuffer;
 
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static org.lwjgl.util.vma.Vma.*;
 import static org.lwjgl.vulkan.VK10.*;
@@ -118,7 +121,7 @@ public class VmaBuffer implements VkBuffer, CleanerWrapper {
 		return storage;
 	}
 	
-	public static class Storage extends Cleaner {
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
 		
 		private final @NotNull VmaAllocator allocator;
 		private final long address;
@@ -137,16 +140,28 @@ public class VmaBuffer implements VkBuffer, CleanerWrapper {
 			assertVk();
 			return Barrier.DONE_BARRIER;
 		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return allocator;
+		}
 	}
 	
 	//uploadData
 	@Override
 	public @NotNull Barrier uploadData(Buffer src, long srcOffset, long dstOffset, long length) {
+		return uploadData(dst -> Buffer.copyMemory(src, srcOffset, dst, dstOffset, length));
+	}
+	
+	/**
+	 * Lets writer fill the mapped staging buffer directly, for data which is not in a {@link Buffer} yet, which is then copied onto this buffer.
+	 */
+	public @NotNull Barrier uploadData(@NotNull Consumer<? super MappedBuffer> writer) {
 		ManagedDevice device = device();
 		ManagedQueue transferQueue = device.getQueue(QUEUE_TYPE_TRANSFER, 0);
 		
 		VmaMappedBuffer mappedBuffer = VmaMappedBuffer.alloc(0, sizeOf, VK_BUFFER_USAGE_TRANSFER_SRC_BIT, 0, VMA_MEMORY_USAGE_CPU_TO_GPU, device, EMPTY_OBJECT_ARRAY);
-		mappedBuffer.uploadData(src, srcOffset, dstOffset, length);
+		mappedBuffer.uploadData(writer);
 		
 		Barrier barrierCopyCompleted = transferQueue.recordAndSubmit(cmd -> {
 			try (AllocatorFrame frame = Allocator.frame()) {
@@ -13,6 +13,7 @@ import space.engine.buffer.AllocatorStack.AllocatorFrame;
 import space.engine.buffer.Buffer;
 import space.engine.buffer.pointer.PointerBufferPointer;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.vulkan.VkImage;
@@ -179,7 +180,7 @@ public class VmaImage implements VkImage, CleanerWrapper {
 		return storage;
 	}
 	
-	public static class Storage extends Cleaner {
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
 		
 		private final @NotNull VmaAllocator allocator;
 		private final long address;
@@ -197,6 +198,11 @@ public class VmaImage implements VkImage, CleanerWrapper {
 			vmaDestroyImage(allocator.address(), address, allocationAddress);
 			return Barrier.DONE_BARRIER;
 		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return allocator;
+		}
 	}
 	
 	//uploadData
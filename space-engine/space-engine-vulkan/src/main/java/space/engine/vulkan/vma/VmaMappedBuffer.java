@@ -15,6 +15,7 @@ import space.engine.vulkan.VkMappedBuffer;
 import space.engine.vulkan.managed.device.ManagedDevice;
 
 import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
 import static org.lwjgl.util.vma.Vma.*;
 import static org.lwjgl.vulkan.VK10.*;
@@ -79,12 +80,21 @@ public class VmaMappedBuffer extends VmaBuffer implements VkMappedBuffer {
 	
 	/**
 	 * Upload will be completed as soon as this method returns. Always returns {@link Barrier#DONE_BARRIER}.
+	 * A {@link space.engine.buffer.array.MappedFileBuffer} as src is streamed from the file straight into the mapped memory.
 	 */
 	@Override
 	public @NotNull Barrier uploadData(Buffer src, long srcOffset, long dstOffset, long length) {
+		return uploadData(dst -> Buffer.copyMemory(src, srcOffset, dst, dstOffset, length));
+	}
+	
+	/**
+	 * Lets writer fill the mapped memory directly, without a staging buffer.
+	 * Upload will be completed as soon as this method returns. Always returns {@link Barrier#DONE_BARRIER}.
+	 */
+	@Override
+	public @NotNull Barrier uploadData(@NotNull Consumer<? super MappedBuffer> writer) {
 		try (Frame frame = Freeable.frame()) {
-			MappedBuffer dst = mapMemory(new Object[] {frame});
-			Buffer.copyMemory(src, srcOffset, dst, dstOffset, length);
+			writer.accept(mapMemory(new Object[] {frame}));
 			return DONE_BARRIER;
 		}
 	}
@@ -3,6 +3,7 @@ package space.engine;
 import org.jetbrains.annotations.NotNull;
 import space.engine.barrier.Barrier;
 import space.engine.barrier.functions.Starter;
+import space.engine.buffer.Allocator;
 import space.engine.event.Event;
 import space.engine.event.EventEntry;
 import space.engine.event.SequentialEventBuilder;
@@ -10,27 +11,106 @@ import space.engine.simpleQueue.ConcurrentLinkedSimpleQueue;
 import space.engine.simpleQueue.pool.Executor;
 import space.engine.simpleQueue.pool.SimpleMessagePool;
 import space.engine.simpleQueue.pool.SimpleThreadPool;
+import space.engine.simpleQueue.pool.ThreadBound;
+import space.engine.simpleQueue.pool.VirtualThreadExecutor;
+import space.engine.simpleQueue.pool.WorkStealingThreadPool;
 
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static space.engine.barrier.Barrier.when;
+
 @SuppressWarnings("unused")
 public class Side {
 	
 	//pool
-	private static final SimpleThreadPool POOL = new SimpleThreadPool(Runtime.getRuntime().availableProcessors(), new ThreadFactory() {
+	
+	/**
+	 * The backend of {@link #pool()}, selected with the System property "space.engine.pool" (case insensitive). Default is {@link #PLATFORM}.
+	 */
+	public enum PoolBackend {
+		
+		/**
+		 * {@link SimpleThreadPool} with one platform Thread per core
+		 */
+		PLATFORM,
+		/**
+		 * {@link WorkStealingThreadPool} with one platform Thread per core
+		 */
+		WORK_STEALING,
+		/**
+		 * {@link VirtualThreadExecutor} running each Task on a new virtual Thread, requires Java 21.
+		 * Use for Tasks which block, as they won't starve the pool. Tasks are not run on {@link ThreadBound} Threads,
+		 * work requiring one (eg. Vulkan command pools) must use {@link #poolThreadBound()}, which stays a {@link SimpleThreadPool} of platform Threads.
+		 */
+		VIRTUAL;
+		
+		public static PoolBackend fromProperty() {
+			String name = System.getProperty("space.engine.pool");
+			if (name == null)
+				return PLATFORM;
+			try {
+				return valueOf(name.replace('-', '_').toUpperCase(Locale.ROOT));
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException("Unknown pool backend '" + name + "', available: " + Arrays.toString(values()), e);
+			}
+		}
+	}
+	
+	public static final PoolBackend POOL_BACKEND = PoolBackend.fromProperty();
+	private static final ThreadFactory POOL_THREAD_FACTORY = new ThreadFactory() {
 		private final AtomicInteger COUNT = new AtomicInteger();
 		
 		@Override
 		public Thread newThread(@NotNull Runnable r) {
 			return new Thread(r, "space-pool-" + COUNT.incrementAndGet());
 		}
-	}, new ConcurrentLinkedSimpleQueue<>(), SimpleMessagePool.DEFAULT_PAUSE_COUNTDOWN);
+	};
+	private static final Executor POOL;
+	private static final Executor POOL_THREAD_BOUND;
+	private static final Starter<Barrier> POOL_STOP;
+	
+	static {
+		switch (POOL_BACKEND) {
+			case PLATFORM: {
+				SimpleThreadPool pool = new SimpleThreadPool(Runtime.getRuntime().availableProcessors(), POOL_THREAD_FACTORY, new ConcurrentLinkedSimpleQueue<>(), SimpleMessagePool.DEFAULT_PAUSE_COUNTDOWN);
+				POOL = POOL_THREAD_BOUND = pool;
+				POOL_STOP = pool::stop;
+				break;
+			}
+			case WORK_STEALING: {
+				SimpleThreadPool pool = new WorkStealingThreadPool(Runtime.getRuntime().availableProcessors(), POOL_THREAD_FACTORY, new ConcurrentLinkedSimpleQueue<>(), SimpleMessagePool.DEFAULT_PAUSE_COUNTDOWN);
+				POOL = POOL_THREAD_BOUND = pool;
+				POOL_STOP = pool::stop;
+				break;
+			}
+			case VIRTUAL: {
+				//virtual Threads are short-lived, their frame stacks have to be freed after each Task
+				VirtualThreadExecutor pool = new VirtualThreadExecutor("space-pool-virtual-", Allocator::freeFrameStack);
+				SimpleThreadPool poolThreadBound = new SimpleThreadPool(Runtime.getRuntime().availableProcessors(), POOL_THREAD_FACTORY, new ConcurrentLinkedSimpleQueue<>(), SimpleMessagePool.DEFAULT_PAUSE_COUNTDOWN);
+				POOL = pool;
+				POOL_THREAD_BOUND = poolThreadBound;
+				POOL_STOP = () -> when(pool.stop(), poolThreadBound.stop());
+				break;
+			}
+			default:
+				throw new IllegalStateException("Unknown pool backend " + POOL_BACKEND);
+		}
+	}
 	
 	public static Executor pool() {
 		return POOL;
 	}
 	
+	/**
+	 * @return a pool running every Task on a {@link ThreadBound} platform Thread. Same as {@link #pool()} unless the {@link PoolBackend#VIRTUAL} backend is used.
+	 */
+	public static Executor poolThreadBound() {
+		return POOL_THREAD_BOUND;
+	}
+	
 	//event exit
 	public static final Event<Starter<Barrier>> EVENT_EXIT = new SequentialEventBuilder<>();
 	public static final EventEntry<Starter<Barrier>> EXIT_EVENT_ENTRY_BEFORE_APPLICATION_SHUTDOWN;
@@ -39,7 +119,7 @@ public class Side {
 	static {
 		EVENT_EXIT.addHook(EXIT_EVENT_ENTRY_BEFORE_APPLICATION_SHUTDOWN = new EventEntry<>(Starter.noop()));
 		//don't wait on pool exit -> will cause deadlock
-		EVENT_EXIT.addHook(EXIT_EVENT_ENTRY_POOL_EXIT = new EventEntry<>(POOL::stop, EXIT_EVENT_ENTRY_BEFORE_APPLICATION_SHUTDOWN));
+		EVENT_EXIT.addHook(EXIT_EVENT_ENTRY_POOL_EXIT = new EventEntry<>(POOL_STOP, EXIT_EVENT_ENTRY_BEFORE_APPLICATION_SHUTDOWN));
 	}
 	
 	public static Barrier exit() {
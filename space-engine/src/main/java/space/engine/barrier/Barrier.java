@@ -21,12 +21,7 @@ import space.engine.barrier.functions.SupplierWithDelayAnd3Exception;
 import space.engine.barrier.functions.SupplierWithDelayAnd4Exception;
 import space.engine.barrier.functions.SupplierWithDelayAnd5Exception;
 import space.engine.barrier.functions.SupplierWithDelayAndException;
-import space.engine.barrier.future.CompletableFuture;
-import space.engine.barrier.future.CompletableFutureWith2Exception;
-import space.engine.barrier.future.CompletableFutureWith3Exception;
-import space.engine.barrier.future.CompletableFutureWith4Exception;
-import space.engine.barrier.future.CompletableFutureWith5Exception;
-import space.engine.barrier.future.CompletableFutureWithException;
+import space.engine.barrier.future.ContinuationFuture;
 import space.engine.barrier.future.Future;
 import space.engine.barrier.future.FutureNotFinishedException;
 import space.engine.barrier.future.FutureWith2Exception;
@@ -34,8 +29,8 @@ import space.engine.barrier.future.FutureWith3Exception;
 import space.engine.barrier.future.FutureWith4Exception;
 import space.engine.barrier.future.FutureWith5Exception;
 import space.engine.barrier.future.FutureWithException;
-import space.engine.barrier.future.GenericFuture;
 import space.engine.barrier.lock.SyncLock;
+import space.engine.barrier.trace.BarrierTrace;
 import space.engine.simpleQueue.pool.Executor;
 
 import java.lang.invoke.MethodHandles;
@@ -43,7 +38,6 @@ import java.lang.invoke.VarHandle;
 import java.util.Collection;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
 
@@ -56,7 +50,10 @@ import static space.engine.Side.pool;
 public interface Barrier {
 	
 	//static
-	boolean BARRIER_DEBUG = false;
+	/**
+	 * enables additional checks, set with the System property "space.engine.barrier.debug"
+	 */
+	boolean BARRIER_DEBUG = Boolean.getBoolean("space.engine.barrier.debug");
 	
 	class DoneBarrier implements Barrier {
 		
@@ -253,11 +250,20 @@ public interface Barrier {
 	
 	default Barrier thenRun(Executor executor, RunnableWithDelay runnable) {
 		BarrierImpl ret = new BarrierImpl();
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(this, ret);
 		addHook(() -> executor.execute(() -> {
+			long start = BarrierTrace.ENABLED ? BarrierTrace.now() : 0;
 			try {
 				runnable.run();
+				if (BarrierTrace.ENABLED)
+					BarrierTrace.task(ret, "thenRun", runnable, start);
 				ret.triggerNow();
 			} catch (DelayTask delayTask) {
+				if (BarrierTrace.ENABLED) {
+					BarrierTrace.task(ret, "thenRun", runnable, start);
+					BarrierTrace.edge(delayTask.barrier, ret);
+				}
 				delayTask.barrier.addHook(ret::triggerNow);
 			}
 		}));
@@ -275,16 +281,34 @@ public interface Barrier {
 	//start
 	default Barrier thenStart(Starter<?> runnable) {
 		BarrierImpl ret = new BarrierImpl();
-		addHook(() -> runnable.startInlineException().addHook(ret::triggerNow));
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(this, ret);
+		addHook(() -> startTraced(runnable, ret).addHook(ret::triggerNow));
 		return ret;
 	}
 	
 	default Barrier thenStart(Executor executor, Starter<?> runnable) {
 		BarrierImpl ret = new BarrierImpl();
-		addHook(() -> executor.execute(() -> runnable.startInlineException().addHook(ret::triggerNow)));
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(this, ret);
+		addHook(() -> executor.execute(() -> startTraced(runnable, ret).addHook(ret::triggerNow)));
 		return ret;
 	}
 	
+	/**
+	 * Calls {@link Starter#startInlineException()} and records it as the task of ret if {@link BarrierTrace#ENABLED}
+	 */
+	private static <B extends Barrier> B startTraced(Starter<? extends B> runnable, Barrier ret) {
+		if (!BarrierTrace.ENABLED)
+			return runnable.startInlineException();
+		
+		long start = BarrierTrace.now();
+		B barrier = runnable.startInlineException();
+		BarrierTrace.task(ret, "thenStart", runnable, start);
+		BarrierTrace.edge(barrier, ret);
+		return barrier;
+	}
+	
 	/**
 	 * This method just delegates to {@link Starter#startInlineException()}
 	 */
@@ -299,13 +323,17 @@ public interface Barrier {
 	//start with delegate
 	default <B extends Barrier, C extends B> B thenStart(Starter<? extends B> runnable, Delegate<B, C> delegate) {
 		C ret = delegate.createCompletable();
-		addHook(() -> delegate.addHookAndComplete(ret, runnable.startInlineException()));
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(this, ret);
+		addHook(() -> delegate.addHookAndComplete(ret, startTraced(runnable, ret)));
 		return ret;
 	}
 	
 	default <B extends Barrier, C extends B> B thenStart(Executor executor, Starter<? extends B> runnable, Delegate<B, C> delegate) {
 		C ret = delegate.createCompletable();
-		addHook(() -> executor.execute(() -> delegate.addHookAndComplete(ret, runnable.startInlineException())));
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(this, ret);
+		addHook(() -> executor.execute(() -> delegate.addHookAndComplete(ret, startTraced(runnable, ret))));
 		return ret;
 	}
 	
@@ -370,7 +398,7 @@ public interface Barrier {
 	
 	//Future
 	default <T> Future<T> thenStartFuture(SupplierWithDelay<T> runnable) {
-		return thenFuture(Runnable::run, runnable);
+		return ContinuationFuture.schedule(this, new ContinuationFuture.Of<>(null, runnable));
 	}
 	
 	default <T> Future<T> thenFuture(SupplierWithDelay<T> runnable) {
@@ -378,20 +406,7 @@ public interface Barrier {
 	}
 	
 	default <T> Future<T> thenFuture(Executor executor, SupplierWithDelay<T> runnable) {
-		CompletableFuture<T> ret = new CompletableFuture<>();
-		addHook(() -> executor.execute(() -> {
-			try {
-				ret.complete(runnable.get());
-			} catch (DelayTask delayTask) {
-				if (BARRIER_DEBUG && !(delayTask.barrier instanceof Future))
-					throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
-				
-				//noinspection unchecked
-				Future<T> future = (Future<T>) delayTask.barrier;
-				future.addHook(() -> ret.complete(future.assertGet()));
-			}
-		}));
-		return ret;
+		return ContinuationFuture.schedule(this, new ContinuationFuture.Of<>(executor, runnable));
 	}
 	
 	static <T> Future<T> nowFuture(SupplierWithDelay<T> runnable) {
@@ -404,7 +419,7 @@ public interface Barrier {
 	
 	//FutureWithException
 	default <T, EX extends Throwable> FutureWithException<T, EX> thenStartFutureWithException(Class<EX> exceptionClass, SupplierWithDelayAndException<T, EX> runnable) {
-		return thenFutureWithException(exceptionClass, Runnable::run, runnable);
+		return ContinuationFuture.schedule(this, new ContinuationFuture.WithException<>(exceptionClass, null, runnable));
 	}
 	
 	default <T> Future<T> thenFutureWithException(SupplierWithDelay<T> runnable) {
@@ -416,26 +431,7 @@ public interface Barrier {
 	}
 	
 	default <T, EX extends Throwable> FutureWithException<T, EX> thenFutureWithException(Class<EX> exceptionClass, Executor executor, SupplierWithDelayAndException<T, EX> runnable) {
-		CompletableFutureWithException<T, EX> ret = new CompletableFutureWithException<>(exceptionClass);
-		addHook(() -> executor.execute(() -> {
-			try {
-				ret.completeCallable(runnable::get);
-			} catch (DelayTask delayTask) {
-				if (BARRIER_DEBUG && !(delayTask.barrier instanceof GenericFuture))
-					throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
-				
-				//noinspection unchecked
-				GenericFuture<T> future = (GenericFuture<T>) delayTask.barrier;
-				future.addHook(() -> {
-					try {
-						ret.completeCallable(future::assertGetAnyException);
-					} catch (DelayTask e) {
-						throw new RuntimeException("impossible", e);
-					}
-				});
-			}
-		}));
-		return ret;
+		return ContinuationFuture.schedule(this, new ContinuationFuture.WithException<>(exceptionClass, executor, runnable));
 	}
 	
 	static <T, EX extends Throwable> FutureWithException<T, EX> nowFutureWithException(Class<EX> exceptionClass, SupplierWithDelayAndException<T, EX> runnable) {
@@ -448,7 +444,7 @@ public interface Barrier {
 	
 	//FutureWith2Exception
 	default <T, EX1 extends Throwable, EX2 extends Throwable> FutureWith2Exception<T, EX1, EX2> thenStartFutureWith2Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, SupplierWithDelayAnd2Exception<T, EX1, EX2> runnable) {
-		return thenFutureWith2Exception(exceptionClass1, exceptionClass2, Runnable::run, runnable);
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With2Exception<>(exceptionClass1, exceptionClass2, null, runnable));
 	}
 	
 	default <T> Future<T> thenFutureWith2Exception(SupplierWithDelay<T> runnable) {
@@ -460,26 +456,7 @@ public interface Barrier {
 	}
 	
 	default <T, EX1 extends Throwable, EX2 extends Throwable> FutureWith2Exception<T, EX1, EX2> thenFutureWith2Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Executor executor, SupplierWithDelayAnd2Exception<T, EX1, EX2> runnable) {
-		CompletableFutureWith2Exception<T, EX1, EX2> ret = new CompletableFutureWith2Exception<>(exceptionClass1, exceptionClass2);
-		addHook(() -> executor.execute(() -> {
-			try {
-				ret.completeCallable(runnable::get);
-			} catch (DelayTask delayTask) {
-				if (BARRIER_DEBUG && !(delayTask.barrier instanceof GenericFuture))
-					throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
-				
-				//noinspection unchecked
-				GenericFuture<T> future = (GenericFuture<T>) delayTask.barrier;
-				future.addHook(() -> {
-					try {
-						ret.completeCallable(future::assertGetAnyException);
-					} catch (DelayTask e) {
-						throw new RuntimeException("impossible", e);
-					}
-				});
-			}
-		}));
-		return ret;
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With2Exception<>(exceptionClass1, exceptionClass2, executor, runnable));
 	}
 	
 	static <T, EX1 extends Throwable, EX2 extends Throwable> FutureWith2Exception<T, EX1, EX2> nowFutureWith2Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, SupplierWithDelayAnd2Exception<T, EX1, EX2> runnable) {
@@ -492,7 +469,7 @@ public interface Barrier {
 	
 	//FutureWith3Exception
 	default <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable> FutureWith3Exception<T, EX1, EX2, EX3> thenStartFutureWith3Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, SupplierWithDelayAnd3Exception<T, EX1, EX2, EX3> runnable) {
-		return thenFutureWith3Exception(exceptionClass1, exceptionClass2, exceptionClass3, Runnable::run, runnable);
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With3Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, null, runnable));
 	}
 	
 	default <T> Future<T> thenFutureWith3Exception(SupplierWithDelay<T> runnable) {
@@ -504,26 +481,7 @@ public interface Barrier {
 	}
 	
 	default <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable> FutureWith3Exception<T, EX1, EX2, EX3> thenFutureWith3Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Executor executor, SupplierWithDelayAnd3Exception<T, EX1, EX2, EX3> runnable) {
-		CompletableFutureWith3Exception<T, EX1, EX2, EX3> ret = new CompletableFutureWith3Exception<>(exceptionClass1, exceptionClass2, exceptionClass3);
-		addHook(() -> executor.execute(() -> {
-			try {
-				ret.completeCallable(runnable::get);
-			} catch (DelayTask delayTask) {
-				if (BARRIER_DEBUG && !(delayTask.barrier instanceof GenericFuture))
-					throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
-				
-				//noinspection unchecked
-				GenericFuture<T> future = (GenericFuture<T>) delayTask.barrier;
-				future.addHook(() -> {
-					try {
-						ret.completeCallable(future::assertGetAnyException);
-					} catch (DelayTask e) {
-						throw new RuntimeException("impossible", e);
-					}
-				});
-			}
-		}));
-		return ret;
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With3Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, executor, runnable));
 	}
 	
 	static <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable> FutureWith3Exception<T, EX1, EX2, EX3> nowFutureWith3Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, SupplierWithDelayAnd3Exception<T, EX1, EX2, EX3> runnable) {
@@ -536,7 +494,7 @@ public interface Barrier {
 	
 	//FutureWith4Exception
 	default <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable> FutureWith4Exception<T, EX1, EX2, EX3, EX4> thenStartFutureWith4Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, SupplierWithDelayAnd4Exception<T, EX1, EX2, EX3, EX4> runnable) {
-		return thenFutureWith4Exception(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, Runnable::run, runnable);
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With4Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, null, runnable));
 	}
 	
 	default <T> Future<T> thenFutureWith4Exception(SupplierWithDelay<T> runnable) {
@@ -548,26 +506,7 @@ public interface Barrier {
 	}
 	
 	default <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable> FutureWith4Exception<T, EX1, EX2, EX3, EX4> thenFutureWith4Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, Executor executor, SupplierWithDelayAnd4Exception<T, EX1, EX2, EX3, EX4> runnable) {
-		CompletableFutureWith4Exception<T, EX1, EX2, EX3, EX4> ret = new CompletableFutureWith4Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4);
-		addHook(() -> executor.execute(() -> {
-			try {
-				ret.completeCallable(runnable::get);
-			} catch (DelayTask delayTask) {
-				if (BARRIER_DEBUG && !(delayTask.barrier instanceof GenericFuture))
-					throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
-				
-				//noinspection unchecked
-				GenericFuture<T> future = (GenericFuture<T>) delayTask.barrier;
-				future.addHook(() -> {
-					try {
-						ret.completeCallable(future::assertGetAnyException);
-					} catch (DelayTask e) {
-						throw new RuntimeException("impossible", e);
-					}
-				});
-			}
-		}));
-		return ret;
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With4Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, executor, runnable));
 	}
 	
 	static <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable> FutureWith4Exception<T, EX1, EX2, EX3, EX4> nowFutureWith4Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, SupplierWithDelayAnd4Exception<T, EX1, EX2, EX3, EX4> runnable) {
@@ -580,7 +519,7 @@ public interface Barrier {
 	
 	//FutureWith5Exception
 	default <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable, EX5 extends Throwable> FutureWith5Exception<T, EX1, EX2, EX3, EX4, EX5> thenStartFutureWith5Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, Class<EX5> exceptionClass5, SupplierWithDelayAnd5Exception<T, EX1, EX2, EX3, EX4, EX5> runnable) {
-		return thenFutureWith5Exception(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, exceptionClass5, Runnable::run, runnable);
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With5Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, exceptionClass5, null, runnable));
 	}
 	
 	default <T> Future<T> thenFutureWith5Exception(SupplierWithDelay<T> runnable) {
@@ -592,26 +531,7 @@ public interface Barrier {
 	}
 	
 	default <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable, EX5 extends Throwable> FutureWith5Exception<T, EX1, EX2, EX3, EX4, EX5> thenFutureWith5Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, Class<EX5> exceptionClass5, Executor executor, SupplierWithDelayAnd5Exception<T, EX1, EX2, EX3, EX4, EX5> runnable) {
-		CompletableFutureWith5Exception<T, EX1, EX2, EX3, EX4, EX5> ret = new CompletableFutureWith5Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, exceptionClass5);
-		addHook(() -> executor.execute(() -> {
-			try {
-				ret.completeCallable(runnable::get);
-			} catch (DelayTask delayTask) {
-				if (BARRIER_DEBUG && !(delayTask.barrier instanceof GenericFuture))
-					throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
-				
-				//noinspection unchecked
-				GenericFuture<T> future = (GenericFuture<T>) delayTask.barrier;
-				future.addHook(() -> {
-					try {
-						ret.completeCallable(future::assertGetAnyException);
-					} catch (DelayTask e) {
-						throw new RuntimeException("impossible", e);
-					}
-				});
-			}
-		}));
-		return ret;
+		return ContinuationFuture.schedule(this, new ContinuationFuture.With5Exception<>(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, exceptionClass5, executor, runnable));
 	}
 	
 	static <T, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable, EX5 extends Throwable> FutureWith5Exception<T, EX1, EX2, EX3, EX4, EX5> nowFutureWith5Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, Class<EX5> exceptionClass5, SupplierWithDelayAnd5Exception<T, EX1, EX2, EX3, EX4, EX5> runnable) {
@@ -872,7 +792,7 @@ public interface Barrier {
 	 * @return A {@link Barrier} which is triggered when all supplied {@link Barrier Barriers} have.
 	 */
 	static Barrier when(@NotNull Collection<? extends Barrier> barriers) {
-		return when(barriers.toArray(new Barrier[0]));
+		return WhenBarrier.create(barriers.iterator());
 	}
 	
 	/**
@@ -883,7 +803,7 @@ public interface Barrier {
 	 * @return A {@link Barrier} which is triggered when all supplied {@link Barrier Barriers} have.
 	 */
 	static Barrier when(@NotNull Stream<? extends Barrier> barriers) {
-		return when(barriers.toArray(Barrier[]::new));
+		return WhenBarrier.create(barriers.iterator());
 	}
 	
 	/**
@@ -892,22 +812,22 @@ public interface Barrier {
 	 *
 	 * @param barriers the {@link Barrier Barriers} to await upon
 	 * @return A {@link Barrier} which is triggered when all supplied {@link Barrier Barriers} have.
+	 * @implNote if only one {@link Barrier} is not yet triggered, that Barrier is returned
 	 */
 	static Barrier when(@NotNull Barrier... barriers) {
-		if (barriers.length == 0)
-			return when();
-		if (barriers.length == 1)
-			return when(barriers[0]);
-		
-		BarrierImpl ret = new BarrierImpl();
-		AtomicInteger cnt = new AtomicInteger(barriers.length);
-		Runnable hook = () -> {
-			if (cnt.decrementAndGet() == 0)
-				ret.triggerNow();
-		};
-		for (Barrier barrier : barriers)
-			barrier.addHook(hook);
-		return ret;
+		return WhenBarrier.create(barriers);
+	}
+	
+	/**
+	 * Awaits for all {@link Barrier Barriers} to be triggered, then triggers the returned {@link Barrier}. This Operation is non-blocking.
+	 * If no Barriers are given, a triggered Barrier is returned.
+	 * The {@link Iterable} is iterated exactly once and never copied.
+	 *
+	 * @param barriers the {@link Barrier Barriers} to await upon
+	 * @return A {@link Barrier} which is triggered when all supplied {@link Barrier Barriers} have.
+	 */
+	static Barrier whenAll(@NotNull Iterable<? extends Barrier> barriers) {
+		return WhenBarrier.create(barriers.iterator());
 	}
 	
 	/**
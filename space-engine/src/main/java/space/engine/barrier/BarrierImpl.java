@@ -2,57 +2,87 @@ package space.engine.barrier;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.trace.BarrierTrace;
 
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.VarHandle;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
-import java.util.stream.Stream;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A basic Implementation of {@link Barrier}. The {@link Barrier} is triggered by calling {@link #triggerNow()}.
+ * <p>
+ * Hooks are pushed onto a lock-free stack using CAS, the first hook is stored without any wrapping node.
+ * {@link #triggerNow()} swaps the stack with a sentinel and runs all hooks in the order they were added.
+ * Waiting Threads register a {@link Waiter} as hook and {@link LockSupport#park(Object) park} until it unparks them.
  */
 public class BarrierImpl implements Barrier {
 	
-	private static final VarHandle TRIGGERED;
+	private static final VarHandle STATE;
 	
 	static {
 		try {
 			Lookup lookup = MethodHandles.lookup();
-			TRIGGERED = lookup.findVarHandle(BarrierImpl.class, "finished", boolean.class);
+			STATE = lookup.findVarHandle(BarrierImpl.class, "state", Object.class);
 		} catch (IllegalAccessException | NoSuchFieldException e) {
 			throw new ExceptionInInitializerError(e);
 		}
 	}
 	
-	private volatile boolean finished;
-	private @Nullable Runnable hookFirst;
-	private @Nullable Stream.Builder<Runnable> hookList;
+	/**
+	 * the state of a triggered {@link BarrierImpl}
+	 */
+	private static final Object TRIGGERED = new Object();
+	
+	/**
+	 * null: no hooks, {@link Runnable}: exactly one hook, {@link HookNode}: stack of multiple hooks, {@link #TRIGGERED}: triggered
+	 */
+	private volatile @Nullable Object state;
 	
 	public BarrierImpl() {
 	}
 	
 	public BarrierImpl(boolean initialTriggerState) {
-		this.finished = initialTriggerState;
+		if (initialTriggerState)
+			this.state = TRIGGERED;
 	}
 	
 	//trigger
 	public void triggerNow() {
-		synchronized (this) {
-			if (!TRIGGERED.compareAndSet(this, false, true))
-				throw exceptionBarrierAlreadyTriggered();
-		}
+		Object state = STATE.getAndSet(this, TRIGGERED);
+		if (state == TRIGGERED)
+			throw exceptionBarrierAlreadyTriggered();
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.triggered(this);
 		
 		//run all hooks
-		if (hookFirst != null) {
-			hookFirst.run();
-			hookFirst = null;
+		if (state == null)
+			return;
+		if (!(state instanceof HookNode)) {
+			((Runnable) state).run();
+			return;
 		}
-		if (hookList != null) {
-			this.hookList.build().forEach(Runnable::run);
-			this.hookList = null;
+		
+		//reverse the stack to run hooks in insertion order, the oldest hook is always a plain Runnable
+		HookNode node = (HookNode) state;
+		HookNode reversed = null;
+		Runnable first;
+		while (true) {
+			Object next = node.next;
+			node.next = reversed;
+			reversed = node;
+			if (!(next instanceof HookNode)) {
+				first = (Runnable) next;
+				break;
+			}
+			node = (HookNode) next;
 		}
+		
+		first.run();
+		for (HookNode n = reversed; n != null; n = (HookNode) n.next)
+			n.hook.run();
 	}
 	
 	protected static IllegalStateException exceptionBarrierAlreadyTriggered() {
@@ -62,69 +92,104 @@ public class BarrierImpl implements Barrier {
 	//impl
 	@Override
 	public boolean isDone() {
-		return finished;
+		return state == TRIGGERED;
 	}
 	
 	@Override
 	public void addHook(@NotNull Runnable run) {
-		if (!finished) {
-			synchronized (this) {
-				if (!finished) {
-					if (hookFirst == null) {
-						hookFirst = run;
-					} else {
-						if (hookList == null)
-							hookList = Stream.builder();
-						hookList.add(run);
-					}
-					return;
-				}
+		Object state = this.state;
+		HookNode node = null;
+		while (state != TRIGGERED) {
+			Object newState;
+			if (state == null) {
+				newState = run;
+			} else {
+				if (node == null)
+					node = new HookNode(run);
+				node.next = state;
+				newState = node;
 			}
+			
+			Object witness = STATE.compareAndExchange(this, state, newState);
+			if (witness == state)
+				return;
+			state = witness;
 		}
 		
 		run.run();
 	}
 	
-	protected Runnable createAwaitNotifyRunnable() {
-		Runnable runnable = new Runnable() {
-			@Override
-			public synchronized void run() {
-				this.notify();
-			}
-		};
-		addHook(runnable);
-		return runnable;
-	}
-	
 	@Override
 	public void await() throws InterruptedException {
-		Runnable runnable = createAwaitNotifyRunnable();
-		//noinspection SynchronizationOnLocalVariableOrMethodParameter
-		synchronized (runnable) {
-			while (!finished)
-				runnable.wait();
+		if (isDone())
+			return;
+		
+		Waiter waiter = new Waiter(Thread.currentThread());
+		addHook(waiter);
+		try {
+			while (!isDone()) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				LockSupport.park(this);
+			}
+		} finally {
+			waiter.thread = null;
 		}
 	}
 	
 	@Override
 	public void await(long time, TimeUnit unit) throws InterruptedException, TimeoutException {
-		Runnable runnable = createAwaitNotifyRunnable();
-		long sleepTime = unit.toNanos(time);
-		long deadline = System.nanoTime() + sleepTime;
+		if (isDone())
+			return;
 		
-		//noinspection SynchronizationOnLocalVariableOrMethodParameter
-		synchronized (runnable) {
-			while (!finished) {
-				runnable.wait(sleepTime / 1000000, (int) (sleepTime % 1000000));
-				sleepTime = deadline - System.nanoTime();
+		long deadline = System.nanoTime() + unit.toNanos(time);
+		Waiter waiter = new Waiter(Thread.currentThread());
+		addHook(waiter);
+		try {
+			while (!isDone()) {
+				if (Thread.interrupted())
+					throw new InterruptedException();
+				long sleepTime = deadline - System.nanoTime();
 				if (sleepTime <= 0)
 					throw new TimeoutException();
+				LockSupport.parkNanos(this, sleepTime);
 			}
+		} finally {
+			waiter.thread = null;
 		}
 	}
 	
 	@Override
 	public String toString() {
-		return finished ? "finished" : "waiting";
+		return isDone() ? "finished" : "waiting";
+	}
+	
+	private static class HookNode {
+		
+		private final @NotNull Runnable hook;
+		/**
+		 * either the next {@link HookNode} or the oldest hook as a plain {@link Runnable}
+		 */
+		private @Nullable Object next;
+		
+		public HookNode(@NotNull Runnable hook) {
+			this.hook = hook;
+		}
+	}
+	
+	private static class Waiter implements Runnable {
+		
+		private volatile @Nullable Thread thread;
+		
+		public Waiter(@NotNull Thread thread) {
+			this.thread = thread;
+		}
+		
+		@Override
+		public void run() {
+			Thread thread = this.thread;
+			if (thread != null)
+				LockSupport.unpark(thread);
+		}
 	}
 }
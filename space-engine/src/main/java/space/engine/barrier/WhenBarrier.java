@@ -0,0 +1,109 @@
+package space.engine.barrier;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.trace.BarrierTrace;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+
+/**
+ * The fan-in {@link Barrier} of {@link Barrier#when(Barrier...)} and {@link Barrier#whenAll(Iterable)}.
+ * <p>
+ * It is it's own hook and counts the remaining inputs inline. Inputs which are already done are skipped without registering a hook.
+ * If less than two inputs are not done, no {@link WhenBarrier} is allocated at all.
+ * As the amount of inputs isn't known while iterating, {@link #remaining} starts at {@link #GUARD} and the unused part of it is removed after iteration.
+ */
+final class WhenBarrier extends BarrierImpl implements Runnable {
+	
+	private static final VarHandle REMAINING;
+	
+	static {
+		try {
+			REMAINING = MethodHandles.lookup().findVarHandle(WhenBarrier.class, "remaining", int.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private static final int GUARD = Integer.MAX_VALUE;
+	
+	static Barrier create(@NotNull Barrier[] barriers) {
+		Barrier first = null;
+		WhenBarrier when = null;
+		int registered = 0;
+		for (Barrier barrier : barriers) {
+			if (barrier.isDone())
+				continue;
+			if (first == null) {
+				first = barrier;
+				continue;
+			}
+			if (when == null) {
+				when = new WhenBarrier();
+				when.register(first);
+				registered++;
+			}
+			when.register(barrier);
+			registered++;
+		}
+		return finish(first, when, registered);
+	}
+	
+	static Barrier create(@NotNull Iterator<? extends Barrier> barriers) {
+		Barrier first = null;
+		WhenBarrier when = null;
+		int registered = 0;
+		while (barriers.hasNext()) {
+			Barrier barrier = barriers.next();
+			if (barrier.isDone())
+				continue;
+			if (first == null) {
+				first = barrier;
+				continue;
+			}
+			if (when == null) {
+				when = new WhenBarrier();
+				when.register(first);
+				registered++;
+			}
+			when.register(barrier);
+			registered++;
+		}
+		return finish(first, when, registered);
+	}
+	
+	private static Barrier finish(@Nullable Barrier first, @Nullable WhenBarrier when, int registered) {
+		if (when != null) {
+			when.countDown(GUARD - registered);
+			return when;
+		}
+		return first != null ? first : Barrier.DONE_BARRIER;
+	}
+	
+	@SuppressWarnings("unused")
+	private volatile int remaining = GUARD;
+	
+	private WhenBarrier() {
+	}
+	
+	private void register(Barrier barrier) {
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(barrier, this);
+		barrier.addHook(this);
+	}
+	
+	private void countDown(int count) {
+		if ((int) REMAINING.getAndAdd(this, -count) == count)
+			triggerNow();
+	}
+	
+	/**
+	 * the hook added to every input
+	 */
+	@Override
+	public void run() {
+		countDown(1);
+	}
+}
@@ -40,6 +40,11 @@ public interface EntityRef<E extends Entity> extends SyncLock {
 			return entity.syncLock().unlock();
 		}
 		
+		@Override
+		public long lockOrder() {
+			return entity.syncLock().lockOrder();
+		}
+		
 		//accesskey
 		@Override
 		public EntityAccessKey<T> getAccessKey() {
@@ -0,0 +1,249 @@
+package space.engine.barrier.future;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.DelayTask;
+import space.engine.barrier.functions.Callable;
+import space.engine.barrier.functions.SupplierWithDelay;
+import space.engine.barrier.functions.SupplierWithDelayAnd2Exception;
+import space.engine.barrier.functions.SupplierWithDelayAnd3Exception;
+import space.engine.barrier.functions.SupplierWithDelayAnd4Exception;
+import space.engine.barrier.functions.SupplierWithDelayAnd5Exception;
+import space.engine.barrier.functions.SupplierWithDelayAndException;
+import space.engine.barrier.trace.BarrierTrace;
+import space.engine.simpleQueue.pool.Executor;
+
+import static space.engine.barrier.Barrier.BARRIER_DEBUG;
+
+/**
+ * Continuations of {@link Barrier#thenFuture(Executor, SupplierWithDelay)} and all FutureWithException variants as a single allocation.
+ * <p>
+ * The node is the {@link CompletableFuture} itself, the hook added to the previous {@link Barrier} and the task submitted to the {@link Executor}.
+ * If the previous {@link Barrier} is already done no hook is added at all and without an {@link Executor} the supplier is called inline.
+ */
+public final class ContinuationFuture {
+	
+	private ContinuationFuture() {
+	}
+	
+	/**
+	 * Schedules the node to run when the previous {@link Barrier} is done.
+	 */
+	public static <F extends Barrier & Runnable> F schedule(@NotNull Barrier prev, @NotNull F node) {
+		if (BarrierTrace.ENABLED)
+			BarrierTrace.edge(prev, node);
+		if (prev.isDone())
+			node.run();
+		else
+			prev.addHook(node);
+		return node;
+	}
+	
+	/**
+	 * @param task the supplier called by callable, only used for {@link BarrierTrace}
+	 */
+	private static <R> void compute(GenericCompletable<R> node, Callable<R> callable, Object task) {
+		if (BarrierTrace.ENABLED) {
+			Callable<R> inner = callable;
+			callable = () -> {
+				long start = BarrierTrace.now();
+				try {
+					return inner.call();
+				} finally {
+					BarrierTrace.task(node, "thenFuture", task, start);
+				}
+			};
+		}
+		
+		try {
+			node.completeCallable(callable);
+		} catch (DelayTask delayTask) {
+			if (BARRIER_DEBUG && !(delayTask.barrier instanceof GenericFuture))
+				throw new IllegalArgumentException("DelayTask.barrier is not a Future<?>!", delayTask);
+			if (BarrierTrace.ENABLED)
+				BarrierTrace.edge(delayTask.barrier, node);
+			
+			GenericFuture<R> future = delayedFuture(delayTask);
+			future.addHook(() -> node.completeCallableNoDelay(future::assertGetAnyException));
+		}
+	}
+	
+	/**
+	 * A supplier of a Future of R may only delay on a Future of R, as it's result becomes the result of the node. {@link DelayTask} can't express that type.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <R> GenericFuture<R> delayedFuture(DelayTask delayTask) {
+		return (GenericFuture<R>) delayTask.barrier;
+	}
+	
+	public static class Of<R> extends CompletableFuture<R> implements Runnable, Callable<R> {
+		
+		/**
+		 * the {@link Executor} to submit to, null if already submitted or to be called inline
+		 */
+		private @Nullable Executor executor;
+		private final @NotNull SupplierWithDelay<R> supplier;
+		
+		public Of(@Nullable Executor executor, @NotNull SupplierWithDelay<R> supplier) {
+			this.executor = executor;
+			this.supplier = supplier;
+		}
+		
+		@Override
+		public void run() {
+			Executor executor = this.executor;
+			if (executor != null) {
+				this.executor = null;
+				executor.execute(this);
+				return;
+			}
+			compute(this, this, supplier);
+		}
+		
+		@Override
+		public R call() throws DelayTask {
+			return supplier.get();
+		}
+	}
+	
+	public static class WithException<R, EX extends Throwable> extends CompletableFutureWithException<R, EX> implements Runnable, Callable<R> {
+		
+		private @Nullable Executor executor;
+		private final @NotNull SupplierWithDelayAndException<R, EX> supplier;
+		
+		public WithException(Class<EX> exceptionClass, @Nullable Executor executor, @NotNull SupplierWithDelayAndException<R, EX> supplier) {
+			super(exceptionClass);
+			this.executor = executor;
+			this.supplier = supplier;
+		}
+		
+		@Override
+		public void run() {
+			Executor executor = this.executor;
+			if (executor != null) {
+				this.executor = null;
+				executor.execute(this);
+				return;
+			}
+			compute(this, this, supplier);
+		}
+		
+		@Override
+		public R call() throws DelayTask, EX {
+			return supplier.get();
+		}
+	}
+	
+	public static class With2Exception<R, EX1 extends Throwable, EX2 extends Throwable> extends CompletableFutureWith2Exception<R, EX1, EX2> implements Runnable, Callable<R> {
+		
+		private @Nullable Executor executor;
+		private final @NotNull SupplierWithDelayAnd2Exception<R, EX1, EX2> supplier;
+		
+		public With2Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, @Nullable Executor executor, @NotNull SupplierWithDelayAnd2Exception<R, EX1, EX2> supplier) {
+			super(exceptionClass1, exceptionClass2);
+			this.executor = executor;
+			this.supplier = supplier;
+		}
+		
+		@Override
+		public void run() {
+			Executor executor = this.executor;
+			if (executor != null) {
+				this.executor = null;
+				executor.execute(this);
+				return;
+			}
+			compute(this, this, supplier);
+		}
+		
+		@Override
+		public R call() throws DelayTask, EX1, EX2 {
+			return supplier.get();
+		}
+	}
+	
+	public static class With3Exception<R, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable> extends CompletableFutureWith3Exception<R, EX1, EX2, EX3> implements Runnable, Callable<R> {
+		
+		private @Nullable Executor executor;
+		private final @NotNull SupplierWithDelayAnd3Exception<R, EX1, EX2, EX3> supplier;
+		
+		public With3Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, @Nullable Executor executor, @NotNull SupplierWithDelayAnd3Exception<R, EX1, EX2, EX3> supplier) {
+			super(exceptionClass1, exceptionClass2, exceptionClass3);
+			this.executor = executor;
+			this.supplier = supplier;
+		}
+		
+		@Override
+		public void run() {
+			Executor executor = this.executor;
+			if (executor != null) {
+				this.executor = null;
+				executor.execute(this);
+				return;
+			}
+			compute(this, this, supplier);
+		}
+		
+		@Override
+		public R call() throws DelayTask, EX1, EX2, EX3 {
+			return supplier.get();
+		}
+	}
+	
+	public static class With4Exception<R, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable> extends CompletableFutureWith4Exception<R, EX1, EX2, EX3, EX4> implements Runnable, Callable<R> {
+		
+		private @Nullable Executor executor;
+		private final @NotNull SupplierWithDelayAnd4Exception<R, EX1, EX2, EX3, EX4> supplier;
+		
+		public With4Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, @Nullable Executor executor, @NotNull SupplierWithDelayAnd4Exception<R, EX1, EX2, EX3, EX4> supplier) {
+			super(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4);
+			this.executor = executor;
+			this.supplier = supplier;
+		}
+		
+		@Override
+		public void run() {
+			Executor executor = this.executor;
+			if (executor != null) {
+				this.executor = null;
+				executor.execute(this);
+				return;
+			}
+			compute(this, this, supplier);
+		}
+		
+		@Override
+		public R call() throws DelayTask, EX1, EX2, EX3, EX4 {
+			return supplier.get();
+		}
+	}
+	
+	public static class With5Exception<R, EX1 extends Throwable, EX2 extends Throwable, EX3 extends Throwable, EX4 extends Throwable, EX5 extends Throwable> extends CompletableFutureWith5Exception<R, EX1, EX2, EX3, EX4, EX5> implements Runnable, Callable<R> {
+		
+		private @Nullable Executor executor;
+		private final @NotNull SupplierWithDelayAnd5Exception<R, EX1, EX2, EX3, EX4, EX5> supplier;
+		
+		public With5Exception(Class<EX1> exceptionClass1, Class<EX2> exceptionClass2, Class<EX3> exceptionClass3, Class<EX4> exceptionClass4, Class<EX5> exceptionClass5, @Nullable Executor executor, @NotNull SupplierWithDelayAnd5Exception<R, EX1, EX2, EX3, EX4, EX5> supplier) {
+			super(exceptionClass1, exceptionClass2, exceptionClass3, exceptionClass4, exceptionClass5);
+			this.executor = executor;
+			this.supplier = supplier;
+		}
+		
+		@Override
+		public void run() {
+			Executor executor = this.executor;
+			if (executor != null) {
+				this.executor = null;
+				executor.execute(this);
+				return;
+			}
+			compute(this, this, supplier);
+		}
+		
+		@Override
+		public R call() throws DelayTask, EX1, EX2, EX3, EX4, EX5 {
+			return supplier.get();
+		}
+	}
+}
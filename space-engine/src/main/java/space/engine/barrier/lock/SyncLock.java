@@ -35,44 +35,50 @@ public interface SyncLock {
 	 */
 	Runnable unlock();
 	
+	/**
+	 * A stable id used to order {@link SyncLock SyncLocks} when acquiring multiple of them with {@link #acquireLocks(SyncLock[], Runnable)}.
+	 * The value must never change and should be unique. {@link SyncLock SyncLocks} delegating to another {@link SyncLock} have to return the value of their delegate.
+	 * <p>
+	 * Defaults to the identity hash code. Equal values only change the order the locks of a set are tried in, never correctness, as a set never holds a lock while waiting.
+	 *
+	 * @return the lock order id
+	 * @see SyncLockImpl#nextLockOrder()
+	 */
+	default long lockOrder() {
+		return System.identityHashCode(this);
+	}
+	
 	//static
 	
 	/**
 	 * This Method will try to acquire all {@link SyncLock SyncLocks} given to it and when it has run the callback.
 	 * Unlocking them afterwards with {@link #unlockLocks(SyncLock[])} has to be done manually.
+	 * <p>
+	 * The locks are acquired all-or-nothing in the order of their {@link #lockOrder()}. If a lock is busy, all locks acquired so far are released
+	 * and the set waits on the busy lock. When it is handed over by {@link #tryLockLater(BooleanSupplier)} the set accepts it if all other locks are free,
+	 * otherwise the lock is handed on to the next waiter without a round trip through the pool. As a set never holds a lock while waiting this cannot deadlock.
 	 *
 	 * @param locks    the Locks to aquire before calling the callback
 	 * @param callback the callback to be called when all locks are aquired
 	 */
 	static void acquireLocks(SyncLock[] locks, Runnable callback) {
-		acquireLocks(locks, -1, callback);
-	}
-	
-	private static boolean acquireLocks(SyncLock[] locks, int exceptLock, Runnable callback) {
-		if (locks.length == 0) {
-			callback.run();
-			return true;
-		}
-		
-		int i;
-		boolean success = true;
-		for (i = 0; i < locks.length; i++) {
-			if (i != exceptLock && !locks[i].tryLockNow()) {
-				success = false;
-				break;
-			}
+		switch (locks.length) {
+			case 0:
+				callback.run();
+				return;
+			case 1:
+				SyncLock lock = locks[0];
+				if (lock.tryLockNow())
+					callback.run();
+				else
+					lock.tryLockLater(() -> {
+						callback.run();
+						return true;
+					});
+				return;
+			default:
+				new SyncLockSet(locks, callback).acquire();
 		}
-		
-		if (success) {
-			callback.run();
-			return true;
-		}
-		
-		//failure
-		final int fi = i;
-		unlockLocks(locks, fi, exceptLock);
-		locks[fi].tryLockLater(() -> acquireLocks(locks, fi, callback));
-		return false;
 	}
 	
 	/**
@@ -82,22 +88,13 @@ public interface SyncLock {
 	 * <b>DON'T synchronize on anything when calling this method!</b>
 	 */
 	static void unlockLocks(SyncLock[] locks) {
-		unlockLocks(locks, locks.length, -1);
-	}
-	
-	/**
-	 * <b>DON'T synchronize on anything when calling this method!</b>
-	 */
-	private static void unlockLocks(SyncLock[] locks, int maxExclusive, int exceptLock) {
-		if (maxExclusive == 0)
+		if (locks.length == 0)
 			return;
 		
-		Runnable[] notifyCallback = new Runnable[maxExclusive];
-		for (int i = maxExclusive - 1; i >= 0; i--)
-			if (i != exceptLock)
-				notifyCallback[i] = locks[i].unlock();
-		for (int i = maxExclusive - 1; i >= 0; i--)
-			if (notifyCallback[i] != null)
-				notifyCallback[i].run();
+		Runnable[] notifyCallback = new Runnable[locks.length];
+		for (int i = locks.length - 1; i >= 0; i--)
+			notifyCallback[i] = locks[i].unlock();
+		for (int i = locks.length - 1; i >= 0; i--)
+			notifyCallback[i].run();
 	}
 }
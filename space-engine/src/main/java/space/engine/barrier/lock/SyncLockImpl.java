@@ -6,13 +6,24 @@ import space.engine.simpleQueue.ConcurrentLinkedSimpleQueue;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
 import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BooleanSupplier;
 
-import static space.engine.Side.pool;
-
 public class SyncLockImpl implements SyncLock {
 	
-	public static int SYNCLOCK_CALLBACK_TRIES = 1;
+	/**
+	 * the amount of waiters a lock is offered to on unlock before it is released in between, so {@link #tryLockNow()} can't be starved by a long queue of refusing waiters
+	 */
+	public static final int SYNCLOCK_CALLBACK_TRIES = 8;
+	private static final AtomicLong LOCK_ORDER_COUNTER = new AtomicLong();
+	
+	/**
+	 * @return a new unique value for {@link SyncLock#lockOrder()}
+	 */
+	public static long nextLockOrder() {
+		return LOCK_ORDER_COUNTER.getAndIncrement();
+	}
 	
 	private static final VarHandle LOCKED;
 	private static final VarHandle MODID;
@@ -32,6 +43,37 @@ public class SyncLockImpl implements SyncLock {
 	@SuppressWarnings("unused")
 	private volatile int modId;
 	private @NotNull ConcurrentLinkedSimpleQueue<BooleanSupplier> notifyUnlock = new ConcurrentLinkedSimpleQueue<>();
+	private final long lockOrder = nextLockOrder();
+	
+	//handover
+	private static final class Handover {
+		
+		boolean running;
+		final ArrayDeque<Runnable> deferred = new ArrayDeque<>();
+	}
+	
+	private static final ThreadLocal<Handover> HANDOVER = ThreadLocal.withInitial(Handover::new);
+	
+	/**
+	 * Runs the handover now, or defers it if this Thread is already handing over a lock.
+	 * Callbacks may lock or wait on other locks, but these are only handled after the current handover has finished with it's lock, so callbacks never recurse.
+	 */
+	private static void handover(Runnable handover) {
+		Handover state = HANDOVER.get();
+		if (state.running) {
+			state.deferred.add(handover);
+			return;
+		}
+		
+		state.running = true;
+		try {
+			handover.run();
+			for (Runnable next; (next = state.deferred.poll()) != null; )
+				next.run();
+		} finally {
+			state.running = false;
+		}
+	}
 	
 	@SuppressWarnings("ResultOfMethodCallIgnored")
 	public SyncLockImpl() {
@@ -40,6 +82,11 @@ public class SyncLockImpl implements SyncLock {
 		hashCode();
 	}
 	
+	@Override
+	public long lockOrder() {
+		return lockOrder;
+	}
+	
 	@Override
 	public boolean tryLockNow() {
 		if (!LOCKED.compareAndSet(this, false, true))
@@ -55,7 +102,7 @@ public class SyncLockImpl implements SyncLock {
 		final int modId = (int) MODID.get(this);
 		LOCKED.set(this, false);
 		
-		return () -> unlockFindNext(modId);
+		return () -> handover(() -> unlockFindNext(modId));
 	}
 	
 	private void unlockFindNext(final int modId) {
@@ -87,13 +134,17 @@ public class SyncLockImpl implements SyncLock {
 			}
 		}
 		
-		//out of tries -> enqueue and try again later
+		//out of tries -> release in between and continue after the deferred waiters
 		LOCKED.set(this, false);
-		pool().execute(() -> unlockFindNext(modId));
+		handover(() -> unlockFindNext(modId));
 	}
 	
 	@Override
 	public void tryLockLater(BooleanSupplier callback) {
+		handover(() -> tryLockLaterNow(callback));
+	}
+	
+	private void tryLockLaterNow(BooleanSupplier callback) {
 		if (!LOCKED.compareAndSet(this, false, true)) {
 			synchronized (this) {
 				if (!LOCKED.compareAndSet(this, false, true)) {
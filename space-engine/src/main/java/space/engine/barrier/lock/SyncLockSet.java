@@ -0,0 +1,98 @@
+package space.engine.barrier.lock;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * A set of {@link SyncLock SyncLocks} acquired all-or-nothing by {@link SyncLock#acquireLocks(SyncLock[], Runnable)}.
+ * <p>
+ * The locks are tried in the order of {@link SyncLock#lockOrder()}. If one is busy, all locks acquired so far are released again and this set waits on the busy lock.
+ * When the busy lock is handed over via {@link #getAsBoolean()} all other locks are tried immediately: if they are free the handover is accepted,
+ * otherwise it is refused, so the lock is handed on to the next waiter, and this set waits on the lock which was busy.
+ * A set never holds any lock while waiting, so it cannot deadlock or block other sets.
+ */
+final class SyncLockSet implements BooleanSupplier {
+	
+	private final SyncLock[] sorted;
+	private final Runnable callback;
+	/**
+	 * the index of the lock currently waited upon
+	 */
+	private volatile int waiting;
+	
+	SyncLockSet(SyncLock[] locks, Runnable callback) {
+		this.sorted = sort(locks);
+		this.callback = callback;
+	}
+	
+	private static SyncLock[] sort(SyncLock[] locks) {
+		//insertion sort, sets are small
+		SyncLock[] sorted = locks.clone();
+		for (int i = 1; i < sorted.length; i++) {
+			SyncLock lock = sorted[i];
+			long order = lock.lockOrder();
+			int j = i - 1;
+			for (; j >= 0 && sorted[j].lockOrder() > order; j--)
+				sorted[j + 1] = sorted[j];
+			sorted[j + 1] = lock;
+		}
+		return sorted;
+	}
+	
+	void acquire() {
+		int busy = tryLockAll(-1);
+		if (busy == -1)
+			callback.run();
+		else
+			waitOn(busy);
+	}
+	
+	/**
+	 * called with the lock at {@link #waiting} acquired
+	 *
+	 * @return true if all locks are acquired, false to refuse the lock
+	 */
+	@Override
+	public boolean getAsBoolean() {
+		int busy = tryLockAll(waiting);
+		if (busy == -1) {
+			callback.run();
+			return true;
+		}
+		//deferred by SyncLockImpl until the refused lock is handed on, so this never recurses into locking
+		waitOn(busy);
+		return false;
+	}
+	
+	private void waitOn(int index) {
+		waiting = index;
+		sorted[index].tryLockLater(this);
+	}
+	
+	/**
+	 * Tries to lock all locks except held.
+	 *
+	 * @return -1 if all locks are acquired, otherwise the index of the busy lock after releasing all locks acquired by this call
+	 */
+	private int tryLockAll(int held) {
+		for (int i = 0; i < sorted.length; i++) {
+			if (i != held && !sorted[i].tryLockNow()) {
+				unlock(i, held);
+				return i;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * <b>DON'T synchronize on anything when calling this method!</b>
+	 */
+	private void unlock(int maxExclusive, int held) {
+		Runnable[] notifyCallback = new Runnable[maxExclusive];
+		for (int i = maxExclusive - 1; i >= 0; i--)
+			if (i != held)
+				notifyCallback[i] = sorted[i].unlock();
+		for (int i = maxExclusive - 1; i >= 0; i--)
+			if (notifyCallback[i] != null)
+				notifyCallback[i].run();
+	}
+}
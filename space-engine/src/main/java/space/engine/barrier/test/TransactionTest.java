@@ -16,18 +16,12 @@ import static space.engine.barrier.Barrier.*;
 
 /**
  * To make this work: add the following lines to the top of
- * SyncLock.acquireLocks(SyncLock[] locks, int exceptLock, Runnable callback):
+ * SyncLockSet.tryLockAll(int held):
  */
-//		if(locks.length == 0) {
-//			callback.run();
-//			return true;
-//		}
-//
 //	+	if(TransactionTest.COUNTER != null)
 //	+		TransactionTest.COUNTER.incrementAndGet();
 //
-//		int i;
-//		boolean success = true;
+//		for (int i = 0; i < sorted.length; i++) {
 public class TransactionTest {
 	
 	public static int[] TRANSACTION_COUNT = new int[] {2, 4, 6, 8, 10, 15, 20, 50, 100, 500, 1000, 5000, 10000};
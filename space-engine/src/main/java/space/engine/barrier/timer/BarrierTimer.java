@@ -8,6 +8,10 @@ import space.engine.freeable.CleanerWeak;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.LockSupport;
 
@@ -15,6 +19,9 @@ import java.util.concurrent.locks.LockSupport;
  * A {@link BarrierTimer} allows you to {@link #create(long)} a Barrier triggering when this reached the supplied point in time.
  * When it actually triggers depends on the implementation.
  * Some standard Implementations include the {@link #createUnmodifiable(long, Object[])} Methods and {@link BarrierTimerWithTimeControl}.
+ * <p>
+ * {@link #create(long)} pushes onto a lock-free stack. A single Runner Thread moves new Barriers into a hierarchical timing wheel
+ * and triggers all Barriers which are due in one sweep.
  */
 public abstract class BarrierTimer implements CleanerWrapper {
 	
@@ -27,7 +34,7 @@ public abstract class BarrierTimer implements CleanerWrapper {
 		return new BarrierTimer(parents) {
 			@Override
 			public long timeFunction(long input) {
-				return (long) (input / speedNanos) - (System.nanoTime() + offsetNanos);
+				return (long) (input / speedNanos) - offsetNanos;
 			}
 			
 			@Override
@@ -56,8 +63,44 @@ public abstract class BarrierTimer implements CleanerWrapper {
 	}
 	
 	//object
-	private @Nullable Node first;
-	private Runner runner;
+	private static final VarHandle INBOUND;
+	
+	static {
+		try {
+			INBOUND = MethodHandles.lookup().findVarHandle(BarrierTimer.class, "inbound", Node.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private final Runner runner;
+	
+	/**
+	 * lock-free stack of {@link Node Nodes} which were {@link #create(long) created} but are not yet scheduled in the {@link #wheel}
+	 */
+	@SuppressWarnings("unused")
+	private volatile @Nullable Node inbound;
+	/**
+	 * the time the {@link Runner} is parked until, {@link Long#MIN_VALUE} if it is not parked
+	 */
+	private volatile long sleepingUntil = Long.MIN_VALUE;
+	
+	//wheel: only accessed by the Runner
+	private static final int WHEEL_BITS = 6;
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	private static final int WHEEL_LEVELS = (Long.SIZE + WHEEL_BITS - 1) / WHEEL_BITS;
+	
+	/**
+	 * Hierarchical timing wheel with {@link #WHEEL_LEVELS} levels of {@link #WHEEL_SIZE} buckets each.
+	 * A {@link Node} is placed in the level of the highest {@link #WHEEL_BITS} bit group in which its time differs from {@link #wheelTime} and the bucket of its bits in that group.
+	 * All times in the wheel are {@link #key(long) keys}, as the bit arithmetic requires an unsigned ordering.
+	 */
+	private final @Nullable Node[][] wheel = new Node[WHEEL_LEVELS][WHEEL_SIZE];
+	private final long[] wheelOccupied = new long[WHEEL_LEVELS];
+	private long wheelTime;
+	private boolean wheelStarted;
+	private final ArrayList<Node> expired = new ArrayList<>();
 	
 	public BarrierTimer(Object[] parents) {
 		storage = Freeable.createDummy(this, parents);
@@ -91,98 +134,184 @@ public abstract class BarrierTimer implements CleanerWrapper {
 	 */
 	public abstract double currSpeed();
 	
-	public synchronized Barrier create(long time) {
-		if (first == null || time < first.time) {
-			
-			//insert as first element
-			Node e = new Node(time);
-			e.next = first;
-			first = e;
-			recalculateTimer();
-			return e;
-		} else if (first.time == time) {
-			//same time
-			return first;
-		} else {
+	/**
+	 * Creates a {@link Barrier} triggering when this {@link BarrierTimer} reaches the supplied time. This Method is lock-free.
+	 *
+	 * @param time the time to trigger at
+	 * @return the {@link Barrier}
+	 */
+	public Barrier create(long time) {
+		Node node = new Node(time);
+		Node head;
+		do {
+			head = inbound;
+			node.next = head;
+		} while (!INBOUND.compareAndSet(this, head, node));
+		
+		if (time < sleepingUntil)
+			runner.wakeup();
+		return node;
+	}
+	
+	protected void recalculateTimer() {
+		runner.wakeup();
+	}
+	
+	@Override
+	public String toString() {
+		return getClass().getSimpleName() + "{currTime=" + currTime() + "}";
+	}
+	
+	//runner
+	
+	/**
+	 * Called by the {@link Runner}: schedules all new {@link Node Nodes}, advances the wheel to {@link #currTime()} and triggers all expired {@link Node Nodes}.
+	 *
+	 * @return nanos to park until the next {@link Node} expires, {@link Long#MAX_VALUE} to park until woken up
+	 */
+	private long process() {
+		sleepingUntil = Long.MIN_VALUE;
+		while (true) {
+			long now = key(currTime());
+			if (!wheelStarted) {
+				wheelTime = now;
+				wheelStarted = true;
+			} else if (Long.compareUnsigned(now, wheelTime) < 0) {
+				//time went backwards (eg. speed change)
+				rewind(now);
+			} else {
+				advance(now);
+			}
 			
-			@NotNull Node prev = first;
-			@Nullable Node curr = first.next;
-			while (curr != null && time > curr.time) {
-				//traverse
-				prev = curr;
-				curr = curr.next;
+			//schedule new Nodes
+			Node node = (Node) INBOUND.getAndSet(this, null);
+			while (node != null) {
+				Node next = node.next;
+				schedule(node);
+				node = next;
 			}
 			
-			//same time
-			if (curr != null && time == curr.time)
-				return curr;
+			triggerExpired();
 			
-			//insert here
-			Node e = new Node(time);
-			prev.next = e;
-			e.next = curr;
-			return e;
+			//calculate sleep
+			long next = nextExpiry();
+			if (next == Long.MAX_VALUE || currSpeed() <= 0) {
+				sleepingUntil = Long.MAX_VALUE;
+				if (inbound == null)
+					return Long.MAX_VALUE;
+			} else {
+				long nanos = timeFunction(next) - System.nanoTime();
+				sleepingUntil = next;
+				if (nanos > 0 && inbound == null)
+					return nanos;
+			}
+			sleepingUntil = Long.MIN_VALUE;
 		}
 	}
 	
-	private synchronized void insert(Node e) {
-		long time = e.time;
-		if (first == null || time < first.time) {
-			
-			//insert as first element
-			e.next = first;
-			first = e;
-			recalculateTimer();
-		} else {
+	/**
+	 * converts a time to a key, which has the same ordering when compared unsigned as the time compared signed
+	 */
+	private static long key(long time) {
+		return time ^ Long.MIN_VALUE;
+	}
+	
+	private void schedule(Node node) {
+		long key = key(node.time);
+		if (Long.compareUnsigned(key, wheelTime) <= 0) {
+			expired.add(node);
+			return;
+		}
+		
+		int level = (Long.SIZE - 1 - Long.numberOfLeadingZeros(key ^ wheelTime)) / WHEEL_BITS;
+		int index = (int) (key >>> (level * WHEEL_BITS)) & WHEEL_MASK;
+		node.next = wheel[level][index];
+		wheel[level][index] = node;
+		wheelOccupied[level] |= 1L << index;
+	}
+	
+	private void advance(long now) {
+		long prev = wheelTime;
+		wheelTime = now;
+		for (int level = 0; level < WHEEL_LEVELS; level++) {
+			int shift = level * WHEEL_BITS;
+			long p = prev >>> shift;
+			long n = now >>> shift;
+			if (p == n)
+				break;
+			if (wheelOccupied[level] == 0)
+				continue;
 			
-			@NotNull Node prev = first;
-			@Nullable Node curr = first.next;
-			while (curr != null && time > curr.time) {
-				//traverse
-				prev = curr;
-				curr = curr.next;
+			long steps = n - p;
+			if (steps < 0 || steps >= WHEEL_SIZE) {
+				for (int index = 0; index < WHEEL_SIZE; index++)
+					reschedule(level, index);
+			} else {
+				for (long i = 1; i <= steps; i++)
+					reschedule(level, (int) (p + i) & WHEEL_MASK);
 			}
-			
-			//insert here
-			prev.next = e;
-			e.next = curr;
 		}
 	}
 	
-	protected synchronized @Nullable Node poll() {
-		Node ret = first;
-		if (first != null)
-			first = first.next;
-		return ret;
+	private void rewind(long now) {
+		wheelTime = now;
+		for (int level = 0; level < WHEEL_LEVELS; level++)
+			if (wheelOccupied[level] != 0)
+				for (int index = 0; index < WHEEL_SIZE; index++)
+					reschedule(level, index);
 	}
 	
-	protected void recalculateTimer() {
-		runner.interrupt();
+	/**
+	 * removes all Nodes from a bucket and schedules them again relative to {@link #wheelTime}, expiring them or moving them down a level
+	 */
+	private void reschedule(int level, int index) {
+		Node node = wheel[level][index];
+		if (node == null)
+			return;
+		wheel[level][index] = null;
+		wheelOccupied[level] &= ~(1L << index);
+		
+		while (node != null) {
+			Node next = node.next;
+			schedule(node);
+			node = next;
+		}
 	}
 	
-	@Override
-	public synchronized String toString() {
-		if (first == null) {
-			return "[]";
-		}
-		
-		StringBuilder b = new StringBuilder("[");
-		Node node = first;
-		while (true) {
-			b.append(node.time);
-			node = node.next;
-			if (node == null)
-				break;
-			b.append(", ");
+	private void triggerExpired() {
+		int size = expired.size();
+		if (size == 0)
+			return;
+		if (size > 1)
+			expired.sort(Comparator.comparingLong(node -> node.time));
+		for (int i = 0; i < size; i++)
+			expired.get(i).triggerNow();
+		expired.clear();
+	}
+	
+	/**
+	 * @return the time of the next {@link Node} to expire or a time before it, {@link Long#MAX_VALUE} if there are no Nodes
+	 */
+	private long nextExpiry() {
+		for (int level = 0; level < WHEEL_LEVELS; level++) {
+			long occupied = wheelOccupied[level];
+			if (occupied == 0)
+				continue;
+			
+			//all Nodes in lower levels expire before any Node in higher levels
+			int shift = level * WHEEL_BITS;
+			int upperShift = shift + WHEEL_BITS;
+			long upper = upperShift >= Long.SIZE ? 0 : (wheelTime >>> upperShift) << upperShift;
+			return key(upper | ((long) Long.numberOfTrailingZeros(occupied) << shift));
 		}
-		return b.append("]").toString();
+		return Long.MAX_VALUE;
 	}
 	
 	//DON'T make this class static! The Reference is required to prevent gc of this BarrierTimer if it still has any Nodes.
 	protected class Node extends BarrierImpl {
 		
 		private @Nullable Node next;
-		public long time;
+		public final long time;
 		
 		public Node(long time) {
 			this.time = time;
@@ -210,44 +339,32 @@ public abstract class BarrierTimer implements CleanerWrapper {
 		@Override
 		public void run() {
 			while (isRunning) {
+				long parkNanos;
 				//DON'T keep the timer reference while waiting
 				{
 					BarrierTimer timer = this.get();
 					if (timer == null)
 						break;
-					
-					Node node;
-					while ((node = timer.poll()) != null) {
-						long sleepTime = timer.timeFunction(node.time) - System.nanoTime();
-						if (sleepTime > 0) {
-							try {
-								Thread.sleep(sleepTime / 1000000, (int) (sleepTime % 1000000));
-							} catch (InterruptedException e) {
-								timer.insert(node);
-								continue;
-							}
-						}
-						
-						node.triggerNow();
-					}
+					parkNanos = timer.process();
 				}
 				
-				LockSupport.park();
-				//noinspection ResultOfMethodCallIgnored
-				Thread.interrupted();
+				if (parkNanos == Long.MAX_VALUE)
+					LockSupport.park(this);
+				else
+					LockSupport.parkNanos(this, parkNanos);
 			}
 			threadExitBarrier.triggerNow();
 		}
 		
-		private void interrupt() {
+		private void wakeup() {
 			if (Thread.currentThread() != th)
-				th.interrupt();
+				LockSupport.unpark(th);
 		}
 		
 		@Override
 		protected @NotNull Barrier handleFree() {
 			isRunning = false;
-			interrupt();
+			wakeup();
 			return threadExitBarrier;
 		}
 	}
@@ -0,0 +1,302 @@
+package space.engine.barrier.trace;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.Barrier.DoneBarrier;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records the task graph of {@link Barrier Barriers}: which task completed a Barrier on which Thread and when,
+ * and which Barriers it depended on (thenRun, thenStart, when, {@link space.engine.barrier.DelayTask DelayTask} and Futures).
+ * <p>
+ * Enable with the System property "space.engine.barrier.trace". {@link #ENABLED} is static final, so all instrumentation is removed by the JIT when disabled.
+ * Recorded data is kept for the last {@link #FRAMES} frames ended with {@link #endFrame()} or until {@link #clear()}, so only enable it for profiling.
+ * Use {@link #mark(String, Barrier)} to name Barriers, {@link #criticalPath(Barrier, Barrier)} to find the chain of Barriers making the latter late
+ * and {@link #writeChromeTrace(Path)} to view everything in chrome://tracing.
+ */
+public final class BarrierTrace {
+	
+	public static final boolean ENABLED = Boolean.getBoolean("space.engine.barrier.trace");
+	/**
+	 * the amount of frames recorded data is kept for, set with the System property "space.engine.barrier.trace.frames"
+	 */
+	public static final int FRAMES = Integer.getInteger("space.engine.barrier.trace.frames", 16);
+	
+	private static final ConcurrentHashMap<Barrier, Node> NODES = new ConcurrentHashMap<>();
+	private static final AtomicInteger ID_COUNTER = new AtomicInteger();
+	private static final AtomicInteger FRAME = new AtomicInteger();
+	
+	private BarrierTrace() {
+	}
+	
+	//record
+	
+	/**
+	 * @return the start time to pass to {@link #task(Barrier, String, Object, long)}
+	 */
+	public static long now() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Records that child can only trigger after parent has triggered
+	 */
+	public static void edge(@NotNull Barrier parent, @NotNull Barrier child) {
+		if (parent instanceof DoneBarrier || parent == child)
+			return;
+		Node childNode = node(child);
+		Node parentNode = node(parent);
+		synchronized (childNode) {
+			childNode.parents.add(parentNode);
+		}
+	}
+	
+	/**
+	 * Records a task which started at startNanos, ends now and completes result
+	 *
+	 * @param kind the kind of task, eg. "thenRun"
+	 * @param task the lambda executed, it's class name is recorded
+	 */
+	public static void task(@NotNull Barrier result, @NotNull String kind, @NotNull Object task, long startNanos) {
+		long endNanos = System.nanoTime();
+		Node node = node(result);
+		Thread thread = Thread.currentThread();
+		node.kind = kind;
+		node.task = task.getClass().getName();
+		node.threadId = thread.getId();
+		node.threadName = thread.getName();
+		node.startNanos = startNanos;
+		node.endNanos = endNanos;
+	}
+	
+	/**
+	 * Records the time barrier triggered
+	 */
+	public static void triggered(@NotNull Barrier barrier) {
+		node(barrier).triggerNanos = System.nanoTime();
+	}
+	
+	/**
+	 * Names a {@link Barrier}, eg. the start or end of a frame.
+	 *
+	 * @return the barrier
+	 */
+	public static <B extends Barrier> B mark(@NotNull String name, @NotNull B barrier) {
+		node(barrier).marker = name;
+		return barrier;
+	}
+	
+	/**
+	 * Ends the current frame and removes all Barriers last recorded more than {@link #FRAMES} frames ago.
+	 * Their parents are forgotten as well, so Barriers kept alive by a chain of frames don't keep all previous frames.
+	 */
+	public static void endFrame() {
+		int oldest = FRAME.incrementAndGet() - FRAMES;
+		NODES.values().removeIf(node -> {
+			if (node.frame >= oldest)
+				return false;
+			synchronized (node) {
+				node.parents.clear();
+			}
+			return true;
+		});
+	}
+	
+	/**
+	 * Removes all recorded data
+	 */
+	public static void clear() {
+		NODES.clear();
+	}
+	
+	private static Node node(Barrier barrier) {
+		Node node = NODES.computeIfAbsent(barrier, b -> new Node(ID_COUNTER.incrementAndGet()));
+		node.frame = FRAME.get();
+		return node;
+	}
+	
+	private static class Node {
+		
+		private final int id;
+		private final List<Node> parents = new ArrayList<>(2);
+		
+		/**
+		 * the frame this node was last recorded in
+		 */
+		private volatile int frame;
+		private volatile long triggerNanos;
+		private volatile @Nullable String marker;
+		
+		//task
+		private volatile @Nullable String kind;
+		private volatile @Nullable String task;
+		private volatile @Nullable String threadName;
+		private volatile long threadId;
+		private volatile long startNanos, endNanos;
+		
+		public Node(int id) {
+			this.id = id;
+		}
+		
+		private synchronized Node[] parents() {
+			return parents.toArray(new Node[0]);
+		}
+	}
+	
+	//critical path
+	
+	/**
+	 * A {@link Barrier} on the {@link #criticalPath(Barrier, Barrier) critical path}
+	 */
+	public static class Step {
+		
+		public final int id;
+		public final @Nullable String marker;
+		public final long triggerNanos;
+		/**
+		 * null if no task was recorded for this Barrier, the same for the other task fields
+		 */
+		public final @Nullable String kind, task, threadName;
+		public final long startNanos, endNanos;
+		
+		private Step(Node node) {
+			this.id = node.id;
+			this.marker = node.marker;
+			this.triggerNanos = node.triggerNanos;
+			this.kind = node.kind;
+			this.task = node.task;
+			this.threadName = node.threadName;
+			this.startNanos = node.startNanos;
+			this.endNanos = node.endNanos;
+		}
+		
+		@Override
+		public String toString() {
+			return "Step{" +
+					"id=" + id +
+					(marker != null ? ", marker=" + marker : "") +
+					", triggerNanos=" + triggerNanos +
+					(kind != null ? ", kind=" + kind + ", task=" + task + ", thread=" + threadName + ", durationNanos=" + (endNanos - startNanos) : "") +
+					'}';
+		}
+	}
+	
+	/**
+	 * Walks back from to, always following the parent which triggered last, until from is reached.
+	 * The result is the chain of Barriers which determined when to triggered.
+	 *
+	 * @return the Steps in order starting with from, or starting with the first Barrier without recorded parents if from was not reached
+	 */
+	public static List<Step> criticalPath(@NotNull Barrier from, @NotNull Barrier to) {
+		Node fromNode = NODES.get(from);
+		Node node = NODES.get(to);
+		List<Step> path = new ArrayList<>();
+		IdentityHashMap<Node, Boolean> visited = new IdentityHashMap<>();
+		while (node != null && visited.put(node, Boolean.TRUE) == null) {
+			path.add(new Step(node));
+			if (node == fromNode)
+				break;
+			
+			Node latest = null;
+			for (Node parent : node.parents())
+				if (parent.triggerNanos != 0 && (latest == null || parent.triggerNanos > latest.triggerNanos))
+					latest = parent;
+			node = latest;
+		}
+		Collections.reverse(path);
+		return path;
+	}
+	
+	//chrome trace
+	
+	/**
+	 * Writes all recorded data in the Chrome trace event format, open with chrome://tracing or https://ui.perfetto.dev
+	 */
+	public static void writeChromeTrace(@NotNull Path path) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+			writeChromeTrace(writer);
+		}
+	}
+	
+	/**
+	 * Writes all recorded data in the Chrome trace event format
+	 */
+	public static void writeChromeTrace(@NotNull Writer writer) throws IOException {
+		List<Node> nodes = new ArrayList<>(NODES.values());
+		nodes.sort(Comparator.comparingInt(node -> node.id));
+		long base = Long.MAX_VALUE;
+		for (Node node : nodes) {
+			if (node.kind != null)
+				base = Math.min(base, node.startNanos);
+			if (node.triggerNanos != 0)
+				base = Math.min(base, node.triggerNanos);
+		}
+		
+		writer.write("{\"traceEvents\":[\n");
+		boolean first = true;
+		Map<Long, String> threads = new LinkedHashMap<>();
+		for (Node node : nodes) {
+			if (node.kind != null) {
+				first = separator(writer, first);
+				writer.write("{\"ph\":\"X\",\"pid\":1,\"tid\":" + node.threadId + ",\"name\":" + string(node.kind) + ",\"ts\":" + micros(node.startNanos - base) + ",\"dur\":" + micros(node.endNanos - node.startNanos));
+				writer.write(",\"args\":{\"barrier\":" + node.id + ",\"task\":" + string(node.task) + ",\"parents\":[");
+				Node[] parents = node.parents();
+				for (int i = 0; i < parents.length; i++)
+					writer.write((i == 0 ? "" : ",") + parents[i].id);
+				writer.write("]}}");
+				threads.putIfAbsent(node.threadId, node.threadName);
+			}
+			if (node.marker != null && node.triggerNanos != 0) {
+				first = separator(writer, first);
+				writer.write("{\"ph\":\"i\",\"s\":\"g\",\"pid\":1,\"tid\":0,\"name\":" + string(node.marker) + ",\"ts\":" + micros(node.triggerNanos - base) + ",\"args\":{\"barrier\":" + node.id + "}}");
+			}
+		}
+		for (Map.Entry<Long, String> thread : threads.entrySet()) {
+			first = separator(writer, first);
+			writer.write("{\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getKey() + ",\"name\":\"thread_name\",\"args\":{\"name\":" + string(thread.getValue()) + "}}");
+		}
+		writer.write("\n]}\n");
+	}
+	
+	private static boolean separator(Writer writer, boolean first) throws IOException {
+		if (!first)
+			writer.write(",\n");
+		return false;
+	}
+	
+	private static String micros(long nanos) {
+		return Double.toString(nanos / 1000d);
+	}
+	
+	private static String string(@Nullable String str) {
+		if (str == null)
+			return "null";
+		StringBuilder b = new StringBuilder(str.length() + 2).append('"');
+		for (int i = 0; i < str.length(); i++) {
+			char c = str.charAt(i);
+			if (c == '"' || c == '\\')
+				b.append('\\').append(c);
+			else if (c < 0x20)
+				b.append(String.format("\\u%04x", (int) c));
+			else
+				b.append(c);
+		}
+		return b.append('"').toString();
+	}
+}
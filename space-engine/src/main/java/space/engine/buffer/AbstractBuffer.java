@@ -5,6 +5,7 @@ import org.jetbrains.annotations.Nullable;
 import space.engine.barrier.Barrier;
 import space.engine.baseobject.ToString;
 import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.string.toStringHelper.ToStringHelper;
 import space.engine.string.toStringHelper.ToStringHelper.ToStringHelperObjectsInstance;
@@ -14,7 +15,7 @@ public abstract class AbstractBuffer extends Buffer implements CleanerWrapper, T
 	private final @NotNull Storage storage;
 	
 	protected AbstractBuffer(Allocator allocator, long address, @NotNull Object[] parents) {
-		this.storage = new Storage(this, allocator, address, parents);
+		this.storage = new Storage(this, allocator, address, parents, allocator.isScoped());
 	}
 	
 	@Override
@@ -28,13 +29,17 @@ public abstract class AbstractBuffer extends Buffer implements CleanerWrapper, T
 		return storage;
 	}
 	
-	public static class Storage extends Cleaner {
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
 		
 		public final Allocator allocator;
 		private final long address;
 		
 		public Storage(@Nullable Object referent, Allocator allocator, long address, @NotNull Object[] parents) {
-			super(referent, parents);
+			this(referent, allocator, address, parents, false);
+		}
+		
+		public Storage(@Nullable Object referent, Allocator allocator, long address, @NotNull Object[] parents, boolean explicit) {
+			super(referent, parents, explicit);
 			this.allocator = allocator;
 			this.address = address;
 		}
@@ -49,6 +54,11 @@ public abstract class AbstractBuffer extends Buffer implements CleanerWrapper, T
 			allocator.free(address);
 			return Barrier.DONE_BARRIER;
 		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return allocator;
+		}
 	}
 	
 	//toString
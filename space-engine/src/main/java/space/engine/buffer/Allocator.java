@@ -1,6 +1,11 @@
 package space.engine.buffer;
 
 import space.engine.buffer.AllocatorStack.AllocatorFrame;
+import space.engine.buffer.alloc.AllocatorPool;
+import space.engine.buffer.alloc.AllocatorStackImpl;
+import space.engine.unsafe.UnsafeInstance;
+
+import java.util.List;
 
 public interface Allocator {
 	
@@ -9,10 +14,33 @@ public interface Allocator {
 		return DefaultAllocators.ALLOCATOR_HEAP;
 	}
 	
+	/**
+	 * @return a global {@link AllocatorPool} for medium-lived allocations which are repeatedly allocated and freed at similar sizes
+	 */
+	static AllocatorPool pool() {
+		return DefaultAllocators.ALLOCATOR_POOL;
+	}
+	
 	static AllocatorFrame frame() {
 		return DefaultAllocators.ALLOCATOR_STACK.get().frame();
 	}
 	
+	/**
+	 * Frees the {@link #frame()} stack of the current Thread, a later {@link #frame()} allocates a new one.
+	 * Short-lived Threads like virtual Threads must call this before exiting, as the stacks are not tracked by the GC.
+	 * Must not be called while a frame of the current Thread is open.
+	 */
+	static void freeFrameStack() {
+		DefaultAllocators.freeStack();
+	}
+	
+	/**
+	 * @return the {@link AllocatorStackImpl.Metrics} of the {@link #frame()} stacks of all Threads which are alive and used it
+	 */
+	static List<AllocatorStackImpl.Metrics> stackMetrics() {
+		return DefaultAllocators.stackMetrics();
+	}
+	
 	static Allocator noop() {
 		return DefaultAllocators.ALLOCATOR_NOOP;
 	}
@@ -23,4 +51,22 @@ public interface Allocator {
 	long calloc(long sizeOf);
 	
 	void free(long address);
+	
+	/**
+	 * Resizes an allocation, keeping the first min(oldSizeOf, newSizeOf) bytes. The returned address may differ from address, which must not be used afterwards.
+	 * Defaults to malloc, copy and free.
+	 */
+	default long realloc(long address, long oldSizeOf, long newSizeOf) {
+		long newAddress = malloc(newSizeOf);
+		UnsafeInstance.getUnsafe().copyMemory(address, newAddress, Math.min(oldSizeOf, newSizeOf));
+		free(address);
+		return newAddress;
+	}
+	
+	/**
+	 * @return true if all memory is released with the scope of this Allocator, eg. a frame. Buffers allocated from it are then {@link space.engine.freeable.Cleaner#Cleaner(Object, Object[], boolean) explicitly owned} and not tracked by the GC.
+	 */
+	default boolean isScoped() {
+		return false;
+	}
 }
@@ -9,6 +9,10 @@ public interface AllocatorStack extends FreeableStack {
 	@NotNull AllocatorFrame frame();
 	
 	interface AllocatorFrame extends FreeableStack.Frame, Allocator {
-	
+		
+		@Override
+		default boolean isScoped() {
+			return true;
+		}
 	}
 }
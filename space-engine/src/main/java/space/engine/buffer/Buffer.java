@@ -9,6 +9,8 @@ import space.engine.string.StringBuilder2D;
 import space.engine.unsafe.UnsafeInstance;
 import sun.misc.Unsafe;
 
+import java.nio.ReadOnlyBufferException;
+
 public abstract class Buffer implements Freeable, Dumpable {
 	
 	protected static final Unsafe UNSAFE = UnsafeInstance.getUnsafe();
@@ -32,11 +34,31 @@ public abstract class Buffer implements Freeable, Dumpable {
 		return fromIndex;
 	}
 	
+	/**
+	 * Checks count groups of components elements, starting at fromIndex with stride elements between the starts of consecutive groups.
+	 */
+	public static long checkStrided(long fromIndex, long stride, long components, long count, long bufferLength) {
+		if ((fromIndex | stride | components | count) < 0)
+			throw new IndexOutOfBoundsException(String.format("Strided range [%d, stride %d, components %d, count %d) is negative", fromIndex, stride, components, count));
+		if (count != 0)
+			checkFromIndexSize(fromIndex, (count - 1) * stride + components, bufferLength);
+		return fromIndex;
+	}
+	
 	//buffer properties
 	public abstract long address();
 	
 	public abstract long sizeOf();
 	
+	/**
+	 * Called before bulk writes into this Buffer, which may be the destination of another Buffer's copy.
+	 *
+	 * @throws ReadOnlyBufferException if this Buffer must not be written to
+	 */
+	protected void throwIfReadOnly() throws ReadOnlyBufferException {
+	
+	}
+	
 	//dump
 	@Override
 	public @NotNull String2D dump() {
@@ -64,6 +86,7 @@ public abstract class Buffer implements Freeable, Dumpable {
 	public static void copyMemory(Buffer src, long srcOffset, Buffer dest, long destOffset, long length) {
 		Buffer.checkFromIndexSize(srcOffset, length, src.sizeOf());
 		Buffer.checkFromIndexSize(destOffset, length, dest.sizeOf());
+		dest.throwIfReadOnly();
 		UNSAFE.copyMemory(src.address() + srcOffset, dest.address() + destOffset, length);
 	}
 	
@@ -1,9 +1,15 @@
 package space.engine.buffer;
 
+import space.engine.buffer.alloc.AllocatorPool;
 import space.engine.buffer.alloc.AllocatorStackImpl;
 import space.engine.unsafe.UnsafeInstance;
 import sun.misc.Unsafe;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
 
 /**
@@ -31,9 +37,50 @@ class DefaultAllocators {
 		public void free(long address) {
 			UNSAFE.freeMemory(address);
 		}
+		
+		@Override
+		public long realloc(long address, long oldSizeOf, long newSizeOf) {
+			return UNSAFE.reallocateMemory(address, newSizeOf);
+		}
 	};
 	
-	static final ThreadLocal<AllocatorStack> ALLOCATOR_STACK = ThreadLocal.withInitial(() -> new AllocatorStackImpl(ALLOCATOR_HEAP, 64L * 1024, EMPTY_OBJECT_ARRAY));
+	static final AllocatorPool ALLOCATOR_POOL = new AllocatorPool(ALLOCATOR_HEAP, EMPTY_OBJECT_ARRAY);
+	
+	static final long ALLOCATOR_STACK_CAPACITY = Long.getLong("space.engine.allocator.stackCapacity", 64L * 1024);
+	
+	/**
+	 * all stacks of {@link #ALLOCATOR_STACK} by Thread, for {@link #stackMetrics()}
+	 */
+	private static final Map<Thread, AllocatorStackImpl> ALLOCATOR_STACKS = new WeakHashMap<>();
+	
+	static final ThreadLocal<AllocatorStack> ALLOCATOR_STACK = ThreadLocal.withInitial(() -> {
+		AllocatorStackImpl stack = new AllocatorStackImpl(ALLOCATOR_HEAP, ALLOCATOR_STACK_CAPACITY, EMPTY_OBJECT_ARRAY);
+		synchronized (ALLOCATOR_STACKS) {
+			ALLOCATOR_STACKS.put(Thread.currentThread(), stack);
+		}
+		return stack;
+	});
+	
+	static void freeStack() {
+		Thread thread = Thread.currentThread();
+		AllocatorStackImpl stack;
+		synchronized (ALLOCATOR_STACKS) {
+			stack = ALLOCATOR_STACKS.remove(thread);
+		}
+		if (stack == null)
+			return;
+		ALLOCATOR_STACK.remove();
+		stack.free();
+	}
+	
+	static List<AllocatorStackImpl.Metrics> stackMetrics() {
+		synchronized (ALLOCATOR_STACKS) {
+			List<AllocatorStackImpl.Metrics> list = new ArrayList<>(ALLOCATOR_STACKS.size());
+			for (AllocatorStackImpl stack : ALLOCATOR_STACKS.values())
+				list.add(stack.metrics());
+			return list;
+		}
+	}
 	
 	static final Allocator ALLOCATOR_NOOP = new Allocator() {
 		@Override
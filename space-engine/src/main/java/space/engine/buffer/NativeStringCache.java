@@ -0,0 +1,81 @@
+package space.engine.buffer;
+
+import org.jetbrains.annotations.NotNull;
+import space.engine.buffer.array.ArrayBufferByte;
+import space.engine.freeable.Cleaner;
+import space.engine.freeable.Freeable;
+import space.engine.freeable.Freeable.CleanerWrapper;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+/**
+ * Interns immutable null terminated UTF-8 strings in native memory, eg. for names used by many create-info structs.
+ * <p>
+ * Holds at most maxSize strings and evicts the least recently used one. Evicted strings are not freed, as they may still be in use,
+ * but are freed by the GC once their buffer is no longer referenced. So keep the returned buffer reachable while it's address is in use.
+ * Freeing the cache frees all strings, including evicted ones.
+ */
+public class NativeStringCache implements CleanerWrapper {
+	
+	public static final int DEFAULT_MAX_SIZE = Integer.getInteger("space.engine.buffer.nativeStringCache.maxSize", 1024);
+	
+	/**
+	 * the cache used by {@link StringConverter#internUTF8(String)}
+	 */
+	public static final NativeStringCache GLOBAL = new NativeStringCache(Allocator.heap(), DEFAULT_MAX_SIZE, EMPTY_OBJECT_ARRAY);
+	
+	private final @NotNull Allocator allocator;
+	private final @NotNull Cleaner storage;
+	private final Map<String, ArrayBufferByte> map;
+	private long hits, misses;
+	
+	public NativeStringCache(@NotNull Allocator allocator, int maxSize, @NotNull Object[] parents) {
+		if (maxSize <= 0)
+			throw new IllegalArgumentException("maxSize " + maxSize + " <= 0");
+		this.allocator = allocator;
+		this.storage = Freeable.createDummy(this, parents);
+		this.map = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, ArrayBufferByte> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+	
+	@Override
+	public @NotNull Freeable getStorage() {
+		return storage;
+	}
+	
+	/**
+	 * @return the null terminated UTF-8 string, which must not be modified or freed
+	 */
+	public synchronized @NotNull ArrayBufferByte get(@NotNull String str) {
+		storage.throwIfFreed();
+		ArrayBufferByte buffer = map.get(str);
+		if (buffer != null) {
+			hits++;
+			return buffer;
+		}
+		
+		misses++;
+		buffer = StringConverter.stringToUTF8(allocator, str, true, new Object[] {storage});
+		map.put(str, buffer);
+		return buffer;
+	}
+	
+	public synchronized int size() {
+		return map.size();
+	}
+	
+	public synchronized long hits() {
+		return hits;
+	}
+	
+	public synchronized long misses() {
+		return misses;
+	}
+}
@@ -3,12 +3,16 @@ package space.engine.buffer;
 import space.engine.buffer.AllocatorStack.AllocatorFrame;
 import space.engine.buffer.array.ArrayBufferByte;
 import space.engine.buffer.array.ArrayBufferPointer;
+import space.engine.unsafe.UnsafeInstance;
+import sun.misc.Unsafe;
 
 import static java.nio.charset.StandardCharsets.*;
 import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
 
 public class StringConverter {
 	
+	private static final Unsafe UNSAFE = UnsafeInstance.getUnsafe();
+	
 	public static final byte NULL_CHARACTER = 0;
 	
 	//string[] to pointerbuffer
@@ -17,40 +21,47 @@ public class StringConverter {
 	}
 	
 	public static ArrayBufferPointer stringArrayToUTF8(Allocator allocator, String[] strings, boolean nullTerm, Object[] parents) {
-		ArrayBufferPointer ptrBuffer = ArrayBufferPointer.malloc(allocator, strings.length, parents);
-		ArrayBufferByte[] array = new ArrayBufferByte[strings.length];
-		for (int i = 0; i < strings.length; i++)
-			array[i] = stringToUTF8(allocator, strings[i], nullTerm, new Object[] {ptrBuffer});
-		ptrBuffer.copyFrom(array);
-		Buffer.setContainer(ptrBuffer, array);
-		return ptrBuffer;
+		return stringArrayTo(Encoding.UTF8, allocator, strings, nullTerm, parents);
 	}
 	
 	public static ArrayBufferPointer stringArrayToUTF16(AllocatorFrame allocator, String[] strings, boolean nullTerm) {
-		return stringArrayToUTF8(allocator, strings, nullTerm, EMPTY_OBJECT_ARRAY);
+		return stringArrayToUTF16(allocator, strings, nullTerm, EMPTY_OBJECT_ARRAY);
 	}
 	
 	public static ArrayBufferPointer stringArrayToUTF16(Allocator allocator, String[] strings, boolean nullTerm, Object[] parents) {
-		ArrayBufferPointer ptrBuffer = ArrayBufferPointer.malloc(allocator, strings.length, parents);
-		ArrayBufferByte[] array = new ArrayBufferByte[strings.length];
-		for (int i = 0; i < strings.length; i++)
-			array[i] = stringToUTF16(allocator, strings[i], nullTerm, new Object[] {ptrBuffer});
-		ptrBuffer.copyFrom(array);
-		Buffer.setContainer(ptrBuffer, array);
-		return ptrBuffer;
+		return stringArrayTo(Encoding.UTF16, allocator, strings, nullTerm, parents);
 	}
 	
 	public static ArrayBufferPointer stringArrayToASCII(AllocatorFrame allocator, String[] strings, boolean nullTerm) {
-		return stringArrayToUTF8(allocator, strings, nullTerm, EMPTY_OBJECT_ARRAY);
+		return stringArrayToASCII(allocator, strings, nullTerm, EMPTY_OBJECT_ARRAY);
 	}
 	
 	public static ArrayBufferPointer stringArrayToASCII(Allocator allocator, String[] strings, boolean nullTerm, Object[] parents) {
+		return stringArrayTo(Encoding.ASCII, allocator, strings, nullTerm, parents);
+	}
+	
+	/**
+	 * Encodes all strings back to back into a single {@link ArrayBufferByte}, which is the container of the returned {@link ArrayBufferPointer}.
+	 */
+	private static ArrayBufferPointer stringArrayTo(Encoding encoding, Allocator allocator, String[] strings, boolean nullTerm, Object[] parents) {
+		int nullBytes = nullTerm ? encoding.nullBytes : 0;
+		long[] offsets = new long[strings.length];
+		long sizeOf = 0;
+		for (int i = 0; i < strings.length; i++) {
+			offsets[i] = sizeOf;
+			sizeOf += encoding.length(strings[i]) + nullBytes;
+		}
+		
 		ArrayBufferPointer ptrBuffer = ArrayBufferPointer.malloc(allocator, strings.length, parents);
-		ArrayBufferByte[] array = new ArrayBufferByte[strings.length];
-		for (int i = 0; i < strings.length; i++)
-			array[i] = stringToASCII(allocator, strings[i], nullTerm, new Object[] {ptrBuffer});
-		ptrBuffer.copyFrom(array);
-		Buffer.setContainer(ptrBuffer, array);
+		ArrayBufferByte content = ArrayBufferByte.malloc(allocator, sizeOf, new Object[] {ptrBuffer});
+		long address = content.address();
+		for (int i = 0; i < strings.length; i++) {
+			long stringAddress = address + offsets[i];
+			long length = encoding.encode(strings[i], stringAddress);
+			UNSAFE.setMemory(stringAddress + length, nullBytes, NULL_CHARACTER);
+			ptrBuffer.putPointer(i, stringAddress);
+		}
+		Buffer.setContainer(ptrBuffer, content);
 		return ptrBuffer;
 	}
 	
@@ -60,12 +71,7 @@ public class StringConverter {
 	}
 	
 	public static ArrayBufferByte stringToUTF8(Allocator allocator, String str, boolean nullTerm, Object[] parents) {
-		byte[] bytes = str.getBytes(UTF_8);
-		ArrayBufferByte buffer = ArrayBufferByte.malloc(allocator, bytes.length + (nullTerm ? 1 : 0), parents);
-		buffer.copyFrom(bytes);
-		if (nullTerm)
-			buffer.putByte(bytes.length, (byte) 0);
-		return buffer;
+		return stringTo(Encoding.UTF8, allocator, str, nullTerm, parents);
 	}
 	
 	public static ArrayBufferByte stringToUTF16(AllocatorFrame allocator, String str, boolean nullTerm) {
@@ -73,14 +79,7 @@ public class StringConverter {
 	}
 	
 	public static ArrayBufferByte stringToUTF16(Allocator allocator, String str, boolean nullTerm, Object[] parents) {
-		byte[] bytes = str.getBytes(UTF_16);
-		ArrayBufferByte buffer = ArrayBufferByte.malloc(allocator, bytes.length + (nullTerm ? 2 : 0), parents);
-		buffer.copyFrom(bytes);
-		if (nullTerm) {
-			buffer.putByte(bytes.length, (byte) 0);
-			buffer.putByte(bytes.length + 1, (byte) 0);
-		}
-		return buffer;
+		return stringTo(Encoding.UTF16, allocator, str, nullTerm, parents);
 	}
 	
 	public static ArrayBufferByte stringToASCII(AllocatorFrame allocator, String str, boolean nullTerm) {
@@ -88,14 +87,216 @@ public class StringConverter {
 	}
 	
 	public static ArrayBufferByte stringToASCII(Allocator allocator, String str, boolean nullTerm, Object[] parents) {
-		byte[] bytes = str.getBytes(US_ASCII);
-		ArrayBufferByte buffer = ArrayBufferByte.malloc(allocator, bytes.length + (nullTerm ? 1 : 0), parents);
-		buffer.copyFrom(bytes);
-		if (nullTerm)
-			buffer.putByte(bytes.length, (byte) 0);
+		return stringTo(Encoding.ASCII, allocator, str, nullTerm, parents);
+	}
+	
+	private static ArrayBufferByte stringTo(Encoding encoding, Allocator allocator, String str, boolean nullTerm, Object[] parents) {
+		int nullBytes = nullTerm ? encoding.nullBytes : 0;
+		long length = encoding.length(str);
+		ArrayBufferByte buffer = ArrayBufferByte.malloc(allocator, length + nullBytes, parents);
+		long address = buffer.address();
+		encoding.encode(str, address);
+		UNSAFE.setMemory(address + length, nullBytes, NULL_CHARACTER);
 		return buffer;
 	}
 	
+	/**
+	 * Gets the null terminated UTF-8 string from {@link NativeStringCache#GLOBAL}, instead of encoding it again.
+	 * The returned buffer must not be modified or freed.
+	 */
+	public static ArrayBufferByte internUTF8(String str) {
+		return NativeStringCache.GLOBAL.get(str);
+	}
+	
+	//encode
+	
+	/**
+	 * @return the amount of bytes of str encoded in UTF-8, same as str.getBytes(UTF_8).length
+	 */
+	public static long lengthUTF8(String str) {
+		int length = str.length();
+		long bytes = length;
+		for (int i = 0; i < length; i++) {
+			char c = str.charAt(i);
+			if (c < 0x80)
+				continue;
+			if (c < 0x800) {
+				bytes += 1;
+			} else if (Character.isSurrogate(c)) {
+				//a pair takes 4 bytes, an unpaired surrogate is replaced by '?'
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+					bytes += 2;
+					i++;
+				}
+			} else {
+				bytes += 2;
+			}
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Encodes str as UTF-8 directly to address, without null character. Writes exactly {@link #lengthUTF8(String)} bytes, the same as str.getBytes(UTF_8).
+	 *
+	 * @return the amount of bytes written
+	 */
+	public static long encodeUTF8(String str, long address) {
+		int length = str.length();
+		long p = address;
+		int i = 0;
+		//ascii fast path
+		for (char c; i < length && (c = str.charAt(i)) < 0x80; i++)
+			UNSAFE.putByte(p++, (byte) c);
+		
+		for (; i < length; i++) {
+			char c = str.charAt(i);
+			if (c < 0x80) {
+				UNSAFE.putByte(p++, (byte) c);
+			} else if (c < 0x800) {
+				UNSAFE.putByte(p++, (byte) (0xC0 | (c >> 6)));
+				UNSAFE.putByte(p++, (byte) (0x80 | (c & 0x3F)));
+			} else if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, str.charAt(++i));
+					UNSAFE.putByte(p++, (byte) (0xF0 | (cp >> 18)));
+					UNSAFE.putByte(p++, (byte) (0x80 | ((cp >> 12) & 0x3F)));
+					UNSAFE.putByte(p++, (byte) (0x80 | ((cp >> 6) & 0x3F)));
+					UNSAFE.putByte(p++, (byte) (0x80 | (cp & 0x3F)));
+				} else {
+					UNSAFE.putByte(p++, (byte) '?');
+				}
+			} else {
+				UNSAFE.putByte(p++, (byte) (0xE0 | (c >> 12)));
+				UNSAFE.putByte(p++, (byte) (0x80 | ((c >> 6) & 0x3F)));
+				UNSAFE.putByte(p++, (byte) (0x80 | (c & 0x3F)));
+			}
+		}
+		return p - address;
+	}
+	
+	/**
+	 * @return the amount of bytes of str encoded in UTF-16, same as str.getBytes(UTF_16).length
+	 */
+	public static long lengthUTF16(String str) {
+		//byte order mark + chars
+		return str.isEmpty() ? 0 : 2 + 2L * str.length();
+	}
+	
+	/**
+	 * Encodes str as big endian UTF-16 with byte order mark directly to address, without null character. Writes exactly {@link #lengthUTF16(String)} bytes, the same as str.getBytes(UTF_16).
+	 *
+	 * @return the amount of bytes written
+	 */
+	public static long encodeUTF16(String str, long address) {
+		int length = str.length();
+		if (length == 0)
+			return 0;
+		long p = address;
+		putCharBigEndian(p, (char) 0xFEFF);
+		p += 2;
+		for (int i = 0; i < length; i++, p += 2) {
+			char c = str.charAt(i);
+			if (Character.isSurrogate(c)) {
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1))) {
+					putCharBigEndian(p, c);
+					putCharBigEndian(p += 2, str.charAt(++i));
+					continue;
+				}
+				c = (char) 0xFFFD;
+			}
+			putCharBigEndian(p, c);
+		}
+		return p - address;
+	}
+	
+	private static void putCharBigEndian(long address, char c) {
+		UNSAFE.putByte(address, (byte) (c >> 8));
+		UNSAFE.putByte(address + 1, (byte) c);
+	}
+	
+	/**
+	 * @return the amount of bytes of str encoded in ASCII, same as str.getBytes(US_ASCII).length
+	 */
+	public static long lengthASCII(String str) {
+		int length = str.length();
+		long bytes = length;
+		for (int i = 0; i + 1 < length; i++)
+			if (Character.isHighSurrogate(str.charAt(i)) && Character.isLowSurrogate(str.charAt(i + 1))) {
+				bytes--;
+				i++;
+			}
+		return bytes;
+	}
+	
+	/**
+	 * Encodes str as ASCII directly to address, without null character. Characters outside of ASCII are replaced by '?', the same as str.getBytes(US_ASCII).
+	 *
+	 * @return the amount of bytes written
+	 */
+	public static long encodeASCII(String str, long address) {
+		int length = str.length();
+		long p = address;
+		for (int i = 0; i < length; i++) {
+			char c = str.charAt(i);
+			if (c < 0x80) {
+				UNSAFE.putByte(p++, (byte) c);
+			} else {
+				//a surrogate pair is a single character
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(str.charAt(i + 1)))
+					i++;
+				UNSAFE.putByte(p++, (byte) '?');
+			}
+		}
+		return p - address;
+	}
+	
+	private enum Encoding {
+		
+		UTF8(1) {
+			@Override
+			long length(String str) {
+				return lengthUTF8(str);
+			}
+			
+			@Override
+			long encode(String str, long address) {
+				return encodeUTF8(str, address);
+			}
+		},
+		UTF16(2) {
+			@Override
+			long length(String str) {
+				return lengthUTF16(str);
+			}
+			
+			@Override
+			long encode(String str, long address) {
+				return encodeUTF16(str, address);
+			}
+		},
+		ASCII(1) {
+			@Override
+			long length(String str) {
+				return lengthASCII(str);
+			}
+			
+			@Override
+			long encode(String str, long address) {
+				return encodeASCII(str, address);
+			}
+		};
+		
+		final int nullBytes;
+		
+		Encoding(int nullBytes) {
+			this.nullBytes = nullBytes;
+		}
+		
+		abstract long length(String str);
+		
+		abstract long encode(String str, long address);
+	}
+	
 	//address to string
 	public static String UTF8ToString(long address) {
 		return UTF8ToString(ArrayBufferByte.wrap(address, Long.MAX_VALUE, new Object[0]));
@@ -142,10 +343,17 @@ public class StringConverter {
 	}
 	
 	//other
+	/**
+	 * @param step the size of a code unit, all bytes of it have to be {@link #NULL_CHARACTER}
+	 */
 	private static int findNullCharacter(ArrayBufferByte buffer, int step) {
-		for (int i = 0; i < buffer.sizeOf(); i += step)
-			if (buffer.getByte(i) == NULL_CHARACTER)
-				return i;
+		outer:
+		for (int i = 0; i + step <= buffer.sizeOf(); i += step) {
+			for (int j = 0; j < step; j++)
+				if (buffer.getByte(i + j) != NULL_CHARACTER)
+					continue outer;
+			return i;
+		}
 		throw new StringBufferNotNullTerminatedException(buffer);
 	}
 	
@@ -0,0 +1,199 @@
+package space.engine.buffer.alloc;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.buffer.Allocator;
+import space.engine.freeable.Cleaner;
+import space.engine.freeable.Freeable;
+import space.engine.freeable.Freeable.CleanerWrapper;
+import space.engine.unsafe.UnsafeInstance;
+import sun.misc.Unsafe;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * A bump pointer {@link Allocator} which releases all of it's memory at once when it is {@link #free() freed}, eg. together with a frame.
+ * <p>
+ * Every Thread allocates from it's own sub-arena without any synchronization, sub-arenas take chunks from the backing {@link Allocator}, doubling their size up to 8 times the initial chunk size.
+ * Allocations larger than a quarter of the initial chunk size get a chunk of their own.
+ * {@link #free(long)} does nothing, so Buffers allocated from an {@link AllocatorArena} should be created without parents:
+ * their Storage is then neither registered at a parent nor at the {@link space.engine.freeable.CleanerThread}.
+ * Using a Buffer after it's {@link AllocatorArena} was freed is undefined.
+ */
+public class AllocatorArena implements Allocator, CleanerWrapper {
+	
+	private static Unsafe UNSAFE = UnsafeInstance.getUnsafe();
+	private static final VarHandle SUB_ARENAS;
+	
+	static {
+		try {
+			Lookup lookup = MethodHandles.lookup();
+			SUB_ARENAS = lookup.findVarHandle(AllocatorArena.class, "subArenas", SubArena.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	/**
+	 * the {@link SubArena} last used by a Thread, so switching between arenas doesn't need a ThreadLocal per arena
+	 */
+	private static final ThreadLocal<SubArena> LAST_SUB_ARENA = new ThreadLocal<>();
+	private static final int MAX_CHUNK_GROWTH = 8;
+	
+	protected final @NotNull Storage storage;
+	protected final long chunkSize;
+	private volatile @Nullable SubArena subArenas;
+	
+	/**
+	 * @param allocator the {@link Allocator} to take chunks from
+	 * @param chunkSize the size of the first chunk of every Thread
+	 */
+	public AllocatorArena(@NotNull Allocator allocator, long chunkSize, @NotNull Object[] parents) {
+		if (chunkSize <= 0)
+			throw new IllegalArgumentException("chunkSize " + chunkSize + " <= 0");
+		this.chunkSize = (chunkSize + 0x7) & ~0x7;
+		this.storage = new Storage(this, allocator, parents);
+	}
+	
+	@Override
+	public @NotNull Freeable getStorage() {
+		return storage;
+	}
+	
+	/**
+	 * @return the amount of bytes taken from the backing {@link Allocator}
+	 */
+	public long reservedBytes() {
+		return storage.reservedBytes();
+	}
+	
+	//allocator
+	@Override
+	public long malloc(long sizeOf) {
+		storage.throwIfFreed();
+		SubArena sub = subArena();
+		//align to 8
+		long size = (sizeOf + 0x7) & ~0x7;
+		long address = sub.pointer;
+		if (sub.end - address >= size) {
+			sub.pointer = address + size;
+			return address;
+		}
+		
+		if (size > chunkSize / 4)
+			return storage.allocChunk(size);
+		long newChunkSize = sub.nextChunkSize;
+		sub.nextChunkSize = Math.min(newChunkSize * 2, chunkSize * MAX_CHUNK_GROWTH);
+		address = storage.allocChunk(newChunkSize);
+		sub.pointer = address + size;
+		sub.end = address + newChunkSize;
+		return address;
+	}
+	
+	@Override
+	public long calloc(long sizeOf) {
+		long address = malloc(sizeOf);
+		UNSAFE.setMemory(address, sizeOf, (byte) 0);
+		return address;
+	}
+	
+	/**
+	 * Does nothing, memory is released when the {@link AllocatorArena} is freed.
+	 */
+	@Override
+	public void free(long address) {
+		
+	}
+	
+	@Override
+	public boolean isScoped() {
+		return true;
+	}
+	
+	//sub arena
+	private @NotNull SubArena subArena() {
+		SubArena last = LAST_SUB_ARENA.get();
+		if (last != null && last.arena == this)
+			return last;
+		
+		Thread thread = Thread.currentThread();
+		SubArena head = subArenas;
+		for (SubArena sub = head; sub != null; sub = sub.next) {
+			if (sub.owner == thread) {
+				LAST_SUB_ARENA.set(sub);
+				return sub;
+			}
+		}
+		
+		//only the current Thread can add a SubArena for itself, so no need to search again on CAS failure
+		SubArena sub = new SubArena(this, thread);
+		while (true) {
+			sub.next = head;
+			SubArena witness = (SubArena) SUB_ARENAS.compareAndExchange(this, head, sub);
+			if (witness == head)
+				break;
+			head = witness;
+		}
+		LAST_SUB_ARENA.set(sub);
+		return sub;
+	}
+	
+	private static class SubArena {
+		
+		private final @NotNull AllocatorArena arena;
+		private final @NotNull Thread owner;
+		private @Nullable SubArena next;
+		
+		//accessed by owner only
+		private long pointer, end;
+		private long nextChunkSize;
+		
+		public SubArena(@NotNull AllocatorArena arena, @NotNull Thread owner) {
+			this.arena = arena;
+			this.owner = owner;
+			this.nextChunkSize = arena.chunkSize;
+		}
+	}
+	
+	//storage
+	public static class Storage extends Cleaner {
+		
+		public final Allocator allocator;
+		private long[] chunks = new long[4];
+		private int chunkCount;
+		private long reservedBytes;
+		
+		public Storage(@Nullable Object referent, Allocator allocator, @NotNull Object[] parents) {
+			super(referent, parents);
+			this.allocator = allocator;
+		}
+		
+		private synchronized long allocChunk(long sizeOf) {
+			throwIfFreed();
+			long address = allocator.malloc(sizeOf);
+			if (chunkCount == chunks.length)
+				chunks = Arrays.copyOf(chunks, chunkCount * 2);
+			chunks[chunkCount++] = address;
+			reservedBytes += sizeOf;
+			return address;
+		}
+		
+		private synchronized long reservedBytes() {
+			return reservedBytes;
+		}
+		
+		@Override
+		protected synchronized @NotNull Barrier handleFree() {
+			for (int i = 0; i < chunkCount; i++)
+				allocator.free(chunks[i]);
+			chunks = null;
+			chunkCount = 0;
+			reservedBytes = 0;
+			return Barrier.DONE_BARRIER;
+		}
+	}
+}
@@ -0,0 +1,394 @@
+package space.engine.buffer.alloc;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.buffer.Allocator;
+import space.engine.freeable.Cleaner;
+import space.engine.freeable.Freeable;
+import space.engine.freeable.Freeable.CleanerWrapper;
+import space.engine.unsafe.UnsafeInstance;
+import sun.misc.Unsafe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A pooling {@link Allocator} for native memory which is repeatedly allocated and freed at similar sizes.
+ * <p>
+ * Allocations are rounded up to power of two size classes from {@link #MIN_BLOCK_SIZE} to {@link #MAX_BLOCK_SIZE} (including a 16 byte header, so allocations are 16 byte aligned like {@link Allocator#malloc(long)}), larger allocations go directly to the backing {@link Allocator}.
+ * Every Thread has a magazine of free blocks per size class, full and empty magazines are exchanged with a shared depot, similar to {@link space.engine.recourcePool.BlockResourcePool}.
+ * The magazines of a Thread are returned to the depot once the Thread dies.
+ * New blocks are carved from slabs of one magazine worth of blocks, which are only released when the pool is freed.
+ * <p>
+ * All allocations should be freed before the pool, freeing them afterwards does nothing.
+ * Freeing a block twice throws an {@link IllegalStateException}, unless it was allocated again in between.
+ * In debug mode (System property "space.engine.allocator.pool.debug") freed blocks are filled with garbage and allocations are tracked with their stack trace, see {@link #leaks()}.
+ */
+public class AllocatorPool implements Allocator, CleanerWrapper {
+	
+	public static final boolean DEBUG_DEFAULT = Boolean.getBoolean("space.engine.allocator.pool.debug");
+	
+	private static Unsafe UNSAFE = UnsafeInstance.getUnsafe();
+	
+	public static final int MIN_BLOCK_SIZE_SHIFT = 4;
+	public static final int MAX_BLOCK_SIZE_SHIFT = 16;
+	public static final long MIN_BLOCK_SIZE = 1L << MIN_BLOCK_SIZE_SHIFT;
+	public static final long MAX_BLOCK_SIZE = 1L << MAX_BLOCK_SIZE_SHIFT;
+	public static final int SIZE_CLASS_COUNT = MAX_BLOCK_SIZE_SHIFT - MIN_BLOCK_SIZE_SHIFT + 1;
+	public static final int MAGAZINE_SIZE = 32;
+	
+	//header: int size class, int state, padded to keep the 16 byte alignment of blocks
+	private static final long HEADER_SIZE = 16;
+	private static final int CLASS_LARGE = -1;
+	private static final int STATE_ALLOCATED = 0xA110CA7E;
+	private static final int STATE_FREE = 0xF4EEF4EE;
+	private static final byte DEBUG_FILL = (byte) 0xDE;
+	
+	protected final @NotNull Storage storage;
+	protected final boolean debug;
+	private final SizeClass[] sizeClasses = new SizeClass[SIZE_CLASS_COUNT];
+	private final ThreadLocal<Magazines> magazines;
+	private final @Nullable Map<Long, Throwable> debugAllocations;
+	
+	public AllocatorPool(@NotNull Allocator allocator, @NotNull Object[] parents) {
+		this(allocator, DEBUG_DEFAULT, parents);
+	}
+	
+	public AllocatorPool(@NotNull Allocator allocator, boolean debug, @NotNull Object[] parents) {
+		this.debug = debug;
+		this.storage = new Storage(this, allocator, parents);
+		for (int i = 0; i < SIZE_CLASS_COUNT; i++)
+			sizeClasses[i] = new SizeClass(MIN_BLOCK_SIZE << i);
+		this.magazines = ThreadLocal.withInitial(() -> new Magazines(sizeClasses, storage));
+		this.debugAllocations = debug ? new ConcurrentHashMap<>() : null;
+	}
+	
+	@Override
+	public @NotNull Freeable getStorage() {
+		return storage;
+	}
+	
+	//allocator
+	@Override
+	public long malloc(long sizeOf) {
+		storage.throwIfFreed();
+		long blockSize = sizeOf + HEADER_SIZE;
+		int sizeClass = sizeClassOf(blockSize);
+		
+		long block;
+		if (sizeClass == CLASS_LARGE) {
+			block = storage.allocator.malloc(blockSize);
+		} else {
+			SizeClass clazz = sizeClasses[sizeClass];
+			Magazine magazine = magazine(sizeClass);
+			if (magazine.count == 0)
+				refill(sizeClass, clazz, magazine);
+			block = magazine.blocks[--magazine.count];
+			clazz.allocations.increment();
+			clazz.inUse.increment();
+		}
+		
+		UNSAFE.putInt(block, sizeClass);
+		UNSAFE.putInt(block + 4, STATE_ALLOCATED);
+		long address = block + HEADER_SIZE;
+		if (debugAllocations != null)
+			debugAllocations.put(address, new Throwable("allocated " + sizeOf + " bytes at " + address));
+		return address;
+	}
+	
+	@Override
+	public long calloc(long sizeOf) {
+		long address = malloc(sizeOf);
+		UNSAFE.setMemory(address, sizeOf, (byte) 0);
+		return address;
+	}
+	
+	@Override
+	public void free(long address) {
+		if (storage.isFreed())
+			return;
+		long block = address - HEADER_SIZE;
+		int state = UNSAFE.getInt(block + 4);
+		if (state != STATE_ALLOCATED)
+			throw new IllegalStateException(state == STATE_FREE ? "double free of " + address : "free of " + address + " not allocated by this pool or header corrupted");
+		UNSAFE.putInt(block + 4, STATE_FREE);
+		if (debugAllocations != null)
+			debugAllocations.remove(address);
+		
+		int sizeClass = UNSAFE.getInt(block);
+		if (sizeClass == CLASS_LARGE) {
+			storage.allocator.free(block);
+			return;
+		}
+		
+		SizeClass clazz = sizeClasses[sizeClass];
+		if (debug)
+			UNSAFE.setMemory(address, clazz.blockSize - HEADER_SIZE, DEBUG_FILL);
+		Magazine magazine = magazine(sizeClass);
+		if (magazine.count == MAGAZINE_SIZE)
+			flush(clazz, magazine);
+		magazine.blocks[magazine.count++] = block;
+		clazz.inUse.decrement();
+	}
+	
+	private static int sizeClassOf(long blockSize) {
+		if (blockSize > MAX_BLOCK_SIZE)
+			return CLASS_LARGE;
+		if (blockSize <= MIN_BLOCK_SIZE)
+			return 0;
+		return 64 - Long.numberOfLeadingZeros(blockSize - 1) - MIN_BLOCK_SIZE_SHIFT;
+	}
+	
+	//magazine
+	private static class Magazine {
+		
+		private long[] blocks;
+		private int count;
+		
+		public Magazine(long[] blocks, int count) {
+			this.blocks = blocks;
+			this.count = count;
+		}
+	}
+	
+	/**
+	 * The magazines of a Thread. Only referenced by the ThreadLocal, so it becomes unreachable when the Thread dies and it's {@link MagazinesStorage} returns the blocks to the depot.
+	 */
+	private static class Magazines {
+		
+		private final Magazine[] magazines = new Magazine[SIZE_CLASS_COUNT];
+		
+		public Magazines(SizeClass[] sizeClasses, Storage storage) {
+			new MagazinesStorage(this, magazines, sizeClasses, storage);
+		}
+	}
+	
+	/**
+	 * Must not reference the {@link Magazines} or the {@link AllocatorPool}, otherwise neither would ever become unreachable.
+	 */
+	private static class MagazinesStorage extends Cleaner {
+		
+		private final Magazine[] magazines;
+		private final SizeClass[] sizeClasses;
+		private final Storage storage;
+		
+		public MagazinesStorage(Magazines referent, Magazine[] magazines, SizeClass[] sizeClasses, Storage storage) {
+			super(referent, new Object[] {storage});
+			this.magazines = magazines;
+			this.sizeClasses = sizeClasses;
+			this.storage = storage;
+		}
+		
+		@Override
+		protected @NotNull Barrier handleFree() {
+			//freed with the pool, the Thread may still be alive and all blocks are released anyway
+			if (storage.isFreed())
+				return Barrier.DONE_BARRIER;
+			for (int i = 0; i < SIZE_CLASS_COUNT; i++) {
+				Magazine magazine = magazines[i];
+				if (magazine == null || magazine.count == 0)
+					continue;
+				SizeClass clazz = sizeClasses[i];
+				synchronized (clazz) {
+					for (int j = 0; j < magazine.count; j++) {
+						clazz.loose[clazz.looseCount++] = magazine.blocks[j];
+						if (clazz.looseCount == MAGAZINE_SIZE) {
+							clazz.fullMagazines.add(clazz.loose);
+							clazz.loose = clazz.emptyMagazines.isEmpty() ? new long[MAGAZINE_SIZE] : clazz.emptyMagazines.remove(clazz.emptyMagazines.size() - 1);
+							clazz.looseCount = 0;
+						}
+					}
+				}
+				magazine.count = 0;
+			}
+			return Barrier.DONE_BARRIER;
+		}
+	}
+	
+	private @NotNull Magazine magazine(int sizeClass) {
+		Magazine[] magazines = this.magazines.get().magazines;
+		Magazine magazine = magazines[sizeClass];
+		if (magazine == null)
+			magazine = magazines[sizeClass] = new Magazine(new long[MAGAZINE_SIZE], 0);
+		return magazine;
+	}
+	
+	/**
+	 * Swaps the empty magazine for a full one from the depot, the blocks returned by dead Threads or a new slab.
+	 */
+	private void refill(int sizeClass, SizeClass clazz, Magazine magazine) {
+		long[] full;
+		int count = MAGAZINE_SIZE;
+		synchronized (clazz) {
+			if (!clazz.fullMagazines.isEmpty()) {
+				full = clazz.fullMagazines.remove(clazz.fullMagazines.size() - 1);
+				clazz.emptyMagazines.add(magazine.blocks);
+			} else if (clazz.looseCount != 0) {
+				full = clazz.loose;
+				count = clazz.looseCount;
+				clazz.loose = magazine.blocks;
+				clazz.looseCount = 0;
+			} else {
+				full = null;
+			}
+		}
+		
+		if (full == null) {
+			clazz.misses.increment();
+			long slab = storage.allocSlab(clazz.blockSize * MAGAZINE_SIZE);
+			for (int i = 0; i < MAGAZINE_SIZE; i++) {
+				long block = slab + i * clazz.blockSize;
+				UNSAFE.putInt(block, sizeClass);
+				UNSAFE.putInt(block + 4, STATE_FREE);
+				magazine.blocks[i] = block;
+			}
+			magazine.count = MAGAZINE_SIZE;
+			return;
+		}
+		magazine.blocks = full;
+		magazine.count = count;
+	}
+	
+	/**
+	 * Swaps the full magazine for an empty one, moving the full one to the depot.
+	 */
+	private void flush(SizeClass clazz, Magazine magazine) {
+		long[] empty;
+		synchronized (clazz) {
+			clazz.fullMagazines.add(magazine.blocks);
+			empty = clazz.emptyMagazines.isEmpty() ? null : clazz.emptyMagazines.remove(clazz.emptyMagazines.size() - 1);
+		}
+		magazine.blocks = empty != null ? empty : new long[MAGAZINE_SIZE];
+		magazine.count = 0;
+	}
+	
+	//statistics
+	private static class SizeClass {
+		
+		private final long blockSize;
+		private final LongAdder allocations = new LongAdder();
+		private final LongAdder misses = new LongAdder();
+		private final LongAdder inUse = new LongAdder();
+		
+		//depot, synchronized on this
+		private final List<long[]> fullMagazines = new ArrayList<>();
+		private final List<long[]> emptyMagazines = new ArrayList<>();
+		/**
+		 * blocks returned by dead Threads not filling a magazine yet
+		 */
+		private long[] loose = new long[MAGAZINE_SIZE];
+		private int looseCount;
+		
+		public SizeClass(long blockSize) {
+			this.blockSize = blockSize;
+		}
+	}
+	
+	public static class SizeClassStatistics {
+		
+		/**
+		 * the size of a block including the header
+		 */
+		public final long blockSize;
+		public final long allocations;
+		/**
+		 * the amount of allocations which required a new slab
+		 */
+		public final long misses;
+		public final long blocksInUse;
+		/**
+		 * the amount of free blocks in the depot, not including the magazines of living Threads
+		 */
+		public final long depotBlocks;
+		
+		public SizeClassStatistics(long blockSize, long allocations, long misses, long blocksInUse, long depotBlocks) {
+			this.blockSize = blockSize;
+			this.allocations = allocations;
+			this.misses = misses;
+			this.blocksInUse = blocksInUse;
+			this.depotBlocks = depotBlocks;
+		}
+		
+		public long bytesInUse() {
+			return blocksInUse * blockSize;
+		}
+		
+		/**
+		 * @return the fraction of allocations served without allocating a new slab
+		 */
+		public double hitRate() {
+			return allocations == 0 ? 1 : 1 - (double) misses / allocations;
+		}
+		
+		@Override
+		public String toString() {
+			return "SizeClassStatistics{" +
+					"blockSize=" + blockSize +
+					", allocations=" + allocations +
+					", hitRate=" + hitRate() +
+					", bytesInUse=" + bytesInUse() +
+					'}';
+		}
+	}
+	
+	/**
+	 * @return a snapshot of the statistics of every size class, ordered by block size
+	 */
+	public @NotNull List<SizeClassStatistics> statistics() {
+		List<SizeClassStatistics> list = new ArrayList<>(SIZE_CLASS_COUNT);
+		for (SizeClass clazz : sizeClasses) {
+			long depotBlocks;
+			synchronized (clazz) {
+				depotBlocks = (long) clazz.fullMagazines.size() * MAGAZINE_SIZE + clazz.looseCount;
+			}
+			list.add(new SizeClassStatistics(clazz.blockSize, clazz.allocations.sum(), clazz.misses.sum(), clazz.inUse.sum(), depotBlocks));
+		}
+		return list;
+	}
+	
+	/**
+	 * @return the stack traces of all allocations not yet freed, only available in debug mode
+	 * @throws IllegalStateException if not in debug mode
+	 */
+	public @NotNull List<Throwable> leaks() {
+		if (debugAllocations == null)
+			throw new IllegalStateException("leak detection requires debug mode");
+		return new ArrayList<>(debugAllocations.values());
+	}
+	
+	//storage
+	public static class Storage extends Cleaner {
+		
+		public final Allocator allocator;
+		private long[] slabs = new long[16];
+		private int slabCount;
+		
+		public Storage(@Nullable Object referent, Allocator allocator, @NotNull Object[] parents) {
+			super(referent, parents);
+			this.allocator = allocator;
+		}
+		
+		private synchronized long allocSlab(long sizeOf) {
+			throwIfFreed();
+			long address = allocator.malloc(sizeOf);
+			if (slabCount == slabs.length)
+				slabs = Arrays.copyOf(slabs, slabCount * 2);
+			slabs[slabCount++] = address;
+			return address;
+		}
+		
+		@Override
+		protected synchronized @NotNull Barrier handleFree() {
+			for (int i = 0; i < slabCount; i++)
+				allocator.free(slabs[i]);
+			slabs = null;
+			slabCount = 0;
+			return Barrier.DONE_BARRIER;
+		}
+	}
+}
@@ -2,16 +2,24 @@ package space.engine.buffer.alloc;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
-import space.engine.buffer.AbstractBuffer.Storage;
+import space.engine.barrier.Barrier;
 import space.engine.buffer.Allocator;
 import space.engine.buffer.AllocatorStack;
 import space.engine.buffer.alloc.AllocatorStackImpl.AllocatorFrame;
+import space.engine.freeable.Cleaner;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
 import space.engine.freeable.stack.AbstractFreeableStack;
 import space.engine.unsafe.UnsafeInstance;
 import sun.misc.Unsafe;
 
+/**
+ * A stack of native memory segments. Starts with a single segment of capacity,
+ * if a {@link AllocatorFrame} overflows it's segment the next segment is used or a new one of at least capacity is chained.
+ * Popping a frame returns to the segment of the previous frame, chained segments are kept for reuse until the stack is freed.
+ * <p>
+ * {@link #highWaterMark()} and {@link #overflowCount()} help sizing the capacity, use {@link Allocator#stackMetrics()} to get them for all Threads.
+ */
 public class AllocatorStackImpl extends AbstractFreeableStack<AllocatorFrame> implements AllocatorStack, CleanerWrapper {
 	
 	private static Unsafe UNSAFE = UnsafeInstance.getUnsafe();
@@ -19,9 +27,15 @@ public class AllocatorStackImpl extends AbstractFreeableStack<AllocatorFrame> im
 	protected final @NotNull Storage storage;
 	protected final long capacity;
 	
+	//metrics, only written by the owning Thread
+	private final String threadName;
+	private volatile long highWaterMark;
+	private volatile long overflowCount;
+	
 	public AllocatorStackImpl(@NotNull Allocator allocator, long capacity, @NotNull Object[] parents) {
 		this.capacity = capacity;
-		storage = new Storage(this, allocator, allocator.malloc(capacity), parents);
+		this.threadName = Thread.currentThread().getName();
+		storage = new Storage(this, allocator, capacity, parents);
 	}
 	
 	@Override
@@ -34,12 +48,72 @@ public class AllocatorStackImpl extends AbstractFreeableStack<AllocatorFrame> im
 		return new AllocatorFrame(prev);
 	}
 	
+	//metrics
+	
+	/**
+	 * @return the maximum amount of bytes used at once, including space wasted at the end of overflowed segments
+	 */
+	public long highWaterMark() {
+		return highWaterMark;
+	}
+	
+	/**
+	 * @return how often an allocation did not fit into it's segment and had to continue in the next one
+	 */
+	public long overflowCount() {
+		return overflowCount;
+	}
+	
+	/**
+	 * @return the amount of bytes of all segments
+	 */
+	public long reservedBytes() {
+		return storage.reservedBytes();
+	}
+	
+	public void resetMetrics() {
+		highWaterMark = 0;
+		overflowCount = 0;
+	}
+	
+	public @NotNull Metrics metrics() {
+		return new Metrics(threadName, capacity, reservedBytes(), highWaterMark, overflowCount);
+	}
+	
+	public static class Metrics {
+		
+		public final String threadName;
+		public final long capacity, reservedBytes, highWaterMark, overflowCount;
+		
+		public Metrics(String threadName, long capacity, long reservedBytes, long highWaterMark, long overflowCount) {
+			this.threadName = threadName;
+			this.capacity = capacity;
+			this.reservedBytes = reservedBytes;
+			this.highWaterMark = highWaterMark;
+			this.overflowCount = overflowCount;
+		}
+		
+		@Override
+		public String toString() {
+			return "Metrics{" +
+					"threadName=" + threadName +
+					", capacity=" + capacity +
+					", reservedBytes=" + reservedBytes +
+					", highWaterMark=" + highWaterMark +
+					", overflowCount=" + overflowCount +
+					'}';
+		}
+	}
+	
+	//frame
 	public class AllocatorFrame extends AbstractFreeableStack<AllocatorFrame>.Frame implements AllocatorStack.AllocatorFrame {
 		
+		protected @NotNull Segment segment;
 		protected long pointerStack;
 		
 		public AllocatorFrame(@Nullable AllocatorStackImpl.AllocatorFrame prev) {
 			super(prev);
+			this.segment = prev != null ? prev.segment : storage.first;
 			this.pointerStack = prev != null ? prev.pointerStack : 0;
 		}
 		
@@ -47,12 +121,21 @@ public class AllocatorStackImpl extends AbstractFreeableStack<AllocatorFrame> im
 		@Override
 		public long malloc(long sizeOf) {
 			assertTopFrame();
-			long oldPointerStack = pointerStack;
+			storage.throwIfFreed();
 			//align to 8
-			pointerStack += (sizeOf + 0x7) & ~0x7;
-			if (pointerStack > capacity)
-				throw new OutOfMemoryError("Stack overflow!");
-			return storage.getAddress() + oldPointerStack;
+			long size = (sizeOf + 0x7) & ~0x7;
+			if (pointerStack + size > segment.capacity) {
+				segment = storage.nextSegment(segment, size);
+				pointerStack = 0;
+				overflowCount++;
+			}
+			
+			long address = segment.address + pointerStack;
+			pointerStack += size;
+			long used = segment.offset + pointerStack;
+			if (used > highWaterMark)
+				highWaterMark = used;
+			return address;
 		}
 		
 		@Override
@@ -64,7 +147,76 @@ public class AllocatorStackImpl extends AbstractFreeableStack<AllocatorFrame> im
 		
 		@Override
 		public void free(long address) {
+			
+		}
+	}
+	
+	//storage
+	protected static class Segment {
+		
+		public final long address, capacity;
+		/**
+		 * the sum of the capacities of all previous segments
+		 */
+		public final long offset;
+		private @Nullable Segment next;
+		
+		public Segment(long address, long capacity, long offset) {
+			this.address = address;
+			this.capacity = capacity;
+			this.offset = offset;
+		}
+	}
+	
+	public static class Storage extends Cleaner {
+		
+		public final Allocator allocator;
+		private final long capacity;
+		private final @NotNull Segment first;
 		
+		public Storage(@Nullable Object referent, Allocator allocator, long capacity, @NotNull Object[] parents) {
+			super(referent, parents);
+			this.allocator = allocator;
+			this.capacity = capacity;
+			this.first = new Segment(allocator.malloc(capacity), capacity, 0);
+		}
+		
+		/**
+		 * Gets the Segment after current which can hold size bytes. Segments after current are unused, so they may be replaced if they are too small.
+		 */
+		private synchronized @NotNull Segment nextSegment(@NotNull Segment current, long size) {
+			throwIfFreed();
+			Segment next = current.next;
+			if (next != null && next.capacity >= size)
+				return next;
+			
+			if (next != null) {
+				freeSegments(next);
+				current.next = null;
+			}
+			long newCapacity = Math.max(capacity, size);
+			return current.next = new Segment(allocator.malloc(newCapacity), newCapacity, current.offset + current.capacity);
+		}
+		
+		private synchronized long reservedBytes() {
+			if (isFreed())
+				return 0;
+			long reserved = 0;
+			for (Segment segment = first; segment != null; segment = segment.next)
+				reserved += segment.capacity;
+			return reserved;
+		}
+		
+		private void freeSegments(@Nullable Segment segment) {
+			for (; segment != null; segment = segment.next)
+				allocator.free(segment.address);
+		}
+		
+		@Override
+		protected synchronized @NotNull Barrier handleFree() {
+			freeSegments(first);
+			first.next = null;
+			return Barrier.DONE_BARRIER;
 		}
 	}
 }
@@ -37,6 +37,7 @@ public abstract class AbstractArrayBuffer<SELF extends AbstractArrayBuffer<SELF>
 		Primitive<?> type = type();
 		Buffer.checkFromIndexSize(srcIndex, length, this.length());
 		Buffer.checkFromIndexSize(destIndex, length, dest.length());
+		dest.throwIfReadOnly();
 		UNSAFE.copyMemory(this.address() + type.multiply(srcIndex), dest.address() + type.multiply(destIndex), type.multiply(length));
 	}
 	
@@ -47,10 +48,104 @@ public abstract class AbstractArrayBuffer<SELF extends AbstractArrayBuffer<SELF>
 		Primitive<?> type = type();
 		Buffer.checkFromIndexSize(srcIndex, length, src.length());
 		Buffer.checkFromIndexSize(destIndex, length, this.length());
+		throwIfReadOnly();
 		UNSAFE.copyMemory(src.address() + type.multiply(srcIndex), this.address() + type.multiply(destIndex), type.multiply(length));
 	}
 	
 	public void clear() {
+		throwIfReadOnly();
 		UNSAFE.setMemory(address(), sizeOf(), (byte) 0);
 	}
+	
+	//bulk
+	
+	/**
+	 * Copies count groups of components elements from this to dest. The starts of consecutive groups are srcStride and destStride elements apart.
+	 * src == this
+	 */
+	public void copyStrided(long srcIndex, long srcStride, SELF dest, long destIndex, long destStride, long components, long count) {
+		Primitive<?> type = type();
+		Buffer.checkStrided(srcIndex, srcStride, components, count, this.length());
+		Buffer.checkStrided(destIndex, destStride, components, count, dest.length());
+		dest.throwIfReadOnly();
+		copyGroups(this.address() + type.multiply(srcIndex), type.multiply(srcStride), dest.address() + type.multiply(destIndex), type.multiply(destStride), type.multiply(components), count);
+	}
+	
+	/**
+	 * Copies the group of components elements at every index of indices from this to consecutive groups of dest, eg. to unpack an indexed mesh.
+	 * src == this
+	 */
+	public void gather(ArrayBufferInt indices, long components, SELF dest, long destIndex) {
+		Primitive<?> type = type();
+		long count = indices.length();
+		long groups = components == 0 ? 0 : this.length() / components;
+		Buffer.checkStrided(destIndex, components, components, count, dest.length());
+		dest.throwIfReadOnly();
+		
+		long groupBytes = type.multiply(components);
+		long src = this.address();
+		long dst = dest.address() + type.multiply(destIndex);
+		long indicesAddress = indices.address();
+		for (long i = 0; i < count; i++, dst += groupBytes) {
+			long index = Buffer.checkIndex(UNSAFE.getInt(indicesAddress + (i << 2)), groups);
+			copyGroups(src + index * groupBytes, 0, dst, 0, groupBytes, 1);
+		}
+	}
+	
+	/**
+	 * Interleaves count groups from sources into this, every group of this consists of components[i] elements of sources[i] for every source in order.
+	 * dest == this
+	 */
+	public void interleave(SELF[] sources, long[] components, long count) {
+		if (sources.length != components.length)
+			throw new IllegalArgumentException("sources.length " + sources.length + " != components.length " + components.length);
+		long stride = 0;
+		for (long c : components)
+			stride += c;
+		
+		@SuppressWarnings("unchecked")
+		SELF self = (SELF) this;
+		long offset = 0;
+		for (int i = 0; i < sources.length; i++) {
+			sources[i].copyStrided(0, components[i], self, offset, stride, components[i], count);
+			offset += components[i];
+		}
+	}
+	
+	/**
+	 * Splits count interleaved groups of this into dests, the reverse of {@link #interleave(AbstractArrayBuffer[], long[], long)}.
+	 * src == this
+	 */
+	public void deinterleave(SELF[] dests, long[] components, long count) {
+		if (dests.length != components.length)
+			throw new IllegalArgumentException("dests.length " + dests.length + " != components.length " + components.length);
+		long stride = 0;
+		for (long c : components)
+			stride += c;
+		
+		long offset = 0;
+		for (int i = 0; i < dests.length; i++) {
+			copyStrided(offset, stride, dests[i], 0, components[i], components[i], count);
+			offset += components[i];
+		}
+	}
+	
+	/**
+	 * Copies count groups of groupBytes. Small aligned groups are copied with int accesses, as a call to {@link sun.misc.Unsafe#copyMemory(long, long, long)} per group costs more than the copy itself.
+	 */
+	protected static void copyGroups(long src, long srcStride, long dst, long dstStride, long groupBytes, long count) {
+		if (srcStride == groupBytes && dstStride == groupBytes) {
+			UNSAFE.copyMemory(src, dst, groupBytes * count);
+			return;
+		}
+		
+		if (groupBytes <= 32 && ((src | dst | srcStride | dstStride | groupBytes) & 0x3) == 0) {
+			for (long i = 0; i < count; i++, src += srcStride, dst += dstStride)
+				for (long b = 0; b < groupBytes; b += 4)
+					UNSAFE.putInt(dst + b, UNSAFE.getInt(src + b));
+		} else {
+			for (long i = 0; i < count; i++, src += srcStride, dst += dstStride)
+				UNSAFE.copyMemory(src, dst, groupBytes);
+		}
+	}
 }
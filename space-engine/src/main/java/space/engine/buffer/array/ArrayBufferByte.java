@@ -133,4 +133,14 @@ public class ArrayBufferByte extends AbstractArrayBuffer<ArrayBufferByte> {
 		Buffer.checkFromIndexSize(destIndex, length, this.length);
 		UNSAFE.copyMemory(src, ARRAY_BYTE_BASE_OFFSET + srcIndex * ARRAY_BYTE_INDEX_SCALE, null, address() + type().multiply(destIndex), type().multiply(length));
 	}
+	
+	//bulk
+	public void fill(byte value) {
+		fill(0, length, value);
+	}
+	
+	public void fill(long fromIndex, long toIndex, byte value) {
+		Buffer.checkFromToIndex(fromIndex, toIndex, this.length);
+		UNSAFE.setMemory(address() + fromIndex, toIndex - fromIndex, value);
+	}
 }
\ No newline at end of file
@@ -139,4 +139,96 @@ public class ArrayBufferDouble extends AbstractArrayBuffer<ArrayBufferDouble> {
 	public DoubleStream stream() {
 		return LongStream.range(0, length()).mapToDouble(this::getDouble);
 	}
+	
+	//bulk
+	public void fill(double value) {
+		fill(0, length, value);
+	}
+	
+	public void fill(long fromIndex, long toIndex, double value) {
+		Buffer.checkFromToIndex(fromIndex, toIndex, this.length);
+		long address = address();
+		long p = address + type().multiply(fromIndex);
+		long end = address + type().multiply(toIndex);
+		for (; p + 32 <= end; p += 32) {
+			UNSAFE.putDouble(p, value);
+			UNSAFE.putDouble(p + 8, value);
+			UNSAFE.putDouble(p + 16, value);
+			UNSAFE.putDouble(p + 24, value);
+		}
+		for (; p < end; p += 8)
+			UNSAFE.putDouble(p, value);
+	}
+	
+	public double min() {
+		return min(0, 1, length);
+	}
+	
+	/**
+	 * @return the minimum of count elements starting at index, stride elements apart, or {@link Double#POSITIVE_INFINITY} if count is 0
+	 */
+	public double min(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		double r0 = Double.POSITIVE_INFINITY, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.min(r0, UNSAFE.getDouble(p));
+			r1 = Math.min(r1, UNSAFE.getDouble(p + strideBytes));
+			r2 = Math.min(r2, UNSAFE.getDouble(p + strideBytes * 2));
+			r3 = Math.min(r3, UNSAFE.getDouble(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.min(r0, UNSAFE.getDouble(p));
+		return Math.min(Math.min(r0, r1), Math.min(r2, r3));
+	}
+	
+	public double max() {
+		return max(0, 1, length);
+	}
+	
+	/**
+	 * @return the maximum of count elements starting at index, stride elements apart, or {@link Double#NEGATIVE_INFINITY} if count is 0
+	 */
+	public double max(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		double r0 = Double.NEGATIVE_INFINITY, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.max(r0, UNSAFE.getDouble(p));
+			r1 = Math.max(r1, UNSAFE.getDouble(p + strideBytes));
+			r2 = Math.max(r2, UNSAFE.getDouble(p + strideBytes * 2));
+			r3 = Math.max(r3, UNSAFE.getDouble(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.max(r0, UNSAFE.getDouble(p));
+		return Math.max(Math.max(r0, r1), Math.max(r2, r3));
+	}
+	
+	public double sum() {
+		return sum(0, 1, length);
+	}
+	
+	/**
+	 * @return the sum of count elements starting at index, stride elements apart, accumulated as double
+	 */
+	public double sum(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		double r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 += UNSAFE.getDouble(p);
+			r1 += UNSAFE.getDouble(p + strideBytes);
+			r2 += UNSAFE.getDouble(p + strideBytes * 2);
+			r3 += UNSAFE.getDouble(p + strideBytes * 3);
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 += UNSAFE.getDouble(p);
+		return (r0 + r1) + (r2 + r3);
+	}
 }
\ No newline at end of file
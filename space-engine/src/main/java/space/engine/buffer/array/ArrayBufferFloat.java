@@ -8,6 +8,7 @@ import space.engine.buffer.Buffer;
 import space.engine.buffer.NioBufferWrapper;
 import space.engine.primitive.JavaPrimitives;
 import space.engine.primitive.Primitive;
+import space.engine.vector.Matrix4;
 
 import java.nio.FloatBuffer;
 
@@ -133,4 +134,185 @@ public class ArrayBufferFloat extends AbstractArrayBuffer<ArrayBufferFloat> {
 		Buffer.checkFromIndexSize(destIndex, length, this.length);
 		UNSAFE.copyMemory(src, ARRAY_FLOAT_BASE_OFFSET + srcIndex * ARRAY_FLOAT_INDEX_SCALE, null, address() + type().multiply(destIndex), type().multiply(length));
 	}
+	
+	//bulk
+	public void fill(float value) {
+		fill(0, length, value);
+	}
+	
+	public void fill(long fromIndex, long toIndex, float value) {
+		Buffer.checkFromToIndex(fromIndex, toIndex, this.length);
+		long address = address();
+		long p = address + type().multiply(fromIndex);
+		long end = address + type().multiply(toIndex);
+		for (; p + 16 <= end; p += 16) {
+			UNSAFE.putFloat(p, value);
+			UNSAFE.putFloat(p + 4, value);
+			UNSAFE.putFloat(p + 8, value);
+			UNSAFE.putFloat(p + 12, value);
+		}
+		for (; p < end; p += 4)
+			UNSAFE.putFloat(p, value);
+	}
+	
+	public float min() {
+		return min(0, 1, length);
+	}
+	
+	/**
+	 * @return the minimum of count elements starting at index, stride elements apart, or {@link Float#POSITIVE_INFINITY} if count is 0
+	 */
+	public float min(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		float r0 = Float.POSITIVE_INFINITY, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.min(r0, UNSAFE.getFloat(p));
+			r1 = Math.min(r1, UNSAFE.getFloat(p + strideBytes));
+			r2 = Math.min(r2, UNSAFE.getFloat(p + strideBytes * 2));
+			r3 = Math.min(r3, UNSAFE.getFloat(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.min(r0, UNSAFE.getFloat(p));
+		return Math.min(Math.min(r0, r1), Math.min(r2, r3));
+	}
+	
+	public float max() {
+		return max(0, 1, length);
+	}
+	
+	/**
+	 * @return the maximum of count elements starting at index, stride elements apart, or {@link Float#NEGATIVE_INFINITY} if count is 0
+	 */
+	public float max(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		float r0 = Float.NEGATIVE_INFINITY, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.max(r0, UNSAFE.getFloat(p));
+			r1 = Math.max(r1, UNSAFE.getFloat(p + strideBytes));
+			r2 = Math.max(r2, UNSAFE.getFloat(p + strideBytes * 2));
+			r3 = Math.max(r3, UNSAFE.getFloat(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.max(r0, UNSAFE.getFloat(p));
+		return Math.max(Math.max(r0, r1), Math.max(r2, r3));
+	}
+	
+	public double sum() {
+		return sum(0, 1, length);
+	}
+	
+	/**
+	 * @return the sum of count elements starting at index, stride elements apart, accumulated as double
+	 */
+	public double sum(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		double r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 += UNSAFE.getFloat(p);
+			r1 += UNSAFE.getFloat(p + strideBytes);
+			r2 += UNSAFE.getFloat(p + strideBytes * 2);
+			r3 += UNSAFE.getFloat(p + strideBytes * 3);
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 += UNSAFE.getFloat(p);
+		return (r0 + r1) + (r2 + r3);
+	}
+	
+	//transform
+	
+	/**
+	 * Transforms count points (x, y, z, implicit w = 1) in place, see {@link #transformPoints(Matrix4, long, long, ArrayBufferFloat, long, long, long)}.
+	 */
+	public void transformPoints(Matrix4 mat, long index, long stride, long count) {
+		transformPoints(mat, index, stride, this, index, stride, count);
+	}
+	
+	/**
+	 * Transforms count points (x, y, z, implicit w = 1) by the affine part of mat, the last row of mat is ignored.
+	 * The vectors are stride elements apart, dest may be this with the same index and stride to transform in place.
+	 * src == this
+	 */
+	public void transformPoints(Matrix4 mat, long srcIndex, long srcStride, ArrayBufferFloat dest, long destIndex, long destStride, long count) {
+		transform3(mat, true, srcIndex, srcStride, dest, destIndex, destStride, count);
+	}
+	
+	/**
+	 * Transforms count directions (x, y, z, implicit w = 0) in place, see {@link #transformDirections(Matrix4, long, long, ArrayBufferFloat, long, long, long)}.
+	 */
+	public void transformDirections(Matrix4 mat, long index, long stride, long count) {
+		transformDirections(mat, index, stride, this, index, stride, count);
+	}
+	
+	/**
+	 * Transforms count directions (x, y, z, implicit w = 0) by the upper 3x3 of mat, so they are not translated.
+	 * The vectors are stride elements apart, dest may be this with the same index and stride to transform in place.
+	 * src == this
+	 */
+	public void transformDirections(Matrix4 mat, long srcIndex, long srcStride, ArrayBufferFloat dest, long destIndex, long destStride, long count) {
+		transform3(mat, false, srcIndex, srcStride, dest, destIndex, destStride, count);
+	}
+	
+	private void transform3(Matrix4 mat, boolean translate, long srcIndex, long srcStride, ArrayBufferFloat dest, long destIndex, long destStride, long count) {
+		Buffer.checkStrided(srcIndex, srcStride, 3, count, this.length);
+		Buffer.checkStrided(destIndex, destStride, 3, count, dest.length);
+		long src = this.address() + (srcIndex << 2);
+		long dst = dest.address() + (destIndex << 2);
+		long srcStrideBytes = srcStride << 2;
+		long destStrideBytes = destStride << 2;
+		//matrix in locals, Unsafe stores may otherwise force reloading it every iteration
+		float m00 = mat.m00, m01 = mat.m01, m02 = mat.m02, m03 = translate ? mat.m03 : 0;
+		float m10 = mat.m10, m11 = mat.m11, m12 = mat.m12, m13 = translate ? mat.m13 : 0;
+		float m20 = mat.m20, m21 = mat.m21, m22 = mat.m22, m23 = translate ? mat.m23 : 0;
+		for (long i = 0; i < count; i++, src += srcStrideBytes, dst += destStrideBytes) {
+			float x = UNSAFE.getFloat(src);
+			float y = UNSAFE.getFloat(src + 4);
+			float z = UNSAFE.getFloat(src + 8);
+			UNSAFE.putFloat(dst, m00 * x + m01 * y + m02 * z + m03);
+			UNSAFE.putFloat(dst + 4, m10 * x + m11 * y + m12 * z + m13);
+			UNSAFE.putFloat(dst + 8, m20 * x + m21 * y + m22 * z + m23);
+		}
+	}
+	
+	/**
+	 * Transforms count vec4 in place, see {@link #transformVec4(Matrix4, long, long, ArrayBufferFloat, long, long, long)}.
+	 */
+	public void transformVec4(Matrix4 mat, long index, long stride, long count) {
+		transformVec4(mat, index, stride, this, index, stride, count);
+	}
+	
+	/**
+	 * Multiplies count vec4 with mat. The vectors are stride elements apart, dest may be this with the same index and stride to transform in place.
+	 * src == this
+	 */
+	public void transformVec4(Matrix4 mat, long srcIndex, long srcStride, ArrayBufferFloat dest, long destIndex, long destStride, long count) {
+		Buffer.checkStrided(srcIndex, srcStride, 4, count, this.length);
+		Buffer.checkStrided(destIndex, destStride, 4, count, dest.length);
+		long src = this.address() + (srcIndex << 2);
+		long dst = dest.address() + (destIndex << 2);
+		long srcStrideBytes = srcStride << 2;
+		long destStrideBytes = destStride << 2;
+		float m00 = mat.m00, m01 = mat.m01, m02 = mat.m02, m03 = mat.m03;
+		float m10 = mat.m10, m11 = mat.m11, m12 = mat.m12, m13 = mat.m13;
+		float m20 = mat.m20, m21 = mat.m21, m22 = mat.m22, m23 = mat.m23;
+		float m30 = mat.m30, m31 = mat.m31, m32 = mat.m32, m33 = mat.m33;
+		for (long i = 0; i < count; i++, src += srcStrideBytes, dst += destStrideBytes) {
+			float x = UNSAFE.getFloat(src);
+			float y = UNSAFE.getFloat(src + 4);
+			float z = UNSAFE.getFloat(src + 8);
+			float w = UNSAFE.getFloat(src + 12);
+			UNSAFE.putFloat(dst, m00 * x + m01 * y + m02 * z + m03 * w);
+			UNSAFE.putFloat(dst + 4, m10 * x + m11 * y + m12 * z + m13 * w);
+			UNSAFE.putFloat(dst + 8, m20 * x + m21 * y + m22 * z + m23 * w);
+			UNSAFE.putFloat(dst + 12, m30 * x + m31 * y + m32 * z + m33 * w);
+		}
+	}
 }
\ No newline at end of file
@@ -139,4 +139,96 @@ public class ArrayBufferInt extends AbstractArrayBuffer<ArrayBufferInt> {
 	public IntStream stream() {
 		return LongStream.range(0, length()).mapToInt(this::getInt);
 	}
+	
+	//bulk
+	public void fill(int value) {
+		fill(0, length, value);
+	}
+	
+	public void fill(long fromIndex, long toIndex, int value) {
+		Buffer.checkFromToIndex(fromIndex, toIndex, this.length);
+		long address = address();
+		long p = address + type().multiply(fromIndex);
+		long end = address + type().multiply(toIndex);
+		for (; p + 16 <= end; p += 16) {
+			UNSAFE.putInt(p, value);
+			UNSAFE.putInt(p + 4, value);
+			UNSAFE.putInt(p + 8, value);
+			UNSAFE.putInt(p + 12, value);
+		}
+		for (; p < end; p += 4)
+			UNSAFE.putInt(p, value);
+	}
+	
+	public int min() {
+		return min(0, 1, length);
+	}
+	
+	/**
+	 * @return the minimum of count elements starting at index, stride elements apart, or {@link Integer#MAX_VALUE} if count is 0
+	 */
+	public int min(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		int r0 = Integer.MAX_VALUE, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.min(r0, UNSAFE.getInt(p));
+			r1 = Math.min(r1, UNSAFE.getInt(p + strideBytes));
+			r2 = Math.min(r2, UNSAFE.getInt(p + strideBytes * 2));
+			r3 = Math.min(r3, UNSAFE.getInt(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.min(r0, UNSAFE.getInt(p));
+		return Math.min(Math.min(r0, r1), Math.min(r2, r3));
+	}
+	
+	public int max() {
+		return max(0, 1, length);
+	}
+	
+	/**
+	 * @return the maximum of count elements starting at index, stride elements apart, or {@link Integer#MIN_VALUE} if count is 0
+	 */
+	public int max(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		int r0 = Integer.MIN_VALUE, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.max(r0, UNSAFE.getInt(p));
+			r1 = Math.max(r1, UNSAFE.getInt(p + strideBytes));
+			r2 = Math.max(r2, UNSAFE.getInt(p + strideBytes * 2));
+			r3 = Math.max(r3, UNSAFE.getInt(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.max(r0, UNSAFE.getInt(p));
+		return Math.max(Math.max(r0, r1), Math.max(r2, r3));
+	}
+	
+	public long sum() {
+		return sum(0, 1, length);
+	}
+	
+	/**
+	 * @return the sum of count elements starting at index, stride elements apart, accumulated as long
+	 */
+	public long sum(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		long r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 += UNSAFE.getInt(p);
+			r1 += UNSAFE.getInt(p + strideBytes);
+			r2 += UNSAFE.getInt(p + strideBytes * 2);
+			r3 += UNSAFE.getInt(p + strideBytes * 3);
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 += UNSAFE.getInt(p);
+		return (r0 + r1) + (r2 + r3);
+	}
 }
\ No newline at end of file
@@ -138,4 +138,96 @@ public class ArrayBufferLong extends AbstractArrayBuffer<ArrayBufferLong> {
 	public LongStream stream() {
 		return LongStream.range(0, length()).map(this::getLong);
 	}
+	
+	//bulk
+	public void fill(long value) {
+		fill(0, length, value);
+	}
+	
+	public void fill(long fromIndex, long toIndex, long value) {
+		Buffer.checkFromToIndex(fromIndex, toIndex, this.length);
+		long address = address();
+		long p = address + type().multiply(fromIndex);
+		long end = address + type().multiply(toIndex);
+		for (; p + 32 <= end; p += 32) {
+			UNSAFE.putLong(p, value);
+			UNSAFE.putLong(p + 8, value);
+			UNSAFE.putLong(p + 16, value);
+			UNSAFE.putLong(p + 24, value);
+		}
+		for (; p < end; p += 8)
+			UNSAFE.putLong(p, value);
+	}
+	
+	public long min() {
+		return min(0, 1, length);
+	}
+	
+	/**
+	 * @return the minimum of count elements starting at index, stride elements apart, or {@link Long#MAX_VALUE} if count is 0
+	 */
+	public long min(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		long r0 = Long.MAX_VALUE, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.min(r0, UNSAFE.getLong(p));
+			r1 = Math.min(r1, UNSAFE.getLong(p + strideBytes));
+			r2 = Math.min(r2, UNSAFE.getLong(p + strideBytes * 2));
+			r3 = Math.min(r3, UNSAFE.getLong(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.min(r0, UNSAFE.getLong(p));
+		return Math.min(Math.min(r0, r1), Math.min(r2, r3));
+	}
+	
+	public long max() {
+		return max(0, 1, length);
+	}
+	
+	/**
+	 * @return the maximum of count elements starting at index, stride elements apart, or {@link Long#MIN_VALUE} if count is 0
+	 */
+	public long max(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		long r0 = Long.MIN_VALUE, r1 = r0, r2 = r0, r3 = r0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 = Math.max(r0, UNSAFE.getLong(p));
+			r1 = Math.max(r1, UNSAFE.getLong(p + strideBytes));
+			r2 = Math.max(r2, UNSAFE.getLong(p + strideBytes * 2));
+			r3 = Math.max(r3, UNSAFE.getLong(p + strideBytes * 3));
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 = Math.max(r0, UNSAFE.getLong(p));
+		return Math.max(Math.max(r0, r1), Math.max(r2, r3));
+	}
+	
+	public long sum() {
+		return sum(0, 1, length);
+	}
+	
+	/**
+	 * @return the sum of count elements starting at index, stride elements apart, accumulated as long
+	 */
+	public long sum(long index, long stride, long count) {
+		Buffer.checkStrided(index, stride, 1, count, this.length);
+		long strideBytes = type().multiply(stride);
+		long p = address() + type().multiply(index);
+		long r0 = 0, r1 = 0, r2 = 0, r3 = 0;
+		long i = 0;
+		for (; i + 4 <= count; i += 4, p += strideBytes << 2) {
+			r0 += UNSAFE.getLong(p);
+			r1 += UNSAFE.getLong(p + strideBytes);
+			r2 += UNSAFE.getLong(p + strideBytes * 2);
+			r3 += UNSAFE.getLong(p + strideBytes * 3);
+		}
+		for (; i < count; i++, p += strideBytes)
+			r0 += UNSAFE.getLong(p);
+		return (r0 + r1) + (r2 + r3);
+	}
 }
\ No newline at end of file
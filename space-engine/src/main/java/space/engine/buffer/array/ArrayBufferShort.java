@@ -133,4 +133,24 @@ public class ArrayBufferShort extends AbstractArrayBuffer<ArrayBufferShort> {
 		Buffer.checkFromIndexSize(destIndex, length, this.length);
 		UNSAFE.copyMemory(src, ARRAY_SHORT_BASE_OFFSET + srcIndex * ARRAY_SHORT_INDEX_SCALE, null, address() + type().multiply(destIndex), type().multiply(length));
 	}
+	
+	//bulk
+	public void fill(short value) {
+		fill(0, length, value);
+	}
+	
+	public void fill(long fromIndex, long toIndex, short value) {
+		Buffer.checkFromToIndex(fromIndex, toIndex, this.length);
+		long address = address();
+		long p = address + type().multiply(fromIndex);
+		long end = address + type().multiply(toIndex);
+		for (; p + 8 <= end; p += 8) {
+			UNSAFE.putShort(p, value);
+			UNSAFE.putShort(p + 2, value);
+			UNSAFE.putShort(p + 4, value);
+			UNSAFE.putShort(p + 6, value);
+		}
+		for (; p < end; p += 2)
+			UNSAFE.putShort(p, value);
+	}
 }
\ No newline at end of file
@@ -0,0 +1,143 @@
+package space.engine.buffer.array;
+
+import org.jetbrains.annotations.NotNull;
+import space.engine.barrier.Barrier;
+import space.engine.buffer.Allocator;
+import space.engine.freeable.Cleaner;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static space.engine.unsafe.UnsafeInstance.objectFieldOffset;
+
+/**
+ * An {@link ArrayBufferByte} backed by a memory-mapped file. The file is unmapped when the {@link MappedFileBuffer} is freed.
+ * <p>
+ * Pages are only read from disk when accessed, so copying from a {@link MappedFileBuffer} into another Buffer (eg. a mapped Vulkan buffer)
+ * streams the file without ever holding it on the heap. A single mapping is limited to {@link Integer#MAX_VALUE} bytes.
+ */
+public class MappedFileBuffer extends ArrayBufferByte {
+	
+	private static final long ADDRESS = objectFieldOffset(java.nio.Buffer.class, "address");
+	
+	//map
+	
+	/**
+	 * Maps the entire file read-only. Writes throw a {@link ReadOnlyBufferException}.
+	 */
+	public static MappedFileBuffer mapReadOnly(@NotNull Path path, @NotNull Object[] parents) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return map(channel, MapMode.READ_ONLY, 0, channel.size(), parents);
+		}
+	}
+	
+	/**
+	 * Maps length bytes of the file starting at offset read-only. Writes throw a {@link ReadOnlyBufferException}.
+	 */
+	public static MappedFileBuffer mapReadOnly(@NotNull Path path, long offset, long length, @NotNull Object[] parents) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			return map(channel, MapMode.READ_ONLY, offset, length, parents);
+		}
+	}
+	
+	/**
+	 * Maps the first length bytes of the file read-write, the file is created or extended to length if required.
+	 * Changes are written back to the file eventually, use {@link #force()} to write them immediately.
+	 */
+	public static MappedFileBuffer mapReadWrite(@NotNull Path path, long length, @NotNull Object[] parents) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+			return map(channel, MapMode.READ_WRITE, 0, length, parents);
+		}
+	}
+	
+	/**
+	 * Maps length bytes of the channel starting at offset. The channel may be closed afterwards, the mapping remains valid until the {@link MappedFileBuffer} is freed.
+	 */
+	public static MappedFileBuffer map(@NotNull FileChannel channel, @NotNull MapMode mode, long offset, long length, @NotNull Object[] parents) throws IOException {
+		if (length > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("length " + length + " > Integer.MAX_VALUE, map the file in multiple parts");
+		MappedByteBuffer mapped = channel.map(mode, offset, length);
+		return new MappedFileBuffer(mapped, length, mode == MapMode.READ_ONLY, parents);
+	}
+	
+	//object
+	private final @NotNull MappedByteBuffer mapped;
+	private final boolean readOnly;
+	
+	protected MappedFileBuffer(@NotNull MappedByteBuffer mapped, long length, boolean readOnly, @NotNull Object[] parents) {
+		super(Allocator.noop(), UNSAFE.getLong(mapped, ADDRESS), length, parents);
+		this.mapped = mapped;
+		this.readOnly = readOnly;
+		new MappingStorage(mapped, new Object[] {this});
+	}
+	
+	public boolean isReadOnly() {
+		return readOnly;
+	}
+	
+	@Override
+	protected void throwIfReadOnly() throws ReadOnlyBufferException {
+		if (readOnly)
+			throw new ReadOnlyBufferException();
+	}
+	
+	//writes into a read-only mapping would crash the VM
+	@Override
+	public ByteBuffer nioBuffer() {
+		ByteBuffer buffer = super.nioBuffer();
+		return readOnly ? buffer.asReadOnlyBuffer() : buffer;
+	}
+	
+	@Override
+	public void putByte(long index, byte b) {
+		throwIfReadOnly();
+		super.putByte(index, b);
+	}
+	
+	@Override
+	public void copyFrom(byte[] src, int srcIndex, long destIndex, int length) {
+		throwIfReadOnly();
+		super.copyFrom(src, srcIndex, destIndex, length);
+	}
+	
+	@Override
+	public void fill(long fromIndex, long toIndex, byte value) {
+		throwIfReadOnly();
+		super.fill(fromIndex, toIndex, value);
+	}
+	
+	/**
+	 * Writes all changes back to the file. Does nothing if read-only.
+	 */
+	public void force() {
+		getStorage().throwIfFreed();
+		if (!readOnly)
+			mapped.force();
+	}
+	
+	/**
+	 * Unmaps the {@link MappedByteBuffer} when the {@link MappedFileBuffer} is freed, as it's dependency.
+	 */
+	public static class MappingStorage extends Cleaner {
+		
+		private final @NotNull MappedByteBuffer mapped;
+		
+		public MappingStorage(@NotNull MappedByteBuffer mapped, @NotNull Object[] parents) {
+			//always freed with it's parent, so it does not need to be tracked by the GC itself
+			super(null, parents);
+			this.mapped = mapped;
+		}
+		
+		@Override
+		protected @NotNull Barrier handleFree() {
+			UNSAFE.invokeCleaner(mapped);
+			return Barrier.DONE_BARRIER;
+		}
+	}
+}
@@ -0,0 +1,101 @@
+package space.engine.buffer.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.buffer.Allocator;
+import space.engine.freeable.Cleaner;
+import space.engine.freeable.CleanerThread;
+import space.engine.freeable.Freeable.CleanerWrapper;
+import space.engine.unsafe.UnsafeInstance;
+import sun.misc.Unsafe;
+
+/**
+ * A collection of primitives stored in a single block of native memory, which is freed with the collection.
+ * The block is moved when the collection grows, so it's address must not be cached. Not thread-safe.
+ */
+public abstract class AbstractNativeCollection implements CleanerWrapper {
+	
+	protected static final Unsafe UNSAFE = UnsafeInstance.getUnsafe();
+	
+	protected final @NotNull Storage storage;
+	
+	protected AbstractNativeCollection(@NotNull Allocator allocator, long sizeOf, @NotNull Object[] parents) {
+		this.storage = new Storage(this, allocator, sizeOf, parents);
+	}
+	
+	@Override
+	public @NotNull Storage getStorage() {
+		return storage;
+	}
+	
+	public abstract long size();
+	
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+	
+	/**
+	 * @return the amount of native memory used in bytes
+	 */
+	public long sizeOf() {
+		return storage.sizeOf;
+	}
+	
+	//storage
+	public static class Storage extends Cleaner implements CleanerThread.Grouped {
+		
+		public final Allocator allocator;
+		private long address;
+		private long sizeOf;
+		
+		public Storage(@Nullable Object referent, @NotNull Allocator allocator, long sizeOf, @NotNull Object[] parents) {
+			super(referent, parents, allocator.isScoped());
+			this.allocator = allocator;
+			this.address = allocator.calloc(sizeOf);
+			this.sizeOf = sizeOf;
+		}
+		
+		public long address() {
+			throwIfFreed();
+			return address;
+		}
+		
+		/**
+		 * Grows or shrinks the block keeping it's contents, see {@link Allocator#realloc(long, long, long)}. New bytes are undefined.
+		 */
+		public void realloc(long newSizeOf) {
+			throwIfFreed();
+			address = allocator.realloc(address, sizeOf, newSizeOf);
+			sizeOf = newSizeOf;
+		}
+		
+		/**
+		 * Replaces the block with a new zeroed one of newSizeOf.
+		 *
+		 * @return the address of the old block, which has to be {@link #freeReplaced(long) freed} by the caller after it's contents were moved
+		 */
+		public long replace(long newSizeOf) {
+			throwIfFreed();
+			long old = address;
+			address = allocator.calloc(newSizeOf);
+			sizeOf = newSizeOf;
+			return old;
+		}
+		
+		public void freeReplaced(long oldAddress) {
+			allocator.free(oldAddress);
+		}
+		
+		@Override
+		protected @NotNull Barrier handleFree() {
+			allocator.free(address);
+			return Barrier.DONE_BARRIER;
+		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return allocator;
+		}
+	}
+}
@@ -0,0 +1,124 @@
+package space.engine.buffer.collection;
+
+import org.jetbrains.annotations.NotNull;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.Buffer;
+import space.engine.buffer.array.ArrayBufferInt;
+
+import java.util.NoSuchElementException;
+
+import static sun.misc.Unsafe.*;
+
+/**
+ * A growable list of ints in native memory. Growing reallocates the block to double it's capacity.
+ */
+public class IntList extends AbstractNativeCollection {
+	
+	public static final long DEFAULT_CAPACITY = 16;
+	private static final int SHIFT = 2;
+	
+	private long size;
+	private long capacity;
+	
+	public IntList(@NotNull Allocator allocator, @NotNull Object[] parents) {
+		this(allocator, DEFAULT_CAPACITY, parents);
+	}
+	
+	public IntList(@NotNull Allocator allocator, long initialCapacity, @NotNull Object[] parents) {
+		super(allocator, Math.max(initialCapacity, 1) << SHIFT, parents);
+		this.capacity = Math.max(initialCapacity, 1);
+	}
+	
+	@Override
+	public long size() {
+		return size;
+	}
+	
+	public long capacity() {
+		return capacity;
+	}
+	
+	public void ensureCapacity(long minCapacity) {
+		if (minCapacity <= capacity)
+			return;
+		long newCapacity = Math.max(capacity * 2, minCapacity);
+		storage.realloc(newCapacity << SHIFT);
+		capacity = newCapacity;
+	}
+	
+	/**
+	 * Shrinks the block to the current size.
+	 */
+	public void trimToSize() {
+		long newCapacity = Math.max(size, 1);
+		if (newCapacity == capacity)
+			return;
+		storage.realloc(newCapacity << SHIFT);
+		capacity = newCapacity;
+	}
+	
+	//access
+	public int get(long index) {
+		Buffer.checkIndex(index, size);
+		return UNSAFE.getInt(storage.address() + (index << SHIFT));
+	}
+	
+	public void set(long index, int value) {
+		Buffer.checkIndex(index, size);
+		UNSAFE.putInt(storage.address() + (index << SHIFT), value);
+	}
+	
+	public void add(int value) {
+		if (size == capacity)
+			ensureCapacity(size + 1);
+		UNSAFE.putInt(storage.address() + (size << SHIFT), value);
+		size++;
+	}
+	
+	public void addAll(int[] values) {
+		ensureCapacity(size + values.length);
+		UNSAFE.copyMemory(values, ARRAY_INT_BASE_OFFSET, null, storage.address() + (size << SHIFT), (long) values.length << SHIFT);
+		size += values.length;
+	}
+	
+	public int removeLast() {
+		if (size == 0)
+			throw new NoSuchElementException();
+		size--;
+		return UNSAFE.getInt(storage.address() + (size << SHIFT));
+	}
+	
+	/**
+	 * Removes the element at index by moving the last element into it's place.
+	 *
+	 * @return the removed element
+	 */
+	public int removeSwap(long index) {
+		Buffer.checkIndex(index, size);
+		long address = storage.address();
+		int removed = UNSAFE.getInt(address + (index << SHIFT));
+		size--;
+		UNSAFE.putInt(address + (index << SHIFT), UNSAFE.getInt(address + (size << SHIFT)));
+		return removed;
+	}
+	
+	public void clear() {
+		size = 0;
+	}
+	
+	//bulk
+	public int[] toArray() {
+		if (size > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("size " + size + " too large for an array");
+		int[] array = new int[(int) size];
+		UNSAFE.copyMemory(null, storage.address(), array, ARRAY_INT_BASE_OFFSET, size << SHIFT);
+		return array;
+	}
+	
+	/**
+	 * Wraps the current contents in an {@link ArrayBufferInt}. The view becomes invalid once this list grows, see {@link #ensureCapacity(long)}.
+	 */
+	public ArrayBufferInt view(@NotNull Object[] parents) {
+		return ArrayBufferInt.wrap(storage.address(), size, parents);
+	}
+}
@@ -0,0 +1,164 @@
+package space.engine.buffer.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.buffer.Allocator;
+
+import java.util.Arrays;
+
+/**
+ * An open addressing hash map of int keys to Objects, using linear probing and backward shift deletion.
+ * The keys are stored in native memory, the values in a parallel Object array. A null value marks an empty slot, so null values are not allowed.
+ */
+public class IntObjectHashMap<V> extends AbstractNativeCollection {
+	
+	public static final int DEFAULT_CAPACITY = 16;
+	private static final int KEY_SHIFT = 2;
+	
+	private int mask;
+	private int size;
+	private @Nullable Object[] values;
+	
+	public IntObjectHashMap(@NotNull Allocator allocator, @NotNull Object[] parents) {
+		this(allocator, DEFAULT_CAPACITY, parents);
+	}
+	
+	/**
+	 * @param expectedSize the amount of entries which fit without growing
+	 */
+	public IntObjectHashMap(@NotNull Allocator allocator, int expectedSize, @NotNull Object[] parents) {
+		this(allocator, parents, (int) LongLongHashMap.tableCapacity(expectedSize));
+	}
+	
+	private IntObjectHashMap(@NotNull Allocator allocator, @NotNull Object[] parents, int capacity) {
+		super(allocator, (long) capacity << KEY_SHIFT, parents);
+		this.mask = capacity - 1;
+		this.values = new Object[capacity];
+	}
+	
+	static int hash(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+	
+	@Override
+	public long size() {
+		return size;
+	}
+	
+	//access
+	
+	/**
+	 * @return the index of key, or of the empty slot where it would be inserted
+	 */
+	private int slot(long address, Object[] values, int key) {
+		for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+			if (values[i] == null || UNSAFE.getInt(address + ((long) i << KEY_SHIFT)) == key)
+				return i;
+		}
+	}
+	
+	public boolean containsKey(int key) {
+		return get(key) != null;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public @Nullable V get(int key) {
+		Object[] values = this.values;
+		return (V) values[slot(storage.address(), values, key)];
+	}
+	
+	/**
+	 * @return the previous value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V put(int key, @NotNull V value) {
+		Object[] values = this.values;
+		int slot = slot(storage.address(), values, key);
+		Object prev = values[slot];
+		if (prev != null) {
+			values[slot] = value;
+			return (V) prev;
+		}
+		
+		if (size + 1 > values.length - (values.length >>> 2)) {
+			grow();
+			values = this.values;
+			slot = slot(storage.address(), values, key);
+		}
+		UNSAFE.putInt(storage.address() + ((long) slot << KEY_SHIFT), key);
+		values[slot] = value;
+		size++;
+		return null;
+	}
+	
+	/**
+	 * @return the removed value or null
+	 */
+	@SuppressWarnings("unchecked")
+	public @Nullable V remove(int key) {
+		long address = storage.address();
+		Object[] values = this.values;
+		int gap = slot(address, values, key);
+		Object removed = values[gap];
+		if (removed == null)
+			return null;
+		
+		//backward shift, see LongLongHashMap#remove(long, long)
+		for (int i = (gap + 1) & mask; values[i] != null; i = (i + 1) & mask) {
+			int k = UNSAFE.getInt(address + ((long) i << KEY_SHIFT));
+			int ideal = hash(k) & mask;
+			if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+				UNSAFE.putInt(address + ((long) gap << KEY_SHIFT), k);
+				values[gap] = values[i];
+				gap = i;
+			}
+		}
+		values[gap] = null;
+		size--;
+		return (V) removed;
+	}
+	
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+	
+	private void grow() {
+		Object[] oldValues = this.values;
+		int newCapacity = oldValues.length << 1;
+		long old = storage.replace((long) newCapacity << KEY_SHIFT);
+		Object[] values = this.values = new Object[newCapacity];
+		mask = newCapacity - 1;
+		
+		long address = storage.address();
+		for (int i = 0; i < oldValues.length; i++) {
+			if (oldValues[i] == null)
+				continue;
+			int k = UNSAFE.getInt(old + ((long) i << KEY_SHIFT));
+			int slot = slot(address, values, k);
+			UNSAFE.putInt(address + ((long) slot << KEY_SHIFT), k);
+			values[slot] = oldValues[i];
+		}
+		storage.freeReplaced(old);
+	}
+	
+	//iteration
+	@FunctionalInterface
+	public interface EntryConsumer<V> {
+		
+		void accept(int key, V value);
+	}
+	
+	/**
+	 * Calls consumer for every entry in no particular order. The map must not be modified while iterating.
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEach(@NotNull EntryConsumer<? super V> consumer) {
+		long address = storage.address();
+		Object[] values = this.values;
+		for (int i = 0; i < values.length; i++)
+			if (values[i] != null)
+				consumer.accept(UNSAFE.getInt(address + ((long) i << KEY_SHIFT)), (V) values[i]);
+	}
+}
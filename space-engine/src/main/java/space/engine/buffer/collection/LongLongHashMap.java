@@ -0,0 +1,193 @@
+package space.engine.buffer.collection;
+
+import org.jetbrains.annotations.NotNull;
+import space.engine.buffer.Allocator;
+
+/**
+ * An open addressing hash map of long keys to long values in native memory, using linear probing and backward shift deletion.
+ * Keys and values are interleaved in one table, so a lookup usually touches a single cache line. Key 0 marks empty slots and is stored outside the table.
+ */
+public class LongLongHashMap extends AbstractNativeCollection {
+	
+	public static final long DEFAULT_CAPACITY = 16;
+	private static final int SLOT_SHIFT = 4;
+	
+	private long capacity;
+	private long mask;
+	/**
+	 * entries in the table, excluding key 0
+	 */
+	private long tableSize;
+	private boolean hasZeroKey;
+	private long zeroValue;
+	
+	public LongLongHashMap(@NotNull Allocator allocator, @NotNull Object[] parents) {
+		this(allocator, DEFAULT_CAPACITY, parents);
+	}
+	
+	/**
+	 * @param expectedSize the amount of entries which fit without growing
+	 */
+	public LongLongHashMap(@NotNull Allocator allocator, long expectedSize, @NotNull Object[] parents) {
+		this(allocator, parents, tableCapacity(expectedSize));
+	}
+	
+	private LongLongHashMap(@NotNull Allocator allocator, @NotNull Object[] parents, long capacity) {
+		super(allocator, capacity << SLOT_SHIFT, parents);
+		this.capacity = capacity;
+		this.mask = capacity - 1;
+	}
+	
+	static long tableCapacity(long expectedSize) {
+		long min = Math.max(expectedSize + expectedSize / 3 + 1, DEFAULT_CAPACITY);
+		return Long.highestOneBit(min - 1) << 1;
+	}
+	
+	static long hash(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return h ^ (h >>> 32);
+	}
+	
+	@Override
+	public long size() {
+		return tableSize + (hasZeroKey ? 1 : 0);
+	}
+	
+	//access
+	
+	/**
+	 * @return the slot address of key, or of the empty slot where it would be inserted
+	 */
+	private long slot(long address, long key) {
+		for (long i = hash(key) & mask; ; i = (i + 1) & mask) {
+			long slot = address + (i << SLOT_SHIFT);
+			long k = UNSAFE.getLong(slot);
+			if (k == key || k == 0)
+				return slot;
+		}
+	}
+	
+	public boolean containsKey(long key) {
+		if (key == 0)
+			return hasZeroKey;
+		return UNSAFE.getLong(slot(storage.address(), key)) != 0;
+	}
+	
+	public long get(long key, long defaultValue) {
+		if (key == 0)
+			return hasZeroKey ? zeroValue : defaultValue;
+		long slot = slot(storage.address(), key);
+		return UNSAFE.getLong(slot) != 0 ? UNSAFE.getLong(slot + 8) : defaultValue;
+	}
+	
+	/**
+	 * @return true if the key was added, false if it's value was replaced
+	 */
+	public boolean put(long key, long value) {
+		if (key == 0) {
+			boolean added = !hasZeroKey;
+			hasZeroKey = true;
+			zeroValue = value;
+			return added;
+		}
+		
+		long slot = slot(storage.address(), key);
+		if (UNSAFE.getLong(slot) != 0) {
+			UNSAFE.putLong(slot + 8, value);
+			return false;
+		}
+		if (tableSize + 1 > capacity - (capacity >>> 2)) {
+			grow();
+			slot = slot(storage.address(), key);
+		}
+		UNSAFE.putLong(slot, key);
+		UNSAFE.putLong(slot + 8, value);
+		tableSize++;
+		return true;
+	}
+	
+	/**
+	 * @return the value of the removed key or defaultValue if it was not contained
+	 */
+	public long remove(long key, long defaultValue) {
+		if (key == 0) {
+			if (!hasZeroKey)
+				return defaultValue;
+			hasZeroKey = false;
+			return zeroValue;
+		}
+		
+		long address = storage.address();
+		long slot = slot(address, key);
+		if (UNSAFE.getLong(slot) == 0)
+			return defaultValue;
+		long removed = UNSAFE.getLong(slot + 8);
+		
+		//backward shift: move following entries of the probe sequence into the gap, so lookups never need tombstones
+		long gap = (slot - address) >>> SLOT_SHIFT;
+		for (long i = (gap + 1) & mask; ; i = (i + 1) & mask) {
+			long next = address + (i << SLOT_SHIFT);
+			long k = UNSAFE.getLong(next);
+			if (k == 0)
+				break;
+			long ideal = hash(k) & mask;
+			if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+				long gapSlot = address + (gap << SLOT_SHIFT);
+				UNSAFE.putLong(gapSlot, k);
+				UNSAFE.putLong(gapSlot + 8, UNSAFE.getLong(next + 8));
+				gap = i;
+			}
+		}
+		UNSAFE.putLong(address + (gap << SLOT_SHIFT), 0);
+		tableSize--;
+		return removed;
+	}
+	
+	public void clear() {
+		UNSAFE.setMemory(storage.address(), capacity << SLOT_SHIFT, (byte) 0);
+		tableSize = 0;
+		hasZeroKey = false;
+	}
+	
+	private void grow() {
+		long oldCapacity = capacity;
+		long newCapacity = oldCapacity << 1;
+		long old = storage.replace(newCapacity << SLOT_SHIFT);
+		capacity = newCapacity;
+		mask = newCapacity - 1;
+		
+		long address = storage.address();
+		for (long i = 0; i < oldCapacity; i++) {
+			long oldSlot = old + (i << SLOT_SHIFT);
+			long k = UNSAFE.getLong(oldSlot);
+			if (k == 0)
+				continue;
+			long slot = slot(address, k);
+			UNSAFE.putLong(slot, k);
+			UNSAFE.putLong(slot + 8, UNSAFE.getLong(oldSlot + 8));
+		}
+		storage.freeReplaced(old);
+	}
+	
+	//iteration
+	@FunctionalInterface
+	public interface EntryConsumer {
+		
+		void accept(long key, long value);
+	}
+	
+	/**
+	 * Calls consumer for every entry in no particular order. The map must not be modified while iterating.
+	 */
+	public void forEach(@NotNull EntryConsumer consumer) {
+		if (hasZeroKey)
+			consumer.accept(0, zeroValue);
+		long address = storage.address();
+		for (long i = 0; i < capacity; i++) {
+			long slot = address + (i << SLOT_SHIFT);
+			long k = UNSAFE.getLong(slot);
+			if (k != 0)
+				consumer.accept(k, UNSAFE.getLong(slot + 8));
+		}
+	}
+}
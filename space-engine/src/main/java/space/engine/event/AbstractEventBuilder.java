@@ -1,147 +1,124 @@
 package space.engine.event;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import space.engine.baseobject.Cache;
-import space.engine.baseobject.ToString;
-import space.engine.delegate.set.ModificationAwareSet;
-import space.engine.string.toStringHelper.ToStringHelper;
-import space.engine.string.toStringHelper.ToStringHelper.ToStringHelperObjectsInstance;
+import space.engine.event.typehandler.TypeHandler;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
-import java.util.Objects;
-import java.util.Set;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
 
+/**
+ * Hooks are stored copy-on-write in an immutable {@link Hooks} Object published by CAS, so adding and removing hooks is lock-free and never blocks {@link #submit(TypeHandler) submits}.
+ * Adding a hook updates the {@link EventPlan} incrementally if possible, otherwise the plan is compiled again on the next submit.
+ */
 public abstract class AbstractEventBuilder<FUNCTION> implements Event<FUNCTION>, Cache {
 	
-	protected Set<EventEntry<? extends FUNCTION>> list = new ModificationAwareSet<>(new HashSet<>(), this::clearCache);
+	private static final VarHandle HOOKS;
+	
+	static {
+		try {
+			HOOKS = MethodHandles.lookup().findVarHandle(AbstractEventBuilder.class, "hooks", Hooks.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	private volatile @NotNull Hooks<FUNCTION> hooks = Hooks.empty();
 	
 	//hooks
 	@Override
 	public <T extends FUNCTION> EventEntry<T> addHook(@NotNull EventEntry<T> hook) {
-		list.add(hook);
-		return hook;
+		while (true) {
+			Hooks<FUNCTION> prev = hooks;
+			if (prev.indexOf(hook) != -1)
+				return hook;
+			
+			EventEntry<? extends FUNCTION>[] entries = Arrays.copyOf(prev.entries, prev.entries.length + 1);
+			entries[prev.entries.length] = hook;
+			EventPlan<FUNCTION> plan = prev.plan != null ? prev.plan.append(hook) : null;
+			if (HOOKS.compareAndSet(this, prev, new Hooks<>(entries, plan)))
+				return hook;
+		}
 	}
 	
 	@Override
-	public synchronized boolean removeHook(@NotNull EventEntry<FUNCTION> task) {
-		return list.remove(task);
+	public boolean removeHook(@NotNull EventEntry<FUNCTION> task) {
+		while (true) {
+			Hooks<FUNCTION> prev = hooks;
+			int index = prev.indexOf(task);
+			if (index == -1)
+				return false;
+			
+			EventEntry<? extends FUNCTION>[] entries = Arrays.copyOf(prev.entries, prev.entries.length - 1);
+			System.arraycopy(prev.entries, index + 1, entries, index, entries.length - index);
+			if (HOOKS.compareAndSet(this, prev, new Hooks<>(entries, null)))
+				return true;
+		}
 	}
 	
-	@Override
-	public abstract void clearCache();
-	
 	/**
-	 * @param optimizeNextPriority whether to resort the {@link List} of next {@link Node}s, in order to put Nodes with more Dependencies further at the top, and with less towards the end
+	 * @return all hooks currently registered, in no particular order
 	 */
-	protected Map<EventEntry<?>, Node> computeNodeMap(boolean optimizeNextPriority) {
-		Map<EventEntry<?>, Node> allNodes = new HashMap<>();
-		list.forEach(entry -> allNodes.put(entry, new Node(entry)));
-		
-		//adding Dependencies
-		allNodes.values().forEach(node -> {
-			EventEntry<? extends FUNCTION> entry = node.entry;
-			for (EventEntry<?> require : entry.requires) {
-				Node other = allNodes.get(require);
-				if (other != null)
-					other.addDependencyAfter(node);
-			}
-			for (EventEntry<?> requiredBy : entry.requiredBy) {
-				Node other = allNodes.get(requiredBy);
-				if (other != null)
-					node.addDependencyAfter(other);
-			}
-		});
-		
-		//optimizeNextPriority
-		if (optimizeNextPriority)
-			allNodes.values().forEach(node -> node.next.sort((o1, o2) -> o2.next.size() - o1.next.size()));
-		
-		return allNodes;
+	public @NotNull List<EventEntry<? extends FUNCTION>> getHooks() {
+		return List.of(hooks.entries);
 	}
 	
-	protected List<Node> computeDependencyOrderedList() {
-		return computeDependencyOrderedList(computeNodeMap(true));
-	}
+	//plan
 	
-	protected List<Node> computeDependencyOrderedList(Map<EventEntry<?>, Node> nodeMap) {
-		Map<Node, AtomicInteger> runMap = nodeMap.values().stream().collect(Collectors.toMap(node -> node, node -> new AtomicInteger(node.prev.size()), (a, b) -> b));
-		
-		List<Node> ret = new ArrayList<>(nodeMap.size());
-		while (runMap.size() != 0) {
-			boolean foundAny = false;
-			Set<Entry<Node, AtomicInteger>> entrySet = runMap.entrySet();
-			//noinspection unchecked
-			for (Entry<Node, AtomicInteger> entry : entrySet.toArray(new Entry[0])) {
-				if (entry.getValue().get() == 0) {
-					entrySet.remove(entry);
-					foundAny = true;
-					
-					Node node = entry.getKey();
-					ret.add(node);
-					node.next.forEach(nextNode -> runMap.get(nextNode).decrementAndGet());
-				}
-			}
+	/**
+	 * @return the {@link EventPlan} of all hooks, compiled if the hooks changed in a way {@link EventPlan#append(EventEntry)} can't handle
+	 */
+	public @NotNull EventPlan<FUNCTION> getPlan() {
+		while (true) {
+			Hooks<FUNCTION> prev = hooks;
+			if (prev.plan != null)
+				return prev.plan;
 			
-			if (!foundAny)
-				throw new RuntimeException("Couldn't resolve dependencies! Maybe there was a dependency circle?");
+			//compiling concurrently is rare and harmless, only one result gets published
+			EventPlan<FUNCTION> plan = EventPlan.compile(Arrays.asList(prev.entries));
+			if (HOOKS.compareAndSet(this, prev, new Hooks<>(prev.entries, plan)))
+				return plan;
 		}
-		
-		return ret;
 	}
 	
-	/**
-	 * one {@link Node} exists for each FUNCTION
-	 */
-	protected class Node implements ToString {
-		
-		public final EventEntry<? extends FUNCTION> entry;
-		public final List<Node> next = new ArrayList<>(1);
-		public final List<Node> prev = new ArrayList<>(1);
-		
-		public Node(EventEntry<? extends FUNCTION> entry) {
-			this.entry = entry;
+	@Override
+	public void clearCache() {
+		while (true) {
+			Hooks<FUNCTION> prev = hooks;
+			if (prev.plan == null || HOOKS.compareAndSet(this, prev, new Hooks<>(prev.entries, null)))
+				return;
 		}
+	}
+	
+	private static class Hooks<FUNCTION> {
 		
-		protected void addDependencyAfter(Node node) {
-			this.next.add(node);
-			node.prev.add(this);
-		}
+		private static final Hooks<?> EMPTY = new Hooks<>(new EventEntry<?>[0], EventPlan.empty());
 		
-		@Override
-		public boolean equals(Object o) {
-			if (this == o)
-				return true;
-			if (!(o instanceof AbstractEventBuilder<?>.Node))
-				return false;
-			AbstractEventBuilder<?>.Node node = (AbstractEventBuilder<?>.Node) o;
-			return Objects.equals(entry, node.entry);
+		@SuppressWarnings("unchecked")
+		public static <FUNCTION> Hooks<FUNCTION> empty() {
+			return (Hooks<FUNCTION>) EMPTY;
 		}
 		
-		@Override
-		public int hashCode() {
-			return entry.hashCode();
-		}
+		private final @NotNull EventEntry<? extends FUNCTION>[] entries;
+		/**
+		 * null if it has to be compiled
+		 */
+		private final @Nullable EventPlan<FUNCTION> plan;
 		
-		@Override
-		@NotNull
-		public <TSHTYPE> TSHTYPE toTSH(@NotNull ToStringHelper<TSHTYPE> api) {
-			ToStringHelperObjectsInstance<TSHTYPE> tsh = api.createObjectInstance(this);
-			tsh.add("entry", this.entry);
-			tsh.add("next.size()", this.next.size());
-			tsh.add("prev.size()", this.prev.size());
-			return tsh.build();
+		@SuppressWarnings("unchecked")
+		private Hooks(@NotNull EventEntry<?>[] entries, @Nullable EventPlan<FUNCTION> plan) {
+			this.entries = (EventEntry<? extends FUNCTION>[]) entries;
+			this.plan = plan;
 		}
 		
-		@Override
-		public String toString() {
-			return toString0();
+		private int indexOf(@NotNull EventEntry<?> entry) {
+			for (int i = 0; i < entries.length; i++)
+				if (entries[i].equals(entry))
+					return i;
+			return -1;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,409 @@
+package space.engine.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+import space.engine.barrier.DelayTask;
+import space.engine.event.typehandler.TypeHandler;
+import space.engine.simpleQueue.pool.Executor;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An immutable execution plan of the hooks of an {@link Event}, compiled from the dependency DAG of their {@link EventEntry EventEntries}.
+ * <p>
+ * Hooks are stored flat in dependency order and grouped by level: every hook only depends on hooks of previous levels.
+ * Dependencies are stored as the amount of predecessors and an array of successors of every hook, so {@link #execute(TypeHandler, Executor)} only has to count down.
+ * A hook can be added to an existing plan with {@link #append(EventEntry)} without sorting again.
+ */
+public class EventPlan<FUNCTION> {
+	
+	private static final EventPlan<?> EMPTY = new EventPlan<>(new EventEntry<?>[0], Set.of(), new int[] {0}, new int[0], new int[] {0}, new int[0]);
+	
+	private final EventEntry<?>[] entries;
+	/**
+	 * dependencies of contained entries which are not contained themselves
+	 */
+	private final Set<EventEntry<?>> dangling;
+	private final Object[] functions;
+	private final int[] levelOffsets;
+	private final int[] predecessorCount;
+	private final int[] successorOffsets;
+	private final int[] successors;
+	private final List<FUNCTION> functionList;
+	
+	@SuppressWarnings("unchecked")
+	private EventPlan(EventEntry<?>[] entries, Set<EventEntry<?>> dangling, int[] levelOffsets, int[] predecessorCount, int[] successorOffsets, int[] successors) {
+		this.entries = entries;
+		this.dangling = dangling;
+		this.functions = new Object[entries.length];
+		for (int i = 0; i < entries.length; i++)
+			functions[i] = entries[i].function;
+		this.levelOffsets = levelOffsets;
+		this.predecessorCount = predecessorCount;
+		this.successorOffsets = successorOffsets;
+		this.successors = successors;
+		this.functionList = Collections.unmodifiableList((List<FUNCTION>) Arrays.asList(functions));
+	}
+	
+	@SuppressWarnings("unchecked")
+	public static <FUNCTION> EventPlan<FUNCTION> empty() {
+		return (EventPlan<FUNCTION>) EMPTY;
+	}
+	
+	//compile
+	
+	/**
+	 * Compiles the entries into an {@link EventPlan}. Dependencies on entries not contained are ignored.
+	 *
+	 * @throws RuntimeException if the dependencies contain a circle
+	 */
+	public static <FUNCTION> EventPlan<FUNCTION> compile(@NotNull Collection<? extends EventEntry<? extends FUNCTION>> entries) {
+		int count = entries.size();
+		if (count == 0)
+			return empty();
+		
+		EventEntry<?>[] entryArray = entries.toArray(new EventEntry<?>[0]);
+		Map<EventEntry<?>, Integer> indices = new HashMap<>(count * 2);
+		for (int i = 0; i < count; i++)
+			indices.put(entryArray[i], i);
+		
+		//edges: from[e] -> to[e]
+		int[] from = new int[8];
+		int[] to = new int[8];
+		int edgeCount = 0;
+		int[] predecessors = new int[count];
+		int[] successorCount = new int[count];
+		Set<EventEntry<?>> dangling = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			EventEntry<?> entry = entryArray[i];
+			for (EventEntry<?> require : entry.requires) {
+				Integer other = indices.get(require);
+				if (other == null) {
+					dangling.add(require);
+					continue;
+				}
+				if (edgeCount == from.length) {
+					from = Arrays.copyOf(from, edgeCount * 2);
+					to = Arrays.copyOf(to, edgeCount * 2);
+				}
+				from[edgeCount] = other;
+				to[edgeCount++] = i;
+			}
+			for (EventEntry<?> requiredBy : entry.requiredBy) {
+				Integer other = indices.get(requiredBy);
+				if (other == null) {
+					dangling.add(requiredBy);
+					continue;
+				}
+				if (edgeCount == from.length) {
+					from = Arrays.copyOf(from, edgeCount * 2);
+					to = Arrays.copyOf(to, edgeCount * 2);
+				}
+				from[edgeCount] = i;
+				to[edgeCount++] = other;
+			}
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			successorCount[from[e]]++;
+			predecessors[to[e]]++;
+		}
+		
+		//successors by original index
+		int[] unorderedOffsets = new int[count + 1];
+		for (int i = 0; i < count; i++)
+			unorderedOffsets[i + 1] = unorderedOffsets[i] + successorCount[i];
+		int[] unorderedSuccessors = new int[edgeCount];
+		int[] fill = Arrays.copyOf(unorderedOffsets, count);
+		for (int e = 0; e < edgeCount; e++)
+			unorderedSuccessors[fill[from[e]]++] = to[e];
+		
+		//topological sort by level
+		int[] remaining = predecessors.clone();
+		int[] order = new int[count];
+		int[] levelOffsets = new int[count + 1];
+		int levels = 0;
+		int ordered = 0;
+		for (int i = 0; i < count; i++)
+			if (remaining[i] == 0)
+				order[ordered++] = i;
+		int levelStart = 0;
+		while (levelStart < ordered) {
+			int levelEnd = ordered;
+			levelOffsets[levels++] = levelStart;
+			for (int o = levelStart; o < levelEnd; o++) {
+				int node = order[o];
+				for (int s = unorderedOffsets[node]; s < unorderedOffsets[node + 1]; s++)
+					if (--remaining[unorderedSuccessors[s]] == 0)
+						order[ordered++] = unorderedSuccessors[s];
+			}
+			levelStart = levelEnd;
+		}
+		if (ordered != count)
+			throw new RuntimeException("Couldn't resolve dependencies! Maybe there was a dependency circle?");
+		levelOffsets[levels] = count;
+		
+		//remap to plan positions
+		int[] position = new int[count];
+		for (int p = 0; p < count; p++)
+			position[order[p]] = p;
+		EventEntry<?>[] sorted = new EventEntry<?>[count];
+		int[] predecessorCount = new int[count];
+		int[] successorOffsets = new int[count + 1];
+		int[] successors = new int[edgeCount];
+		for (int p = 0; p < count; p++) {
+			int node = order[p];
+			sorted[p] = entryArray[node];
+			predecessorCount[p] = predecessors[node];
+			int offset = successorOffsets[p];
+			for (int s = unorderedOffsets[node]; s < unorderedOffsets[node + 1]; s++)
+				successors[offset++] = position[unorderedSuccessors[s]];
+			successorOffsets[p + 1] = offset;
+		}
+		return new EventPlan<>(sorted, dangling.isEmpty() ? Set.of() : dangling, Arrays.copyOf(levelOffsets, levels + 1), predecessorCount, successorOffsets, successors);
+	}
+	
+	/**
+	 * Adds a single entry to this plan without sorting again, by inserting it at the end of the level after it's latest dependency.
+	 * Costs a copy of this plan and a scan per dependency, so it is intended for entries with no or few dependencies.
+	 *
+	 * @return the new plan, this if the entry is already contained or null if the entry has to be ordered before contained entries, requiring {@link #compile(Collection)}
+	 */
+	public @Nullable EventPlan<FUNCTION> append(@NotNull EventEntry<? extends FUNCTION> entry) {
+		if (indexOf(entry) != -1)
+			return this;
+		if (dangling.contains(entry))
+			return null;
+		for (EventEntry<?> requiredBy : entry.requiredBy)
+			if (indexOf(requiredBy) != -1)
+				return null;
+		
+		//predecessors and level
+		int count = entries.length;
+		int[] requires = new int[entry.requires.length];
+		int requireCount = 0;
+		int level = 0;
+		Set<EventEntry<?>> dangling = null;
+		for (EventEntry<?> require : entry.requires) {
+			int other = indexOf(require);
+			if (other == -1) {
+				if (!this.dangling.contains(require)) {
+					if (dangling == null)
+						dangling = new HashSet<>(this.dangling);
+					dangling.add(require);
+				}
+				continue;
+			}
+			requires[requireCount++] = other;
+			level = Math.max(level, levelOf(other) + 1);
+		}
+		for (EventEntry<?> requiredBy : entry.requiredBy) {
+			if (!this.dangling.contains(requiredBy)) {
+				if (dangling == null)
+					dangling = new HashSet<>(this.dangling);
+				dangling.add(requiredBy);
+			}
+		}
+		
+		//insert at the end of the level, shifting everything after it
+		int levels = levels();
+		int position = level < levels ? levelOffsets[level + 1] : count;
+		int[] levelOffsets;
+		if (level < levels) {
+			levelOffsets = this.levelOffsets.clone();
+			for (int l = level + 1; l <= levels; l++)
+				levelOffsets[l]++;
+		} else {
+			levelOffsets = Arrays.copyOf(this.levelOffsets, levels + 2);
+			levelOffsets[levels + 1] = count + 1;
+		}
+		
+		EventEntry<?>[] entries = new EventEntry<?>[count + 1];
+		System.arraycopy(this.entries, 0, entries, 0, position);
+		entries[position] = entry;
+		System.arraycopy(this.entries, position, entries, position + 1, count - position);
+		
+		int[] predecessorCount = new int[count + 1];
+		System.arraycopy(this.predecessorCount, 0, predecessorCount, 0, position);
+		predecessorCount[position] = requireCount;
+		System.arraycopy(this.predecessorCount, position, predecessorCount, position + 1, count - position);
+		
+		int[] successorOffsets = new int[count + 2];
+		int[] successors = new int[this.successors.length + requireCount];
+		int offset = 0;
+		for (int p = 0; p <= count; p++) {
+			successorOffsets[p] = offset;
+			if (p == position)
+				continue;
+			int old = p < position ? p : p - 1;
+			for (int s = this.successorOffsets[old]; s < this.successorOffsets[old + 1]; s++) {
+				int successor = this.successors[s];
+				successors[offset++] = successor < position ? successor : successor + 1;
+			}
+			for (int r = 0; r < requireCount; r++)
+				if (requires[r] == old)
+					successors[offset++] = position;
+		}
+		successorOffsets[count + 1] = offset;
+		
+		return new EventPlan<>(entries, dangling == null ? this.dangling : dangling, levelOffsets, predecessorCount, successorOffsets, successors);
+	}
+	
+	private int indexOf(EventEntry<?> entry) {
+		for (int i = 0; i < entries.length; i++)
+			if (entries[i].equals(entry))
+				return i;
+		return -1;
+	}
+	
+	private int levelOf(int index) {
+		//levels are never empty, so levelOffsets is strictly increasing
+		int level = Arrays.binarySearch(levelOffsets, index);
+		return level >= 0 ? level : -level - 2;
+	}
+	
+	//getters
+	public int size() {
+		return functions.length;
+	}
+	
+	public int levels() {
+		return levelOffsets.length - 1;
+	}
+	
+	/**
+	 * @return all entries in dependency order
+	 */
+	@SuppressWarnings("unchecked")
+	public @NotNull List<EventEntry<? extends FUNCTION>> entries() {
+		return Collections.unmodifiableList(Arrays.asList((EventEntry<? extends FUNCTION>[]) entries));
+	}
+	
+	/**
+	 * @return all hooks in dependency order
+	 */
+	public @NotNull List<FUNCTION> functions() {
+		return functionList;
+	}
+	
+	@SuppressWarnings("unchecked")
+	public @NotNull FUNCTION function(int index) {
+		return (FUNCTION) functions[index];
+	}
+	
+	/**
+	 * @return the hooks of a level, which may all run in parallel
+	 */
+	public @NotNull List<FUNCTION> level(int level) {
+		return functionList.subList(levelOffsets[level], levelOffsets[level + 1]);
+	}
+	
+	//execute
+	private static final VarHandle REMAINING = MethodHandles.arrayElementVarHandle(int[].class);
+	private static final VarHandle FINISHED;
+	private static final VarHandle NEXT_ROOT;
+	
+	static {
+		try {
+			Lookup lookup = MethodHandles.lookup();
+			FINISHED = lookup.findVarHandle(EventPlan.Execution.class, "finished", int.class);
+			NEXT_ROOT = lookup.findVarHandle(EventPlan.Execution.class, "nextRoot", int.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	/**
+	 * Runs every hook on the executor as soon as all of it's predecessors are done. A hook becoming ready when another one finishes is run by the same task, only further ready hooks are executed as new tasks.
+	 *
+	 * @return a Barrier triggered when all hooks are done
+	 */
+	public @NotNull Barrier execute(@NotNull TypeHandler<FUNCTION> typeHandler, @NotNull Executor executor) {
+		if (functions.length == 0)
+			return Barrier.DONE_BARRIER;
+		
+		Execution execution = new Execution(typeHandler, executor);
+		for (int i = levelOffsets[0]; i < levelOffsets[1]; i++)
+			executor.execute(execution);
+		return execution;
+	}
+	
+	/**
+	 * The state of a single {@link #execute(TypeHandler, Executor)}: the Barrier returned and the task of every root, which claims the next root when run.
+	 * Executions of a plan may overlap, so it is never reused.
+	 */
+	private class Execution extends BarrierImpl implements Runnable {
+		
+		private final @NotNull TypeHandler<FUNCTION> typeHandler;
+		private final @NotNull Executor executor;
+		/**
+		 * the amount of unfinished predecessors of every hook, null if no hook has any
+		 */
+		private final int @Nullable [] remaining;
+		//package-private for FINISHED and NEXT_ROOT, as this nested class has no nestmate access to private fields
+		@SuppressWarnings("unused")
+		volatile int finished;
+		@SuppressWarnings("unused")
+		volatile int nextRoot;
+		
+		public Execution(@NotNull TypeHandler<FUNCTION> typeHandler, @NotNull Executor executor) {
+			this.typeHandler = typeHandler;
+			this.executor = executor;
+			this.remaining = successors.length == 0 ? null : predecessorCount.clone();
+		}
+		
+		@Override
+		public void run() {
+			//roots are the first level, starting at 0
+			run((int) NEXT_ROOT.getAndAdd(this, 1));
+		}
+		
+		private void run(int index) {
+			while (index != -1) {
+				try {
+					typeHandler.accept(function(index));
+				} catch (DelayTask delayTask) {
+					int delayed = index;
+					delayTask.barrier.addHook(() -> {
+						int next = finish(delayed);
+						if (next != -1)
+							executor.execute(() -> run(next));
+					});
+					return;
+				}
+				index = finish(index);
+			}
+		}
+		
+		/**
+		 * @return one successor which became ready to be run by the caller or -1
+		 */
+		private int finish(int index) {
+			int next = -1;
+			for (int s = successorOffsets[index]; s < successorOffsets[index + 1]; s++) {
+				int successor = successors[s];
+				if ((int) REMAINING.getAndAdd(remaining, successor, -1) == 1) {
+					if (next == -1) {
+						next = successor;
+					} else {
+						executor.execute(() -> run(successor));
+					}
+				}
+			}
+			if ((int) FINISHED.getAndAdd(this, 1) + 1 == functions.length)
+				triggerNow();
+			return next;
+		}
+	}
+}
@@ -1,15 +1,12 @@
 package space.engine.event;
 
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 import space.engine.barrier.Barrier;
 import space.engine.barrier.DelayTask;
 import space.engine.barrier.functions.RunnableWithDelay;
 import space.engine.event.typehandler.TypeHandler;
 
-import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static space.engine.barrier.Barrier.nowRun;
 
@@ -18,22 +15,9 @@ import static space.engine.barrier.Barrier.nowRun;
  */
 public class SequentialEventBuilder<FUNCTION> extends AbstractEventBuilder<FUNCTION> {
 	
-	private volatile @Nullable List<FUNCTION> build;
-	
 	@Override
 	public @NotNull Barrier submit(@NotNull TypeHandler<FUNCTION> typeHandler) {
-		Iterator<FUNCTION> iterator = getBuild().iterator();
-		return nowRun(new RunnableWithDelay() {
-			@Override
-			public void run() throws DelayTask {
-				try {
-					while (iterator.hasNext())
-						typeHandler.accept(iterator.next());
-				} catch (DelayTask e) {
-					throw new DelayTask(e.barrier.thenRun(this));
-				}
-			}
-		});
+		return nowRun(new PlanRunner<>(getPlan(), typeHandler));
 	}
 	
 	/**
@@ -66,47 +50,36 @@ public class SequentialEventBuilder<FUNCTION> extends AbstractEventBuilder<FUNCT
 	}
 	
 	public Barrier runImmediatelyIfPossible(@NotNull TypeHandler<FUNCTION> typeHandler) {
-		Iterator<FUNCTION> iterator = getBuild().iterator();
-		return nowRun(Runnable::run, new RunnableWithDelay() {
-			@Override
-			public void run() throws DelayTask {
-				try {
-					while (iterator.hasNext())
-						typeHandler.accept(iterator.next());
-				} catch (DelayTask e) {
-					throw new DelayTask(e.barrier.thenRun(this));
-				}
-			}
-		});
+		return nowRun(Runnable::run, new PlanRunner<>(getPlan(), typeHandler));
 	}
 	
-	//build
-	public List<FUNCTION> getBuild() {
-		//non-synchronized access
-		List<FUNCTION> build = this.build;
-		if (build != null)
-			return build;
+	/**
+	 * Runs the hooks of an {@link EventPlan} in order, continuing after the hook which threw {@link DelayTask} once it's Barrier triggered.
+	 */
+	private static class PlanRunner<FUNCTION> implements RunnableWithDelay {
 		
-		synchronized (this) {
-			//synchronized access to prevent generating list multiple times
-			build = this.build;
-			if (build != null)
-				return build;
-			
-			//actual build
-			build = computeBuild();
-			this.build = build;
-			return build;
+		private final EventPlan<FUNCTION> plan;
+		private final TypeHandler<FUNCTION> typeHandler;
+		private int index;
+		
+		public PlanRunner(EventPlan<FUNCTION> plan, TypeHandler<FUNCTION> typeHandler) {
+			this.plan = plan;
+			this.typeHandler = typeHandler;
+		}
+		
+		@Override
+		public void run() throws DelayTask {
+			try {
+				for (int size = plan.size(); index < size; )
+					typeHandler.accept(plan.function(index++));
+			} catch (DelayTask e) {
+				throw new DelayTask(e.barrier.thenRun(this));
+			}
 		}
 	}
 	
-	@NotNull
-	private List<FUNCTION> computeBuild() {
-		return computeDependencyOrderedList().stream().map(node -> node.entry.function).collect(Collectors.toList());
-	}
-	
-	@Override
-	public void clearCache() {
-		build = null;
+	//build
+	public List<FUNCTION> getBuild() {
+		return getPlan().functions();
 	}
-}
+}
\ No newline at end of file
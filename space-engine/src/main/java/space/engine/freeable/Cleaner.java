@@ -16,10 +16,21 @@ public abstract class Cleaner extends PhantomReference<Object> implements Freeab
 	private final CleanerDependencyList.Entry[] entries;
 	private volatile @Nullable CleanerDependencyList subList;
 	private @Nullable Barrier freeBarrier;
+	private final @Nullable LeakDetector.Tracker leakTracker;
 	
 	public Cleaner(@Nullable Object referent, @NotNull Object[] parents) {
-		super(referent, parents.length == 0 ? null : CleanerThread.QUEUE);
+		this(referent, parents, false);
+	}
+	
+	/**
+	 * @param explicit true if the Cleaner is always freed explicitly or by it's parents, like resources of a frame.
+	 *                 It is then not registered at the {@link CleanerThread}, so the GC has no Reference to process, and a sample is tracked by the {@link LeakDetector}.
+	 */
+	public Cleaner(@Nullable Object referent, @NotNull Object[] parents, boolean explicit) {
+		//without a queue the referent is of no use, don't let the GC discover it
+		super(explicit || parents.length == 0 ? null : referent, explicit || parents.length == 0 ? null : CleanerThread.QUEUE);
 		entries = Arrays.stream(parents).map(parent -> Freeable.getFreeable(parent).getSubList().insert(this)).toArray(Entry[]::new);
+		leakTracker = explicit && referent != null ? LeakDetector.track(this, referent) : null;
 	}
 	
 	//free
@@ -29,6 +40,8 @@ public abstract class Cleaner extends PhantomReference<Object> implements Freeab
 			if (isFreed)
 				return Objects.requireNonNull(freeBarrier);
 			isFreed = true;
+			if (leakTracker != null)
+				leakTracker.untrack();
 			
 			CleanerDependencyList subList = this.subList;
 			if (subList != null) {
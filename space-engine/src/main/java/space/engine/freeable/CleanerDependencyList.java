@@ -5,57 +5,83 @@ import org.jetbrains.annotations.Nullable;
 import space.engine.barrier.Barrier;
 import space.engine.baseobject.exceptions.FreedException;
 
-import java.util.ArrayList;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 
-import static space.engine.barrier.Barrier.DONE_BARRIER;
-
+/**
+ * The children of a {@link Freeable}, which are freed before the {@link Freeable} itself.
+ * <p>
+ * Entries are pushed onto a lock-free stack by {@link #insert(Freeable)}. {@link Entry#remove()} only marks the Entry as removed,
+ * removed Entries are unlinked in batches once there are about as many removed as live Entries.
+ * {@link #free()} seals the stack by swapping it with {@link #SEALED} and frees all Entries which were not removed.
+ */
 public class CleanerDependencyList implements Freeable {
 	
-	private boolean isFreed = false;
-	private @Nullable Entry first;
+	private static final VarHandle HEAD;
+	private static final VarHandle PURGING;
+	private static final VarHandle REMOVED_SINCE_PURGE;
+	
+	static {
+		try {
+			Lookup lookup = MethodHandles.lookup();
+			HEAD = lookup.findVarHandle(CleanerDependencyList.class, "head", Object.class);
+			PURGING = lookup.findVarHandle(CleanerDependencyList.class, "purging", boolean.class);
+			REMOVED_SINCE_PURGE = lookup.findVarHandle(CleanerDependencyList.class, "removedSincePurge", int.class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	/**
+	 * the head of a freed list
+	 */
+	private static final Object SEALED = new Object();
+	private static final int PURGE_MIN = 64;
+	
+	/**
+	 * null: empty, {@link Entry}: first Entry, {@link #SEALED}: freed
+	 */
+	private volatile @Nullable Object head;
 	private @Nullable Barrier freeBarrier;
 	
-	public synchronized CleanerDependencyList.Entry insert(@NotNull Freeable storage) {
-		if (isFreed)
-			throw new FreedException(this);
-		
+	//purge
+	@SuppressWarnings("unused")
+	private volatile boolean purging;
+	@SuppressWarnings("unused")
+	private volatile int removedSincePurge;
+	private int liveAtPurge;
+	
+	public CleanerDependencyList.Entry insert(@NotNull Freeable storage) {
 		Entry entry = new Entry(storage);
-		if (first != null) {
-			entry.next = first;
-			first.prev = entry;
+		Object head = this.head;
+		while (true) {
+			if (head == SEALED)
+				throw new FreedException(this);
+			entry.next = (Entry) head;
+			Object witness = HEAD.compareAndExchange(this, head, entry);
+			if (witness == head)
+				return entry;
+			head = witness;
 		}
-		first = entry;
-		return entry;
 	}
 	
 	@Override
 	public synchronized @NotNull Barrier free() {
-		if (isFreed)
+		Object head = HEAD.getAndSet(this, SEALED);
+		if (head == SEALED)
 			return Objects.requireNonNull(freeBarrier);
-		isFreed = true;
-		
-		if (first == null)
-			return freeBarrier = DONE_BARRIER;
-		
-		//free entries
-		ArrayList<Barrier> list = new ArrayList<>();
-		Entry next = first;
-		while (next != null) {
-			Barrier free = next.freeable.free();
-			if (free != DONE_BARRIER)
-				list.add(free);
-			next = next.next;
-		}
 		
-		//make entries unreachable
-		first = null;
-		return freeBarrier = Barrier.when(list);
+		//free entries, Entries are freed lazily while whenAll() iterates
+		return freeBarrier = Barrier.whenAll(() -> new Drain((Entry) head));
 	}
 	
 	@Override
-	public synchronized boolean isFreed() {
-		return isFreed;
+	public boolean isFreed() {
+		return head == SEALED;
 	}
 	
 	@Override
@@ -63,11 +89,69 @@ public class CleanerDependencyList implements Freeable {
 		return this;
 	}
 	
+	/**
+	 * Unlinks all removed Entries except the first one, as it may be replaced by {@link #insert(Freeable)} concurrently.
+	 * Only unlinks {@link Entry#next} pointers, so a concurrent {@link Drain} still reaches every Entry.
+	 */
+	private void purge() {
+		if (!PURGING.compareAndSet(this, false, true))
+			return;
+		try {
+			REMOVED_SINCE_PURGE.setVolatile(this, 0);
+			Object head = this.head;
+			if (head == null || head == SEALED)
+				return;
+			
+			Entry prev = (Entry) head;
+			int live = prev.removed ? 0 : 1;
+			for (Entry entry = prev.next; entry != null; entry = entry.next) {
+				if (entry.removed) {
+					prev.next = entry.next;
+				} else {
+					live++;
+					prev = entry;
+				}
+			}
+			liveAtPurge = live;
+		} finally {
+			purging = false;
+		}
+	}
+	
+	private static class Drain implements Iterator<Barrier> {
+		
+		private @Nullable Entry next;
+		
+		public Drain(@Nullable Entry first) {
+			this.next = skipRemoved(first);
+		}
+		
+		private static @Nullable Entry skipRemoved(@Nullable Entry entry) {
+			while (entry != null && entry.removed)
+				entry = entry.next;
+			return entry;
+		}
+		
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+		
+		@Override
+		public Barrier next() {
+			Entry entry = next;
+			if (entry == null)
+				throw new NoSuchElementException();
+			next = skipRemoved(entry.next);
+			return entry.freeable.free();
+		}
+	}
+	
 	public class Entry {
 		
 		public final Freeable freeable;
-		private @Nullable Entry prev;
 		private @Nullable Entry next;
+		private volatile boolean removed;
 		
 		public Entry(Freeable freeable) {
 			this.freeable = freeable;
@@ -77,20 +161,12 @@ public class CleanerDependencyList implements Freeable {
 		 * removes an Entry from the List
 		 */
 		public void remove() {
-			synchronized (CleanerDependencyList.this) {
-				if (isFreed || (prev == null && next == null))
-					return;
-				
-				if (prev != null)
-					prev.next = next;
-				if (next != null)
-					next.prev = prev;
-				if (first == this)
-					first = next;
-				
-				next = null;
-				prev = null;
-			}
+			if (removed)
+				return;
+			removed = true;
+			
+			if (head != SEALED && (int) REMOVED_SINCE_PURGE.getAndAdd(CleanerDependencyList.this, 1) + 1 >= Math.max(PURGE_MIN, liveAtPurge))
+				purge();
 		}
 	}
 }
@@ -1,5 +1,6 @@
 package space.engine.freeable;
 
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import space.engine.Side;
 import space.engine.barrier.Barrier;
@@ -13,15 +14,49 @@ import space.engine.string.StringBuilder2D;
 
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 import static space.engine.logger.LogLevel.INFO;
 
+/**
+ * Frees {@link Freeable Freeables} enqueued into {@link #QUEUE} by the GC.
+ * <p>
+ * The cleanup Thread drains up to {@link #BATCH_SIZE} references at once. Large batches are split by {@link Grouped#cleanupGroup()} and freed in parallel on the pool,
+ * with every group freed sequentially by a single task. The next batch is only drained after the current one was freed, see {@link #metrics()} for how far cleanup lags behind.
+ */
 public final class CleanerThread {
 	
 	//the QUEUE
 	public static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
 	
+	//batching
+	public static final int BATCH_SIZE = Integer.getInteger("space.engine.cleaner.batchSize", 1024);
+	/**
+	 * batches smaller than this are freed on the cleanup Thread
+	 */
+	public static final int PARALLEL_THRESHOLD = 64;
+	/**
+	 * the amount of references without a group freed by one task
+	 */
+	public static final int UNGROUPED_CHUNK_SIZE = 64;
+	
+	/**
+	 * Implemented by {@link Freeable Freeables} which should be freed together with others of the same group, eg. all Storages of one allocator or device.
+	 * Must be implemented if freeing is not thread-safe against others of the same group, like Vulkan objects freed from a shared pool, as ungrouped references are freed in parallel.
+	 */
+	public interface Grouped {
+		
+		/**
+		 * @return the group, compared by identity
+		 */
+		@NotNull Object cleanupGroup();
+	}
+	
 	//exit event entry
 	public static final EventEntry<Starter<Barrier>> EXIT_EVENT_ENTRY_FREEABLE_ROOT_LIST_FREE;
 	
@@ -70,9 +105,10 @@ public final class CleanerThread {
 				logger.log(INFO, "3. gc free");
 				System.gc();
 				System.runFinalization();
+				Reference<?>[] batch = new Reference<?>[BATCH_SIZE];
 				while (true) {
 					try {
-						handle(100);
+						handle(batch, 100, false);
 						break;
 					} catch (InterruptedException ignored) {
 					}
@@ -92,9 +128,10 @@ public final class CleanerThread {
 		
 		ThreadInfo info = new ThreadInfo();
 		Thread thread = info.thread = new Thread(() -> {
+			Reference<?>[] batch = new Reference<?>[BATCH_SIZE];
 			while (info.doRun) {
 				try {
-					handle(0);
+					handle(batch, 0, true);
 				} catch (InterruptedException ignore) {
 				
 				} catch (Throwable e) {
@@ -112,30 +149,131 @@ public final class CleanerThread {
 	}
 	
 	//handle
-	private static void handle(long timeout) throws InterruptedException {
+	
+	/**
+	 * @param batch an array of {@link #BATCH_SIZE} reused by the calling Thread, it is cleared again before returning
+	 */
+	private static void handle(Reference<?>[] batch, long timeout, boolean parallel) throws InterruptedException {
 		Reference<?> ref1 = QUEUE.remove(timeout);
 		if (ref1 == null)
 			return;
-		handle(ref1);
+		long start = System.nanoTime();
 		
-		//handle all remaining objects in the queue
+		//drain a batch
+		batch[0] = ref1;
 		int count = 1;
-		Reference<?> ref;
-		for (; (ref = QUEUE.poll()) != null; count++) {
-			handle(ref);
+		for (Reference<?> ref; count < BATCH_SIZE && (ref = QUEUE.poll()) != null; count++)
+			batch[count] = ref;
+		
+		try {
+			if (parallel && count >= PARALLEL_THRESHOLD) {
+				handleParallel(batch, count);
+			} else {
+				for (int i = 0; i < count; i++)
+					handle(batch[i]);
+			}
+		} finally {
+			//don't keep the References alive
+			Arrays.fill(batch, 0, count, null);
+		}
+		
+		//metrics
+		long nanos = System.nanoTime() - start;
+		synchronized (CleanerThread.class) {
+			freedCount += count;
+			batchCount++;
+			if (count == BATCH_SIZE)
+				fullBatchCount++;
+			lastBatchNanos = nanos;
+			maxBatchNanos = Math.max(maxBatchNanos, nanos);
 		}
 		
 		//log object count
 		cleanupLogger.log(INFO, new StringBuilder2D().append("Cleaning up ").append(count).append(" Objects via GC").toString());
 	}
 	
+	/**
+	 * Frees every group of the batch in a separate task on the pool and waits for all of them.
+	 */
+	private static void handleParallel(Reference<?>[] batch, int count) {
+		Map<Object, List<Reference<?>>> groups = new IdentityHashMap<>();
+		List<Reference<?>> ungrouped = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Reference<?> ref = batch[i];
+			if (ref instanceof Grouped)
+				groups.computeIfAbsent(((Grouped) ref).cleanupGroup(), group -> new ArrayList<>()).add(ref);
+			else
+				ungrouped.add(ref);
+		}
+		
+		List<Barrier> tasks = new ArrayList<>(groups.size() + ungrouped.size() / UNGROUPED_CHUNK_SIZE + 1);
+		for (List<Reference<?>> group : groups.values())
+			tasks.add(Barrier.nowRun(() -> handle(group)));
+		for (int i = 0; i < ungrouped.size(); i += UNGROUPED_CHUNK_SIZE) {
+			List<Reference<?>> chunk = ungrouped.subList(i, Math.min(i + UNGROUPED_CHUNK_SIZE, ungrouped.size()));
+			tasks.add(Barrier.nowRun(() -> handle(chunk)));
+		}
+		Barrier.when(tasks).awaitUninterrupted();
+	}
+	
+	private static void handle(List<Reference<?>> refs) {
+		for (Reference<?> ref : refs)
+			handle(ref);
+	}
+	
+	/**
+	 * Frees ref, exceptions are passed to the uncaught exception handler so the remaining batch is still freed
+	 */
 	private static void handle(Reference<?> ref) {
-		if (cleanupLoggerDebug)
-			cleanupLogger.log(LogLevel.FINEST, "Cleaning up " + ref);
-		if (ref instanceof Freeable)
-			((Freeable) ref).free();
-		else
-			throw new IllegalArgumentException("Inappropriate Reference of type " + ref.getClass().getName() + ": " + ref);
+		try {
+			if (cleanupLoggerDebug)
+				cleanupLogger.log(LogLevel.FINEST, "Cleaning up " + ref);
+			if (ref instanceof Freeable)
+				((Freeable) ref).free();
+			else if (ref instanceof LeakDetector.Tracker)
+				((LeakDetector.Tracker) ref).run();
+			else
+				throw new IllegalArgumentException("Inappropriate Reference of type " + ref.getClass().getName() + ": " + ref);
+		} catch (Throwable e) {
+			Thread th = Thread.currentThread();
+			th.getUncaughtExceptionHandler().uncaughtException(th, e);
+		}
+	}
+	
+	//metrics
+	private static long freedCount, batchCount, fullBatchCount, lastBatchNanos, maxBatchNanos;
+	
+	public static class Metrics {
+		
+		public final long freedCount, batchCount;
+		/**
+		 * batches of {@link #BATCH_SIZE}, which means more references were likely waiting in the queue
+		 */
+		public final long fullBatchCount;
+		public final long lastBatchNanos, maxBatchNanos;
+		
+		public Metrics(long freedCount, long batchCount, long fullBatchCount, long lastBatchNanos, long maxBatchNanos) {
+			this.freedCount = freedCount;
+			this.batchCount = batchCount;
+			this.fullBatchCount = fullBatchCount;
+			this.lastBatchNanos = lastBatchNanos;
+			this.maxBatchNanos = maxBatchNanos;
+		}
+		
+		@Override
+		public String toString() {
+			return "Metrics{" +
+					"freedCount=" + freedCount +
+					", batchCount=" + batchCount +
+					", fullBatchCount=" + fullBatchCount +
+					", lastBatchNanos=" + lastBatchNanos +
+					", maxBatchNanos=" + maxBatchNanos +
+					'}';
+		}
+	}
+	
+	public static synchronized Metrics metrics() {
+		return new Metrics(freedCount, batchCount, fullBatchCount, lastBatchNanos, maxBatchNanos);
 	}
 	
 	//stop
@@ -130,6 +130,24 @@ public interface Freeable {
 		};
 	}
 	
+	/**
+	 * Creates a new {@link Cleaner} which won't free anything by itself, but still frees it's Children. <br>
+	 * It can be used as an in between Layer to other {@link Cleaner} Objects.
+	 *
+	 * @param referent the referent of the FreeableStorage or null
+	 * @param parents  the parents it should have
+	 * @param explicit see {@link Cleaner#Cleaner(Object, Object[], boolean)}
+	 * @return a new dummy {@link Freeable}
+	 */
+	static @NotNull Cleaner createDummy(@Nullable Object referent, @NotNull Object[] parents, boolean explicit) {
+		return new Cleaner(referent, parents, explicit) {
+			@Override
+			protected @NotNull Barrier handleFree() {
+				return Barrier.DONE_BARRIER;
+			}
+		};
+	}
+	
 	/**
 	 * If you don't want to add anything, why call this function?
 	 * (mostly here to prevent accidental calls forgetting to add arguments)
@@ -0,0 +1,102 @@
+package space.engine.freeable;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.string.StringBuilder2D;
+
+import java.lang.ref.PhantomReference;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static space.engine.logger.LogLevel.WARNING;
+
+/**
+ * Detects leaks of explicitly owned {@link Cleaner Cleaners}, which are never freed by the GC.
+ * <p>
+ * Every {@link #getSampleRate() n}-th explicit Cleaner is tracked by a PhantomReference on it's front-end Object.
+ * If the front-end Object is collected before the Cleaner was freed, the leak is logged to {@link CleanerThread#cleanupLogger} together with where the Cleaner was created, and the Cleaner is freed.
+ * Set the sample rate with the System property "space.engine.freeable.leakDetection.sampleRate", 0 (default) disables it.
+ */
+public final class LeakDetector {
+	
+	private static volatile int sampleRate = Integer.getInteger("space.engine.freeable.leakDetection.sampleRate", 0);
+	private static final AtomicInteger SAMPLE_COUNTER = new AtomicInteger();
+	private static final AtomicLong LEAK_COUNT = new AtomicLong();
+	
+	/**
+	 * keeps all Trackers reachable until they are enqueued
+	 */
+	private static final Set<Tracker> TRACKERS = ConcurrentHashMap.newKeySet();
+	
+	private LeakDetector() {
+	}
+	
+	public static int getSampleRate() {
+		return sampleRate;
+	}
+	
+	/**
+	 * @param sampleRate track every sampleRate-th explicit {@link Cleaner}, 0 to disable
+	 */
+	public static void setSampleRate(int sampleRate) {
+		if (sampleRate < 0)
+			throw new IllegalArgumentException("sampleRate " + sampleRate + " < 0");
+		LeakDetector.sampleRate = sampleRate;
+	}
+	
+	/**
+	 * @return the amount of leaks detected
+	 */
+	public static long leakCount() {
+		return LEAK_COUNT.get();
+	}
+	
+	//track
+	
+	/**
+	 * @return a Tracker to {@link Tracker#untrack()} when the Cleaner is freed or null if not sampled
+	 */
+	static @Nullable Tracker track(@NotNull Cleaner cleaner, @NotNull Object referent) {
+		int sampleRate = LeakDetector.sampleRate;
+		if (sampleRate == 0 || SAMPLE_COUNTER.getAndIncrement() % sampleRate != 0)
+			return null;
+		Tracker tracker = new Tracker(cleaner, referent);
+		TRACKERS.add(tracker);
+		return tracker;
+	}
+	
+	static class Tracker extends PhantomReference<Object> implements Runnable {
+		
+		private final @NotNull Cleaner cleaner;
+		private final @NotNull Throwable creation;
+		
+		public Tracker(@NotNull Cleaner cleaner, @NotNull Object referent) {
+			super(referent, CleanerThread.QUEUE);
+			this.cleaner = cleaner;
+			this.creation = new Throwable("created at");
+		}
+		
+		void untrack() {
+			clear();
+			TRACKERS.remove(this);
+		}
+		
+		/**
+		 * Called by the {@link CleanerThread} once the front-end Object was collected
+		 */
+		@Override
+		public void run() {
+			if (!TRACKERS.remove(this) || cleaner.isFreed())
+				return;
+			
+			LEAK_COUNT.incrementAndGet();
+			StringBuilder2D b = new StringBuilder2D().append("Leak: explicitly owned ").append(cleaner.toString()).append(" was never freed, ").append(creation.toString());
+			for (StackTraceElement element : creation.getStackTrace())
+				b.nextLine().append("\tat ").append(element.toString());
+			CleanerThread.cleanupLogger.log(WARNING, b);
+			cleaner.free();
+		}
+	}
+}
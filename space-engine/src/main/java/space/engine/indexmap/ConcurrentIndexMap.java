@@ -9,6 +9,8 @@ import space.engine.delegate.collection.UnmodifiableCollection;
 import space.engine.delegate.iterator.Iteratorable;
 import space.engine.string.toStringHelper.ToStringHelper;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.AbstractCollection;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -16,27 +18,38 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Supplier;
 
 /**
- * This implementation of {@link IndexMap} allows concurrent access with as little blocking as possible.
- * The only operation which is blocking is growing an internal array.
+ * This implementation of {@link IndexMap} allows concurrent access without ever blocking.
+ * Reads are wait-free, writes and growing the internal array are lock-free.
  *
- * @implNote This Object stores everything in an AtomicReferenceArray<VALUE>[] {@link #array}.
- * The outer array only has non-null elements, may be read at any time, but should only be written or replaced while synchronized on this (as done in {@link #ensureCapacity(int[])}).
- * The inner array (all AtomicReferenceArrays) ensures atomic access for all normal read and write operations.
- * They always has a fixed size defined in {@link #capacityInnerArray} to make location calculation simple.
- * Call {@link #calculateLocation(int)} to calculate the location in these two arrays and use it like <code>array[location[0]].operation(location[1]);</code>
+ * @implNote This Object stores everything in chunks of {@link #capacityInnerArray} elements referenced by the outer array {@link #array}.
+ * {@link #capacityInnerArray} is a power of two, so the chunk of an index is <code>index &gt;&gt;&gt; {@link #chunkShift}</code> and the index within the chunk <code>index &amp; {@link #chunkMask}</code>.
+ * The outer array is never modified, to grow it a copy with additional chunks is published by CAS. Chunks are shared between all outer arrays, so writes are never lost when the outer array is replaced.
+ * Elements of chunks are accessed with {@link #ELEMENT} in volatile mode.
  */
 public class ConcurrentIndexMap<VALUE> implements IndexMap<VALUE>, ToString {
 	
 	public static final int DEFAULT_CAPACITY_INNER_ARRAY = 32;
 	public static final int EXPAND_SHIFT_OUTER_ARRAY = 1;
 	
+	protected static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+	private static final VarHandle ARRAY;
+	
+	static {
+		try {
+			ARRAY = MethodHandles.lookup().findVarHandle(ConcurrentIndexMap.class, "array", Object[][].class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
 	protected final VALUE defaultObject;
 	protected final int capacityInnerArray;
-	protected volatile AtomicReferenceArray<VALUE>[] array;
+	protected final int chunkShift;
+	protected final int chunkMask;
+	protected volatile Object[][] array;
 	
 	public ConcurrentIndexMap() {
 		this(null, DEFAULT_CAPACITY_INNER_ARRAY);
@@ -54,15 +67,17 @@ public class ConcurrentIndexMap<VALUE> implements IndexMap<VALUE>, ToString {
 		this(defaultObject, DEFAULT_CAPACITY_INNER_ARRAY);
 	}
 	
+	/**
+	 * @param capacityInnerArray the size of a chunk, rounded up to the next power of two
+	 */
 	public ConcurrentIndexMap(@Nullable VALUE defaultObject, int capacityInnerArray) {
+		if (capacityInnerArray <= 0)
+			throw new IllegalArgumentException("capacityInnerArray " + capacityInnerArray + " <= 0");
 		this.defaultObject = defaultObject;
-		this.capacityInnerArray = capacityInnerArray;
-		
-		//noinspection unchecked
-		VALUE[] firstArray = (VALUE[]) new Object[capacityInnerArray];
-		Arrays.fill(firstArray, defaultObject);
-		//noinspection unchecked
-		this.array = new AtomicReferenceArray[] {new AtomicReferenceArray<>(firstArray)};
+		this.chunkShift = 32 - Integer.numberOfLeadingZeros(capacityInnerArray - 1);
+		this.capacityInnerArray = 1 << chunkShift;
+		this.chunkMask = this.capacityInnerArray - 1;
+		this.array = new Object[][] {newChunk()};
 	}
 	
 	public ConcurrentIndexMap(@Nullable VALUE defaultObject, IndexMap<VALUE> indexMap) {
@@ -71,38 +86,67 @@ public class ConcurrentIndexMap<VALUE> implements IndexMap<VALUE>, ToString {
 	}
 	
 	//internal
-	protected int[] calculateLocation(int index) {
+	private Object[] newChunk() {
+		Object[] chunk = new Object[capacityInnerArray];
+		if (defaultObject != null)
+			Arrays.fill(chunk, defaultObject);
+		return chunk;
+	}
+	
+	private static void checkIndex(int index) {
 		if (index < 0)
 			throw new IndexOutOfBoundsException("no negative index!");
-		return new int[] {index / capacityInnerArray, index % capacityInnerArray};
+	}
+	
+	/**
+	 * @return the chunk containing index or null if there is none yet
+	 */
+	protected @Nullable Object[] chunkIfPresent(int index) {
+		checkIndex(index);
+		Object[][] array = this.array;
+		int outer = index >>> chunkShift;
+		return outer < array.length ? array[outer] : null;
+	}
+	
+	/**
+	 * @return the chunk containing index, growing the outer array if required
+	 */
+	protected @NotNull Object[] chunk(int index) {
+		checkIndex(index);
+		Object[][] array = this.array;
+		int outer = index >>> chunkShift;
+		if (outer < array.length)
+			return array[outer];
+		return grow(outer + 1)[outer];
 	}
 	
 	//capacity
-	public boolean ensureCapacity(int[] location) {
-		int minCapacity = location[0] + 1;
+	
+	/**
+	 * Ensures that index can be stored without growing.
+	 *
+	 * @return true if the outer array was grown
+	 */
+	public boolean ensureCapacity(int index) {
+		checkIndex(index);
+		int minCapacity = (index >>> chunkShift) + 1;
 		if (minCapacity <= array.length)
 			return false;
-		
-		synchronized (this) {
-			if (minCapacity <= array.length)
-				return false;
+		grow(minCapacity);
+		return true;
+	}
+	
+	private Object[][] grow(int minCapacity) {
+		Object[][] prev = array;
+		while (prev.length < minCapacity) {
+			Object[][] next = Arrays.copyOf(prev, ArrayUtils.getOptimalArraySizeExpansion(prev.length, minCapacity, EXPAND_SHIFT_OUTER_ARRAY));
+			for (int i = prev.length; i < next.length; i++)
+				next[i] = newChunk();
 			
-			//grow array
-			AtomicReferenceArray<VALUE>[] newArray = Arrays.copyOf(array, ArrayUtils.getOptimalArraySizeExpansion(array.length, minCapacity, EXPAND_SHIFT_OUTER_ARRAY));
-			VALUE def = defaultObject;
-			for (int i = array.length; i < newArray.length; i++) {
-				if (def == null) {
-					newArray[i] = new AtomicReferenceArray<>(capacityInnerArray);
-				} else {
-					//noinspection unchecked
-					VALUE[] innerArray = (VALUE[]) new Object[capacityInnerArray];
-					Arrays.fill(innerArray, def);
-					newArray[i] = new AtomicReferenceArray<>(innerArray);
-				}
-			}
-			array = newArray;
+			Object[][] witness = (Object[][]) ARRAY.compareAndExchange(this, prev, next);
+			prev = witness == prev ? next : witness;
 		}
-		return true;
+		return prev;
 	}
 	
 	@Override
@@ -112,11 +156,12 @@ public class ConcurrentIndexMap<VALUE> implements IndexMap<VALUE>, ToString {
 	
 	//access
 	@Override
+	@SuppressWarnings("unchecked")
 	public VALUE get(int index) {
-		int[] location = calculateLocation(index);
-		if (location[0] >= array.length)
+		Object[] chunk = chunkIfPresent(index);
+		if (chunk == null)
 			return defaultObject;
-		return array[location[0]].get(location[1]);
+		return (VALUE) ELEMENT.getVolatile(chunk, index & chunkMask);
 	}
 	
 	@NotNull
@@ -126,150 +171,194 @@ public class ConcurrentIndexMap<VALUE> implements IndexMap<VALUE>, ToString {
 	}
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public VALUE put(int index, @Nullable VALUE value) {
-		int[] location = calculateLocation(index);
-		ensureCapacity(location);
-		return array[location[0]].getAndSet(index, value);
+		return (VALUE) ELEMENT.getAndSet(chunk(index), index & chunkMask, value);
 	}
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public VALUE remove(int index) {
-		int[] location = calculateLocation(index);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		if (location[0] >= this.array.length)
+		Object[] chunk = chunkIfPresent(index);
+		if (chunk == null)
 			return defaultObject;
-		return this.array[location[0]].getAndSet(location[1], defaultObject);
+		return (VALUE) ELEMENT.getAndSet(chunk, index & chunkMask, defaultObject);
 	}
 	
 	@Override
 	@SuppressWarnings("unchecked")
 	public VALUE[] toArray() {
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		int size = array.length * capacityInnerArray;
-		VALUE[] dest = (VALUE[]) new Object[size];
-		for (int outer = 0; outer < array.length; outer++)
-			for (int inner = 0; inner < capacityInnerArray; inner++)
-				dest[outer * capacityInnerArray + inner] = array[outer].get(inner);
-		return dest;
+		return toArray((VALUE[]) new Object[0]);
 	}
 	
 	@Override
 	@SuppressWarnings("unchecked")
 	public VALUE[] toArray(@NotNull VALUE[] dest) {
-		AtomicReferenceArray<VALUE>[] array = this.array;
+		Object[][] array = this.array;
 		int size = array.length * capacityInnerArray;
 		if (dest.length < size)
 			dest = (VALUE[]) new Object[size];
-		for (int outer = 0; outer < array.length; outer++)
+		for (int outer = 0; outer < array.length; outer++) {
+			Object[] chunk = array[outer];
+			int offset = outer << chunkShift;
 			for (int inner = 0; inner < capacityInnerArray; inner++)
-				dest[outer * capacityInnerArray + inner] = array[outer].get(inner);
+				dest[offset + inner] = (VALUE) ELEMENT.getVolatile(chunk, inner);
+		}
 		return dest;
 	}
 	
+	//bulk
+	
+	/**
+	 * Calls the consumer for every non-null value, reading every chunk directly.
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(@NotNull EntryConsumer<? super VALUE> consumer) {
+		Object[][] array = this.array;
+		for (int outer = 0; outer < array.length; outer++) {
+			Object[] chunk = array[outer];
+			int offset = outer << chunkShift;
+			for (int inner = 0; inner < capacityInnerArray; inner++) {
+				VALUE value = (VALUE) ELEMENT.getVolatile(chunk, inner);
+				if (value != null)
+					consumer.accept(offset + inner, value);
+			}
+		}
+	}
+	
+	/**
+	 * Grows at most once and writes into the chunks directly.
+	 */
+	@Override
+	public void putAll(@NotNull IndexMap<? extends VALUE> indexMap) {
+		int size = indexMap.size();
+		if (size == 0)
+			return;
+		ensureCapacity(size - 1);
+		indexMap.forEach((index, value) -> ELEMENT.setVolatile(chunk(index), index & chunkMask, value));
+	}
+	
 	//advanced access
 	@Override
 	@Nullable
 	@Contract("_,!null->!null")
+	@SuppressWarnings("unchecked")
 	public VALUE getOrDefault(int index, @Nullable VALUE def) {
-		int[] location = calculateLocation(index);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		if (location[0] >= array.length)
+		Object[] chunk = chunkIfPresent(index);
+		if (chunk == null)
 			return def;
-		VALUE value = array[location[0]].get(location[1]);
+		VALUE value = (VALUE) ELEMENT.getVolatile(chunk, index & chunkMask);
 		return value == defaultObject ? def : value;
 	}
 	
 	@Override
 	@Nullable
 	@Contract("_,!null->!null")
+	@SuppressWarnings("unchecked")
 	public VALUE putIfAbsent(int index, @Nullable VALUE newValue) {
-		int[] location = calculateLocation(index);
-		ensureCapacity(location);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		return array[location[0]].compareAndExchange(location[1], defaultObject, newValue);
+		VALUE witness = (VALUE) ELEMENT.compareAndExchange(chunk(index), index & chunkMask, defaultObject, newValue);
+		return witness == defaultObject ? newValue : witness;
 	}
 	
 	@Override
 	@Nullable
+	@SuppressWarnings("unchecked")
 	public VALUE putIfPresent(int index, @Nullable VALUE newValue) {
-		int[] location = calculateLocation(index);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		if (location[0] >= array.length)
+		Object[] chunk = chunkIfPresent(index);
+		if (chunk == null)
 			return defaultObject;
-		return array[location[0]].accumulateAndGet(location[1], newValue, (curr, value) -> curr != defaultObject ? curr : value);
+		int inner = index & chunkMask;
+		while (true) {
+			VALUE curr = (VALUE) ELEMENT.getVolatile(chunk, inner);
+			if (curr == defaultObject)
+				return defaultObject;
+			if (ELEMENT.compareAndSet(chunk, inner, curr, newValue))
+				return newValue;
+		}
 	}
 	
 	@Override
 	public boolean replace(int index, @Nullable VALUE oldValue, @Nullable VALUE newValue) {
-		int[] location = calculateLocation(index);
-		ensureCapacity(location);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		return array[location[0]].compareAndSet(location[1], oldValue, newValue);
+		return ELEMENT.compareAndSet(chunk(index), index & chunkMask, oldValue, newValue);
 	}
 	
 	@Override
 	public boolean replace(int index, @Nullable VALUE oldValue, @NotNull Supplier<? extends VALUE> newValue) {
-		int[] location = calculateLocation(index);
-		ensureCapacity(location);
-		return array[location[0]].compareAndSet(location[1], oldValue, newValue.get());
+		Object[] chunk = chunk(index);
+		int inner = index & chunkMask;
+		if (ELEMENT.getVolatile(chunk, inner) != oldValue)
+			return false;
+		return ELEMENT.compareAndSet(chunk, inner, oldValue, newValue.get());
 	}
 	
 	@Override
 	public boolean remove(int index, @Nullable VALUE value) {
-		int[] location = calculateLocation(index);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		if (location[0] >= array.length)
+		Object[] chunk = chunkIfPresent(index);
+		if (chunk == null)
 			return false;
-		return array[location[0]].compareAndSet(location[1], value, defaultObject);
+		return ELEMENT.compareAndSet(chunk, index & chunkMask, value, defaultObject);
 	}
 	
 	//compute
 	@Override
+	@SuppressWarnings("unchecked")
 	public VALUE compute(int index, @NotNull ComputeFunction<? super VALUE, ? extends VALUE> function) {
-		int[] location = calculateLocation(index);
-		ensureCapacity(location);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		return array[location[0]].accumulateAndGet(location[1], null, (value, value2) -> function.apply(index, value));
+		Object[] chunk = chunk(index);
+		int inner = index & chunkMask;
+		while (true) {
+			VALUE curr = (VALUE) ELEMENT.getVolatile(chunk, inner);
+			VALUE next = function.apply(index, curr);
+			if (ELEMENT.compareAndSet(chunk, inner, curr, next))
+				return next;
+		}
 	}
 	
 	@Override
+	@SuppressWarnings("unchecked")
 	public VALUE computeIfAbsent(int index, @NotNull Supplier<? extends VALUE> supplier) {
-		int[] location = calculateLocation(index);
-		ensureCapacity(location);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		return array[location[0]].compareAndExchange(location[1], defaultObject, supplier.get());
+		Object[] chunk = chunk(index);
+		int inner = index & chunkMask;
+		VALUE curr = (VALUE) ELEMENT.getVolatile(chunk, inner);
+		if (curr != defaultObject)
+			return curr;
+		VALUE newValue = supplier.get();
+		VALUE witness = (VALUE) ELEMENT.compareAndExchange(chunk, inner, defaultObject, newValue);
+		return witness == defaultObject ? newValue : witness;
 	}
 	
 	@Override
 	@Nullable
+	@SuppressWarnings("unchecked")
 	public VALUE computeIfPresent(int index, @NotNull Supplier<? extends VALUE> supplier) {
-		int[] location = calculateLocation(index);
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		if (location[0] >= array.length)
+		Object[] chunk = chunkIfPresent(index);
+		if (chunk == null)
 			return defaultObject;
-		return array[location[0]].accumulateAndGet(location[1], supplier.get(), (curr, value) -> curr != defaultObject ? curr : value);
+		int inner = index & chunkMask;
+		while (true) {
+			VALUE curr = (VALUE) ELEMENT.getVolatile(chunk, inner);
+			if (curr == defaultObject)
+				return defaultObject;
+			VALUE newValue = supplier.get();
+			if (ELEMENT.compareAndSet(chunk, inner, curr, newValue))
+				return newValue;
+		}
 	}
 	
 	//other
 	@Override
 	public void clear() {
-		AtomicReferenceArray<VALUE>[] array = this.array;
-		for (AtomicReferenceArray<VALUE> innerArray : array)
+		Object[][] array = this.array;
+		for (Object[] chunk : array)
 			for (int inner = 0; inner < capacityInnerArray; inner++)
-				innerArray.set(inner, defaultObject);
+				ELEMENT.setVolatile(chunk, inner, defaultObject);
 	}
 	
 	@NotNull
 	@Override
 	public Collection<VALUE> values() {
 		List<VALUE> ret = new ArrayList<>();
-		for (AtomicReferenceArray<VALUE> innerArray : array) {
-			for (int innerIndex = 0; innerIndex < capacityInnerArray; innerIndex++) {
-				VALUE value = innerArray.get(innerIndex);
-				if (value != null)
-					ret.add(value);
-			}
-		}
+		forEach((index, value) -> ret.add(value));
 		return new UnmodifiableCollection<>(ret);
 	}
 	
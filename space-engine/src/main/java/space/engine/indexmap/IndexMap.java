@@ -167,11 +167,7 @@ public interface IndexMap<VALUE> {
 	VALUE[] toArray(@NotNull VALUE[] array);
 	
 	default void putAll(@NotNull IndexMap<? extends VALUE> indexMap) {
-		for (Entry<? extends VALUE> entry : indexMap.entrySet()) {
-			VALUE value = entry.getValue();
-			if (value != null)
-				put(entry.getIndex(), value);
-		}
+		indexMap.forEach(this::put);
 	}
 	
 	default void putAllIfAbsent(@NotNull IndexMap<? extends VALUE> indexMap) {
@@ -268,6 +264,17 @@ public interface IndexMap<VALUE> {
 	 */
 	@NotNull Collection<Entry<VALUE>> entrySet();
 	
+	/**
+	 * Calls the consumer for every index with a non-null value, without creating {@link Entry Entries} if implemented by the IndexMap.
+	 */
+	default void forEach(@NotNull EntryConsumer<? super VALUE> consumer) {
+		for (Entry<VALUE> entry : entrySet()) {
+			VALUE value = entry.getValue();
+			if (value != null)
+				consumer.accept(entry.getIndex(), value);
+		}
+	}
+	
 	//entry
 	interface Entry<VALUE> {
 		
@@ -339,6 +346,12 @@ public interface IndexMap<VALUE> {
 		boolean equals(Object obj);
 	}
 	
+	@FunctionalInterface
+	interface EntryConsumer<VALUE> {
+		
+		void accept(int index, @NotNull VALUE value);
+	}
+	
 	@FunctionalInterface
 	interface ComputeFunction<F, R> {
 		
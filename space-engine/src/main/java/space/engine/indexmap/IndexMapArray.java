@@ -160,6 +160,16 @@ public class IndexMapArray<VALUE> implements IndexMap<VALUE>, ToString {
 		IndexMap.super.putAllIfAbsent(indexMap);
 	}
 	
+	@Override
+	public void forEach(@NotNull EntryConsumer<? super VALUE> consumer) {
+		VALUE[] array = this.array;
+		for (int i = 0; i < length; i++) {
+			VALUE value = array[i];
+			if (value != null)
+				consumer.accept(i, value);
+		}
+	}
+	
 	//advanced access
 	@Override
 	@Nullable
@@ -44,6 +44,11 @@ public class AttributeList<TYPE> extends AbstractAttributeList<TYPE> implements
 		return lock.unlock();
 	}
 	
+	@Override
+	public long lockOrder() {
+		return lock.lockOrder();
+	}
+	
 	public void addHook(@NotNull EventEntry<ChangeEvent<TYPE>> hook) {
 		changeEvent.addHook(hook);
 	}
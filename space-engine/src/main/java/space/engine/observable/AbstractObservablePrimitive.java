@@ -0,0 +1,211 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.event.EventEntry;
+import space.engine.event.EventPlan;
+import space.engine.event.SequentialEventBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import static space.engine.barrier.Barrier.DONE_BARRIER;
+
+/**
+ * The part of the unboxed observables like {@link ObservableInt} which does not depend on the primitive type: calling hooks and generating values with {@link Propagation}.
+ * <p>
+ * The value is changed under the monitor of this, but hooks are called outside of it with a snapshot of the value, by one Thread at a time.
+ * A change made while another Thread is calling the hooks is delivered by that Thread afterwards, coalesced with all other changes made in the meantime.
+ * So hooks see the values in order and always see the latest value last.
+ *
+ * @param <H> the type of the hooks
+ */
+public abstract class AbstractObservablePrimitive<H> {
+	
+	private static final Propagation.Node[] EMPTY_NODE_ARRAY = new Propagation.Node[0];
+	
+	protected final SequentialEventBuilder<H> changeEvent = new SequentialEventBuilder<>();
+	private final @Nullable Propagation.Node node;
+	
+	//guarded by this
+	private boolean notifying;
+	private boolean changed;
+	private @Nullable List<H> initialCallbacks;
+	private Propagation.Node[] dependents = EMPTY_NODE_ARRAY;
+	
+	protected AbstractObservablePrimitive() {
+		this.node = null;
+	}
+	
+	/**
+	 * A value generated by {@link Propagation}, {@link #recompute()} is called whenever an input it {@link #generated(AbstractObservablePrimitive, AbstractObservablePrimitive[]) depends on} changes.
+	 */
+	AbstractObservablePrimitive(int rank) {
+		this.node = new Propagation.Node(rank) {
+			@Override
+			protected @NotNull Barrier recompute() {
+				AbstractObservablePrimitive.this.recompute();
+				return DONE_BARRIER;
+			}
+		};
+	}
+	
+	//notify
+	
+	/**
+	 * Takes a snapshot of the value for {@link #callHook(Object)}. Called with the monitor of this held.
+	 */
+	protected abstract void snapshotLocked();
+	
+	/**
+	 * Calls the hook with the value of the last {@link #snapshotLocked()}.
+	 */
+	protected abstract void callHook(@NotNull H hook);
+	
+	/**
+	 * Requires the caller to hold the monitor of this, after it has changed the value.
+	 *
+	 * @return true if the caller has to call {@link #notifyHooks()} after releasing the monitor, false if another Thread is calling the hooks and will deliver the change
+	 */
+	protected final boolean changedLocked() {
+		changed = true;
+		if (notifying)
+			return false;
+		notifying = true;
+		return true;
+	}
+	
+	/**
+	 * Calls the hooks outside of the monitor until there are no more changes and no more hooks waiting for their initial callback.
+	 * Only called by the Thread {@link #changedLocked()} returned true to.
+	 */
+	protected final void notifyHooks() {
+		try {
+			while (true) {
+				EventPlan<H> plan = null;
+				List<H> initialCallbacks = null;
+				Propagation.Node[] dependents = EMPTY_NODE_ARRAY;
+				synchronized (this) {
+					snapshotLocked();
+					if (changed) {
+						changed = false;
+						plan = changeEvent.getPlan();
+						dependents = this.dependents;
+						//hooks waiting for their initial callback are part of the plan
+						this.initialCallbacks = null;
+					} else if (this.initialCallbacks != null) {
+						initialCallbacks = this.initialCallbacks;
+						this.initialCallbacks = null;
+					} else {
+						notifying = false;
+						return;
+					}
+				}
+				
+				if (plan != null) {
+					for (int i = 0; i < plan.size(); i++)
+						callHook(plan.function(i));
+				} else {
+					for (H hook : initialCallbacks)
+						callHook(hook);
+				}
+				for (Propagation.Node dependent : dependents)
+					Propagation.markDirty(dependent);
+			}
+		} catch (Throwable e) {
+			synchronized (this) {
+				notifying = false;
+			}
+			throw e;
+		}
+	}
+	
+	//addHook
+	
+	/**
+	 * Adds the hook and calls it with the current value.
+	 */
+	public <E extends H> EventEntry<E> addHook(@NotNull EventEntry<E> hook) {
+		synchronized (this) {
+			changeEvent.addHook(hook);
+			if (initialCallbacks == null)
+				initialCallbacks = new ArrayList<>();
+			initialCallbacks.add(hook.function);
+			if (notifying)
+				return hook;
+			notifying = true;
+		}
+		notifyHooks();
+		return hook;
+	}
+	
+	public EventEntry<H> addHook(@NotNull H hook) {
+		return addHook(new EventEntry<>(hook));
+	}
+	
+	public <E extends H> EventEntry<E> addHookNoInitialCallback(@NotNull EventEntry<E> hook) {
+		synchronized (this) {
+			changeEvent.addHook(hook);
+		}
+		return hook;
+	}
+	
+	public EventEntry<H> addHookNoInitialCallback(@NotNull H hook) {
+		return addHookNoInitialCallback(new EventEntry<>(hook));
+	}
+	
+	public boolean removeHook(@NotNull EventEntry<H> hook) {
+		return changeEvent.removeHook(hook);
+	}
+	
+	//generate
+	
+	/**
+	 * @return the {@link Propagation} rank, 0 unless generated from other values
+	 */
+	int rank() {
+		return node == null ? 0 : node.rank();
+	}
+	
+	/**
+	 * Sets the value of a generated value, see {@link #AbstractObservablePrimitive(int)}.
+	 */
+	void recompute() {
+		throw new UnsupportedOperationException("Not generated");
+	}
+	
+	/**
+	 * Marks generated dirty whenever one of the inputs changes, then computes it's initial value.
+	 */
+	static @NotNull <G extends AbstractObservablePrimitive<?>> G generated(@NotNull G generated, @NotNull AbstractObservablePrimitive<?>... inputs) {
+		Propagation.Node node = node(generated);
+		for (AbstractObservablePrimitive<?> input : inputs) {
+			synchronized (input) {
+				input.dependents = Arrays.copyOf(input.dependents, input.dependents.length + 1);
+				input.dependents[input.dependents.length - 1] = node;
+			}
+		}
+		generated.recompute();
+		return generated;
+	}
+	
+	/**
+	 * Marks generated dirty whenever input changes, starting with the initial value of input. store is called with the value of input before.
+	 */
+	static @NotNull <G extends AbstractObservablePrimitive<?>, I> G generated(@NotNull G generated, @NotNull ObservableReference<I> input, @NotNull Consumer<I> store) {
+		Propagation.Node node = node(generated);
+		input.addHook(new EventEntry<>(value -> {
+			store.accept(value);
+			Propagation.markDirty(node);
+		}));
+		return generated;
+	}
+	
+	private static @NotNull Propagation.Node node(@NotNull AbstractObservablePrimitive<?> generated) {
+		return Objects.requireNonNull(generated.node);
+	}
+}
@@ -1,5 +1,6 @@
 package space.engine.observable;
 
+import org.jetbrains.annotations.NotNull;
 import space.engine.barrier.Barrier;
 import space.engine.barrier.BarrierImpl;
 import space.engine.barrier.DelayTask;
@@ -7,42 +8,72 @@ import space.engine.event.EventEntry;
 
 import static space.engine.barrier.Barrier.when;
 
+/**
+ * An {@link ObservableReference} generated out of other ObservableReferences. Changes of the inputs are propagated by {@link Propagation},
+ * coalescing multiple changes into a single recompute.
+ */
 public class GeneratingObservableReference<T> extends ObservableReference<T> {
 	
+	/**
+	 * The hooks on the inputs of a {@link GeneratingObservableReference}, marking it dirty when an input changes.
+	 */
+	private abstract static class Inputs<T> extends Propagation.Node implements Generator<T> {
+		
+		final BarrierImpl initialBarrier = new BarrierImpl();
+		final GeneratingObservableReference<T> reference;
+		
+		volatile boolean updateEnabled;
+		
+		Inputs(@NotNull ObservableReference<?>... inputs) {
+			super(rank(inputs));
+			reference = new GeneratingObservableReference<>(initialBarrier, rank());
+		}
+		
+		private static int rank(ObservableReference<?>[] inputs) {
+			int rank = 0;
+			for (ObservableReference<?> input : inputs)
+				rank = Math.max(rank, input.rank());
+			return rank + 1;
+		}
+		
+		void start(@NotNull Barrier hooksAdded) {
+			//only the initial value has additional barriers; usually you shouldn't use them as they block #ordering but here it's fine
+			Propagation.State origin = Propagation.current();
+			reference.ordering.nextInbetween(prev -> when(prev, hooksAdded).thenStart(() -> {
+				updateEnabled = true;
+				return origin.propagate(() -> reference.setInternalAlways(this));
+			})).addHook(initialBarrier::triggerNow);
+		}
+		
+		void update() {
+			if (updateEnabled)
+				Propagation.markDirty(this);
+		}
+		
+		@Override
+		protected @NotNull Barrier recompute() {
+			return reference.set(this);
+		}
+	}
+	
 	public interface Generator1Input<T, I1> {
 		
 		T get(I1 i1, T previous) throws NoUpdate, DelayTask;
 	}
 	
 	public static <T, I1> GeneratingObservableReference<T> create(ObservableReference<I1> r1, Generator1Input<T, I1> generator) {
-		class S implements Generator<T> {
+		class S extends Inputs<T> {
 			
-			final GeneratingObservableReference<T> reference;
-			
-			volatile boolean updateEnabled;
 			volatile I1 i1;
 			
 			public S() {
-				BarrierImpl initialBarrier = new BarrierImpl();
-				reference = new GeneratingObservableReference<>(initialBarrier);
-				
-				Barrier hooksAdded = when(
-						r1.addHook(new EventEntry<>(o -> {
-							i1 = o;
-							update();
-						}))
-				);
-				
-				//only the initial value has additional barriers; usually you shouldn't use them as they block #ordering but here it's fine
-				reference.ordering.nextInbetween(prev -> when(prev, hooksAdded).thenStart(() -> {
-					updateEnabled = true;
-					return reference.setInternalAlways(this);
-				})).addHook(initialBarrier::triggerNow);
-			}
-			
-			public void update() {
-				if (updateEnabled)
-					reference.set(this);
+				super(r1);
+				start(when(
+					r1.addHook(new EventEntry<>(o -> {
+						i1 = o;
+						update();
+					}))
+				));
 			}
 			
 			@Override
@@ -59,39 +90,23 @@ public class GeneratingObservableReference<T> extends ObservableReference<T> {
 	}
 	
 	public static <T, I1, I2> GeneratingObservableReference<T> create(ObservableReference<I1> r1, ObservableReference<I2> r2, Generator2Input<T, I1, I2> generator) {
-		class S implements Generator<T> {
-			
-			final GeneratingObservableReference<T> reference;
+		class S extends Inputs<T> {
 			
-			volatile boolean updateEnabled;
 			volatile I1 i1;
 			volatile I2 i2;
 			
 			public S() {
-				BarrierImpl initialBarrier = new BarrierImpl();
-				reference = new GeneratingObservableReference<>(initialBarrier);
-				
-				Barrier hooksAdded = when(
-						r1.addHook(new EventEntry<>(o -> {
-							i1 = o;
-							update();
-						})),
-						r2.addHook(new EventEntry<>(o -> {
-							i2 = o;
-							update();
-						}))
-				);
-				
-				//only the initial value has additional barriers; usually you shouldn't use them as they block #ordering but here it's fine
-				reference.ordering.nextInbetween(prev -> when(prev, hooksAdded).thenStart(() -> {
-					updateEnabled = true;
-					return reference.setInternalAlways(this);
-				})).addHook(initialBarrier::triggerNow);
-			}
-			
-			public void update() {
-				if (updateEnabled)
-					reference.set(this);
+				super(r1, r2);
+				start(when(
+					r1.addHook(new EventEntry<>(o -> {
+						i1 = o;
+						update();
+					})),
+					r2.addHook(new EventEntry<>(o -> {
+						i2 = o;
+						update();
+					}))
+				));
 			}
 			
 			@Override
@@ -108,44 +123,28 @@ public class GeneratingObservableReference<T> extends ObservableReference<T> {
 	}
 	
 	public static <T, I1, I2, I3> GeneratingObservableReference<T> create(ObservableReference<I1> r1, ObservableReference<I2> r2, ObservableReference<I3> r3, Generator3Input<T, I1, I2, I3> generator) {
-		class S implements Generator<T> {
+		class S extends Inputs<T> {
 			
-			final GeneratingObservableReference<T> reference;
-			
-			volatile boolean updateEnabled;
 			volatile I1 i1;
 			volatile I2 i2;
 			volatile I3 i3;
 			
 			public S() {
-				BarrierImpl initialBarrier = new BarrierImpl();
-				reference = new GeneratingObservableReference<>(initialBarrier);
-				
-				Barrier hooksAdded = when(
-						r1.addHook(new EventEntry<>(o -> {
-							i1 = o;
-							update();
-						})),
-						r2.addHook(new EventEntry<>(o -> {
-							i2 = o;
-							update();
-						})),
-						r3.addHook(new EventEntry<>(o -> {
-							i3 = o;
-							update();
-						}))
-				);
-				
-				//only the initial value has additional barriers; usually you shouldn't use them as they block #ordering but here it's fine
-				reference.ordering.nextInbetween(prev -> when(prev, hooksAdded).thenStart(() -> {
-					updateEnabled = true;
-					return reference.setInternalAlways(this);
-				})).addHook(initialBarrier::triggerNow);
-			}
-			
-			public void update() {
-				if (updateEnabled)
-					reference.set(this);
+				super(r1, r2, r3);
+				start(when(
+					r1.addHook(new EventEntry<>(o -> {
+						i1 = o;
+						update();
+					})),
+					r2.addHook(new EventEntry<>(o -> {
+						i2 = o;
+						update();
+					})),
+					r3.addHook(new EventEntry<>(o -> {
+						i3 = o;
+						update();
+					}))
+				));
 			}
 			
 			@Override
@@ -162,49 +161,33 @@ public class GeneratingObservableReference<T> extends ObservableReference<T> {
 	}
 	
 	public static <T, I1, I2, I3, I4> GeneratingObservableReference<T> create(ObservableReference<I1> r1, ObservableReference<I2> r2, ObservableReference<I3> r3, ObservableReference<I4> r4, Generator4Input<T, I1, I2, I3, I4> generator) {
-		class S implements Generator<T> {
-			
-			final GeneratingObservableReference<T> reference;
+		class S extends Inputs<T> {
 			
-			volatile boolean updateEnabled;
 			volatile I1 i1;
 			volatile I2 i2;
 			volatile I3 i3;
 			volatile I4 i4;
 			
 			public S() {
-				BarrierImpl initialBarrier = new BarrierImpl();
-				reference = new GeneratingObservableReference<>(initialBarrier);
-				
-				Barrier hooksAdded = when(
-						r1.addHook(new EventEntry<>(o -> {
-							i1 = o;
-							update();
-						})),
-						r2.addHook(new EventEntry<>(o -> {
-							i2 = o;
-							update();
-						})),
-						r3.addHook(new EventEntry<>(o -> {
-							i3 = o;
-							update();
-						})),
-						r4.addHook(new EventEntry<>(o -> {
-							i4 = o;
-							update();
-						}))
-				);
-				
-				//only the initial value has additional barriers; usually you shouldn't use them as they block #ordering but here it's fine
-				reference.ordering.nextInbetween(prev -> when(prev, hooksAdded).thenStart(() -> {
-					updateEnabled = true;
-					return reference.setInternalAlways(this);
-				})).addHook(initialBarrier::triggerNow);
-			}
-			
-			public void update() {
-				if (updateEnabled)
-					reference.set(this);
+				super(r1, r2, r3, r4);
+				start(when(
+					r1.addHook(new EventEntry<>(o -> {
+						i1 = o;
+						update();
+					})),
+					r2.addHook(new EventEntry<>(o -> {
+						i2 = o;
+						update();
+					})),
+					r3.addHook(new EventEntry<>(o -> {
+						i3 = o;
+						update();
+					})),
+					r4.addHook(new EventEntry<>(o -> {
+						i4 = o;
+						update();
+					}))
+				));
 			}
 			
 			@Override
@@ -221,11 +204,8 @@ public class GeneratingObservableReference<T> extends ObservableReference<T> {
 	}
 	
 	public static <T, I1, I2, I3, I4, I5> GeneratingObservableReference<T> create(ObservableReference<I1> r1, ObservableReference<I2> r2, ObservableReference<I3> r3, ObservableReference<I4> r4, ObservableReference<I5> r5, Generator5Input<T, I1, I2, I3, I4, I5> generator) {
-		class S implements Generator<T> {
+		class S extends Inputs<T> {
 			
-			final GeneratingObservableReference<T> reference;
-			
-			volatile boolean updateEnabled;
 			volatile I1 i1;
 			volatile I2 i2;
 			volatile I3 i3;
@@ -233,42 +213,29 @@ public class GeneratingObservableReference<T> extends ObservableReference<T> {
 			volatile I5 i5;
 			
 			public S() {
-				BarrierImpl initialBarrier = new BarrierImpl();
-				reference = new GeneratingObservableReference<>(initialBarrier);
-				
-				Barrier hooksAdded = when(
-						r1.addHook(new EventEntry<>(o -> {
-							i1 = o;
-							update();
-						})),
-						r2.addHook(new EventEntry<>(o -> {
-							i2 = o;
-							update();
-						})),
-						r3.addHook(new EventEntry<>(o -> {
-							i3 = o;
-							update();
-						})),
-						r4.addHook(new EventEntry<>(o -> {
-							i4 = o;
-							update();
-						})),
-						r5.addHook(new EventEntry<>(o -> {
-							i5 = o;
-							update();
-						}))
-				);
-				
-				//only the initial value has additional barriers; usually you shouldn't use them as they block #ordering but here it's fine
-				reference.ordering.nextInbetween(prev -> when(prev, hooksAdded).thenStart(() -> {
-					updateEnabled = true;
-					return reference.setInternalAlways(this);
-				})).addHook(initialBarrier::triggerNow);
-			}
-			
-			public void update() {
-				if (updateEnabled)
-					reference.set(this);
+				super(r1, r2, r3, r4, r5);
+				start(when(
+					r1.addHook(new EventEntry<>(o -> {
+						i1 = o;
+						update();
+					})),
+					r2.addHook(new EventEntry<>(o -> {
+						i2 = o;
+						update();
+					})),
+					r3.addHook(new EventEntry<>(o -> {
+						i3 = o;
+						update();
+					})),
+					r4.addHook(new EventEntry<>(o -> {
+						i4 = o;
+						update();
+					})),
+					r5.addHook(new EventEntry<>(o -> {
+						i5 = o;
+						update();
+					}))
+				));
 			}
 			
 			@Override
@@ -280,13 +247,23 @@ public class GeneratingObservableReference<T> extends ObservableReference<T> {
 	}
 	
 	//object
-	protected GeneratingObservableReference(Barrier initialBarrier) {
+	private final int rank;
+	
+	protected GeneratingObservableReference(Barrier initialBarrier, int rank) {
 		super(initialBarrier);
+		this.rank = rank;
+	}
+	
+	@Override
+	int rank() {
+		return rank;
 	}
 	
 	protected Barrier set(Generator<T> supplier) {
+		//called by Propagation, so the dependencies are recomputed in the same drain even if the recompute continues on another Thread
+		Propagation.State origin = Propagation.current();
 		return ordering.next(prev -> prev.thenStartCancelable(
-				canceledCheck -> setInternalMayCancel(supplier, canceledCheck)
+				canceledCheck -> origin.propagate(() -> setInternalMayCancel(supplier, canceledCheck))
 		));
 	}
-}
+}
\ No newline at end of file
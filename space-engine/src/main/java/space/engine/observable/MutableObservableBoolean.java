@@ -0,0 +1,31 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ObservableBoolean} which can be {@link #set(boolean) set} directly.
+ */
+public class MutableObservableBoolean extends ObservableBoolean {
+	
+	public MutableObservableBoolean() {
+		super(false);
+	}
+	
+	public MutableObservableBoolean(boolean initial) {
+		super(initial);
+	}
+	
+	//set
+	public void set(boolean value) {
+		setInternal(value);
+	}
+	
+	/**
+	 * Atomically sets the value to the result of the {@link Generator}.
+	 *
+	 * @return the new value
+	 */
+	public boolean set(@NotNull Generator generator) {
+		return setInternal(generator);
+	}
+}
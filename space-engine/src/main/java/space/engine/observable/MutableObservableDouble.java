@@ -0,0 +1,31 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ObservableDouble} which can be {@link #set(double) set} directly.
+ */
+public class MutableObservableDouble extends ObservableDouble {
+	
+	public MutableObservableDouble() {
+		super(0);
+	}
+	
+	public MutableObservableDouble(double initial) {
+		super(initial);
+	}
+	
+	//set
+	public void set(double value) {
+		setInternal(value);
+	}
+	
+	/**
+	 * Atomically sets the value to the result of the {@link Generator}.
+	 *
+	 * @return the new value
+	 */
+	public double set(@NotNull Generator generator) {
+		return setInternal(generator);
+	}
+}
@@ -0,0 +1,31 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ObservableFloat} which can be {@link #set(float) set} directly.
+ */
+public class MutableObservableFloat extends ObservableFloat {
+	
+	public MutableObservableFloat() {
+		super(0);
+	}
+	
+	public MutableObservableFloat(float initial) {
+		super(initial);
+	}
+	
+	//set
+	public void set(float value) {
+		setInternal(value);
+	}
+	
+	/**
+	 * Atomically sets the value to the result of the {@link Generator}.
+	 *
+	 * @return the new value
+	 */
+	public float set(@NotNull Generator generator) {
+		return setInternal(generator);
+	}
+}
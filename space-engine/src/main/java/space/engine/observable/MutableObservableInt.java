@@ -0,0 +1,31 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ObservableInt} which can be {@link #set(int) set} directly.
+ */
+public class MutableObservableInt extends ObservableInt {
+	
+	public MutableObservableInt() {
+		super(0);
+	}
+	
+	public MutableObservableInt(int initial) {
+		super(initial);
+	}
+	
+	//set
+	public void set(int value) {
+		setInternal(value);
+	}
+	
+	/**
+	 * Atomically sets the value to the result of the {@link Generator}.
+	 *
+	 * @return the new value
+	 */
+	public int set(@NotNull Generator generator) {
+		return setInternal(generator);
+	}
+}
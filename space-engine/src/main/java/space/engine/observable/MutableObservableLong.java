@@ -0,0 +1,31 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An {@link ObservableLong} which can be {@link #set(long) set} directly.
+ */
+public class MutableObservableLong extends ObservableLong {
+	
+	public MutableObservableLong() {
+		super(0);
+	}
+	
+	public MutableObservableLong(long initial) {
+		super(initial);
+	}
+	
+	//set
+	public void set(long value) {
+		setInternal(value);
+	}
+	
+	/**
+	 * Atomically sets the value to the result of the {@link Generator}.
+	 *
+	 * @return the new value
+	 */
+	public long set(@NotNull Generator generator) {
+		return setInternal(generator);
+	}
+}
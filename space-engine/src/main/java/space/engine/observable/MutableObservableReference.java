@@ -32,33 +32,38 @@ public class MutableObservableReference<T> extends ObservableReference<T> {
 	
 	//set
 	public Barrier set(T t) {
+		Propagation.State origin = Propagation.current();
 		return ordering.next(prev -> prev.thenStartCancelable(
-				canceledCheck -> setInternalAlways(t)
+				canceledCheck -> origin.propagate(() -> setInternalAlways(t))
 		));
 	}
 	
 	public Barrier set(Generator<T> supplier) {
+		Propagation.State origin = Propagation.current();
 		return ordering.next(prev -> prev.thenStartCancelable(
-				canceledCheck -> setInternalAlways(supplier)
+				canceledCheck -> origin.propagate(() -> setInternalAlways(supplier))
 		));
 	}
 	
 	public Barrier set(GeneratorWithCancelCheck<T> supplier) {
+		Propagation.State origin = Propagation.current();
 		return ordering.next(prev -> prev.thenStartCancelable(
-				canceledCheck -> setInternalAlways(supplier, canceledCheck)
+				canceledCheck -> origin.propagate(() -> setInternalAlways(supplier, canceledCheck))
 		));
 	}
 	
 	//setMayCancel
 	public Barrier setMayCancel(T t) {
+		Propagation.State origin = Propagation.current();
 		return ordering.next(prev -> prev.thenStartCancelable(
-				canceledCheck -> setInternalMayCancel(t, canceledCheck)
+				canceledCheck -> origin.propagate(() -> setInternalMayCancel(t, canceledCheck))
 		));
 	}
 	
 	public Barrier setMayCancel(Generator<T> supplier) {
+		Propagation.State origin = Propagation.current();
 		return ordering.next(prev -> prev.thenStartCancelable(
-				canceledCheck -> setInternalMayCancel(supplier, canceledCheck)
+				canceledCheck -> origin.propagate(() -> setInternalMayCancel(supplier, canceledCheck))
 		));
 	}
 }
@@ -0,0 +1,183 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An observable boolean which is stored unboxed and calls it's hooks with a boolean, so changing it does not allocate.
+ * <p>
+ * Unlike {@link ObservableReference} changes are applied synchronously on the Thread changing the value. Setting the current value again does not call any hooks.
+ * Hooks are called outside of the monitor of this, see {@link AbstractObservablePrimitive}, and must not block.
+ * Derived values created with {@link #generate(ObservableBoolean, Generator1Input)} are recomputed by {@link Propagation}.
+ *
+ * @see MutableObservableBoolean
+ */
+public abstract class ObservableBoolean extends AbstractObservablePrimitive<ObservableBoolean.Hook> {
+	
+	@FunctionalInterface
+	public interface Hook {
+		
+		void accept(boolean value);
+	}
+	
+	@FunctionalInterface
+	public interface Generator {
+		
+		/**
+		 * @param previous the previous value
+		 * @return the new value
+		 */
+		boolean get(boolean previous);
+	}
+	
+	@FunctionalInterface
+	public interface Generator1Input {
+		
+		boolean get(boolean i1, boolean previous);
+	}
+	
+	@FunctionalInterface
+	public interface Generator2Input {
+		
+		boolean get(boolean i1, boolean i2, boolean previous);
+	}
+	
+	@FunctionalInterface
+	public interface GeneratorReference<I1> {
+		
+		boolean get(I1 i1, boolean previous);
+	}
+	
+	private volatile boolean value;
+	private boolean snapshot;
+	
+	protected ObservableBoolean(boolean initial) {
+		this.value = initial;
+	}
+	
+	ObservableBoolean(boolean initial, int rank) {
+		super(rank);
+		this.value = initial;
+	}
+	
+	//get
+	public boolean get() {
+		return value;
+	}
+	
+	//setInternal
+	protected void setInternal(boolean value) {
+		Propagation.beginBatch();
+		try {
+			boolean notify;
+			synchronized (this) {
+				if (same(this.value, value))
+					return;
+				this.value = value;
+				notify = changedLocked();
+			}
+			if (notify)
+				notifyHooks();
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	/**
+	 * @return the new value
+	 */
+	protected boolean setInternal(@NotNull Generator generator) {
+		Propagation.beginBatch();
+		try {
+			boolean value;
+			boolean notify;
+			synchronized (this) {
+				value = generator.get(this.value);
+				if (same(this.value, value))
+					return value;
+				this.value = value;
+				notify = changedLocked();
+			}
+			if (notify)
+				notifyHooks();
+			return value;
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	private static boolean same(boolean a, boolean b) {
+		return a == b;
+	}
+	
+	@Override
+	protected void snapshotLocked() {
+		snapshot = value;
+	}
+	
+	@Override
+	protected void callHook(@NotNull Hook hook) {
+		hook.accept(snapshot);
+	}
+	
+	//generate
+	
+	/**
+	 * @return an ObservableBoolean generated out of i1, recomputed whenever i1 changes
+	 */
+	public static @NotNull ObservableBoolean generate(@NotNull ObservableBoolean i1, @NotNull Generator1Input generator) {
+		return generated(new Generated(i1.rank() + 1) {
+			@Override
+			public boolean get(boolean previous) {
+				return generator.get(i1.get(), previous);
+			}
+		}, i1);
+	}
+	
+	/**
+	 * @return an ObservableBoolean generated out of i1 and i2, recomputed whenever i1 or i2 change
+	 */
+	public static @NotNull ObservableBoolean generate(@NotNull ObservableBoolean i1, @NotNull ObservableBoolean i2, @NotNull Generator2Input generator) {
+		return generated(new Generated(Math.max(i1.rank(), i2.rank()) + 1) {
+			@Override
+			public boolean get(boolean previous) {
+				return generator.get(i1.get(), i2.get(), previous);
+			}
+		}, i1, i2);
+	}
+	
+	/**
+	 * @return an ObservableBoolean generated out of the {@link ObservableReference} i1, recomputed whenever i1 changes. It is false until the initial value of i1 is known.
+	 */
+	public static @NotNull <I1> ObservableBoolean generate(@NotNull ObservableReference<I1> i1, @NotNull GeneratorReference<I1> generator) {
+		class Reference extends Generated {
+			
+			volatile I1 value1;
+			
+			Reference() {
+				super(i1.rank() + 1);
+			}
+			
+			@Override
+			public boolean get(boolean previous) {
+				return generator.get(value1, previous);
+			}
+		}
+		Reference ret = new Reference();
+		return generated(ret, i1, value -> ret.value1 = value);
+	}
+	
+	/**
+	 * An ObservableBoolean recomputed by {@link Propagation} with itself as the {@link Generator}.
+	 */
+	private abstract static class Generated extends ObservableBoolean implements Generator {
+		
+		Generated(int rank) {
+			super(false, rank);
+		}
+		
+		@Override
+		void recompute() {
+			setInternal(this);
+		}
+	}
+}
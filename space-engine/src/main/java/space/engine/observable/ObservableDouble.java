@@ -0,0 +1,183 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An observable double which is stored unboxed and calls it's hooks with a double, so changing it does not allocate.
+ * <p>
+ * Unlike {@link ObservableReference} changes are applied synchronously on the Thread changing the value. Setting the current value again does not call any hooks.
+ * Hooks are called outside of the monitor of this, see {@link AbstractObservablePrimitive}, and must not block.
+ * Derived values created with {@link #generate(ObservableDouble, Generator1Input)} are recomputed by {@link Propagation}.
+ *
+ * @see MutableObservableDouble
+ */
+public abstract class ObservableDouble extends AbstractObservablePrimitive<ObservableDouble.Hook> {
+	
+	@FunctionalInterface
+	public interface Hook {
+		
+		void accept(double value);
+	}
+	
+	@FunctionalInterface
+	public interface Generator {
+		
+		/**
+		 * @param previous the previous value
+		 * @return the new value
+		 */
+		double get(double previous);
+	}
+	
+	@FunctionalInterface
+	public interface Generator1Input {
+		
+		double get(double i1, double previous);
+	}
+	
+	@FunctionalInterface
+	public interface Generator2Input {
+		
+		double get(double i1, double i2, double previous);
+	}
+	
+	@FunctionalInterface
+	public interface GeneratorReference<I1> {
+		
+		double get(I1 i1, double previous);
+	}
+	
+	private volatile double value;
+	private double snapshot;
+	
+	protected ObservableDouble(double initial) {
+		this.value = initial;
+	}
+	
+	ObservableDouble(double initial, int rank) {
+		super(rank);
+		this.value = initial;
+	}
+	
+	//get
+	public double get() {
+		return value;
+	}
+	
+	//setInternal
+	protected void setInternal(double value) {
+		Propagation.beginBatch();
+		try {
+			boolean notify;
+			synchronized (this) {
+				if (same(this.value, value))
+					return;
+				this.value = value;
+				notify = changedLocked();
+			}
+			if (notify)
+				notifyHooks();
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	/**
+	 * @return the new value
+	 */
+	protected double setInternal(@NotNull Generator generator) {
+		Propagation.beginBatch();
+		try {
+			double value;
+			boolean notify;
+			synchronized (this) {
+				value = generator.get(this.value);
+				if (same(this.value, value))
+					return value;
+				this.value = value;
+				notify = changedLocked();
+			}
+			if (notify)
+				notifyHooks();
+			return value;
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	private static boolean same(double a, double b) {
+		return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+	}
+	
+	@Override
+	protected void snapshotLocked() {
+		snapshot = value;
+	}
+	
+	@Override
+	protected void callHook(@NotNull Hook hook) {
+		hook.accept(snapshot);
+	}
+	
+	//generate
+	
+	/**
+	 * @return an ObservableDouble generated out of i1, recomputed whenever i1 changes
+	 */
+	public static @NotNull ObservableDouble generate(@NotNull ObservableDouble i1, @NotNull Generator1Input generator) {
+		return generated(new Generated(i1.rank() + 1) {
+			@Override
+			public double get(double previous) {
+				return generator.get(i1.get(), previous);
+			}
+		}, i1);
+	}
+	
+	/**
+	 * @return an ObservableDouble generated out of i1 and i2, recomputed whenever i1 or i2 change
+	 */
+	public static @NotNull ObservableDouble generate(@NotNull ObservableDouble i1, @NotNull ObservableDouble i2, @NotNull Generator2Input generator) {
+		return generated(new Generated(Math.max(i1.rank(), i2.rank()) + 1) {
+			@Override
+			public double get(double previous) {
+				return generator.get(i1.get(), i2.get(), previous);
+			}
+		}, i1, i2);
+	}
+	
+	/**
+	 * @return an ObservableDouble generated out of the {@link ObservableReference} i1, recomputed whenever i1 changes. It is 0 until the initial value of i1 is known.
+	 */
+	public static @NotNull <I1> ObservableDouble generate(@NotNull ObservableReference<I1> i1, @NotNull GeneratorReference<I1> generator) {
+		class Reference extends Generated {
+			
+			volatile I1 value1;
+			
+			Reference() {
+				super(i1.rank() + 1);
+			}
+			
+			@Override
+			public double get(double previous) {
+				return generator.get(value1, previous);
+			}
+		}
+		Reference ret = new Reference();
+		return generated(ret, i1, value -> ret.value1 = value);
+	}
+	
+	/**
+	 * An ObservableDouble recomputed by {@link Propagation} with itself as the {@link Generator}.
+	 */
+	private abstract static class Generated extends ObservableDouble implements Generator {
+		
+		Generated(int rank) {
+			super(0, rank);
+		}
+		
+		@Override
+		void recompute() {
+			setInternal(this);
+		}
+	}
+}
@@ -0,0 +1,183 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * An observable float which is stored unboxed and calls it's hooks with a float, so changing it does not allocate.
+ * <p>
+ * Unlike {@link ObservableReference} changes are applied synchronously on the Thread changing the value. Setting the current value again does not call any hooks.
+ * Hooks are called outside of the monitor of this, see {@link AbstractObservablePrimitive}, and must not block.
+ * Derived values created with {@link #generate(ObservableFloat, Generator1Input)} are recomputed by {@link Propagation}.
+ *
+ * @see MutableObservableFloat
+ */
+public abstract class ObservableFloat extends AbstractObservablePrimitive<ObservableFloat.Hook> {
+	
+	@FunctionalInterface
+	public interface Hook {
+		
+		void accept(float value);
+	}
+	
+	@FunctionalInterface
+	public interface Generator {
+		
+		/**
+		 * @param previous the previous value
+		 * @return the new value
+		 */
+		float get(float previous);
+	}
+	
+	@FunctionalInterface
+	public interface Generator1Input {
+		
+		float get(float i1, float previous);
+	}
+	
+	@FunctionalInterface
+	public interface Generator2Input {
+		
+		float get(float i1, float i2, float previous);
+	}
+	
+	@FunctionalInterface
+	public interface GeneratorReference<I1> {
+		
+		float get(I1 i1, float previous);
+	}
+	
+	private volatile float value;
+	private float snapshot;
+	
+	protected ObservableFloat(float initial) {
+		this.value = initial;
+	}
+	
+	ObservableFloat(float initial, int rank) {
+		super(rank);
+		this.value = initial;
+	}
+	
+	//get
+	public float get() {
+		return value;
+	}
+	
+	//setInternal
+	protected void setInternal(float value) {
+		Propagation.beginBatch();
+		try {
+			boolean notify;
+			synchronized (this) {
+				if (same(this.value, value))
+					return;
+				this.value = value;
+				notify = changedLocked();
+			}
+			if (notify)
+				notifyHooks();
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	/**
+	 * @return the new value
+	 */
+	protected float setInternal(@NotNull Generator generator) {
+		Propagation.beginBatch();
+		try {
+			float value;
+			boolean notify;
+			synchronized (this) {
+				value = generator.get(this.value);
+				if (same(this.value, value))
+					return value;
+				this.value = value;
+				notify = changedLocked();
+			}
+			if (notify)
+				notifyHooks();
+			return value;
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	private static boolean same(float a, float b) {
+		return Float.floatToIntBits(a) == Float.floatToIntBits(b);
+	}
+	
+	@Override
+	protected void snapshotLocked() {
+		snapshot = value;
+	}
+	
+	@Override
+	protected void callHook(@NotNull Hook hook) {
+		hook.accept(snapshot);
+	}
+	
+	//generate
+	
+	/**
+	 * @return an ObservableFloat generated out of i1, recomputed whenever i1 changes
+	 */
+	public static @NotNull ObservableFloat generate(@NotNull ObservableFloat i1, @NotNull Generator1Input generator) {
+		return generated(new Generated(i1.rank() + 1) {
+			@Override
+			public float get(float previous) {
+				return generator.get(i1.get(), previous);
+			}
+		}, i1);
+	}
+	
+	/**
+	 * @return an ObservableFloat generated out of i1 and i2, recomputed whenever i1 or i2 change
+	 */
+	public static @NotNull ObservableFloat generate(@NotNull ObservableFloat i1, @NotNull ObservableFloat i2, @NotNull Generator2Input generator) {
+		return generated(new Generated(Math.max(i1.rank(), i2.rank()) + 1) {
+			@Override
+			public float get(float previous) {
+				return generator.get(i1.get(), i2.get(), previous);
+			}
+		}, i1, i2);
+	}
+	
+	/**
+	 * @return an ObservableFloat generated out of the {@link ObservableReference} i1, recomputed whenever i1 changes. It is 0 until the initial value of i1 is known.
+	 */
+	public static @NotNull <I1> ObservableFloat generate(@NotNull ObservableReference<I1> i1, @NotNull GeneratorReference<I1> generator) {
+		class Reference extends Generated {
+			
+			volatile I1 value1;
+			
+			Reference() {
+				super(i1.rank() + 1);
+			}
+			
+			@Override
+			public float get(float previous) {
+				return generator.get(value1, previous);
+			}
+		}
+		Reference ret = new Reference();
+		return generated(ret, i1, value -> ret.value1 = value);
+	}
+	
+	/**
+	 * An ObservableFloat recomputed by {@link Propagation} with itself as the {@link Generator}.
+	 */
+	private abstract static class Generated extends ObservableFloat implements Generator {
+		
+		Generated(int rank) {
+			super(0, rank);
+		}
+		
+		@Override
+		void recompute() {
+			setInternal(this);
+		}
+	}
+}
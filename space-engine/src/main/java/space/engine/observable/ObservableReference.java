@@ -150,10 +150,11 @@ public abstract class ObservableReference<T> {
 		} catch (DelayTask delay) {
 			if (canceledCheck.isCanceled())
 				return done();
+			Propagation.State origin = Propagation.current();
 			return delay.barrier.thenStart(() -> {
 				if (canceledCheck.isCanceled())
 					return done();
-				return setInternalMayCancel(previous -> {
+				return origin.propagate(() -> setInternalMayCancel(previous -> {
 					try {
 						//noinspection unchecked
 						return ((GenericFuture<T>) delay.barrier).assertGetAnyException();
@@ -162,7 +163,7 @@ public abstract class ObservableReference<T> {
 					} catch (Throwable e) {
 						throw GenericFuture.newUnexpectedException(e);
 					}
-				}, canceledCheck);
+				}, canceledCheck));
 			});
 		} catch (NoUpdate ignored) {
 			return done();
@@ -181,9 +182,10 @@ public abstract class ObservableReference<T> {
 			T t = supplier.get(this.t, canceledCheck);
 			return setInternalAlways(t);
 		} catch (DelayTask delay) {
+			Propagation.State origin = Propagation.current();
 			return delay.barrier.thenStart(() -> {
 				//noinspection CodeBlock2Expr
-				return setInternalAlways((previous, canceledCheck1) -> {
+				return origin.propagate(() -> setInternalAlways((previous, canceledCheck1) -> {
 					try {
 						//noinspection unchecked
 						return ((GenericFuture<T>) delay.barrier).assertGetAnyException();
@@ -192,7 +194,7 @@ public abstract class ObservableReference<T> {
 					} catch (Throwable e) {
 						throw GenericFuture.newUnexpectedException(e);
 					}
-				}, canceledCheck);
+				}, canceledCheck));
 			});
 		} catch (NoUpdate ignored) {
 			return done();
@@ -209,9 +211,10 @@ public abstract class ObservableReference<T> {
 			T t = supplier.get(this.t);
 			return setInternalAlways(t);
 		} catch (DelayTask e) {
+			Propagation.State origin = Propagation.current();
 			return e.barrier.thenStart(() -> {
 				//noinspection unchecked
-				return setInternalAlways(((Future<T>) e.barrier).assertGet());
+				return origin.propagate(() -> setInternalAlways(((Future<T>) e.barrier).assertGet()));
 			});
 		} catch (NoUpdate ignored) {
 			return done();
@@ -225,7 +228,21 @@ public abstract class ObservableReference<T> {
 	 */
 	protected Barrier setInternalAlways(T t) {
 		this.t = t;
-		return changeEvent.runImmediatelyIfPossible(tConsumer -> tConsumer.accept(t));
+		//dependent GeneratingObservableReferences are only marked dirty by the hooks and recomputed once all hooks ran
+		//async continuations of a change call this within the Propagation.State of the Thread which started it
+		Propagation.beginBatch();
+		try {
+			return changeEvent.runImmediatelyIfPossible(tConsumer -> tConsumer.accept(t));
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	/**
+	 * @return the {@link Propagation} rank, 0 unless generated from other {@link ObservableReference ObservableReferences}
+	 */
+	int rank() {
+		return 0;
 	}
 	
 	/**
@@ -0,0 +1,329 @@
+package space.engine.observable;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+import space.engine.barrier.functions.Starter;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Supplier;
+
+import static space.engine.barrier.Barrier.*;
+
+/**
+ * Propagates changes through graphs of {@link GeneratingObservableReference GeneratingObservableReferences}.
+ * <p>
+ * A change of an input only marks the {@link GeneratingObservableReference} dirty, dirty references are recomputed rank by rank afterwards.
+ * The rank of a {@link GeneratingObservableReference} is one more than the highest rank of it's inputs, so it is only recomputed after all of it's dirty inputs were
+ * and never sees a mix of old and new values. Multiple changes of it's inputs until it is recomputed are coalesced into a single recompute.
+ * <p>
+ * Every change is it's own batch, so all hooks of an {@link ObservableReference} run before any dependency is recomputed.
+ * Use {@link #batch(Starter)} to change multiple {@link ObservableReference ObservableReferences} with a single propagation.
+ * <p>
+ * Batches and dirty queues are per Thread: a batch only holds back changes made on the Thread which started it, other Threads propagate their changes independently.
+ * A {@link Node} is queued once only, a Node already dirty on another Thread is recomputed by that Thread.
+ * Changes continued asynchronously, like async recomputes, are propagated in the {@link State} of the Thread which started them, see {@link #current()}.
+ */
+public final class Propagation {
+	
+	private static final ThreadLocal<State> STATE = ThreadLocal.withInitial(State::new);
+	
+	private Propagation() {
+	}
+	
+	//batch
+	
+	/**
+	 * Holds back recomputation of changes made on the calling Thread until all changes started by changes are done, then propagates all of them at once.
+	 * As the propagation may happen in a Barrier hook, failing recomputes are passed to the uncaught exception handler.
+	 *
+	 * @return a Barrier triggered when all changes are propagated
+	 */
+	public static @NotNull Barrier batch(@NotNull Starter<?> changes) {
+		State state = STATE.get();
+		state.beginBatch();
+		Barrier barrier;
+		try {
+			barrier = changes.startInlineException();
+		} catch (Throwable e) {
+			Throwable failure = state.endBatchFailure();
+			if (failure != null)
+				e.addSuppressed(failure);
+			throw e;
+		}
+		return barrier.thenStart(() -> {
+			State.uncaught(state.endBatchFailure());
+			return state.settled();
+		});
+	}
+	
+	/**
+	 * Holds back recomputation of changes made on the calling Thread until the matching {@link #endBatch()}. Batches may be nested.
+	 */
+	public static void beginBatch() {
+		STATE.get().beginBatch();
+	}
+	
+	/**
+	 * Ends a batch started with {@link #beginBatch()} on the same Thread, the last batch to end recomputes all dirty {@link GeneratingObservableReference GeneratingObservableReferences}.
+	 */
+	public static void endBatch() {
+		STATE.get().endBatch();
+	}
+	
+	/**
+	 * @return a Barrier triggered when there are no more changes of the calling Thread to propagate
+	 */
+	public static @NotNull Barrier settled() {
+		return STATE.get().settled();
+	}
+	
+	/**
+	 * @return the State changes of the calling Thread are propagated in, capture it to continue changes on another Thread with {@link State#propagate(Supplier)}
+	 */
+	static @NotNull State current() {
+		return STATE.get();
+	}
+	
+	//propagate
+	static void markDirty(@NotNull Node node) {
+		//already queued, possibly by another Thread
+		if (!Node.DIRTY.compareAndSet(node, false, true))
+			return;
+		STATE.get().add(node);
+	}
+	
+	/**
+	 * The batches and dirty {@link Node Nodes} of a Thread. Guarded by it's own monitor, as a drain and async changes continue on other Threads.
+	 */
+	static final class State {
+		
+		private final PriorityQueue<Node> dirty = new PriorityQueue<>(Comparator.comparingInt(node -> node.rank));
+		private final List<Node> round = new ArrayList<>();
+		private int batches;
+		private boolean draining;
+		private @Nullable BarrierImpl settled;
+		private @Nullable Throwable failure;
+		
+		void beginBatch() {
+			synchronized (this) {
+				batches++;
+			}
+		}
+		
+		void endBatch() {
+			rethrow(endBatchFailure());
+		}
+		
+		/**
+		 * @return the first failure of the drain, if the last batch ended
+		 */
+		@Nullable Throwable endBatchFailure() {
+			boolean drain = false;
+			BarrierImpl settled = null;
+			Throwable failure = null;
+			synchronized (this) {
+				if (batches == 0)
+					throw new IllegalStateException("No batch to end");
+				if (--batches != 0 || draining)
+					return null;
+				if (dirty.isEmpty()) {
+					settled = takeSettled();
+					failure = takeFailure();
+				} else {
+					draining = drain = true;
+				}
+			}
+			return drain ? drain() : finished(settled, failure);
+		}
+		
+		@NotNull Barrier settled() {
+			synchronized (this) {
+				if (batches == 0 && !draining && dirty.isEmpty())
+					return DONE_BARRIER;
+				if (settled == null)
+					settled = new BarrierImpl();
+				return settled;
+			}
+		}
+		
+		private @Nullable BarrierImpl takeSettled() {
+			BarrierImpl ret = settled;
+			settled = null;
+			return ret;
+		}
+		
+		void add(@NotNull Node node) {
+			synchronized (this) {
+				dirty.add(node);
+				if (batches != 0 || draining)
+					return;
+				draining = true;
+			}
+			rethrow(drain());
+		}
+		
+		/**
+		 * Runs changes on the calling Thread as if they were made by the Thread of this State, so everything they mark dirty is propagated in this State.
+		 */
+		<R> R propagate(@NotNull Supplier<R> changes) {
+			State previous = STATE.get();
+			if (previous == this)
+				return changes.get();
+			STATE.set(this);
+			try {
+				return changes.get();
+			} finally {
+				STATE.set(previous);
+			}
+		}
+		
+		/**
+		 * Recomputes all dirty {@link Node Nodes} of the lowest rank at once, until there are none left. Continues on the Thread finishing the recompute if a recompute is async.
+		 * Only one Thread drains a State at a time, so {@link #round} can be reused.
+		 * <p>
+		 * A Node failing to recompute does not stop the drain, the first failure is returned once the drain is done and waiters on {@link #settled()} are released.
+		 * A drain continued asynchronously passes it to the uncaught exception handler instead, as throwing from a Barrier hook would skip the remaining hooks.
+		 *
+		 * @return the first failure if the drain is done, otherwise null
+		 */
+		private @Nullable Throwable drain() {
+			return propagate(this::drainInState);
+		}
+		
+		private @Nullable Throwable drainInState() {
+			List<Node> round = this.round;
+			while (true) {
+				BarrierImpl settled;
+				Throwable failure;
+				synchronized (this) {
+					if (batches != 0 || dirty.isEmpty()) {
+						//endBatch() will continue
+						draining = false;
+						settled = batches == 0 ? takeSettled() : null;
+						failure = batches == 0 ? takeFailure() : null;
+					} else {
+						settled = null;
+						failure = null;
+						int rank = dirty.peek().rank;
+						while (!dirty.isEmpty() && dirty.peek().rank == rank) {
+							Node node = dirty.poll();
+							Node.DIRTY.setVolatile(node, false);
+							round.add(node);
+						}
+					}
+				}
+				if (round.isEmpty())
+					return finished(settled, failure);
+				
+				//only allocate for async recomputes
+				Barrier[] pending = null;
+				int pendingCount = 0;
+				for (int i = 0; i < round.size(); i++) {
+					Barrier barrier;
+					try {
+						barrier = round.get(i).recompute();
+					} catch (Throwable e) {
+						failed(e);
+						continue;
+					}
+					if (barrier.isDone())
+						continue;
+					if (pending == null)
+						pending = new Barrier[round.size() - i];
+					pending[pendingCount++] = barrier;
+				}
+				round.clear();
+				if (pendingCount != 0) {
+					(pendingCount == 1 ? pending[0] : when(Arrays.copyOf(pending, pendingCount))).addHook(() -> uncaught(drain()));
+					return null;
+				}
+			}
+		}
+		
+		/**
+		 * Remembers the first failure of a drain, later ones are suppressed by it.
+		 */
+		private void failed(@NotNull Throwable e) {
+			synchronized (this) {
+				if (failure == null)
+					failure = e;
+				else if (failure != e)
+					failure.addSuppressed(e);
+			}
+		}
+		
+		private @Nullable Throwable takeFailure() {
+			Throwable ret = failure;
+			failure = null;
+			return ret;
+		}
+		
+		/**
+		 * Releases the waiters on {@link #settled()} of a finished drain.
+		 *
+		 * @return the first failure of the drain
+		 */
+		private static @Nullable Throwable finished(@Nullable BarrierImpl settled, @Nullable Throwable failure) {
+			if (settled != null)
+				settled.triggerNow();
+			return failure;
+		}
+		
+		private static void rethrow(@Nullable Throwable failure) {
+			if (failure instanceof RuntimeException)
+				throw (RuntimeException) failure;
+			if (failure instanceof Error)
+				throw (Error) failure;
+			if (failure != null)
+				throw new RuntimeException(failure);
+		}
+		
+		private static void uncaught(@Nullable Throwable failure) {
+			if (failure == null)
+				return;
+			Thread th = Thread.currentThread();
+			th.getUncaughtExceptionHandler().uncaughtException(th, failure);
+		}
+	}
+	
+	/**
+	 * A recomputable value of a given rank. dirty is set by the Thread queueing it and cleared by the Thread draining it.
+	 */
+	abstract static class Node {
+		
+		private static final VarHandle DIRTY;
+		
+		static {
+			try {
+				DIRTY = MethodHandles.lookup().findVarHandle(Node.class, "dirty", boolean.class);
+			} catch (NoSuchFieldException | IllegalAccessException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+		
+		private final int rank;
+		@SuppressWarnings("unused")
+		private volatile boolean dirty;
+		
+		protected Node(int rank) {
+			this.rank = rank;
+		}
+		
+		public int rank() {
+			return rank;
+		}
+		
+		/**
+		 * @return a Barrier triggered when the new value is set and all hooks ran
+		 */
+		protected abstract @NotNull Barrier recompute();
+	}
+}
@@ -0,0 +1,211 @@
+package space.engine.simpleQueue;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded array based multi-producer single-consumer queue. Does not allocate while adding or removing.
+ * <p>
+ * Any Thread may {@link #add(Object)}, but only a single Thread may {@link #remove()} at a time, eg. a {@link space.engine.simpleQueue.pool.SimpleMessagePool} with one Thread.
+ * Producers claim slots by CAS on the tail, batch adds claim multiple slots at once. If the queue is full the {@link BackPressure} decides what to do.
+ * With {@link BackPressure#SPIN} or {@link BackPressure#PARK} the consumer Thread must never add to it's own queue, as it would wait on itself if the queue is full.
+ * null elements are not allowed.
+ */
+public class MpscRingSimpleQueue<E> implements SimpleQueue<E> {
+	
+	public enum BackPressure {
+		
+		/**
+		 * busy wait until the consumer makes space, yielding occasionally
+		 */
+		SPIN,
+		/**
+		 * park with an increasing timeout until the consumer makes space
+		 */
+		PARK,
+		/**
+		 * don't add, {@link #add(Object)} returns false
+		 */
+		REJECT
+	}
+	
+	private static final VarHandle INDEX = MethodHandles.arrayElementVarHandle(long[].class);
+	private static final VarHandle SLOT = MethodHandles.arrayElementVarHandle(Object[].class);
+	
+	//indices are stored in a long[] spaced apart by PAD longs (128 bytes) to prevent false sharing between producers and the consumer
+	private static final int PAD = 16;
+	private static final int TAIL = PAD;
+	private static final int HEAD_CACHE = PAD + 1;
+	private static final int HEAD = 3 * PAD;
+	
+	private static final long PARK_NANOS_MIN = 1_000;
+	private static final long PARK_NANOS_MAX = 1_000_000;
+	
+	/**
+	 * TAIL: next slot to claim by producers, HEAD_CACHE: last HEAD seen by producers, HEAD: next slot to remove by the consumer
+	 */
+	private final long[] indices = new long[4 * PAD];
+	private final Object[] slots;
+	private final int mask;
+	private final @NotNull BackPressure backPressure;
+	
+	public MpscRingSimpleQueue(int capacity) {
+		this(capacity, BackPressure.PARK);
+	}
+	
+	/**
+	 * @param capacity the capacity, will be rounded up to the next power of two
+	 */
+	public MpscRingSimpleQueue(int capacity, @NotNull BackPressure backPressure) {
+		if (capacity <= 0 || capacity > 1 << 30)
+			throw new IllegalArgumentException("capacity " + capacity + " not in range 1 to 2^30");
+		int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.slots = new Object[size];
+		this.mask = size - 1;
+		this.backPressure = backPressure;
+	}
+	
+	//add
+	
+	/**
+	 * Claims up to max slots, waiting according to {@link #backPressure} if the queue is full.
+	 *
+	 * @return the index of the first slot in the upper 32 bits and the amount of slots claimed in the lower 32 bits, 0 if the queue is full and {@link BackPressure#REJECT rejecting}
+	 */
+	private long claim(int max) {
+		int capacity = slots.length;
+		for (int attempt = 0; ; ) {
+			long tail = (long) INDEX.getVolatile(indices, TAIL);
+			long free = (long) INDEX.getOpaque(indices, HEAD_CACHE) + capacity - tail;
+			if (free <= 0) {
+				long head = (long) INDEX.getVolatile(indices, HEAD);
+				INDEX.setOpaque(indices, HEAD_CACHE, head);
+				free = head + capacity - tail;
+				if (free <= 0) {
+					if (!backOff(attempt++))
+						return 0;
+					continue;
+				}
+			}
+			
+			int count = (int) Math.min(max, free);
+			if (INDEX.compareAndSet(indices, TAIL, tail, tail + count))
+				return (long) ((int) tail & mask) << 32 | count;
+		}
+	}
+	
+	/**
+	 * @return false if adding should be rejected
+	 */
+	private boolean backOff(int attempt) {
+		switch (backPressure) {
+			case SPIN:
+				//yield once in a while so spinning producers cannot starve the consumer of cpu time
+				if ((attempt & 0x3F) == 0x3F)
+					Thread.yield();
+				else
+					Thread.onSpinWait();
+				return true;
+			case PARK:
+				LockSupport.parkNanos(this, Math.min(PARK_NANOS_MIN << Math.min(attempt, 10), PARK_NANOS_MAX));
+				return true;
+			case REJECT:
+				return false;
+			default:
+				throw new IllegalStateException();
+		}
+	}
+	
+	@Override
+	public boolean add(E e) {
+		Objects.requireNonNull(e);
+		long claim = claim(1);
+		if (claim == 0)
+			return false;
+		SLOT.setRelease(slots, (int) (claim >>> 32), e);
+		return true;
+	}
+	
+	@Override
+	public int addCollection(Collection<E> collection) {
+		//check before claiming, a claimed slot never written would block the consumer forever
+		for (E e : collection)
+			Objects.requireNonNull(e);
+		
+		Iterator<E> iter = collection.iterator();
+		int size = collection.size();
+		int added = 0;
+		while (added < size) {
+			long claim = claim(size - added);
+			if (claim == 0)
+				return added;
+			int index = (int) (claim >>> 32);
+			int count = (int) claim;
+			for (int i = 0; i < count; i++)
+				SLOT.setRelease(slots, (index + i) & mask, iter.next());
+			added += count;
+		}
+		return added;
+	}
+	
+	@Override
+	public int addArray(E[] collection, int offset, int count) {
+		//check before claiming, a claimed slot never written would block the consumer forever
+		for (int i = offset; i < offset + count; i++)
+			Objects.requireNonNull(collection[i]);
+		
+		int added = 0;
+		while (added < count) {
+			long claim = claim(count - added);
+			if (claim == 0)
+				return added;
+			int index = (int) (claim >>> 32);
+			int claimed = (int) claim;
+			for (int i = 0; i < claimed; i++)
+				SLOT.setRelease(slots, (index + i) & mask, collection[offset + added + i]);
+			added += claimed;
+		}
+		return added;
+	}
+	
+	//remove
+	
+	/**
+	 * May only be called by a single consumer Thread at a time.
+	 *
+	 * @return the next element or null if the queue is empty or the producer of the next element has not finished writing it yet
+	 */
+	@Nullable
+	@Override
+	public E remove() {
+		long head = (long) INDEX.getOpaque(indices, HEAD);
+		int index = (int) head & mask;
+		//noinspection unchecked
+		E e = (E) SLOT.getAcquire(slots, index);
+		if (e == null)
+			return null;
+		SLOT.setOpaque(slots, index, null);
+		INDEX.setRelease(indices, HEAD, head + 1);
+		return e;
+	}
+	
+	//size
+	public int capacity() {
+		return slots.length;
+	}
+	
+	/**
+	 * Gets a snapshot of the size, including elements being added. For debug, monitor and testing only.
+	 */
+	@Override
+	public int size() {
+		return (int) ((long) INDEX.getVolatile(indices, TAIL) - (long) INDEX.getVolatile(indices, HEAD));
+	}
+}
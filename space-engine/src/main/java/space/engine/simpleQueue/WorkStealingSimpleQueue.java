@@ -0,0 +1,149 @@
+package space.engine.simpleQueue;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A work-stealing deque based on the Chase-Lev algorithm.
+ * <p>
+ * {@link #add(Object)} and {@link #remove()} may only be called by the single owning Thread and work on the bottom of the deque in LIFO order.
+ * Any other Thread may call {@link #steal()} concurrently to take elements from the top of the deque in FIFO order.
+ * Stolen slots are not cleared, so a stolen element stays reachable until it's slot is reused.
+ */
+public class WorkStealingSimpleQueue<E> implements SimpleQueue<E> {
+	
+	private static final VarHandle TOP;
+	private static final VarHandle BOTTOM;
+	private static final VarHandle ARRAY;
+	private static final VarHandle ARRAY_ELEMENT = MethodHandles.arrayElementVarHandle(Object[].class);
+	
+	static {
+		try {
+			Lookup lookup = MethodHandles.lookup();
+			TOP = lookup.findVarHandle(WorkStealingSimpleQueue.class, "top", long.class);
+			BOTTOM = lookup.findVarHandle(WorkStealingSimpleQueue.class, "bottom", long.class);
+			ARRAY = lookup.findVarHandle(WorkStealingSimpleQueue.class, "array", Object[].class);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new ExceptionInInitializerError(e);
+		}
+	}
+	
+	public static final int DEFAULT_INITIAL_CAPACITY = 64;
+	
+	@SuppressWarnings("unused")
+	private volatile long top;
+	@SuppressWarnings("unused")
+	private volatile long bottom;
+	@SuppressWarnings("unused")
+	private volatile Object[] array;
+	
+	public WorkStealingSimpleQueue() {
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * @param initialCapacity the initial capacity, will be rounded up to the next power of two
+	 */
+	public WorkStealingSimpleQueue(int initialCapacity) {
+		if (initialCapacity <= 0)
+			throw new IllegalArgumentException("initialCapacity " + initialCapacity + " <= 0");
+		this.array = new Object[Integer.highestOneBit(Math.max(initialCapacity - 1, 1)) << 1];
+	}
+	
+	/**
+	 * Pushes an element onto the bottom of the deque. May only be called by the owning Thread.
+	 */
+	@Override
+	public boolean add(E e) {
+		long b = (long) BOTTOM.getOpaque(this);
+		long t = (long) TOP.getAcquire(this);
+		Object[] a = (Object[]) ARRAY.getOpaque(this);
+		if (b - t >= a.length)
+			a = grow(a, t, b);
+		ARRAY_ELEMENT.setRelease(a, (int) b & (a.length - 1), e);
+		BOTTOM.setRelease(this, b + 1);
+		return true;
+	}
+	
+	private Object[] grow(Object[] old, long t, long b) {
+		Object[] a = new Object[old.length << 1];
+		for (long i = t; i < b; i++)
+			a[(int) i & (a.length - 1)] = old[(int) i & (old.length - 1)];
+		ARRAY.setRelease(this, a);
+		return a;
+	}
+	
+	/**
+	 * Pops an element from the bottom of the deque. May only be called by the owning Thread.
+	 */
+	@Nullable
+	@Override
+	public E remove() {
+		long b = (long) BOTTOM.getOpaque(this) - 1;
+		Object[] a = (Object[]) ARRAY.getOpaque(this);
+		BOTTOM.setVolatile(this, b);
+		long t = (long) TOP.getVolatile(this);
+		
+		if (t > b) {
+			//empty
+			BOTTOM.setOpaque(this, b + 1);
+			return null;
+		}
+		
+		int index = (int) b & (a.length - 1);
+		//noinspection unchecked
+		E e = (E) ARRAY_ELEMENT.getAcquire(a, index);
+		if (t == b) {
+			//last element -> race against stealers
+			if (!TOP.compareAndSet(this, t, t + 1))
+				e = null;
+			BOTTOM.setOpaque(this, b + 1);
+			if (e == null)
+				return null;
+		}
+		//the slot is exclusively owned after claiming it, so only the owner ever clears slots
+		ARRAY_ELEMENT.setOpaque(a, index, null);
+		return e;
+	}
+	
+	/**
+	 * Steals an element from the top of the deque. May be called by any Thread.
+	 *
+	 * @return the stolen element or null if the deque is empty or another Thread won the race for the top element
+	 */
+	@Nullable
+	public E steal() {
+		long t = (long) TOP.getAcquire(this);
+		VarHandle.fullFence();
+		long b = (long) BOTTOM.getAcquire(this);
+		if (t >= b)
+			return null;
+		
+		Object[] a = (Object[]) ARRAY.getAcquire(this);
+		int index = (int) t & (a.length - 1);
+		//noinspection unchecked
+		E e = (E) ARRAY_ELEMENT.getAcquire(a, index);
+		if (e == null || !TOP.compareAndSet(this, t, t + 1))
+			return null;
+		//never clear the slot: the owner may already have pushed into it again, the reference is dropped when the slot is overwritten
+		return e;
+	}
+	
+	/**
+	 * Gets a snapshot of the size. For debug, monitor and testing only.
+	 */
+	@Override
+	public int size() {
+		return (int) Math.max((long) BOTTOM.getVolatile(this) - (long) TOP.getVolatile(this), 0);
+	}
+	
+	/**
+	 * @return true if the deque was empty at some point during this call
+	 */
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+}
@@ -1,6 +1,7 @@
 package space.engine.simpleQueue.pool;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import space.engine.barrier.Barrier;
 import space.engine.barrier.BarrierImpl;
 import space.engine.freeable.Cleaner;
@@ -94,7 +95,7 @@ public abstract class SimpleMessagePool<MSG> {
 					//poll and execute util dry or pauseCountdown
 					boolean queueDry = false;
 					for (int i = 0; i < pauseCountdown; i++) {
-						MSG msg = queue.remove();
+						MSG msg = poll();
 						if (msg == null) {
 							queueDry = true;
 							break;
@@ -119,7 +120,7 @@ public abstract class SimpleMessagePool<MSG> {
 						//preconditions for sleeping
 						if (!isRunning)
 							break;
-						msg = queue.remove();
+						msg = poll();
 						if (msg == null) {
 							
 							//actually sleep
@@ -202,6 +203,17 @@ public abstract class SimpleMessagePool<MSG> {
 	
 	}
 	
+	/**
+	 * Called by pool threads to get the next message to {@link #handle(Object)}. Default implementation removes from {@link #queue}.
+	 * Implementations may return messages from other sources as long as any source is also checked here,
+	 * as this method is also used to determine whether a Thread is allowed to sleep.
+	 *
+	 * @return the next message or null if there is none
+	 */
+	protected @Nullable MSG poll() {
+		return queue.remove();
+	}
+	
 	/**
 	 * handle the messsage
 	 */
@@ -228,20 +240,30 @@ public abstract class SimpleMessagePool<MSG> {
 	//add
 	public void add(MSG msg) {
 		assertRunning();
-		queue.add(msg);
+		boolean added = queue.add(msg);
 		unparkThreads();
+		if (!added)
+			throw exceptionQueueFull();
 	}
 	
 	public void addAll(Collection<MSG> collection) {
 		assertRunning();
-		queue.addCollection(collection);
+		int added = queue.addCollection(collection);
 		unparkThreads();
+		if (added != collection.size())
+			throw exceptionQueueFull();
 	}
 	
 	public void addAll(MSG[] collection) {
 		assertRunning();
-		queue.addArray(collection);
+		int added = queue.addArray(collection);
 		unparkThreads();
+		if (added != collection.length)
+			throw exceptionQueueFull();
+	}
+	
+	protected RejectedExecutionException exceptionQueueFull() {
+		return new RejectedExecutionException("SimpleQueue full");
 	}
 	
 	//execute
@@ -0,0 +1,184 @@
+package space.engine.simpleQueue.pool;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+import space.engine.freeable.Cleaner;
+import space.engine.freeable.Freeable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An {@link Executor} running every Task on a new virtual Thread.
+ * Tasks may block, eg. {@link Barrier#await()} parks the virtual Thread and frees its carrier for other Tasks.
+ * <p>
+ * Virtual Threads are only available on Java 21 or later and are created reflectively, use {@link #isSupported()} to check for availability.
+ * Tasks are not run on a {@link ThreadBound} Thread, use a {@link SimpleThreadPool} for Tasks requiring one.
+ * As every Task gets a new Thread, Thread-local resources must be released by the {@code taskCleanup} callback, or they will leak.
+ */
+public class VirtualThreadExecutor implements Executor {
+	
+	/**
+	 * @return true if the current JVM supports virtual Threads
+	 */
+	public static boolean isSupported() {
+		return createFactory("space-virtual-") != null;
+	}
+	
+	private static @Nullable ThreadFactory createFactory(String namePrefix) {
+		try {
+			Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+			return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+		} catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+			//older Java or preview features not enabled
+			return null;
+		}
+	}
+	
+	private static final @Nullable MethodHandle IS_VIRTUAL;
+	
+	static {
+		MethodHandle isVirtual;
+		try {
+			isVirtual = MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			//older Java
+			isVirtual = null;
+		}
+		IS_VIRTUAL = isVirtual;
+	}
+	
+	/**
+	 * @return true if the Thread is a virtual Thread, always false if virtual Threads are not {@link #isSupported() supported}
+	 */
+	public static boolean isVirtual(@NotNull Thread thread) {
+		if (IS_VIRTUAL == null)
+			return false;
+		try {
+			return (boolean) IS_VIRTUAL.invokeExact(thread);
+		} catch (RuntimeException | Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+	
+	private final @NotNull ThreadFactory threadFactory;
+	private final @Nullable Runnable taskCleanup;
+	
+	//shutdown
+	private static final int STOPPED = 1 << 31;
+	/**
+	 * amount of running Tasks, with {@link #STOPPED} set once stopped.
+	 * Running check and increment are a single CAS, so no Task can start after {@link #stop()} and the state reaches exactly {@link #STOPPED} only once.
+	 */
+	private final AtomicInteger state = new AtomicInteger();
+	private final BarrierImpl stopBarrier = new BarrierImpl();
+	
+	public VirtualThreadExecutor() {
+		this("space-virtual-", null);
+	}
+	
+	/**
+	 * @see #VirtualThreadExecutor(String, Runnable)
+	 */
+	public VirtualThreadExecutor(String namePrefix) throws UnsupportedOperationException {
+		this(namePrefix, null);
+	}
+	
+	/**
+	 * @param namePrefix  the prefix of the name of every virtual Thread, followed by a counter
+	 * @param taskCleanup called on the virtual Thread after each Task, to release Thread-local resources like the {@code Allocator.frame()} stack
+	 * @throws UnsupportedOperationException if virtual Threads are not {@link #isSupported() supported}
+	 */
+	public VirtualThreadExecutor(String namePrefix, @Nullable Runnable taskCleanup) throws UnsupportedOperationException {
+		ThreadFactory threadFactory = createFactory(namePrefix);
+		if (threadFactory == null)
+			throw new UnsupportedOperationException("Virtual Threads are not supported by this JVM (requires Java 21)");
+		this.threadFactory = threadFactory;
+		this.taskCleanup = taskCleanup;
+	}
+	
+	//execute
+	@Override
+	public void execute(@NotNull Runnable command) {
+		while (true) {
+			int s = state.get();
+			if ((s & STOPPED) != 0)
+				throw new RejectedExecutionException("VirtualThreadExecutor no longer running");
+			if (state.compareAndSet(s, s + 1))
+				break;
+		}
+		
+		try {
+			threadFactory.newThread(() -> {
+				try {
+					command.run();
+				} finally {
+					try {
+						if (taskCleanup != null)
+							taskCleanup.run();
+					} finally {
+						taskExit();
+					}
+				}
+			}).start();
+		} catch (RuntimeException | Error e) {
+			//Thread never started
+			taskExit();
+			throw e;
+		}
+	}
+	
+	public void assertRunning() throws RejectedExecutionException {
+		if ((state.get() & STOPPED) != 0)
+			throw new RejectedExecutionException("VirtualThreadExecutor no longer running");
+	}
+	
+	private void taskExit() {
+		if (state.decrementAndGet() == STOPPED)
+			stopBarrier.triggerNow();
+	}
+	
+	//stop
+	
+	/**
+	 * Stops accepting new Tasks.
+	 *
+	 * @return a {@link Barrier} triggering when all running Tasks have finished
+	 */
+	public Barrier stop() {
+		while (true) {
+			int s = state.get();
+			if ((s & STOPPED) != 0)
+				return stopBarrier;
+			if (state.compareAndSet(s, s | STOPPED)) {
+				if (s == 0)
+					stopBarrier.triggerNow();
+				return stopBarrier;
+			}
+		}
+	}
+	
+	public Barrier stopBarrier() {
+		return stopBarrier;
+	}
+	
+	public Freeable createStopFreeable(Object[] parents) {
+		return new Cleaner(null, parents) {
+			@Override
+			protected @NotNull Barrier handleFree() {
+				return stop();
+			}
+		};
+	}
+}
@@ -0,0 +1,131 @@
+package space.engine.simpleQueue.pool;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import space.engine.simpleQueue.SimpleQueue;
+import space.engine.simpleQueue.WorkStealingSimpleQueue;
+
+import java.util.Collection;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A {@link SimpleThreadPool} where every pool Thread owns a {@link WorkStealingSimpleQueue}.
+ * <p>
+ * Tasks submitted from a pool Thread are pushed onto the deque of that Thread and executed LIFO by it,
+ * Tasks submitted from any other Thread go to the shared {@link #queue}.
+ * A Thread running out of work first checks the shared {@link #queue} and then steals FIFO from the deques of the other Threads.
+ */
+public class WorkStealingThreadPool extends SimpleThreadPool {
+	
+	private final WorkStealingSimpleQueue<Runnable>[] deques;
+	private final ThreadLocal<WorkStealingSimpleQueue<Runnable>> localDeque = new ThreadLocal<>();
+	
+	public WorkStealingThreadPool(int threadCnt) {
+		this(threadCnt, Executors.defaultThreadFactory());
+	}
+	
+	public WorkStealingThreadPool(int threadCnt, ThreadFactory threadFactory) {
+		this(threadCnt, threadFactory, SimpleQueue.recommendConcurrent(threadCnt), DEFAULT_PAUSE_COUNTDOWN);
+	}
+	
+	/**
+	 * @param queue the shared {@link SimpleQueue} used for Tasks submitted from outside the pool. Recommended: {@link SimpleQueue#recommendConcurrent(int)}
+	 * @see SimpleMessagePool#SimpleMessagePool(int, ThreadFactory, SimpleQueue, int)
+	 */
+	public WorkStealingThreadPool(int threadCnt, ThreadFactory threadFactory, @NotNull SimpleQueue<Runnable> queue, int pauseCountdown) {
+		super(threadCnt, threadFactory, queue, pauseCountdown, false);
+		
+		deques = newDeques(threadCnt);
+		init();
+	}
+	
+	@SuppressWarnings("unchecked")
+	private static WorkStealingSimpleQueue<Runnable>[] newDeques(int threadCnt) {
+		WorkStealingSimpleQueue<Runnable>[] deques = (WorkStealingSimpleQueue<Runnable>[]) new WorkStealingSimpleQueue<?>[threadCnt];
+		for (int i = 0; i < threadCnt; i++)
+			deques[i] = new WorkStealingSimpleQueue<>();
+		return deques;
+	}
+	
+	@Override
+	protected void prepare(Thread thread) {
+		for (int i = 0; i < threads.length; i++) {
+			if (threads[i] == thread) {
+				localDeque.set(deques[i]);
+				return;
+			}
+		}
+		throw new IllegalStateException("Thread " + thread + " is not part of this pool");
+	}
+	
+	//poll
+	@Override
+	protected @Nullable Runnable poll() {
+		WorkStealingSimpleQueue<Runnable> local = localDeque.get();
+		
+		//own deque LIFO
+		Runnable run = local.remove();
+		if (run != null)
+			return run;
+		
+		//shared queue
+		run = queue.remove();
+		if (run != null)
+			return run;
+		
+		//steal FIFO from others, starting at a random victim
+		int length = deques.length;
+		int start = ThreadLocalRandom.current().nextInt(length);
+		for (int i = 0; i < length; i++) {
+			WorkStealingSimpleQueue<Runnable> victim = deques[(start + i) % length];
+			if (victim == local)
+				continue;
+			run = victim.steal();
+			if (run != null)
+				return run;
+		}
+		return null;
+	}
+	
+	//add
+	@Override
+	public void add(Runnable runnable) {
+		WorkStealingSimpleQueue<Runnable> local = localDeque.get();
+		if (local == null) {
+			super.add(runnable);
+			return;
+		}
+		
+		assertRunning();
+		local.add(runnable);
+		unparkThreads();
+	}
+	
+	@Override
+	public void addAll(Collection<Runnable> collection) {
+		WorkStealingSimpleQueue<Runnable> local = localDeque.get();
+		if (local == null) {
+			super.addAll(collection);
+			return;
+		}
+		
+		assertRunning();
+		local.addCollection(collection);
+		unparkThreads();
+	}
+	
+	@Override
+	public void addAll(Runnable[] collection) {
+		WorkStealingSimpleQueue<Runnable> local = localDeque.get();
+		if (local == null) {
+			super.addAll(collection);
+			return;
+		}
+		
+		assertRunning();
+		local.addArray(collection);
+		unparkThreads();
+	}
+}
@@ -3,6 +3,10 @@ package space.engine.barrier;
 import org.junit.Test;
 import space.engine.barrier.future.Future;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.IntStream;
 
 import static org.junit.Assert.*;
@@ -31,6 +35,51 @@ public class BarrierTest {
 		assertTrue(called[0]);
 	}
 	
+	@Test
+	public void testBarrierImplHookOrder() {
+		BarrierImpl barrier = new BarrierImpl();
+		
+		List<Integer> order = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			int finalI = i;
+			barrier.addHook(() -> order.add(finalI));
+		}
+		
+		barrier.triggerNow();
+		assertEquals(List.of(0, 1, 2, 3, 4), order);
+		
+		barrier.addHook(() -> order.add(5));
+		assertEquals(List.of(0, 1, 2, 3, 4, 5), order);
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testBarrierImplTriggerTwice() {
+		BarrierImpl barrier = new BarrierImpl();
+		barrier.triggerNow();
+		barrier.triggerNow();
+	}
+	
+	@Test(timeout = 1000L)
+	public void testBarrierImplAwait() throws InterruptedException {
+		BarrierImpl barrier = new BarrierImpl();
+		new Thread(() -> {
+			try {
+				Thread.sleep(10);
+			} catch (InterruptedException ignored) {
+			
+			}
+			barrier.triggerNow();
+		}).start();
+		
+		barrier.await();
+		assertTrue(barrier.isDone());
+	}
+	
+	@Test(expected = TimeoutException.class)
+	public void testBarrierImplAwaitTimeout() throws InterruptedException, TimeoutException {
+		new BarrierImpl().await(10, TimeUnit.MILLISECONDS);
+	}
+	
 	@Test
 	public void testBarrierWhen() {
 		BarrierImpl[] barriers = IntStream
@@ -46,6 +95,50 @@ public class BarrierTest {
 		assertTrue(all.isDone());
 	}
 	
+	@Test
+	public void testBarrierWhenSkipsDone() {
+		BarrierImpl pending1 = new BarrierImpl();
+		BarrierImpl pending2 = new BarrierImpl();
+		
+		assertSame(Barrier.DONE_BARRIER, Barrier.when(Barrier.done(), Barrier.done()));
+		assertSame(pending1, Barrier.when(Barrier.done(), pending1, Barrier.done()));
+		
+		Barrier all = Barrier.when(Barrier.done(), pending1, Barrier.done(), pending2);
+		pending2.triggerNow();
+		assertFalse(all.isDone());
+		pending1.triggerNow();
+		assertTrue(all.isDone());
+	}
+	
+	@Test
+	public void testBarrierWhenAll() {
+		List<BarrierImpl> barriers = new ArrayList<>();
+		for (int i = 0; i < 5; i++)
+			barriers.add(new BarrierImpl());
+		//triggered during iteration
+		Iterable<BarrierImpl> iterable = () -> barriers.stream().peek(BarrierImpl::triggerNow).iterator();
+		
+		assertTrue(Barrier.whenAll(iterable).isDone());
+	}
+	
+	@Test
+	public void testBarrierWhenConcurrent() throws InterruptedException {
+		for (int run = 0; run < 100; run++) {
+			BarrierImpl[] barriers = IntStream
+					.range(0, 64)
+					.mapToObj(i -> new BarrierImpl())
+					.toArray(BarrierImpl[]::new);
+			Thread thread = new Thread(() -> {
+				for (BarrierImpl barrier : barriers)
+					barrier.triggerNow();
+			});
+			thread.start();
+			Barrier all = Barrier.when(barriers);
+			thread.join();
+			assertTrue(all.isDone());
+		}
+	}
+	
 	@Test
 	public void testBarrierInner() {
 		BarrierImpl outer = new BarrierImpl();
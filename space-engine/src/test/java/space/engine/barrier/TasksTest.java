@@ -1,6 +1,7 @@
 package space.engine.barrier;
 
 import org.junit.Test;
+import space.engine.barrier.future.Future;
 
 import java.io.IOException;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -53,6 +54,36 @@ public class TasksTest {
 		assertEquals(nowFuture(() -> "string").awaitGetUninterrupted(), "string");
 	}
 	
+	@Test
+	public void testFutureInlineIfDone() {
+		Thread caller = Thread.currentThread();
+		Future<Thread> future = when().thenStartFuture(Thread::currentThread);
+		assertTrue(future.isDone());
+		assertSame(caller, future.assertGet());
+	}
+	
+	@Test
+	public void testFutureInlineOnTrigger() {
+		BarrierImpl start = new BarrierImpl();
+		Future<String> future = start.thenStartFuture(() -> "string");
+		
+		assertFalse(future.isDone());
+		start.triggerNow();
+		assertTrue(future.isDone());
+		assertEquals("string", future.assertGet());
+	}
+	
+	@Test
+	public void testFutureDelayed() {
+		BarrierImpl start = new BarrierImpl();
+		Future<String> future = start.thenFuture(() -> {
+			throw new DelayTask(nowFuture(() -> "string"));
+		});
+		
+		start.triggerNow();
+		assertEquals("string", future.awaitGetUninterrupted());
+	}
+	
 	@Test(expected = IOException.class)
 	public void testFutureWithException() throws IOException {
 		nowFutureWithException(IOException.class, () -> {
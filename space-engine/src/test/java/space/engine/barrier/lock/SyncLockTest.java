@@ -105,4 +105,77 @@ public class SyncLockTest {
 		assertFalse(lock1.isLocked());
 		assertFalse(lock2.isLocked());
 	}
+	
+	@Test
+	public void testAquireAllOrNothing() {
+		SyncLockImpl lock3 = new SyncLockImpl();
+		SyncLockImpl lock4 = new SyncLockImpl();
+		assertTrue(lock2.tryLockNow());
+		assertTrue(lock3.tryLockNow());
+		
+		//lock2 busy: the first set releases lock1 again while waiting
+		BarrierImpl locked1 = new BarrierImpl();
+		SyncLock.acquireLocks(new SyncLock[] {lock3, lock2, lock1}, locked1::triggerNow);
+		assertFalse(locked1.isDone());
+		assertFalse(lock1.isLocked());
+		
+		BarrierImpl locked2 = new BarrierImpl();
+		SyncLock.acquireLocks(new SyncLock[] {lock4, lock2}, locked2::triggerNow);
+		assertFalse(locked2.isDone());
+		assertFalse(lock4.isLocked());
+		
+		//the first set still misses lock3, so lock2 is handed on to the second set
+		lock2.unlock().run();
+		assertFalse(locked1.isDone());
+		assertTrue(locked2.isDone());
+		assertFalse(lock1.isLocked());
+		
+		//lock3 is free, but lock2 is now held by the second set
+		lock3.unlock().run();
+		assertFalse(locked1.isDone());
+		assertFalse(lock3.isLocked());
+		
+		SyncLock.unlockLocks(new SyncLock[] {lock4, lock2});
+		assertTrue(locked1.isDone());
+		assertTrue(lock1.isLocked());
+		assertTrue(lock2.isLocked());
+		assertTrue(lock3.isLocked());
+		assertFalse(lock4.isLocked());
+		
+		SyncLock.unlockLocks(new SyncLock[] {lock1, lock2, lock3});
+		assertFalse(lock1.isLocked());
+		assertFalse(lock2.isLocked());
+		assertFalse(lock3.isLocked());
+	}
+	
+	@Test
+	public void testHandoverPastCallbackTries() {
+		SyncLock[] locks = {lock1, lock2};
+		assertTrue(lock1.tryLockNow());
+		assertTrue(lock2.tryLockNow());
+		
+		int count = SyncLockImpl.SYNCLOCK_CALLBACK_TRIES * 3;
+		BarrierImpl[] locked = new BarrierImpl[count];
+		for (int i = 0; i < count; i++) {
+			locked[i] = new BarrierImpl();
+			SyncLock.acquireLocks(locks, locked[i]::triggerNow);
+		}
+		
+		//every set refuses lock1 as lock2 is busy and moves on to wait on lock2, all on this Thread
+		lock1.unlock().run();
+		assertFalse(lock1.isLocked());
+		for (BarrierImpl barrier : locked)
+			assertFalse(barrier.isDone());
+		
+		//the whole set is free for every handover of lock2
+		lock2.unlock().run();
+		for (int i = 0; i < count; i++) {
+			assertTrue(locked[i].isDone());
+			if (i + 1 < count)
+				assertFalse(locked[i + 1].isDone());
+			SyncLock.unlockLocks(locks);
+		}
+		assertFalse(lock1.isLocked());
+		assertFalse(lock2.isLocked());
+	}
 }
@@ -0,0 +1,64 @@
+package space.engine.barrier.timer;
+
+import org.junit.Test;
+import space.engine.barrier.Barrier;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class BarrierTimerTest {
+	
+	@Test
+	public void testTriggerAfterTime() throws InterruptedException, TimeoutException {
+		//time in micros
+		BarrierTimer timer = BarrierTimer.createUnmodifiable(-System.nanoTime(), 1E-3, new Object[0]);
+		Random random = new Random(42);
+		
+		List<Long> triggered = new ArrayList<>();
+		Barrier[] barriers = new Barrier[1000];
+		for (int i = 0; i < barriers.length; i++) {
+			long time = timer.currTime() + random.nextInt(200_000) - 10_000;
+			barriers[i] = timer.create(time);
+			barriers[i].addHook(() -> {
+				assertTrue(timer.currTime() >= time);
+				synchronized (triggered) {
+					triggered.add(time);
+				}
+			});
+		}
+		Barrier.when(barriers).await(10, TimeUnit.SECONDS);
+		
+		assertEquals(barriers.length, triggered.size());
+	}
+	
+	@Test
+	public void testWarp() throws InterruptedException, TimeoutException {
+		BarrierTimerWithTimeControl timer = new BarrierTimerWithTimeControl(new Object[0]);
+		Barrier far = timer.create(timer.currTime() + TimeUnit.DAYS.toNanos(365));
+		Barrier near = timer.create(timer.currTime() + TimeUnit.MILLISECONDS.toNanos(10));
+		
+		near.await(10, TimeUnit.SECONDS);
+		assertFalse(far.isDone());
+		
+		timer.warpBy(TimeUnit.DAYS.toNanos(366));
+		far.await(10, TimeUnit.SECONDS);
+	}
+	
+	@Test
+	public void testPause() throws InterruptedException, TimeoutException {
+		BarrierTimerWithTimeControl timer = new BarrierTimerWithTimeControl(new Object[0]);
+		timer.pause();
+		Barrier barrier = timer.create(timer.currTime() + 1);
+		
+		Thread.sleep(20);
+		assertFalse(barrier.isDone());
+		
+		timer.normalSpeed();
+		barrier.await(10, TimeUnit.SECONDS);
+	}
+}
@@ -0,0 +1,88 @@
+package space.engine.barrier.trace;
+
+import org.junit.Test;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Records manually, as {@link BarrierTrace#ENABLED} is usually false during tests
+ */
+public class BarrierTraceTest {
+	
+	private static void trigger(Barrier barrier) throws InterruptedException {
+		Thread.sleep(1);
+		BarrierTrace.triggered(barrier);
+	}
+	
+	@Test
+	public void testCriticalPath() throws InterruptedException {
+		BarrierTrace.clear();
+		BarrierImpl start = BarrierTrace.mark("start", new BarrierImpl());
+		BarrierImpl fast = new BarrierImpl();
+		BarrierImpl slow = new BarrierImpl();
+		BarrierImpl slower = new BarrierImpl();
+		BarrierImpl end = BarrierTrace.mark("end", new BarrierImpl());
+		
+		BarrierTrace.edge(start, fast);
+		BarrierTrace.edge(start, slow);
+		BarrierTrace.edge(slow, slower);
+		BarrierTrace.edge(fast, end);
+		BarrierTrace.edge(slower, end);
+		
+		trigger(start);
+		trigger(fast);
+		trigger(slow);
+		trigger(slower);
+		trigger(end);
+		
+		List<BarrierTrace.Step> path = BarrierTrace.criticalPath(start, end);
+		assertEquals(4, path.size());
+		assertEquals("start", path.get(0).marker);
+		assertEquals("end", path.get(3).marker);
+		BarrierTrace.clear();
+	}
+	
+	@Test
+	public void testEndFrame() throws InterruptedException {
+		BarrierTrace.clear();
+		BarrierImpl start = BarrierTrace.mark("start", new BarrierImpl());
+		BarrierImpl end = BarrierTrace.mark("end", new BarrierImpl());
+		BarrierTrace.edge(start, end);
+		trigger(start);
+		trigger(end);
+		
+		for (int i = 0; i < BarrierTrace.FRAMES; i++)
+			BarrierTrace.endFrame();
+		assertEquals(2, BarrierTrace.criticalPath(start, end).size());
+		
+		BarrierTrace.endFrame();
+		assertTrue(BarrierTrace.criticalPath(start, end).isEmpty());
+		BarrierTrace.clear();
+	}
+	
+	@Test
+	public void testChromeTrace() throws IOException {
+		BarrierTrace.clear();
+		BarrierImpl parent = new BarrierImpl();
+		BarrierImpl child = BarrierTrace.mark("child \"quoted\"", new BarrierImpl());
+		BarrierTrace.edge(parent, child);
+		BarrierTrace.task(child, "thenRun", (Runnable) () -> {
+		}, BarrierTrace.now());
+		BarrierTrace.triggered(child);
+		
+		StringWriter writer = new StringWriter();
+		BarrierTrace.writeChromeTrace(writer);
+		String json = writer.toString();
+		assertTrue(json.startsWith("{\"traceEvents\":["));
+		assertTrue(json.contains("\"ph\":\"X\""));
+		assertTrue(json.contains("\"name\":\"child \\\"quoted\\\"\""));
+		assertTrue(json.contains("\"thread_name\""));
+		BarrierTrace.clear();
+	}
+}
@@ -0,0 +1,88 @@
+package space.engine.buffer;
+
+import org.junit.Test;
+import space.engine.buffer.array.ArrayBufferByte;
+import space.engine.buffer.array.ArrayBufferPointer;
+
+import java.nio.charset.Charset;
+
+import static java.nio.charset.StandardCharsets.*;
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class StringConverterTest {
+	
+	private static final String[] STRINGS = {
+			"",
+			"main",
+			"VK_LAYER_KHRONOS_validation",
+			"\u00e4\u00f6\u00fc \u00df",
+			"\u20ac \u4e2d\u6587",
+			"\ud83d\ude80 rocket",
+			"unpaired \ud83d high",
+			"unpaired \ude80 low",
+			"trailing \ud83d",
+	};
+	
+	private static byte[] read(ArrayBufferByte buffer) {
+		byte[] bytes = new byte[(int) buffer.length()];
+		buffer.copyInto(bytes);
+		return bytes;
+	}
+	
+	private static byte[] nullTerminated(String str, Charset charset, int nullBytes) {
+		byte[] bytes = str.getBytes(charset);
+		byte[] ret = new byte[bytes.length + nullBytes];
+		System.arraycopy(bytes, 0, ret, 0, bytes.length);
+		return ret;
+	}
+	
+	@Test
+	public void testSameAsGetBytes() {
+		for (String str : STRINGS) {
+			assertArrayEquals(str, str.getBytes(UTF_8), read(StringConverter.stringToUTF8(Allocator.heap(), str, false, EMPTY_OBJECT_ARRAY)));
+			assertArrayEquals(str, str.getBytes(UTF_16), read(StringConverter.stringToUTF16(Allocator.heap(), str, false, EMPTY_OBJECT_ARRAY)));
+			assertArrayEquals(str, str.getBytes(US_ASCII), read(StringConverter.stringToASCII(Allocator.heap(), str, false, EMPTY_OBJECT_ARRAY)));
+			
+			assertArrayEquals(str, nullTerminated(str, UTF_8, 1), read(StringConverter.stringToUTF8(Allocator.heap(), str, true, EMPTY_OBJECT_ARRAY)));
+			assertArrayEquals(str, nullTerminated(str, UTF_16, 2), read(StringConverter.stringToUTF16(Allocator.heap(), str, true, EMPTY_OBJECT_ARRAY)));
+		}
+	}
+	
+	@Test
+	public void testRoundTrip() {
+		String str = "\u00e4\u20ac\ud83d\ude80";
+		assertEquals(str, StringConverter.UTF8ToString(StringConverter.stringToUTF8(Allocator.heap(), str, true, EMPTY_OBJECT_ARRAY)));
+		assertEquals(str, StringConverter.UTF16ToString(StringConverter.stringToUTF16(Allocator.heap(), str, true, EMPTY_OBJECT_ARRAY)));
+	}
+	
+	@Test
+	public void testStringArray() {
+		String[] strings = {"VK_KHR_surface", "", "\u00e4"};
+		ArrayBufferPointer ptrBuffer = StringConverter.stringArrayToUTF8(Allocator.heap(), strings, true, EMPTY_OBJECT_ARRAY);
+		for (int i = 0; i < strings.length; i++)
+			assertEquals(strings[i], StringConverter.UTF8ToString(ptrBuffer.getPointer(i)));
+		ptrBuffer.free();
+	}
+	
+	@Test
+	public void testCache() {
+		NativeStringCache cache = new NativeStringCache(Allocator.heap(), 2, EMPTY_OBJECT_ARRAY);
+		ArrayBufferByte main = cache.get("main");
+		assertSame(main, cache.get("main"));
+		assertEquals("main", StringConverter.UTF8ToString(main));
+		assertEquals(1, cache.hits());
+		assertEquals(1, cache.misses());
+		
+		cache.get("a");
+		cache.get("main");
+		//evicts "a", the least recently used
+		cache.get("b");
+		assertEquals(2, cache.size());
+		assertSame(main, cache.get("main"));
+		assertEquals(2, cache.hits() - 1);
+		
+		cache.free().awaitUninterrupted();
+		assertTrue(main.isFreed());
+	}
+}
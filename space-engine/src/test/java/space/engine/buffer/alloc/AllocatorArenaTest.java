@@ -0,0 +1,111 @@
+package space.engine.buffer.alloc;
+
+import org.junit.Test;
+import space.engine.baseobject.exceptions.FreedException;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.array.ArrayBufferFloat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class AllocatorArenaTest {
+	
+	@Test
+	public void testBumpAllocation() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorArena arena = new AllocatorArena(backing, 1024, EMPTY_OBJECT_ARRAY);
+		
+		long a = arena.malloc(3);
+		long b = arena.malloc(16);
+		long c = arena.malloc(1);
+		assertEquals(a + 8, b);
+		assertEquals(b + 16, c);
+		assertEquals(1, backing.allocated.size());
+		assertEquals(1024, arena.reservedBytes());
+		
+		//large allocations get their own chunk
+		arena.malloc(1000);
+		assertEquals(2, backing.allocated.size());
+		
+		arena.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+		assertEquals(0, arena.reservedBytes());
+	}
+	
+	@Test
+	public void testChunkGrowth() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorArena arena = new AllocatorArena(backing, 1024, EMPTY_OBJECT_ARRAY);
+		
+		for (int i = 0; i < 1024; i++)
+			arena.malloc(256);
+		//chunks of 1, 2, 4 and 32 times 8 KiB to hold 256 KiB
+		assertEquals((1 + 2 + 4 + 32 * 8) * 1024, arena.reservedBytes());
+		
+		arena.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+	
+	@Test
+	public void testBuffersWithoutParents() {
+		AllocatorArena arena = new AllocatorArena(Allocator.heap(), 1024, EMPTY_OBJECT_ARRAY);
+		ArrayBufferFloat buffer = ArrayBufferFloat.alloc(arena, new float[] {1, 2, 3}, EMPTY_OBJECT_ARRAY);
+		assertEquals(2, buffer.getFloat(1), 0);
+		
+		//freeing a buffer does not release arena memory
+		buffer.free();
+		assertEquals(1024, arena.reservedBytes());
+		arena.free().awaitUninterrupted();
+	}
+	
+	@Test(expected = FreedException.class)
+	public void testMallocAfterFree() {
+		AllocatorArena arena = new AllocatorArena(Allocator.heap(), 1024, EMPTY_OBJECT_ARRAY);
+		arena.free();
+		arena.malloc(8);
+	}
+	
+	@Test
+	public void testFreedWithParent() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorArena parent = new AllocatorArena(Allocator.heap(), 64, EMPTY_OBJECT_ARRAY);
+		AllocatorArena arena = new AllocatorArena(backing, 1024, new Object[] {parent});
+		arena.malloc(8);
+		
+		parent.free().awaitUninterrupted();
+		assertTrue(arena.isFreed());
+		assertTrue(backing.allocated.isEmpty());
+	}
+	
+	@Test(timeout = 10000L)
+	public void testThreadsUseSeparateSubArenas() throws InterruptedException {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorArena arena = new AllocatorArena(backing, 1024, EMPTY_OBJECT_ARRAY);
+		int threadCount = 4;
+		long[][] addresses = new long[threadCount][100];
+		
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			long[] dest = addresses[t];
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < dest.length; i++)
+					dest[i] = arena.malloc(8);
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		Set<Long> unique = new HashSet<>();
+		for (long[] threadAddresses : addresses)
+			for (long address : threadAddresses)
+				assertTrue(unique.add(address));
+		assertEquals(threadCount, backing.allocated.size());
+		
+		arena.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+}
@@ -0,0 +1,152 @@
+package space.engine.buffer.alloc;
+
+import org.junit.Test;
+import space.engine.buffer.array.ArrayBufferInt;
+import space.engine.buffer.alloc.AllocatorPool.SizeClassStatistics;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class AllocatorPoolTest {
+	
+	@Test
+	public void testReuse() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorPool pool = new AllocatorPool(backing, false, EMPTY_OBJECT_ARRAY);
+		
+		long a = pool.malloc(100);
+		pool.free(a);
+		assertEquals(a, pool.malloc(112));
+		assertEquals(1, backing.allocated.size());
+		
+		//different size class
+		long b = pool.malloc(8);
+		assertNotEquals(a, b);
+		assertEquals(2, backing.allocated.size());
+		
+		pool.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+	
+	@Test
+	public void testLargeAllocation() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorPool pool = new AllocatorPool(backing, false, EMPTY_OBJECT_ARRAY);
+		
+		long large = pool.malloc(AllocatorPool.MAX_BLOCK_SIZE);
+		assertEquals(1, backing.allocated.size());
+		pool.free(large);
+		assertTrue(backing.allocated.isEmpty());
+		pool.free().awaitUninterrupted();
+	}
+	
+	@Test(expected = IllegalStateException.class)
+	public void testDoubleFree() {
+		AllocatorPool pool = new AllocatorPool(new TrackingAllocator(), false, EMPTY_OBJECT_ARRAY);
+		long a = pool.malloc(16);
+		pool.free(a);
+		pool.free(a);
+	}
+	
+	@Test
+	public void testStatistics() {
+		AllocatorPool pool = new AllocatorPool(new TrackingAllocator(), false, EMPTY_OBJECT_ARRAY);
+		long[] addresses = new long[AllocatorPool.MAGAZINE_SIZE * 2];
+		for (int round = 0; round < 4; round++) {
+			for (int i = 0; i < addresses.length; i++)
+				addresses[i] = pool.malloc(16);
+			if (round != 3)
+				for (long address : addresses)
+					pool.free(address);
+		}
+		
+		List<SizeClassStatistics> statistics = pool.statistics();
+		assertEquals(AllocatorPool.SIZE_CLASS_COUNT, statistics.size());
+		SizeClassStatistics clazz = statistics.get(1);
+		assertEquals(32, clazz.blockSize);
+		assertEquals(4 * addresses.length, clazz.allocations);
+		assertEquals(2, clazz.misses);
+		assertEquals(addresses.length * 32, clazz.bytesInUse());
+		assertEquals(1 - 2d / (4 * addresses.length), clazz.hitRate(), 1E-9);
+		pool.free().awaitUninterrupted();
+	}
+	
+	@Test
+	public void testDebugLeaks() {
+		AllocatorPool pool = new AllocatorPool(new TrackingAllocator(), true, EMPTY_OBJECT_ARRAY);
+		long a = pool.malloc(16);
+		long b = pool.malloc(16);
+		pool.free(a);
+		assertEquals(1, pool.leaks().size());
+		pool.free(b);
+		assertTrue(pool.leaks().isEmpty());
+		pool.free().awaitUninterrupted();
+	}
+	
+	@Test
+	public void testBuffer() {
+		AllocatorPool pool = new AllocatorPool(new TrackingAllocator(), true, EMPTY_OBJECT_ARRAY);
+		ArrayBufferInt buffer = ArrayBufferInt.calloc(pool, 10, EMPTY_OBJECT_ARRAY);
+		assertEquals(0, buffer.getInt(9));
+		buffer.putInt(3, 42);
+		assertEquals(42, buffer.getInt(3));
+		buffer.free();
+		assertTrue(pool.leaks().isEmpty());
+		pool.free().awaitUninterrupted();
+	}
+	
+	@Test
+	public void testAlignment() {
+		AllocatorPool pool = new AllocatorPool(new TrackingAllocator(), false, EMPTY_OBJECT_ARRAY);
+		long[] addresses = new long[200];
+		for (int i = 0; i < addresses.length; i++) {
+			addresses[i] = pool.malloc(i * 7);
+			assertEquals(0, addresses[i] % 16);
+		}
+		for (long address : addresses)
+			pool.free(address);
+		pool.free().awaitUninterrupted();
+	}
+	
+	@Test(timeout = 30000L)
+	public void testDeadThreadMagazines() throws InterruptedException {
+		AllocatorPool pool = new AllocatorPool(new TrackingAllocator(), false, EMPTY_OBJECT_ARRAY);
+		Thread thread = new Thread(() -> pool.free(pool.malloc(16)));
+		thread.start();
+		thread.join();
+		//noinspection UnusedAssignment
+		thread = null;
+		
+		while (pool.statistics().get(1).depotBlocks != AllocatorPool.MAGAZINE_SIZE) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		
+		pool.free(pool.malloc(16));
+		assertEquals(1, pool.statistics().get(1).misses);
+		pool.free().awaitUninterrupted();
+	}
+	
+	@Test(timeout = 10000L)
+	public void testFreeOnOtherThread() throws InterruptedException {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorPool pool = new AllocatorPool(backing, false, EMPTY_OBJECT_ARRAY);
+		long[] addresses = new long[1000];
+		for (int i = 0; i < addresses.length; i++)
+			addresses[i] = pool.malloc(i % 200);
+		
+		Thread thread = new Thread(() -> {
+			for (long address : addresses)
+				pool.free(address);
+		});
+		thread.start();
+		thread.join();
+		
+		for (SizeClassStatistics clazz : pool.statistics())
+			assertEquals(0, clazz.blocksInUse);
+		pool.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+}
@@ -0,0 +1,114 @@
+package space.engine.buffer.alloc;
+
+import org.junit.Test;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.alloc.AllocatorStackImpl.AllocatorFrame;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class AllocatorStackImplTest {
+	
+	@Test
+	public void testOverflowChainsSegment() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorStackImpl stack = new AllocatorStackImpl(backing, 64, EMPTY_OBJECT_ARRAY);
+		
+		try (AllocatorFrame frame = stack.frame()) {
+			long a = frame.malloc(48);
+			long b = frame.malloc(8);
+			assertEquals(a + 48, b);
+			assertEquals(0, stack.overflowCount());
+			
+			frame.malloc(16);
+			assertEquals(1, stack.overflowCount());
+			assertEquals(2, backing.allocated.size());
+			assertEquals(64 + 16, stack.highWaterMark());
+		}
+		
+		stack.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+	
+	@Test
+	public void testSegmentsReusedAfterPop() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorStackImpl stack = new AllocatorStackImpl(backing, 64, EMPTY_OBJECT_ARRAY);
+		
+		long overflowAddress;
+		try (AllocatorFrame frame = stack.frame()) {
+			frame.malloc(64);
+			overflowAddress = frame.malloc(64);
+		}
+		try (AllocatorFrame frame = stack.frame()) {
+			frame.malloc(64);
+			assertEquals(overflowAddress, frame.malloc(64));
+		}
+		assertEquals(2, backing.allocated.size());
+		assertEquals(128, stack.reservedBytes());
+		assertEquals(2, stack.overflowCount());
+		
+		stack.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+	
+	@Test
+	public void testPopReturnsToPreviousSegment() {
+		AllocatorStackImpl stack = new AllocatorStackImpl(Allocator.heap(), 64, EMPTY_OBJECT_ARRAY);
+		
+		try (AllocatorFrame outer = stack.frame()) {
+			long a = outer.malloc(8);
+			try (AllocatorFrame inner = stack.frame()) {
+				inner.malloc(128);
+			}
+			assertEquals(a + 8, outer.malloc(8));
+		}
+		stack.free().awaitUninterrupted();
+	}
+	
+	@Test
+	public void testLargeAllocationReplacesSmallSegment() {
+		TrackingAllocator backing = new TrackingAllocator();
+		AllocatorStackImpl stack = new AllocatorStackImpl(backing, 64, EMPTY_OBJECT_ARRAY);
+		
+		try (AllocatorFrame frame = stack.frame()) {
+			frame.malloc(64);
+			frame.malloc(8);
+		}
+		try (AllocatorFrame frame = stack.frame()) {
+			frame.malloc(64);
+			frame.malloc(1024);
+		}
+		assertEquals(2, backing.allocated.size());
+		assertEquals(64 + 1024, stack.reservedBytes());
+		
+		stack.free().awaitUninterrupted();
+		assertTrue(backing.allocated.isEmpty());
+	}
+	
+	@Test
+	public void testStackMetrics() {
+		try (AllocatorFrame frame = (AllocatorFrame) Allocator.frame()) {
+			frame.malloc(8);
+		}
+		String name = Thread.currentThread().getName();
+		assertTrue(Allocator.stackMetrics().stream().anyMatch(metrics -> metrics.threadName.equals(name) && metrics.highWaterMark >= 8));
+	}
+	
+	@Test
+	public void testFreeFrameStack() {
+		try (AllocatorFrame frame = (AllocatorFrame) Allocator.frame()) {
+			frame.malloc(8);
+		}
+		String name = Thread.currentThread().getName();
+		Allocator.freeFrameStack();
+		assertTrue(Allocator.stackMetrics().stream().noneMatch(metrics -> metrics.threadName.equals(name)));
+		
+		//a new stack is allocated on demand
+		try (AllocatorFrame frame = (AllocatorFrame) Allocator.frame()) {
+			frame.malloc(8);
+		}
+		assertTrue(Allocator.stackMetrics().stream().anyMatch(metrics -> metrics.threadName.equals(name)));
+		Allocator.freeFrameStack();
+	}
+}
@@ -0,0 +1,36 @@
+package space.engine.buffer.alloc;
+
+import space.engine.buffer.Allocator;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link Allocator#heap()} tracking all allocations which are not freed
+ */
+public class TrackingAllocator implements Allocator {
+	
+	public final Set<Long> allocated = ConcurrentHashMap.newKeySet();
+	
+	@Override
+	public long malloc(long sizeOf) {
+		long address = Allocator.heap().malloc(sizeOf);
+		allocated.add(address);
+		return address;
+	}
+	
+	@Override
+	public long calloc(long sizeOf) {
+		long address = Allocator.heap().calloc(sizeOf);
+		allocated.add(address);
+		return address;
+	}
+	
+	@Override
+	public void free(long address) {
+		assertTrue(allocated.remove(address));
+		Allocator.heap().free(address);
+	}
+}
@@ -0,0 +1,136 @@
+package space.engine.buffer.array;
+
+import org.junit.Test;
+import space.engine.buffer.Allocator;
+import space.engine.vector.Matrix4;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class ArrayBufferBulkTest {
+	
+	@Test
+	public void testFill() {
+		ArrayBufferFloat buffer = ArrayBufferFloat.calloc(Allocator.heap(), 11, EMPTY_OBJECT_ARRAY);
+		buffer.fill(1, 10, 2.5f);
+		float[] read = new float[11];
+		buffer.copyInto(read);
+		assertArrayEquals(new float[] {0, 2.5f, 2.5f, 2.5f, 2.5f, 2.5f, 2.5f, 2.5f, 2.5f, 2.5f, 0}, read, 0);
+		
+		ArrayBufferByte bytes = ArrayBufferByte.calloc(Allocator.heap(), 4, EMPTY_OBJECT_ARRAY);
+		bytes.fill((byte) 7);
+		assertEquals(7, bytes.getByte(3));
+		
+		ArrayBufferShort shorts = ArrayBufferShort.calloc(Allocator.heap(), 5, EMPTY_OBJECT_ARRAY);
+		shorts.fill(3, 5, (short) -1);
+		assertEquals(0, shorts.getShort(2));
+		assertEquals(-1, shorts.getShort(4));
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testFillOutOfBounds() {
+		ArrayBufferInt.calloc(Allocator.heap(), 4, EMPTY_OBJECT_ARRAY).fill(2, 5, 1);
+	}
+	
+	@Test
+	public void testReduce() {
+		int[] values = {5, -3, 8, 1, 9, -7, 2, 4, 0};
+		ArrayBufferInt buffer = ArrayBufferInt.alloc(Allocator.heap(), values, EMPTY_OBJECT_ARRAY);
+		assertEquals(-7, buffer.min());
+		assertEquals(9, buffer.max());
+		assertEquals(19, buffer.sum());
+		
+		//every third element: 5, 1, 2
+		assertEquals(1, buffer.min(0, 3, 3));
+		assertEquals(5, buffer.max(0, 3, 3));
+		assertEquals(8, buffer.sum(0, 3, 3));
+		
+		assertEquals(Integer.MAX_VALUE, buffer.min(0, 1, 0));
+		
+		ArrayBufferDouble doubles = ArrayBufferDouble.alloc(Allocator.heap(), new double[] {1.5, -2, 0.5}, EMPTY_OBJECT_ARRAY);
+		assertEquals(0, doubles.sum(), 0);
+		assertEquals(-2, doubles.min(), 0);
+	}
+	
+	@Test
+	public void testTransform() {
+		//two vertices of position + normal
+		ArrayBufferFloat buffer = ArrayBufferFloat.alloc(Allocator.heap(), new float[] {
+				1, 2, 3, 0, 0, 1,
+				-1, 0, 2, 1, 0, 0
+		}, EMPTY_OBJECT_ARRAY);
+		Matrix4 mat = new Matrix4(
+				2, 0, 0, 10,
+				0, 2, 0, 20,
+				0, 0, 2, 30,
+				0, 0, 0, 1
+		);
+		buffer.transformPoints(mat, 0, 6, 2);
+		buffer.transformDirections(mat, 3, 6, 2);
+		float[] read = new float[12];
+		buffer.copyInto(read);
+		assertArrayEquals(new float[] {
+				12, 24, 36, 0, 0, 2,
+				8, 20, 34, 2, 0, 0
+		}, read, 0);
+		
+		ArrayBufferFloat vec4 = ArrayBufferFloat.alloc(Allocator.heap(), new float[] {1, 1, 1, 0}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferFloat dest = ArrayBufferFloat.calloc(Allocator.heap(), 4, EMPTY_OBJECT_ARRAY);
+		vec4.transformVec4(mat, 0, 4, dest, 0, 4, 1);
+		float[] read4 = new float[4];
+		dest.copyInto(read4);
+		assertArrayEquals(new float[] {2, 2, 2, 0}, read4, 0);
+	}
+	
+	@Test
+	public void testInterleave() {
+		ArrayBufferFloat positions = ArrayBufferFloat.alloc(Allocator.heap(), new float[] {1, 2, 3, 4, 5, 6}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferFloat uvs = ArrayBufferFloat.alloc(Allocator.heap(), new float[] {-1, -2, -3, -4}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferFloat interleaved = ArrayBufferFloat.calloc(Allocator.heap(), 10, EMPTY_OBJECT_ARRAY);
+		interleaved.interleave(new ArrayBufferFloat[] {positions, uvs}, new long[] {3, 2}, 2);
+		
+		float[] read = new float[10];
+		interleaved.copyInto(read);
+		assertArrayEquals(new float[] {1, 2, 3, -1, -2, 4, 5, 6, -3, -4}, read, 0);
+		
+		ArrayBufferFloat positions2 = ArrayBufferFloat.calloc(Allocator.heap(), 6, EMPTY_OBJECT_ARRAY);
+		ArrayBufferFloat uvs2 = ArrayBufferFloat.calloc(Allocator.heap(), 4, EMPTY_OBJECT_ARRAY);
+		interleaved.deinterleave(new ArrayBufferFloat[] {positions2, uvs2}, new long[] {3, 2}, 2);
+		float[] readPositions = new float[6];
+		positions2.copyInto(readPositions);
+		assertArrayEquals(new float[] {1, 2, 3, 4, 5, 6}, readPositions, 0);
+		float[] readUvs = new float[4];
+		uvs2.copyInto(readUvs);
+		assertArrayEquals(new float[] {-1, -2, -3, -4}, readUvs, 0);
+	}
+	
+	@Test
+	public void testGather() {
+		ArrayBufferFloat vertices = ArrayBufferFloat.alloc(Allocator.heap(), new float[] {0, 0, 1, 1, 2, 2}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferInt indices = ArrayBufferInt.alloc(Allocator.heap(), new int[] {2, 0, 1, 2}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferFloat unpacked = ArrayBufferFloat.calloc(Allocator.heap(), 8, EMPTY_OBJECT_ARRAY);
+		vertices.gather(indices, 2, unpacked, 0);
+		
+		float[] read = new float[8];
+		unpacked.copyInto(read);
+		assertArrayEquals(new float[] {2, 2, 0, 0, 1, 1, 2, 2}, read, 0);
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGatherOutOfBounds() {
+		ArrayBufferFloat vertices = ArrayBufferFloat.alloc(Allocator.heap(), new float[] {0, 0, 1, 1}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferInt indices = ArrayBufferInt.alloc(Allocator.heap(), new int[] {2}, EMPTY_OBJECT_ARRAY);
+		vertices.gather(indices, 2, ArrayBufferFloat.calloc(Allocator.heap(), 2, EMPTY_OBJECT_ARRAY), 0);
+	}
+	
+	@Test
+	public void testCopyStridedBytes() {
+		//unaligned groups fall back to copyMemory
+		ArrayBufferByte src = ArrayBufferByte.alloc(Allocator.heap(), new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9}, EMPTY_OBJECT_ARRAY);
+		ArrayBufferByte dest = ArrayBufferByte.calloc(Allocator.heap(), 6, EMPTY_OBJECT_ARRAY);
+		src.copyStrided(0, 3, dest, 0, 2, 2, 3);
+		byte[] read = new byte[6];
+		dest.copyInto(read);
+		assertArrayEquals(new byte[] {1, 2, 4, 5, 7, 8}, read);
+	}
+}
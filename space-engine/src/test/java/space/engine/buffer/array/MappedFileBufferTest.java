@@ -0,0 +1,125 @@
+package space.engine.buffer.array;
+
+import org.junit.Test;
+import space.engine.baseobject.exceptions.FreedException;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.Buffer;
+
+import java.io.IOException;
+import java.nio.ReadOnlyBufferException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class MappedFileBufferTest {
+	
+	@Test
+	public void testReadOnly() throws IOException {
+		Path file = Files.createTempFile("MappedFileBufferTest", ".bin");
+		try {
+			byte[] content = new byte[10000];
+			for (int i = 0; i < content.length; i++)
+				content[i] = (byte) (i * 31);
+			Files.write(file, content);
+			
+			MappedFileBuffer buffer = MappedFileBuffer.mapReadOnly(file, EMPTY_OBJECT_ARRAY);
+			assertTrue(buffer.isReadOnly());
+			assertEquals(content.length, buffer.length());
+			byte[] read = new byte[content.length];
+			buffer.copyInto(read);
+			assertArrayEquals(content, read);
+			
+			MappedFileBuffer part = MappedFileBuffer.mapReadOnly(file, 4097, 100, EMPTY_OBJECT_ARRAY);
+			assertEquals(content[4097], part.getByte(0));
+			assertEquals(content[4196], part.getByte(99));
+			
+			buffer.free().awaitUninterrupted();
+			part.free().awaitUninterrupted();
+			try {
+				buffer.address();
+				fail();
+			} catch (FreedException ignored) {
+			
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testReadOnlyRejectsWrites() throws IOException {
+		Path file = Files.createTempFile("MappedFileBufferTest", ".bin");
+		try {
+			Files.write(file, new byte[] {1, 2, 3, 4});
+			MappedFileBuffer buffer = MappedFileBuffer.mapReadOnly(file, EMPTY_OBJECT_ARRAY);
+			ArrayBufferByte src = ArrayBufferByte.calloc(Allocator.heap(), 4, EMPTY_OBJECT_ARRAY);
+			
+			List<Runnable> writes = List.of(
+					() -> buffer.putByte(0, (byte) 0),
+					() -> buffer.copyFrom(new byte[4]),
+					() -> buffer.fill((byte) 0),
+					buffer::clear,
+					() -> buffer.copyFrom(src, 0, 0, 4),
+					() -> src.copyInto(0, buffer, 0, 4),
+					() -> Buffer.copyMemory(src, 0, buffer, 0, 4)
+			);
+			for (Runnable write : writes) {
+				try {
+					write.run();
+					fail();
+				} catch (ReadOnlyBufferException ignored) {
+				
+				}
+			}
+			
+			byte[] read = new byte[4];
+			buffer.copyInto(read);
+			assertArrayEquals(new byte[] {1, 2, 3, 4}, read);
+			buffer.free().awaitUninterrupted();
+			src.free().awaitUninterrupted();
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testReadWrite() throws IOException {
+		Path file = Files.createTempFile("MappedFileBufferTest", ".bin");
+		try {
+			MappedFileBuffer buffer = MappedFileBuffer.mapReadWrite(file, 256, EMPTY_OBJECT_ARRAY);
+			assertFalse(buffer.isReadOnly());
+			for (int i = 0; i < 256; i++)
+				buffer.putByte(i, (byte) i);
+			buffer.force();
+			buffer.free().awaitUninterrupted();
+			
+			byte[] written = Files.readAllBytes(file);
+			assertEquals(256, written.length);
+			for (int i = 0; i < 256; i++)
+				assertEquals((byte) i, written[i]);
+		} finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+	public void testCopyToBuffer() throws IOException {
+		Path file = Files.createTempFile("MappedFileBufferTest", ".bin");
+		try {
+			Files.write(file, new byte[] {1, 2, 3, 4});
+			MappedFileBuffer src = MappedFileBuffer.mapReadOnly(file, EMPTY_OBJECT_ARRAY);
+			ArrayBufferByte dst = ArrayBufferByte.calloc(Allocator.heap(), 6, EMPTY_OBJECT_ARRAY);
+			Buffer.copyMemory(src, 0, dst, 1, 4);
+			byte[] read = new byte[6];
+			dst.copyInto(read);
+			assertArrayEquals(new byte[] {0, 1, 2, 3, 4, 0}, read);
+			src.free().awaitUninterrupted();
+			dst.free().awaitUninterrupted();
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,91 @@
+package space.engine.buffer.collection;
+
+import org.junit.Test;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.alloc.TrackingAllocator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class NativeHashMapTest {
+	
+	@Test
+	public void testLongLong() {
+		LongLongHashMap map = new LongLongHashMap(Allocator.heap(), EMPTY_OBJECT_ARRAY);
+		assertTrue(map.put(0, 5));
+		assertTrue(map.put(42, 1));
+		assertFalse(map.put(42, 2));
+		assertEquals(2, map.size());
+		assertEquals(5, map.get(0, -1));
+		assertEquals(2, map.get(42, -1));
+		assertEquals(-1, map.get(43, -1));
+		
+		assertEquals(5, map.remove(0, -1));
+		assertEquals(-1, map.remove(0, -1));
+		assertFalse(map.containsKey(0));
+		assertEquals(1, map.size());
+		map.free();
+	}
+	
+	/**
+	 * compares against a {@link HashMap} with random keys from a small range, so probe sequences collide and removal shifts entries
+	 */
+	@Test
+	public void testLongLongRandom() {
+		TrackingAllocator allocator = new TrackingAllocator();
+		LongLongHashMap map = new LongLongHashMap(allocator, EMPTY_OBJECT_ARRAY);
+		Map<Long, Long> reference = new HashMap<>();
+		Random random = new Random(1234);
+		for (int i = 0; i < 100000; i++) {
+			long key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0) {
+				Long removed = reference.remove(key);
+				assertEquals(removed != null ? removed : Long.MIN_VALUE, map.remove(key, Long.MIN_VALUE));
+			} else {
+				assertEquals(!reference.containsKey(key), map.put(key, i));
+				reference.put(key, (long) i);
+			}
+		}
+		
+		assertEquals(reference.size(), map.size());
+		for (Map.Entry<Long, Long> entry : reference.entrySet())
+			assertEquals((long) entry.getValue(), map.get(entry.getKey(), Long.MIN_VALUE));
+		Map<Long, Long> iterated = new HashMap<>();
+		map.forEach(iterated::put);
+		assertEquals(reference, iterated);
+		
+		map.clear();
+		assertEquals(0, map.size());
+		assertFalse(map.containsKey(5));
+		map.free().awaitUninterrupted();
+		assertTrue(allocator.allocated.isEmpty());
+	}
+	
+	@Test
+	public void testIntObjectRandom() {
+		IntObjectHashMap<String> map = new IntObjectHashMap<>(Allocator.heap(), 4, EMPTY_OBJECT_ARRAY);
+		Map<Integer, String> reference = new HashMap<>();
+		Random random = new Random(4321);
+		for (int i = 0; i < 100000; i++) {
+			int key = random.nextInt(2000) - 1000;
+			if (random.nextInt(3) == 0) {
+				assertEquals(reference.remove(key), map.remove(key));
+			} else {
+				String value = Integer.toString(i);
+				assertEquals(reference.put(key, value), map.put(key, value));
+			}
+		}
+		
+		assertEquals(reference.size(), map.size());
+		for (Map.Entry<Integer, String> entry : reference.entrySet())
+			assertEquals(entry.getValue(), map.get(entry.getKey()));
+		Map<Integer, String> iterated = new HashMap<>();
+		map.forEach(iterated::put);
+		assertEquals(reference, iterated);
+		map.free();
+	}
+}
@@ -0,0 +1,74 @@
+package space.engine.buffer.collection;
+
+import org.junit.Test;
+import space.engine.baseobject.exceptions.FreedException;
+import space.engine.buffer.Allocator;
+import space.engine.buffer.alloc.TrackingAllocator;
+
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.*;
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
+public class NativeListTest {
+	
+	@Test
+	public void testGrow() {
+		LongList list = new LongList(Allocator.heap(), 2, EMPTY_OBJECT_ARRAY);
+		for (long i = 0; i < 1000; i++)
+			list.add(i * 3);
+		assertEquals(1000, list.size());
+		assertTrue(list.capacity() >= 1000);
+		for (long i = 0; i < 1000; i++)
+			assertEquals(i * 3, list.get(i));
+		
+		list.trimToSize();
+		assertEquals(1000, list.capacity());
+		assertEquals(999 * 3, list.removeLast());
+		list.free();
+	}
+	
+	@Test
+	public void testRemoveAndArray() {
+		IntList list = new IntList(Allocator.heap(), EMPTY_OBJECT_ARRAY);
+		list.addAll(new int[] {1, 2, 3, 4});
+		assertEquals(2, list.removeSwap(1));
+		assertArrayEquals(new int[] {1, 4, 3}, list.toArray());
+		
+		list.set(0, 7);
+		assertEquals(7, list.view(new Object[] {list}).getInt(0));
+		list.clear();
+		assertTrue(list.isEmpty());
+		list.free();
+	}
+	
+	@Test(expected = NoSuchElementException.class)
+	public void testRemoveLastEmpty() {
+		new FloatList(Allocator.heap(), EMPTY_OBJECT_ARRAY).removeLast();
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		FloatList list = new FloatList(Allocator.heap(), EMPTY_OBJECT_ARRAY);
+		list.add(1);
+		list.get(1);
+	}
+	
+	@Test
+	public void testFree() {
+		TrackingAllocator allocator = new TrackingAllocator();
+		FloatList list = new FloatList(allocator, 4, EMPTY_OBJECT_ARRAY);
+		for (int i = 0; i < 100; i++)
+			list.add(i);
+		assertEquals(1, allocator.allocated.size());
+		
+		list.free().awaitUninterrupted();
+		assertTrue(allocator.allocated.isEmpty());
+		try {
+			list.add(0);
+			fail();
+		} catch (FreedException ignored) {
+			
+		}
+	}
+}
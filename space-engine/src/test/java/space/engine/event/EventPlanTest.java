@@ -0,0 +1,167 @@
+package space.engine.event;
+
+import org.junit.Test;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+import space.engine.barrier.DelayTask;
+import space.engine.barrier.functions.RunnableWithDelay;
+import space.engine.event.typehandler.TypeHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class EventPlanTest {
+	
+	private static final TypeHandler<RunnableWithDelay> RUN = RunnableWithDelay::run;
+	
+	private final List<String> log = new ArrayList<>();
+	
+	private EventEntry<RunnableWithDelay> entry(String name, EventEntry<?>... requires) {
+		return new EventEntry<>(() -> log.add(name), requires);
+	}
+	
+	@Test
+	public void testEmpty() {
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of());
+		assertEquals(0, plan.size());
+		assertEquals(0, plan.levels());
+		assertSame(Barrier.DONE_BARRIER, plan.execute(RUN, Runnable::run));
+	}
+	
+	@Test
+	public void testLevels() {
+		EventEntry<RunnableWithDelay> a = entry("a");
+		EventEntry<RunnableWithDelay> b = entry("b", a);
+		EventEntry<RunnableWithDelay> c = entry("c", a);
+		EventEntry<RunnableWithDelay> d = entry("d", b, c);
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of(d, c, b, a));
+		
+		assertEquals(4, plan.size());
+		assertEquals(3, plan.levels());
+		assertEquals(List.of(a.function), plan.level(0));
+		assertEquals(2, plan.level(1).size());
+		assertTrue(plan.level(1).contains(b.function));
+		assertTrue(plan.level(1).contains(c.function));
+		assertEquals(List.of(d.function), plan.level(2));
+	}
+	
+	@Test
+	public void testRequiredBy() {
+		EventEntry<RunnableWithDelay> b = entry("b");
+		EventEntry<RunnableWithDelay> a = new EventEntry<>(() -> log.add("a"), new EventEntry<?>[] {b}, EventEntry.EMPTY_EVENT_ENTRY_ARRAY);
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of(b, a));
+		assertEquals(List.of(a.function, b.function), plan.functions());
+	}
+	
+	@Test
+	public void testCircle() {
+		EventEntry<?>[] requires = new EventEntry<?>[1];
+		EventEntry<RunnableWithDelay> a = entry("a", requires);
+		EventEntry<RunnableWithDelay> b = entry("b", a);
+		requires[0] = b;
+		try {
+			EventPlan.compile(List.of(a, b));
+			fail("circle not detected");
+		} catch (RuntimeException ignored) {
+			
+		}
+	}
+	
+	@Test
+	public void testExecuteOrder() {
+		EventEntry<RunnableWithDelay> a = entry("a");
+		EventEntry<RunnableWithDelay> b = entry("b", a);
+		EventEntry<RunnableWithDelay> c = entry("c", b);
+		EventEntry<RunnableWithDelay> d = entry("d", a, c);
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of(d, c, b, a));
+		
+		Barrier done = plan.execute(RUN, Runnable::run);
+		assertTrue(done.isDone());
+		assertEquals(List.of("a", "b", "c", "d"), log);
+	}
+	
+	@Test
+	public void testExecuteDelay() {
+		BarrierImpl delay = new BarrierImpl();
+		EventEntry<RunnableWithDelay> a = new EventEntry<>(() -> {
+			log.add("a");
+			throw new DelayTask(delay);
+		});
+		EventEntry<RunnableWithDelay> b = entry("b", a);
+		EventEntry<RunnableWithDelay> c = entry("c");
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of(a, b, c));
+		
+		Barrier done = plan.execute(RUN, Runnable::run);
+		assertFalse(done.isDone());
+		assertTrue(log.contains("a"));
+		assertTrue(log.contains("c"));
+		assertFalse(log.contains("b"));
+		
+		delay.triggerNow();
+		assertTrue(done.isDone());
+		assertEquals("b", log.get(2));
+	}
+	
+	@Test
+	public void testAppend() {
+		EventEntry<RunnableWithDelay> a = entry("a");
+		EventEntry<RunnableWithDelay> b = entry("b", a);
+		EventEntry<RunnableWithDelay> c = entry("c", b);
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of(a, b, c));
+		
+		EventEntry<RunnableWithDelay> root = entry("root");
+		EventEntry<RunnableWithDelay> afterA = entry("afterA", a);
+		EventEntry<RunnableWithDelay> afterC = entry("afterC", c, root);
+		plan = plan.append(root).append(afterA).append(afterC);
+		assertSame(plan, plan.append(afterA));
+		
+		assertEquals(4, plan.levels());
+		assertEquals(List.of(a.function, root.function), plan.level(0));
+		assertEquals(List.of(b.function, afterA.function), plan.level(1));
+		assertEquals(List.of(c.function), plan.level(2));
+		assertEquals(List.of(afterC.function), plan.level(3));
+		
+		plan.execute(RUN, Runnable::run);
+		assertEquals(6, log.size());
+		assertTrue(log.indexOf("afterA") > log.indexOf("a"));
+		assertTrue(log.indexOf("afterC") > log.indexOf("c"));
+		assertTrue(log.indexOf("afterC") > log.indexOf("root"));
+	}
+	
+	@Test
+	public void testAppendRequiresCompile() {
+		EventEntry<RunnableWithDelay> a = entry("a");
+		EventEntry<RunnableWithDelay> later = entry("later");
+		EventEntry<RunnableWithDelay> b = entry("b", a, later);
+		EventPlan<RunnableWithDelay> plan = EventPlan.compile(List.of(a, b));
+		
+		//b references later, which now has to be ordered before b
+		assertNull(plan.append(later));
+		//required by a contained entry
+		assertNull(plan.append(new EventEntry<>(() -> log.add("before"), new EventEntry<?>[] {a}, EventEntry.EMPTY_EVENT_ENTRY_ARRAY)));
+	}
+	
+	@Test
+	public void testBuilderHooks() {
+		SequentialEventBuilder<RunnableWithDelay> event = new SequentialEventBuilder<>();
+		EventEntry<RunnableWithDelay> b = event.addHook(entry("b"));
+		EventEntry<RunnableWithDelay> c = event.addHook(entry("c", b));
+		event.runImmediatelyThrowIfWait(RUN);
+		assertEquals(List.of("b", "c"), log);
+		
+		EventEntry<RunnableWithDelay> a = event.addHook(entry("a", EventEntry.EMPTY_EVENT_ENTRY_ARRAY));
+		EventPlan<RunnableWithDelay> plan = event.getPlan();
+		event.addHook(new EventEntry<>(() -> log.add("first"), new EventEntry<?>[] {b}, EventEntry.EMPTY_EVENT_ENTRY_ARRAY));
+		assertNotSame(plan, event.getPlan());
+		assertEquals(4, event.getHooks().size());
+		
+		assertTrue(event.removeHook(a));
+		assertFalse(event.removeHook(a));
+		log.clear();
+		event.runImmediatelyThrowIfWait(RUN);
+		assertEquals(List.of("first", "b", "c"), log);
+		assertTrue(event.getHooks().contains(c));
+	}
+}
@@ -0,0 +1,82 @@
+package space.engine.freeable;
+
+import org.junit.Test;
+import space.engine.barrier.Barrier;
+import space.engine.baseobject.exceptions.FreedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CleanerDependencyListTest {
+	
+	private static Cleaner cleaner(Object[] parents, AtomicInteger freeCounter) {
+		return new Cleaner(null, parents) {
+			@Override
+			protected Barrier handleFree() {
+				freeCounter.incrementAndGet();
+				return Barrier.done();
+			}
+		};
+	}
+	
+	@Test
+	public void testChildrenFreedBeforeParent() {
+		AtomicInteger childrenFreed = new AtomicInteger();
+		int[] childrenFreedBeforeParent = new int[1];
+		Cleaner parent = new Cleaner(null, new Object[0]) {
+			@Override
+			protected Barrier handleFree() {
+				childrenFreedBeforeParent[0] = childrenFreed.get();
+				return Barrier.done();
+			}
+		};
+		
+		List<Cleaner> children = new ArrayList<>();
+		for (int i = 0; i < 10; i++)
+			children.add(cleaner(new Object[] {parent}, childrenFreed));
+		children.get(3).free();
+		
+		parent.free().awaitUninterrupted();
+		assertEquals(10, childrenFreed.get());
+		assertEquals(10, childrenFreedBeforeParent[0]);
+		assertTrue(parent.getSubList().isFreed());
+	}
+	
+	@Test(expected = FreedException.class)
+	public void testInsertAfterFree() {
+		CleanerDependencyList list = new CleanerDependencyList();
+		list.free();
+		list.insert(Freeable.createDummy(new Object[0]));
+	}
+	
+	@Test(timeout = 10000L)
+	public void testConcurrentInsertAndRemove() throws InterruptedException {
+		Cleaner parent = Freeable.createDummy(new Object[0]);
+		AtomicInteger freed = new AtomicInteger();
+		int threadCount = 4;
+		int perThread = 5_000;
+		int keepEvery = 10;
+		
+		Thread[] threads = new Thread[threadCount];
+		for (int t = 0; t < threadCount; t++) {
+			threads[t] = new Thread(() -> {
+				for (int i = 0; i < perThread; i++) {
+					Cleaner child = cleaner(new Object[] {parent}, freed);
+					if (i % keepEvery != 0)
+						child.free();
+				}
+			});
+			threads[t].start();
+		}
+		for (Thread thread : threads)
+			thread.join();
+		
+		int freedBefore = freed.get();
+		assertEquals(threadCount * perThread / keepEvery * (keepEvery - 1), freedBefore);
+		parent.free().awaitUninterrupted();
+		assertEquals(threadCount * perThread, freed.get());
+	}
+}
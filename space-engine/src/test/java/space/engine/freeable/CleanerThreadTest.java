@@ -0,0 +1,63 @@
+package space.engine.freeable;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.Test;
+import space.engine.barrier.Barrier;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class CleanerThreadTest {
+	
+	private static class GroupedCleaner extends Cleaner implements CleanerThread.Grouped {
+		
+		private final Object group;
+		private final AtomicInteger freeCounter;
+		
+		public GroupedCleaner(Object referent, Object[] parents, Object group, AtomicInteger freeCounter) {
+			super(referent, parents);
+			this.group = group;
+			this.freeCounter = freeCounter;
+		}
+		
+		@Override
+		protected @NotNull Barrier handleFree() {
+			freeCounter.incrementAndGet();
+			return Barrier.DONE_BARRIER;
+		}
+		
+		@Override
+		public @NotNull Object cleanupGroup() {
+			return group;
+		}
+	}
+	
+	@Test(timeout = 30000L)
+	public void testGcFreesInBatches() throws InterruptedException {
+		Cleaner parent = Freeable.createDummy(new Object[0]);
+		AtomicInteger freed = new AtomicInteger();
+		Object[] groups = {new Object(), new Object(), new Object()};
+		int count = 3000;
+		long freedBefore = CleanerThread.metrics().freedCount;
+		
+		for (int i = 0; i < count; i++) {
+			if (i % 4 == 0)
+				Freeable.createDummy(new Object(), new Object[] {parent});
+			else
+				new GroupedCleaner(new Object(), new Object[] {parent}, groups[i % groups.length], freed);
+		}
+		
+		int expected = count - (count + 3) / 4;
+		while (freed.get() < expected) {
+			System.gc();
+			Thread.sleep(10);
+		}
+		assertEquals(expected, freed.get());
+		//metrics are updated after the whole batch is freed
+		while (CleanerThread.metrics().freedCount - freedBefore < expected)
+			Thread.sleep(10);
+		assertTrue(CleanerThread.metrics().batchCount > 0);
+		parent.free().awaitUninterrupted();
+	}
+}
@@ -0,0 +1,53 @@
+package space.engine.freeable;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class LeakDetectorTest {
+	
+	@Test(timeout = 30000L)
+	public void testExplicitNotFreedByGc() throws InterruptedException {
+		Cleaner parent = Freeable.createDummy(new Object[0]);
+		List<Cleaner> cleaners = new ArrayList<>();
+		for (int i = 0; i < 100; i++)
+			cleaners.add(Freeable.createDummy(new Object(), new Object[] {parent}, true));
+		
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		for (Cleaner cleaner : cleaners)
+			assertFalse(cleaner.isFreed());
+		
+		//still freed by parent
+		parent.free().awaitUninterrupted();
+		for (Cleaner cleaner : cleaners)
+			assertTrue(cleaner.isFreed());
+	}
+	
+	@Test(timeout = 30000L)
+	public void testLeakDetected() throws InterruptedException {
+		int sampleRate = LeakDetector.getSampleRate();
+		LeakDetector.setSampleRate(1);
+		try {
+			long leaksBefore = LeakDetector.leakCount();
+			Cleaner parent = Freeable.createDummy(new Object[0]);
+			Cleaner leaked = Freeable.createDummy(new Object(), new Object[] {parent}, true);
+			Cleaner freed = Freeable.createDummy(new Object(), new Object[] {parent}, true);
+			freed.free();
+			
+			while (!leaked.isFreed()) {
+				System.gc();
+				Thread.sleep(10);
+			}
+			assertEquals(leaksBefore + 1, LeakDetector.leakCount());
+			parent.free().awaitUninterrupted();
+		} finally {
+			LeakDetector.setSampleRate(sampleRate);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package space.engine.indexmap;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentIndexMapTest {
+	
+	@Test
+	public void testGrow() {
+		ConcurrentIndexMap<Integer> map = new ConcurrentIndexMap<>(20);
+		assertEquals(32, map.size());
+		for (int i = 0; i < 1000; i += 7)
+			assertNull(map.put(i, i));
+		assertTrue(map.size() > 1000);
+		for (int i = 0; i < 1000; i++)
+			assertEquals(i % 7 == 0 ? (Integer) i : null, map.get(i));
+		assertNull(map.get(100000));
+		assertEquals((Integer) 994, map.remove(994));
+		assertNull(map.get(994));
+	}
+	
+	@Test
+	public void testNegativeIndex() {
+		ConcurrentIndexMap<Integer> map = new ConcurrentIndexMap<>();
+		try {
+			map.get(-1);
+			fail();
+		} catch (IndexOutOfBoundsException ignored) {
+			
+		}
+	}
+	
+	@Test
+	public void testDefaultObject() {
+		ConcurrentIndexMap<String> map = new ConcurrentIndexMap<>("default", 4);
+		assertEquals("default", map.get(2));
+		assertEquals("default", map.get(100));
+		assertEquals("other", map.getOrDefault(100, "other"));
+		
+		assertEquals("a", map.putIfAbsent(50, "a"));
+		assertEquals("a", map.putIfAbsent(50, "b"));
+		assertEquals("a", map.computeIfAbsent(50, () -> "c"));
+		assertEquals("c", map.putIfPresent(50, "c"));
+		assertEquals("default", map.putIfPresent(51, "d"));
+		assertEquals("default", map.get(51));
+		assertEquals("default", map.get(4));
+		
+		assertTrue(map.remove(50, "c"));
+		assertEquals("default", map.get(50));
+	}
+	
+	@Test
+	public void testCompute() {
+		ConcurrentIndexMap<Integer> map = new ConcurrentIndexMap<>();
+		assertEquals((Integer) 1, map.compute(40, (index, value) -> value == null ? 1 : value + 1));
+		assertEquals((Integer) 2, map.compute(40, (index, value) -> value == null ? 1 : value + 1));
+		assertTrue(map.replace(40, 2, 5));
+		assertFalse(map.replace(40, 2, 6));
+		assertEquals((Integer) 7, map.computeIfPresent(40, () -> 7));
+		assertNull(map.computeIfPresent(41, () -> 8));
+	}
+	
+	@Test
+	public void testForEachAndPutAll() {
+		IndexMapArray<String> source = new IndexMapArray<>();
+		source.put(1, "a");
+		source.put(70, "b");
+		ConcurrentIndexMap<String> map = new ConcurrentIndexMap<>();
+		map.putAll(source);
+		
+		List<String> visited = new ArrayList<>();
+		map.forEach((index, value) -> visited.add(index + "=" + value));
+		assertEquals(List.of("1=a", "70=b"), visited);
+		assertEquals(2, map.values().size());
+	}
+	
+	@Test
+	public void testConcurrentGrow() throws InterruptedException {
+		ConcurrentIndexMap<Integer> map = new ConcurrentIndexMap<>(2);
+		Thread[] threads = new Thread[4];
+		for (int t = 0; t < threads.length; t++) {
+			int offset = t;
+			threads[t] = new Thread(() -> {
+				for (int i = offset; i < 4000; i += threads.length)
+					map.put(i, i);
+			});
+		}
+		for (Thread thread : threads)
+			thread.start();
+		for (Thread thread : threads)
+			thread.join();
+		for (int i = 0; i < 4000; i++)
+			assertEquals((Integer) i, map.get(i));
+	}
+}
@@ -1,8 +1,20 @@
 package space.engine.observable;
 
+import org.jetbrains.annotations.NotNull;
 import org.junit.Test;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+import space.engine.barrier.DelayTask;
 
-import static org.junit.Assert.assertEquals;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+import static space.engine.barrier.Barrier.when;
 
 public class GeneratingObservableReferenceTest {
 	
@@ -43,6 +55,183 @@ public class GeneratingObservableReferenceTest {
 		}
 	}
 	
+	@Test
+	public void testDiamondGlitchFree() {
+		MutableObservableReference<Integer> a = new MutableObservableReference<>(1);
+		ObservableReference<Integer> b = GeneratingObservableReference.create(a, (i, previous) -> i * 2);
+		ObservableReference<Integer> c = GeneratingObservableReference.create(a, (i, previous) -> i * 3);
+		List<Integer> computed = new ArrayList<>();
+		ObservableReference<Integer> d = GeneratingObservableReference.create(b, c, (i1, i2, previous) -> {
+			computed.add(i1 + i2);
+			return i1 + i2;
+		});
+		assertEquals((Integer) 5, d.future().awaitGetUninterrupted());
+		computed.clear();
+		
+		a.set(2).awaitUninterrupted();
+		flush(d);
+		assertEquals((Integer) 10, d.assertGet());
+		assertEquals(List.of(10), computed);
+	}
+	
+	@Test(timeout = 5000L)
+	public void testDiamondGlitchFreeAsync() throws InterruptedException {
+		BarrierImpl finishB = new BarrierImpl();
+		BarrierImpl finishC = new BarrierImpl();
+		MutableObservableReference<Integer> a = new MutableObservableReference<>(1);
+		ObservableReference<Integer> b = GeneratingObservableReference.create(a, (i, previous) -> {
+			if (i == 1)
+				return i * 2;
+			throw new DelayTask(finishB.toFuture(() -> i * 2));
+		});
+		ObservableReference<Integer> c = GeneratingObservableReference.create(a, (i, previous) -> {
+			if (i == 1)
+				return i * 3;
+			throw new DelayTask(finishC.toFuture(() -> i * 3));
+		});
+		List<Integer> computed = Collections.synchronizedList(new ArrayList<>());
+		ObservableReference<Integer> d = GeneratingObservableReference.create(b, c, (i1, i2, previous) -> {
+			computed.add(i1 + i2);
+			return i1 + i2;
+		});
+		assertEquals((Integer) 5, d.future().awaitGetUninterrupted());
+		computed.clear();
+		
+		//b and c finish on another Thread, d is still recomputed once by the drain of this Thread
+		a.set(2).awaitUninterrupted();
+		Barrier settled = Propagation.settled();
+		Thread thread = new Thread(() -> {
+			finishB.triggerNow();
+			finishC.triggerNow();
+		});
+		thread.start();
+		thread.join();
+		settled.awaitUninterrupted();
+		flush(d);
+		assertEquals((Integer) 10, d.assertGet());
+		assertEquals(List.of(10), computed);
+	}
+	
+	@Test
+	public void testBatchCoalesces() {
+		MutableObservableReference<Integer> a = new MutableObservableReference<>(1);
+		MutableObservableReference<Integer> b = new MutableObservableReference<>(2);
+		AtomicInteger computeCount = new AtomicInteger();
+		ObservableReference<Integer> res = GeneratingObservableReference.create(a, b, (i1, i2, previous) -> {
+			computeCount.incrementAndGet();
+			return i1 + i2;
+		});
+		assertEquals((Integer) 3, res.future().awaitGetUninterrupted());
+		
+		Propagation.batch(() -> when(a.set(5), b.set(6), a.set(7))).awaitUninterrupted();
+		flush(res);
+		assertEquals((Integer) 13, res.assertGet());
+		assertEquals(2, computeCount.get());
+		assertSame(Barrier.DONE_BARRIER, Propagation.settled());
+	}
+	
+	@Test(timeout = 1000L)
+	public void testBatchOnlyHoldsBackOwnThread() throws InterruptedException {
+		MutableObservableReference<Integer> a = new MutableObservableReference<>(1);
+		ObservableReference<Integer> res = GeneratingObservableReference.create(a, (i, previous) -> i + 1);
+		assertEquals((Integer) 2, res.future().awaitGetUninterrupted());
+		
+		Propagation.beginBatch();
+		try {
+			Thread thread = new Thread(() -> {
+				a.set(5).awaitUninterrupted();
+				flush(res);
+			});
+			thread.start();
+			thread.join();
+			assertEquals((Integer) 6, res.assertGet());
+		} finally {
+			Propagation.endBatch();
+		}
+	}
+	
+	@Test
+	public void testDrainFailureContinues() {
+		AtomicInteger recomputes = new AtomicInteger();
+		Propagation.Node failing = new Propagation.Node(1) {
+			@Override
+			protected @NotNull Barrier recompute() {
+				throw new IllegalStateException("expected");
+			}
+		};
+		Propagation.Node remaining = new Propagation.Node(1) {
+			@Override
+			protected @NotNull Barrier recompute() {
+				recomputes.incrementAndGet();
+				return Barrier.DONE_BARRIER;
+			}
+		};
+		Propagation.Node higherRank = new Propagation.Node(2) {
+			@Override
+			protected @NotNull Barrier recompute() {
+				recomputes.incrementAndGet();
+				return Barrier.DONE_BARRIER;
+			}
+		};
+		
+		Propagation.beginBatch();
+		Propagation.markDirty(failing);
+		Propagation.markDirty(remaining);
+		Propagation.markDirty(higherRank);
+		Barrier settled = Propagation.settled();
+		try {
+			Propagation.endBatch();
+			fail();
+		} catch (IllegalStateException ignored) {
+		
+		}
+		//the failure is thrown after the whole drain
+		assertTrue(settled.isDone());
+		assertEquals(2, recomputes.get());
+		assertSame(Barrier.DONE_BARRIER, Propagation.settled());
+		
+		//no Node is left dirty
+		Propagation.markDirty(remaining);
+		assertEquals(3, recomputes.get());
+	}
+	
+	@Test(timeout = 5000L)
+	public void testAsyncDrainFailureIsUncaught() throws InterruptedException {
+		BarrierImpl pending = new BarrierImpl();
+		Propagation.Node async = new Propagation.Node(1) {
+			@Override
+			protected @NotNull Barrier recompute() {
+				return pending;
+			}
+		};
+		Propagation.Node failing = new Propagation.Node(2) {
+			@Override
+			protected @NotNull Barrier recompute() {
+				throw new IllegalStateException("expected");
+			}
+		};
+		
+		Propagation.beginBatch();
+		Propagation.markDirty(async);
+		Propagation.markDirty(failing);
+		Barrier settled = Propagation.settled();
+		Propagation.endBatch();
+		assertFalse(settled.isDone());
+		
+		//the drain continues in a hook of pending, which must not throw
+		AtomicBoolean laterHook = new AtomicBoolean();
+		pending.addHook(() -> laterHook.set(true));
+		AtomicReference<Throwable> uncaught = new AtomicReference<>();
+		Thread thread = new Thread(pending::triggerNow);
+		thread.setUncaughtExceptionHandler((th, e) -> uncaught.set(e));
+		thread.start();
+		thread.join();
+		
+		assertTrue(uncaught.get() instanceof IllegalStateException);
+		assertTrue(laterHook.get());
+		assertTrue(settled.isDone());
+	}
+	
 	@SuppressWarnings("deprecation")
 	private void flush(ObservableReference<Integer> res) {
 		res.getLatestBarrier().awaitUninterrupted();
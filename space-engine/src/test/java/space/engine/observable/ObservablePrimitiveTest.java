@@ -0,0 +1,119 @@
+package space.engine.observable;
+
+import org.junit.Test;
+import space.engine.event.EventEntry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ObservablePrimitiveTest {
+	
+	@Test
+	public void testSetAndHooks() {
+		MutableObservableFloat reference = new MutableObservableFloat(1f);
+		List<Float> callbacks = new ArrayList<>();
+		reference.addHook(callbacks::add);
+		assertEquals(List.of(1f), callbacks);
+		
+		reference.set(2f);
+		assertEquals(2f, reference.get(), 0);
+		reference.set(2f);
+		assertEquals(5f, reference.set(previous -> previous + 3), 0);
+		assertEquals(List.of(1f, 2f, 5f), callbacks);
+	}
+	
+	@Test
+	public void testNaNIsNoChange() {
+		MutableObservableDouble reference = new MutableObservableDouble(Double.NaN);
+		int[] callCount = new int[1];
+		reference.addHookNoInitialCallback(value -> callCount[0]++);
+		reference.set(Double.NaN);
+		assertEquals(0, callCount[0]);
+		reference.set(1);
+		assertEquals(1, callCount[0]);
+	}
+	
+	@Test
+	public void testRemoveHook() {
+		MutableObservableBoolean reference = new MutableObservableBoolean();
+		boolean[] last = new boolean[1];
+		EventEntry<ObservableBoolean.Hook> entry = reference.addHook(value -> last[0] = value);
+		reference.set(true);
+		assertTrue(last[0]);
+		assertTrue(reference.removeHook(entry));
+		reference.set(false);
+		assertTrue(last[0]);
+	}
+	
+	@Test
+	public void testGenerateGlitchFree() {
+		MutableObservableInt a = new MutableObservableInt(1);
+		ObservableInt b = ObservableInt.generate(a, (i, previous) -> i * 2);
+		ObservableInt c = ObservableInt.generate(a, (i, previous) -> i * 3);
+		List<Integer> computed = new ArrayList<>();
+		ObservableInt d = ObservableInt.generate(b, c, (i1, i2, previous) -> {
+			computed.add(i1 + i2);
+			return i1 + i2;
+		});
+		assertEquals(5, d.get());
+		computed.clear();
+		
+		a.set(2);
+		assertEquals(10, d.get());
+		assertEquals(List.of(10), computed);
+	}
+	
+	@Test
+	public void testBatchCoalesces() {
+		MutableObservableLong a = new MutableObservableLong(1);
+		MutableObservableLong b = new MutableObservableLong(2);
+		int[] computeCount = new int[1];
+		ObservableLong sum = ObservableLong.generate(a, b, (i1, i2, previous) -> {
+			computeCount[0]++;
+			return i1 + i2;
+		});
+		assertEquals(3, sum.get());
+		
+		Propagation.beginBatch();
+		try {
+			a.set(5);
+			b.set(6);
+			a.set(7);
+			assertEquals(3, sum.get());
+		} finally {
+			Propagation.endBatch();
+		}
+		assertEquals(13, sum.get());
+		assertEquals(2, computeCount[0]);
+	}
+	
+	@Test
+	public void testHooksOutsideMonitor() {
+		MutableObservableInt reference = new MutableObservableInt(1);
+		List<Integer> callbacks = new ArrayList<>();
+		reference.addHook(value -> {
+			assertFalse(Thread.holdsLock(reference));
+			callbacks.add(value);
+			//changing the value from a hook is delivered after the current callback, not recursively
+			if (value > 10)
+				reference.set(10);
+		});
+		reference.set(20);
+		assertEquals(10, reference.get());
+		assertEquals(List.of(1, 20, 10), callbacks);
+	}
+	
+	@Test
+	public void testGenerateFromReference() {
+		MutableObservableReference<String> string = new MutableObservableReference<>("ab");
+		ObservableReference<String> doubled = GeneratingObservableReference.create(string, (s, previous) -> s + s);
+		ObservableInt length = ObservableInt.generate(doubled, (s, previous) -> s.length());
+		assertEquals(4, length.get());
+		assertTrue(length.rank() > doubled.rank());
+		
+		string.set("abc").awaitUninterrupted();
+		assertEquals(6, length.get());
+	}
+}
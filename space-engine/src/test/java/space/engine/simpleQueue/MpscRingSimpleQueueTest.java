@@ -0,0 +1,93 @@
+package space.engine.simpleQueue;
+
+import org.junit.Test;
+import space.engine.simpleQueue.MpscRingSimpleQueue.BackPressure;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class MpscRingSimpleQueueTest {
+	
+	@Test
+	public void testReject() {
+		MpscRingSimpleQueue<Integer> queue = new MpscRingSimpleQueue<>(4, BackPressure.REJECT);
+		assertEquals(4, queue.capacity());
+		assertEquals(3, queue.addArray(new Integer[] {0, 1, 2}));
+		assertEquals(1, queue.addArray(new Integer[] {3, 4, 5}));
+		assertFalse(queue.add(6));
+		
+		assertEquals((Integer) 0, queue.remove());
+		assertTrue(queue.add(7));
+		assertEquals(4, queue.size());
+	}
+	
+	@Test
+	public void testNullElementClaimsNothing() {
+		MpscRingSimpleQueue<Integer> queue = new MpscRingSimpleQueue<>(4, BackPressure.REJECT);
+		try {
+			queue.addArray(new Integer[] {0, null});
+			fail();
+		} catch (NullPointerException ignored) {
+		
+		}
+		try {
+			queue.addCollection(Arrays.asList(1, null));
+			fail();
+		} catch (NullPointerException ignored) {
+		
+		}
+		assertEquals(0, queue.size());
+		
+		assertTrue(queue.add(2));
+		assertEquals((Integer) 2, queue.remove());
+	}
+	
+	@Test(timeout = 5000L)
+	public void testMultipleProducers() throws InterruptedException {
+		for (BackPressure backPressure : new BackPressure[] {BackPressure.SPIN, BackPressure.PARK}) {
+			MpscRingSimpleQueue<Integer> queue = new MpscRingSimpleQueue<>(16, backPressure);
+			int producers = 4;
+			int perProducer = 10_000;
+			
+			Thread[] threads = IntStream.range(0, producers).mapToObj(p -> new Thread(() -> {
+				for (int i = 0; i < perProducer; i += 5) {
+					int base = p * perProducer + i;
+					if (i % 2 == 0)
+						queue.addArray(new Integer[] {base, base + 1, base + 2, base + 3, base + 4});
+					else
+						for (int j = 0; j < 5; j++)
+							queue.add(base + j);
+				}
+			})).toArray(Thread[]::new);
+			for (Thread thread : threads)
+				thread.start();
+			
+			boolean[] seen = new boolean[producers * perProducer];
+			int[] lastOfProducer = new int[producers];
+			Arrays.fill(lastOfProducer, -1);
+			AtomicBoolean ordered = new AtomicBoolean(true);
+			for (int received = 0; received < seen.length; ) {
+				Integer e = queue.remove();
+				if (e == null) {
+					Thread.yield();
+					continue;
+				}
+				assertFalse(seen[e]);
+				seen[e] = true;
+				int producer = e / perProducer;
+				if (e <= lastOfProducer[producer])
+					ordered.set(false);
+				lastOfProducer[producer] = e;
+				received++;
+			}
+			for (Thread thread : threads)
+				thread.join();
+			
+			assertTrue("elements of a single producer must stay in order", ordered.get());
+			assertNull(queue.remove());
+		}
+	}
+}
@@ -19,7 +19,7 @@ public class SimpleQueueTest {
 	
 	@Parameters
 	public static Collection<Supplier<? extends SimpleQueue<Integer>>> parameters() {
-		return List.of(() -> new ArraySimpleQueue<>(16), LinkedSimpleQueue::new, ConcurrentLinkedSimpleQueue::new, () -> new HighlyConcurrentSimpleQueue<>(2));
+		return List.of(() -> new ArraySimpleQueue<>(16), LinkedSimpleQueue::new, ConcurrentLinkedSimpleQueue::new, () -> new HighlyConcurrentSimpleQueue<>(2), () -> new WorkStealingSimpleQueue<>(2), () -> new MpscRingSimpleQueue<>(4));
 	}
 	
 	private final SimpleQueue<Integer> queue;
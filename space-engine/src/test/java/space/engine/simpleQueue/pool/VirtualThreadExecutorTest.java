@@ -0,0 +1,109 @@
+package space.engine.simpleQueue.pool;
+
+import org.junit.Test;
+import space.engine.barrier.Barrier;
+import space.engine.barrier.BarrierImpl;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+public class VirtualThreadExecutorTest {
+	
+	@Test(timeout = 1000L)
+	public void testBlockingTasks() {
+		assumeTrue("virtual Threads not supported", VirtualThreadExecutor.isSupported());
+		
+		VirtualThreadExecutor pool = new VirtualThreadExecutor();
+		AtomicInteger counter = new AtomicInteger();
+		BarrierImpl barrier = new BarrierImpl();
+		
+		//far more blocking tasks than cores, would deadlock a SimpleThreadPool
+		for (int i = 0; i < 1000; i++) {
+			pool.execute(() -> {
+				barrier.awaitUninterrupted();
+				counter.incrementAndGet();
+			});
+		}
+		barrier.triggerNow();
+		
+		pool.stop().awaitUninterrupted();
+		assertEquals(1000, counter.get());
+	}
+	
+	@Test
+	public void testRejectedExecution() {
+		assumeTrue("virtual Threads not supported", VirtualThreadExecutor.isSupported());
+		
+		VirtualThreadExecutor pool = new VirtualThreadExecutor();
+		pool.stop();
+		try {
+			pool.execute(() -> {
+			});
+			fail();
+		} catch (RejectedExecutionException ignored) {
+		
+		}
+	}
+	
+	@Test(timeout = 2000L)
+	public void testStopRace() throws InterruptedException {
+		assumeTrue("virtual Threads not supported", VirtualThreadExecutor.isSupported());
+		
+		for (int round = 0; round < 100; round++) {
+			VirtualThreadExecutor pool = new VirtualThreadExecutor();
+			AtomicInteger accepted = new AtomicInteger();
+			AtomicInteger ran = new AtomicInteger();
+			Thread submitter = new Thread(() -> {
+				try {
+					while (true) {
+						pool.execute(ran::incrementAndGet);
+						accepted.incrementAndGet();
+					}
+				} catch (RejectedExecutionException ignored) {
+				
+				}
+			});
+			submitter.start();
+			
+			Barrier stopped = pool.stop();
+			stopped.awaitUninterrupted();
+			//every accepted Task has finished when the stop Barrier triggers
+			int ranAtStop = ran.get();
+			submitter.join();
+			assertEquals(accepted.get(), ranAtStop);
+			assertEquals(ranAtStop, ran.get());
+		}
+	}
+	
+	@Test(timeout = 1000L)
+	public void testTaskCleanup() {
+		assumeTrue("virtual Threads not supported", VirtualThreadExecutor.isSupported());
+		
+		AtomicInteger cleanups = new AtomicInteger();
+		VirtualThreadExecutor pool = new VirtualThreadExecutor("space-virtual-", () -> {
+			assertTrue(VirtualThreadExecutor.isVirtual(Thread.currentThread()));
+			cleanups.incrementAndGet();
+		});
+		for (int i = 0; i < 100; i++)
+			pool.execute(() -> {
+			});
+		pool.stop().awaitUninterrupted();
+		assertEquals(100, cleanups.get());
+	}
+	
+	@Test
+	public void testUnsupported() {
+		assumeFalse("virtual Threads supported", VirtualThreadExecutor.isSupported());
+		
+		assertFalse(VirtualThreadExecutor.isVirtual(Thread.currentThread()));
+		try {
+			new VirtualThreadExecutor();
+			fail();
+		} catch (UnsupportedOperationException ignored) {
+		
+		}
+	}
+}
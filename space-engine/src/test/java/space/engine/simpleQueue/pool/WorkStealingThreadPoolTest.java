@@ -0,0 +1,54 @@
+package space.engine.simpleQueue.pool;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+public class WorkStealingThreadPoolTest {
+	
+	@Test(timeout = 250L)
+	public void testLifecycle() {
+		WorkStealingThreadPool pool = new WorkStealingThreadPool(4);
+		AtomicInteger counter = new AtomicInteger();
+		pool.executeAll(IntStream.range(0, 32).mapToObj(i -> counter::incrementAndGet));
+		pool.stop().awaitUninterrupted();
+		assertEquals(32, counter.get());
+	}
+	
+	@Test(timeout = 1000L)
+	public void testSubmitFromPoolThread() throws InterruptedException {
+		WorkStealingThreadPool pool = new WorkStealingThreadPool(4);
+		AtomicInteger counter = new AtomicInteger();
+		CountDownLatch latch = new CountDownLatch(64 * 64);
+		
+		//tasks submitted from within the pool go to the local deque and have to be stolen by the other threads
+		for (int i = 0; i < 64; i++) {
+			pool.execute(() -> {
+				for (int j = 0; j < 64; j++) {
+					pool.execute(() -> {
+						counter.incrementAndGet();
+						latch.countDown();
+					});
+				}
+			});
+		}
+		
+		latch.await();
+		pool.stop().awaitUninterrupted();
+		assertEquals(64 * 64, counter.get());
+	}
+	
+	@Test(expected = RejectedExecutionException.class)
+	public void testRejectedExecution() {
+		WorkStealingThreadPool pool = new WorkStealingThreadPool(1);
+		pool.stop();
+		pool.execute(() -> {
+			throw new RuntimeException("Should not be executed!");
+		});
+	}
+}
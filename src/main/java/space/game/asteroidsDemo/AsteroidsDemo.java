@@ -1,6 +1,5 @@
 package space.game.asteroidsDemo;
 
-import org.jetbrains.annotations.NotNull;
 import org.lwjgl.vulkan.EXTDebugUtils;
 import org.lwjgl.vulkan.VkExtent2D;
 import org.lwjgl.vulkan.VkOffset2D;
@@ -21,7 +20,7 @@ import space.engine.key.attribute.AttributeListModify;
 import space.engine.logger.BaseLogger;
 import space.engine.logger.LogLevel;
 import space.engine.logger.Logger;
-import space.engine.observable.MutableObservableReference;
+import space.engine.observable.MutableObservableFloat;
 import space.engine.vector.AxisAngle;
 import space.engine.vector.Matrix4;
 import space.engine.vector.ProjectionMatrix;
@@ -75,7 +74,6 @@ import static org.lwjgl.vulkan.KHRSwapchain.VK_KHR_SWAPCHAIN_EXTENSION_NAME;
 import static org.lwjgl.vulkan.VK10.*;
 import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
 import static space.engine.barrier.Barrier.*;
-import static space.engine.buffer.Allocator.heap;
 import static space.engine.lwjgl.LwjglStructAllocator.mallocStruct;
 import static space.engine.primitive.Primitives.FP32;
 import static space.engine.vector.AxisAngle.toRadians;
@@ -322,7 +320,7 @@ public class AsteroidsDemo implements RunnableWithDelay {
 			
 			float speedMouse = 0.008f;
 			float speedMovement = 0.05f;
-			MutableObservableReference<@NotNull Float> speedMovementMultiplier = new MutableObservableReference<>(1f);
+			MutableObservableFloat speedMovementMultiplier = new MutableObservableFloat(1f);
 			mouses.forEach(mouse -> {
 				mouse.getMouseMovementEvent().addHook((absolute, relative) -> {
 					Objects.requireNonNull(relative);
@@ -363,7 +361,7 @@ public class AsteroidsDemo implements RunnableWithDelay {
 						if (keyboard.isKeyDown(KEY_E))
 							rotation = rotation.multiply(new AxisAngle(0, 0, -1, toRadians(3)));
 						camera.rotateRelative(rotation);
-						float multi = speedMovementMultiplier.assertGet();
+						float multi = speedMovementMultiplier.get();
 						camera.translateRelative(translation.multiply(multi * multi));
 					});
 					
@@ -389,11 +387,9 @@ public class AsteroidsDemo implements RunnableWithDelay {
 		List<Future<VmaBuffer>> modelBuffers = Arrays
 				.stream(models)
 				.map(data -> {
-					try (AllocatorFrame frame = Allocator.frame()) {
-						VmaBuffer vmaBuffer = VmaBuffer.alloc(0, data.length * FP32.bytes, VK_BUFFER_USAGE_VERTEX_BUFFER_BIT | VK_BUFFER_USAGE_TRANSFER_DST_BIT, 0, VMA_MEMORY_USAGE_GPU_ONLY, device, parents);
-						ArrayBufferFloat dataBuffer = ArrayBufferFloat.alloc(heap(), data, new Object[] {frame});
-						return vmaBuffer.uploadData(dataBuffer).toFuture(() -> vmaBuffer);
-					}
+					VmaBuffer vmaBuffer = VmaBuffer.alloc(0, data.length * FP32.bytes, VK_BUFFER_USAGE_VERTEX_BUFFER_BIT | VK_BUFFER_USAGE_TRANSFER_DST_BIT, 0, VMA_MEMORY_USAGE_GPU_ONLY, device, parents);
+					//write the floats straight into the staging buffer
+					return vmaBuffer.uploadData(staging -> ArrayBufferFloat.wrap(staging.address(), data.length, new Object[] {staging}).copyFrom(data)).toFuture(() -> vmaBuffer);
 				})
 				.collect(Collectors.toUnmodifiableList());
 		
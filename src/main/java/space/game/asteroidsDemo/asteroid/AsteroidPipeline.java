@@ -76,7 +76,7 @@ public class AsteroidPipeline implements CleanerWrapper {
 										0,
 										VK_SHADER_STAGE_VERTEX_BIT,
 										shaderModuleVert.address(),
-										StringConverter.stringToUTF8(frame, "main", true).nioBuffer(),
+										StringConverter.internUTF8("main").nioBuffer(),
 										null
 								),
 								vkPipelineShaderStageCreateInfo -> vkPipelineShaderStageCreateInfo.set(
@@ -85,7 +85,7 @@ public class AsteroidPipeline implements CleanerWrapper {
 										0,
 										VK_SHADER_STAGE_FRAGMENT_BIT,
 										shaderModuleFrag.address(),
-										StringConverter.stringToUTF8(frame, "main", true).nioBuffer(),
+										StringConverter.internUTF8("main").nioBuffer(),
 										null
 								)
 					),
@@ -1,9 +1,8 @@
 package space.game.asteroidsDemo.asteroid;
 
 import org.jetbrains.annotations.NotNull;
+import space.engine.Side;
 import space.engine.barrier.future.Future;
-import space.engine.buffer.Allocator;
-import space.engine.buffer.AllocatorStack.AllocatorFrame;
 import space.engine.buffer.array.ArrayBufferFloat;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
@@ -31,7 +30,6 @@ import static org.lwjgl.util.vma.Vma.VMA_MEMORY_USAGE_CPU_TO_GPU;
 import static org.lwjgl.vulkan.VK10.*;
 import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
 import static space.engine.barrier.Barrier.*;
-import static space.engine.buffer.Allocator.heap;
 import static space.engine.freeable.Freeable.addIfNotContained;
 import static space.engine.primitive.Primitives.FP32;
 
@@ -74,7 +72,7 @@ public class AsteroidRenderer implements CleanerWrapper, Callback<AsteroidDemoIn
 	
 	@Override
 	public @NotNull Future<IndexMap<VkCommandBuffer[]>> getCmdBuffers(@NotNull ManagedFrameBuffer<AsteroidDemoInfos> render, AsteroidDemoInfos infos) {
-		List<? extends Future<ArrayList<VkCommandBuffer>>> futures = asteroids.entrySet().stream().filter(entry -> entry.getValue() != null).map(entry -> nowFuture(() -> {
+		List<? extends Future<ArrayList<VkCommandBuffer>>> futures = asteroids.entrySet().stream().filter(entry -> entry.getValue() != null).map(entry -> nowFuture(Side.poolThreadBound(), () -> {
 			int indexAsteroid = entry.getIndex();
 			AsteroidModel model = asteroidModels[indexAsteroid];
 			
@@ -115,9 +113,7 @@ public class AsteroidRenderer implements CleanerWrapper, Callback<AsteroidDemoIn
 							}
 							
 							VmaMappedBuffer instanceBuffer = VmaMappedBuffer.alloc(0, instanceData.length * FP32.bytes, VK_BUFFER_USAGE_VERTEX_BUFFER_BIT, 0, VMA_MEMORY_USAGE_CPU_TO_GPU, renderPass.device(), new Object[] {infos});
-							try (AllocatorFrame frame = Allocator.frame()) {
-								instanceBuffer.uploadData(ArrayBufferFloat.alloc(heap(), instanceData, new Object[] {frame}));
-							}
+							instanceBuffer.uploadData(ArrayBufferFloat.alloc(infos.arena, instanceData, EMPTY_OBJECT_ARRAY));
 							
 							asteroidPipeline.bindPipeline(cmd, descriptorSetPool.sets()[asteroidModelsOffset[indexAsteroid] + indexModel], infos);
 							VkBuffer vertexBuffer = model.models[indexModel];
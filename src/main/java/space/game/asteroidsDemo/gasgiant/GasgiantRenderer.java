@@ -1,6 +1,7 @@
 package space.game.asteroidsDemo.gasgiant;
 
 import org.jetbrains.annotations.NotNull;
+import space.engine.Side;
 import space.engine.barrier.future.Future;
 import space.engine.freeable.Freeable;
 import space.engine.freeable.Freeable.CleanerWrapper;
@@ -41,7 +42,7 @@ public class GasgiantRenderer implements CleanerWrapper, Callback<AsteroidDemoIn
 	
 	@Override
 	public @NotNull Future<IndexMap<VkCommandBuffer[]>> getCmdBuffers(@NotNull ManagedFrameBuffer<AsteroidDemoInfos> render, AsteroidDemoInfos infos) {
-		return nowFuture(() -> IndexMap.of(
+		return nowFuture(Side.poolThreadBound(), () -> IndexMap.of(
 				renderPass.subpassRender.id(),
 				new VkCommandBuffer[] {
 						render.queue().poolShortLived().allocAndRecordCommandBuffer(
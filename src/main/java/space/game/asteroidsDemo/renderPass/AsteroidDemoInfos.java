@@ -1,7 +1,5 @@
 package space.game.asteroidsDemo.renderPass;
 
-import space.engine.buffer.Allocator;
-import space.engine.buffer.AllocatorStack.AllocatorFrame;
 import space.engine.buffer.array.ArrayBufferFloat;
 import space.engine.vector.Matrix4;
 import space.engine.vector.Translation;
@@ -11,6 +9,8 @@ import space.engine.vulkan.vma.VmaMappedBuffer;
 import space.game.asteroidsDemo.entity.Camera;
 import space.game.asteroidsDemo.gasgiant.Gasgiant;
 
+import static space.engine.Empties.EMPTY_OBJECT_ARRAY;
+
 public class AsteroidDemoInfos extends Infos {
 	
 	public static final long UNIFORM_GLOBAL_SIZEOF = (16 + 16 + 16 + 4) * 4;
@@ -41,9 +41,6 @@ public class AsteroidDemoInfos extends Infos {
 		gasgiantTranslation.write4Aligned(uniformGlobalArray, 16 + 16);
 		lightDir.write4Aligned(uniformGlobalArray, 16 + 16 + 16);
 		
-		try (AllocatorFrame frame = Allocator.frame()) {
-			ArrayBufferFloat uniformGlobalBuffer = ArrayBufferFloat.alloc(frame, uniformGlobalArray);
-			uniformGlobal.uploadData(uniformGlobalBuffer);
-		}
+		uniformGlobal.uploadData(ArrayBufferFloat.alloc(arena, uniformGlobalArray, EMPTY_OBJECT_ARRAY));
 	}
 }